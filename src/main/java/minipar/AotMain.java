@@ -0,0 +1,32 @@
+package minipar;
+
+import minipar.aot.AotCompiler;
+import minipar.cache.ProgramCache;
+import minipar.parser.Node;
+
+import java.nio.file.Path;
+
+// Compila um programa .mpr para um JAR executável: java -jar programa.jar roda o programa sem analisá-lo
+// nem interpretá-lo de novo. Uso: AotMain <programa.mpr> [saida.jar]
+public class AotMain {
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Uso: AotMain <programa.mpr> [saida.jar]");
+            return;
+        }
+        try {
+            Path fonte = Path.of(args[0]);
+            String nome = fonte.getFileName().toString().replaceFirst("\\.mpr$", "");
+            Path jar = args.length > 1 ? Path.of(args[1]) : fonte.resolveSibling(nome + ".jar");
+
+            // Mesmas etapas 1 a 3 do Main; o JAR leva o programa já compilado
+            Node program = ProgramCache.defaultCache().load(fonte);
+            new AotCompiler().writeJar(program, jar);
+            System.out.println("JAR gerado: " + jar);
+
+        } catch (Exception e) {
+            System.err.println("Erro: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
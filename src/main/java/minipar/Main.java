@@ -1,15 +1,10 @@
 package minipar;
 
-import minipar.lexer.Lexer;
-import minipar.lexer.Token;
-import minipar.parser.ASTNode;
-import minipar.parser.Parser;
-import minipar.semantic.SemanticAnalyzer;
-import minipar.interpreter.Interpreter;
+import minipar.cache.ProgramCache;
+import minipar.parser.Node;
+import minipar.interpreter.Engine;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
@@ -17,29 +12,18 @@ public class Main {
             // Caminho do arquivo de teste
             String caminho = "programs/test5.mpr";
 
-            // Leitura do código
-            String codigo = Files.readString(Path.of(caminho));
-
-            // Etapa 1 - Análise léxica
-            Lexer lexer = new Lexer(codigo);
-            List<Token> tokens = lexer.tokenize();
-
-            // Etapa 2 - Análise sintática
-            Parser parser = new Parser(tokens);
-            ASTNode ast = parser.parseProgram();
+            // Etapas 1 a 3 - Análise léxica, sintática e semântica; se o fonte não mudou desde a última
+            // execução, o programa já analisado é lido do cache .mprc
+            Node program = ProgramCache.defaultCache().load(Path.of(caminho));
 
             // Opcional: imprimir AST
             System.out.println("=== Árvore Sintática (AST) ===");
-            ast.print("");
-
-            // Etapa 3 - Análise semântica
-            SemanticAnalyzer sem = new SemanticAnalyzer();
-            sem.analyze(ast);
+            program.print("");
 
-            // Etapa 4 - Interpretação
+            // Etapa 4 - Interpretação (motor escolhido por -Dminipar.engine=tree|closure|vm)
             System.out.println("\n=== Execução ===");
-            Interpreter interpreter = new Interpreter();
-            interpreter.execute(ast);
+            Engine engine = Engine.create();
+            engine.execute(program);
 
         } catch (Exception e) {
             System.err.println("Erro: " + e.getMessage());
@@ -0,0 +1,834 @@
+package minipar.aot;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.Canal;
+import minipar.interpreter.DoubleList;
+import minipar.interpreter.Function;
+import minipar.interpreter.NumberList;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static java.lang.constant.ConstantDescs.*;
+
+// Compilação antecipada: transforma um programa já analisado (e os módulos que ele importa) numa única
+// classe, MAIN_CLASS, com um método estático por bloco SEQ/PAR, por módulo e por def. Variáveis locais
+// das funções viram locais double da JVM; globais, canais, PAR, print e imports passam pelo AotRuntime.
+// writeJar() empacota a classe com as poucas classes de suporte de que ela depende, num JAR executável
+// com java -jar, sem lexer, parser, análise semântica nem interpretador.
+// Os imports são resolvidos e ligados aqui, em relação ao diretório corrente da compilação.
+// Números são double, como na VM: inteiros acima de 2^53 não são exatos como no Interpreter.
+// Uma instância por programa.
+public final class AotCompiler {
+    public static final String MAIN_CLASS = "minipar.aot.Programa";
+
+    // Tudo do projeto que o programa compilado usa em tempo de execução
+    static final List<Class<?>> RUNTIME_CLASSES = List.of(AotRuntime.class, CompiledProgram.class, Canal.class,
+            NumberList.class, DoubleList.class);
+
+    private static final String RT = "rt";
+    private static final ClassDesc CD_PROGRAM = ClassDesc.of(MAIN_CLASS);
+    private static final ClassDesc CD_RUNTIME = ClassDesc.of(AotRuntime.class.getName());
+    private static final ClassDesc CD_COMPILED_PROGRAM = ClassDesc.of(CompiledProgram.class.getName());
+    private static final ClassDesc CD_CANAL = ClassDesc.of(Canal.class.getName());
+    private static final ClassDesc CD_MATH = ClassDesc.of(Math.class.getName());
+    private static final ClassDesc CD_STRING_BUILDER = ClassDesc.of(StringBuilder.class.getName());
+    private static final ClassDesc CD_RUNTIME_EXCEPTION = ClassDesc.of(RuntimeException.class.getName());
+    private static final MethodTypeDesc MTD_ENTRY = MethodTypeDesc.of(CD_boolean);
+    private static final MethodTypeDesc MTD_SLOT = MethodTypeDesc.of(CD_double, CD_int);
+    private static final MethodTypeDesc MTD_POW = MethodTypeDesc.of(CD_double, CD_double, CD_double);
+    private static final MethodTypeDesc MTD_INVALID = MethodTypeDesc.of(CD_double, CD_String);
+    private static final MethodTypeDesc MTD_APPEND_STRING = MethodTypeDesc.of(CD_STRING_BUILDER, CD_String);
+
+    private final List<Node> entries = new ArrayList<>(); // 0 = programa principal
+    private final Map<Node, Integer> entryOf = new HashMap<>();
+    private final List<Function> defs = new ArrayList<>();
+    private final Map<Node, Integer> defOf = new HashMap<>();
+    private final Map<String, Integer> functionIds = new LinkedHashMap<>();
+    private final Map<Path, Integer> moduleIds = new LinkedHashMap<>();
+    private final List<Node> moduleRoots = new ArrayList<>();
+    private final Map<Node, Integer> moduleOf = new HashMap<>();
+    private final Map<Node, String> importErrors = new HashMap<>();
+    private boolean symbols; // canais e receive consultam a tabela de símbolos; sem eles ela não é mantida
+    private final Resolver resolver = new Resolver(); // slots do programa e dos módulos, gravados no JAR
+
+    public byte[] compile(Node root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        resolver.resolve(root);
+        program(root);
+
+        return ClassFile.of().build(CD_PROGRAM, cls -> {
+            cls.withFlags(ClassFile.ACC_PUBLIC | ClassFile.ACC_FINAL);
+            cls.withInterfaceSymbols(CD_COMPILED_PROGRAM);
+            cls.withField(RT, CD_RUNTIME, ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC);
+            cls.withMethodBody(INIT_NAME, MTD_void, ClassFile.ACC_PUBLIC, code -> code
+                    .aload(0)
+                    .invokespecial(CD_Object, INIT_NAME, MTD_void)
+                    .return_());
+            cls.withMethodBody("main", MethodTypeDesc.of(CD_void, CD_String.arrayType()),
+                    ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC, code -> code
+                    .new_(CD_PROGRAM)
+                    .dup()
+                    .invokespecial(CD_PROGRAM, INIT_NAME, MTD_void)
+                    .invokestatic(CD_RUNTIME, "main", MethodTypeDesc.of(CD_void, CD_COMPILED_PROGRAM))
+                    .return_());
+            cls.withMethodBody("run", MethodTypeDesc.of(CD_boolean, CD_int), ClassFile.ACC_PUBLIC, code -> {
+                for (int i = 0; i < entries.size(); i++) {
+                    Label next = code.newLabel();
+                    code.iload(1).loadConstant(i).if_icmpne(next);
+                    code.invokestatic(CD_PROGRAM, entryName(i), MTD_ENTRY).ireturn();
+                    code.labelBinding(next);
+                }
+                code.iconst_0().ireturn();
+            });
+            for (int i = 0; i < entries.size(); i++) {
+                Node entry = entries.get(i);
+                cls.withMethodBody(entryName(i), MTD_ENTRY, ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC,
+                        code -> new Emitter(code, null).entry(entry));
+            }
+            for (int i = 0; i < defs.size(); i++) {
+                Function function = defs.get(i);
+                cls.withMethodBody(functionName(i), functionType(function), ClassFile.ACC_PRIVATE | ClassFile.ACC_STATIC,
+                        code -> new Emitter(code, function).function());
+            }
+            // Por último: os nomes de variáveis só estão completos depois de gerar todos os métodos
+            cls.withMethodBody("start", MethodTypeDesc.of(CD_RUNTIME), ClassFile.ACC_PUBLIC, code -> code
+                    .new_(CD_RUNTIME)
+                    .dup()
+                    .aload(0)
+                    .loadConstant(variableNames())
+                    .loadConstant(String.join("\n", functionIds.keySet()))
+                    .loadConstant(moduleFiles())
+                    .invokespecial(CD_RUNTIME, INIT_NAME,
+                            MethodTypeDesc.of(CD_void, CD_COMPILED_PROGRAM, CD_String, CD_String, CD_String))
+                    .dup()
+                    .putstatic(CD_PROGRAM, RT, CD_RUNTIME)
+                    .dup()
+                    .invokevirtual(CD_RUNTIME, "execute", MTD_void)
+                    .areturn());
+        });
+    }
+
+    // JAR executável com a classe do programa, o manifesto e as classes de suporte
+    public void writeJar(Node root, Path jar) throws IOException {
+        byte[] bytes = compile(root);
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, MAIN_CLASS);
+        try (OutputStream file = Files.newOutputStream(jar);
+             JarOutputStream out = new JarOutputStream(file, manifest)) {
+            write(out, MAIN_CLASS, bytes);
+            for (Class<?> support : RUNTIME_CLASSES) write(out, support.getName(), classBytes(support));
+        }
+    }
+
+    private static void write(JarOutputStream out, String className, byte[] bytes) throws IOException {
+        out.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    private static byte[] classBytes(Class<?> support) throws IOException {
+        String resource = support.getName().replace('.', '/') + ".class";
+        try (InputStream in = support.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Classe de suporte não encontrada: " + support.getName());
+            return in.readAllBytes();
+        }
+    }
+
+    // Numera entradas, defs, nomes de função e módulos, percorrendo também os módulos importados
+    private void program(Node root) {
+        entry(root);
+        for (Node bloco : root.getChildren()) block(bloco);
+    }
+
+    private void block(Node bloco) {
+        entry(bloco);
+        if (bloco.getKind() == NodeKind.PAR) {
+            for (Node ramo : bloco.getChildren()) block(ramo);
+        } else {
+            collect(bloco);
+        }
+    }
+
+    private void entry(Node node) {
+        entryOf.put(node, entries.size());
+        entries.add(node);
+    }
+
+    private void collect(Node node) {
+        for (Node child : node.getChildren()) {
+            switch (child.getKind()) {
+                case DEF -> {
+                    defOf.put(child, defs.size());
+                    defs.add(Function.of(child, resolver));
+                    functionId(child.getValue());
+                }
+                case CHAMADA_FUNCAO -> functionId(child.getValue());
+                case C_CHANNEL, RECEIVE -> symbols = true;
+                case IMPORT -> module(child);
+                default -> {}
+            }
+            collect(child);
+        }
+    }
+
+    // Um módulo com erro de leitura ou de sintaxe só falha quando o import executar, como no interpretador
+    private void module(Node stmt) {
+        String path = stmt.getValue();
+        try {
+            Path modulo = ModuleRegistry.canonical(path);
+            Integer id = moduleIds.get(modulo);
+            if (id == null) {
+                Node root = ModuleRegistry.shared().load(modulo).copy(); // o registro é compartilhado
+                id = moduleRoots.size();
+                moduleIds.put(modulo, id);
+                moduleRoots.add(root);
+                resolver.resolve(root);
+                program(root);
+            }
+            moduleOf.put(stmt, id);
+        } catch (Exception e) {
+            importErrors.put(stmt, "Erro ao importar arquivo '" + path + "': " + e.getMessage());
+        }
+    }
+
+    private int functionId(String name) {
+        return functionIds.computeIfAbsent(name, n -> functionIds.size());
+    }
+
+    private static String entryName(int entry) {
+        return "entrada" + entry;
+    }
+
+    private static String functionName(int def) {
+        return "funcao" + def;
+    }
+
+    private static MethodTypeDesc functionType(Function function) {
+        ClassDesc[] params = new ClassDesc[function.params().size()];
+        Arrays.fill(params, CD_double);
+        return MethodTypeDesc.of(CD_double, params);
+    }
+
+    private String variableNames() {
+        List<String> names = new ArrayList<>();
+        for (int slot = 0; slot < resolver.slotCount(); slot++) names.add(resolver.nameOf(slot));
+        return String.join("\n", names);
+    }
+
+    private String moduleFiles() {
+        List<String> files = new ArrayList<>();
+        for (Path modulo : moduleIds.keySet()) files.add(modulo.getFileName().toString());
+        return String.join("\n", files);
+    }
+
+    // Gera o corpo de uma entrada (function == null, só globais) ou de um def. Nos defs, cada local do
+    // MiniPar ocupa um double da JVM e um int de estado (0 = ainda sem valor, lido do global de mesmo nome;
+    // 1 = número; 2 = lista, num local Object que só existe para quem recebe uma lista no corpo)
+    private final class Emitter {
+        private final CodeBuilder code;
+        private final Function function;
+        private final int[] values;
+        private final int[] states;
+        private final int[] lists;
+        private final boolean[] fixed; // parâmetro que nunca vira lista: sempre número
+        private int scratchNumber = -1;
+        private int scratchObject = -1;
+        private int builder = -1;
+
+        Emitter(CodeBuilder code, Function function) {
+            this.code = code;
+            this.function = function;
+            int locals = function == null ? 0 : function.localCount();
+            values = new int[locals];
+            states = new int[locals];
+            lists = new int[locals];
+            fixed = new boolean[locals];
+            if (function == null) return;
+
+            boolean[] listLocals = listLocals(function.body(), new boolean[locals]);
+            boolean[] params = new boolean[locals];
+            List<Node> parametros = function.params();
+            for (int i = 0; i < parametros.size(); i++) {
+                int local = Resolver.localIndex(Resolver.slotOf(parametros.get(i)));
+                values[local] = 2 * i;
+                params[local] = true;
+            }
+            for (int local = 0; local < locals; local++) {
+                fixed[local] = params[local] && !listLocals[local];
+                if (fixed[local]) continue;
+                if (!params[local]) {
+                    values[local] = code.allocateLocal(TypeKind.DOUBLE);
+                    code.dconst_0().dstore(values[local]);
+                }
+                states[local] = code.allocateLocal(TypeKind.INT);
+                code.loadConstant(params[local] ? 1 : 0).istore(states[local]);
+                lists[local] = -1;
+                if (listLocals[local]) {
+                    lists[local] = code.allocateLocal(TypeKind.REFERENCE);
+                    code.aconst_null().astore(lists[local]);
+                }
+            }
+        }
+
+        // Locais que recebem uma lista literal em algum ponto do corpo (sem entrar em defs aninhados)
+        private static boolean[] listLocals(Node node, boolean[] marked) {
+            for (Node child : node.getChildren()) {
+                if (child.getKind() == NodeKind.DEF) continue;
+                if (child.getKind() == NodeKind.ATRIBUICAO && child.getChildren().get(1).getKind() == NodeKind.LISTA) {
+                    int slot = Resolver.slotOf(child.getChildren().get(0));
+                    if (Resolver.isLocal(slot)) marked[Resolver.localIndex(slot)] = true;
+                }
+                listLocals(child, marked);
+            }
+            return marked;
+        }
+
+        void entry(Node node) {
+            switch (node.getKind()) {
+                case PROGRAMA -> {
+                    // return no nível superior encerra o programa (ou o módulo)
+                    for (Node bloco : node.getChildren()) {
+                        Label next = code.newLabel();
+                        code.invokestatic(CD_PROGRAM, entryName(entryOf.get(bloco)), MTD_ENTRY);
+                        code.ifeq(next);
+                        code.iconst_1().ireturn();
+                        code.labelBinding(next);
+                    }
+                }
+                case SEQ, BLOCO -> {
+                    trace(node, true);
+                    if (statements(node)) return;
+                }
+                case PAR -> {
+                    trace(node, false);
+                    List<? extends Node> ramos = node.getChildren();
+                    rt();
+                    code.loadConstant(ramos.size()).newarray(TypeKind.INT);
+                    for (int i = 0; i < ramos.size(); i++) {
+                        code.dup().loadConstant(i).loadConstant(entryOf.get(ramos.get(i))).iastore();
+                    }
+                    code.invokevirtual(CD_RUNTIME, "parallel", MethodTypeDesc.of(CD_void, CD_int.arrayType()));
+                }
+                default -> {
+                    trace(node, false);
+                    invalid("Tipo de bloco desconhecido: " + node.getType());
+                    code.pop2();
+                }
+            }
+            code.iconst_0().ireturn();
+        }
+
+        void function() {
+            if (symbols) {
+                for (Node param : function.params()) declare(param.getValue());
+            }
+            Node body = function.body();
+            if (body.getKind() != NodeKind.SEQ && body.getKind() != NodeKind.BLOCO) {
+                trace(body, false);
+                invalid("Tipo de bloco desconhecido: " + body.getType());
+                code.dreturn();
+                return;
+            }
+            trace(body, true);
+            if (!statements(body)) code.dconst_0().dreturn();
+        }
+
+        private void trace(Node block, boolean sequential) {
+            rt();
+            code.loadConstant(block.getType()).loadConstant(sequential ? 1 : 0);
+            code.invokevirtual(CD_RUNTIME, "trace", MethodTypeDesc.of(CD_void, CD_String, CD_boolean));
+        }
+
+        // Devolve true se o bloco termina num return, para não emitir código inalcançável depois dele
+        private boolean statements(Node block) {
+            for (Node stmt : block.getChildren()) {
+                if (statement(stmt)) return true;
+            }
+            return false;
+        }
+
+        private boolean statement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            switch (stmt.getKind()) {
+                case COMENTARIO -> {}
+                case ATRIBUICAO -> {
+                    Node target = children.get(0);
+                    Node expr = children.get(1);
+                    if (expr.getKind() == NodeKind.LISTA) {
+                        numbers(expr.getChildren());
+                        code.invokestatic(CD_RUNTIME, "list", MethodTypeDesc.of(CD_Object, CD_double.arrayType()));
+                        storeList(target);
+                    } else {
+                        expression(expr);
+                        storeNumber(target);
+                    }
+                    if (symbols) declare(target.getValue());
+                }
+                case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+                case C_CHANNEL -> {
+                    rt();
+                    code.loadConstant(resolver.slotOf(stmt.getValue()))
+                            .loadConstant(resolver.slotOf(children.get(0).getValue()))
+                            .loadConstant(resolver.slotOf(children.get(1).getValue()))
+                            .invokevirtual(CD_RUNTIME, "channel", MethodTypeDesc.of(CD_void, CD_int, CD_int, CD_int));
+                }
+                case SEND -> {
+                    rt();
+                    code.dup().loadConstant(stmt.getValue());
+                    code.invokevirtual(CD_RUNTIME, "canal", MethodTypeDesc.of(CD_CANAL, CD_String));
+                    expression(children.get(0));
+                    code.loadConstant(stmt.getValue());
+                    code.invokevirtual(CD_RUNTIME, "send", MethodTypeDesc.of(CD_void, CD_CANAL, CD_double, CD_String));
+                }
+                case RECEIVE -> {
+                    rt();
+                    code.loadConstant(stmt.getValue());
+                    code.invokevirtual(CD_RUNTIME, "receive", MethodTypeDesc.of(CD_double, CD_String));
+                    storeNumber(children.get(0));
+                    rt();
+                    code.loadConstant(resolver.slotOf(children.get(0).getValue()));
+                    code.invokevirtual(CD_RUNTIME, "declareOnce", MethodTypeDesc.of(CD_void, CD_int));
+                }
+                case PRINT -> print(stmt);
+                case IF -> {
+                    Label otherwise = code.newLabel();
+                    branchIfFalse(children.get(0), otherwise);
+                    boolean returns = statements(children.get(1));
+                    if (children.size() > 2) {
+                        Label end = code.newLabel();
+                        if (!returns) code.goto_(end);
+                        code.labelBinding(otherwise);
+                        if (statements(children.get(2)) && returns) return true;
+                        code.labelBinding(end);
+                        return false;
+                    }
+                    code.labelBinding(otherwise);
+                }
+                case WHILE -> {
+                    Label top = code.newLabel();
+                    Label exit = code.newLabel();
+                    code.labelBinding(top);
+                    branchIfFalse(children.get(0), exit);
+                    if (!statements(children.get(1))) code.goto_(top);
+                    code.labelBinding(exit);
+                }
+                case FOR -> forStatement(stmt);
+                case DEF -> {
+                    rt();
+                    code.loadConstant(functionId(stmt.getValue()))
+                            .loadConstant(defOf.get(stmt))
+                            .loadConstant(defs.get(defOf.get(stmt)).params().size())
+                            .invokevirtual(CD_RUNTIME, "define", MethodTypeDesc.of(CD_void, CD_int, CD_int, CD_int));
+                }
+                case RETURN -> {
+                    expression(children.get(0));
+                    if (function != null) {
+                        code.dreturn();
+                    } else {
+                        code.pop2().iconst_1().ireturn();
+                    }
+                    return true;
+                }
+                case CHAMADA_FUNCAO -> {
+                    call(stmt);
+                    code.pop2();
+                }
+                case IMPORT -> {
+                    String error = importErrors.get(stmt);
+                    if (error != null) {
+                        invalid(error);
+                        code.pop2();
+                    } else {
+                        int module = moduleOf.get(stmt);
+                        rt();
+                        code.loadConstant(module)
+                                .loadConstant(entryOf.get(moduleRoots.get(module)))
+                                .loadConstant(stmt.getValue())
+                                .invokevirtual(CD_RUNTIME, "importModule", MethodTypeDesc.of(CD_void, CD_int, CD_int, CD_String));
+                    }
+                }
+                default -> {
+                    invalid("Instrução não suportada: " + stmt.getType());
+                    code.pop2();
+                }
+            }
+            return false;
+        }
+
+        // Cada argumento avaliado com fallback para o texto cru quando a avaliação falha
+        private void print(Node stmt) {
+            if (builder < 0) builder = code.allocateLocal(TypeKind.REFERENCE);
+            code.new_(CD_STRING_BUILDER).dup().invokespecial(CD_STRING_BUILDER, INIT_NAME, MTD_void).astore(builder);
+            for (Node arg : stmt.getChildren()) {
+                String raw = arg.getValue();
+                code.aload(builder);
+                if (arg.isString()) {
+                    code.loadConstant(raw.substring(1, raw.length() - 1));
+                    code.invokevirtual(CD_STRING_BUILDER, "append", MTD_APPEND_STRING);
+                } else {
+                    Label start = code.newLabel();
+                    Label end = code.newLabel();
+                    Label handler = code.newLabel();
+                    Label next = code.newLabel();
+                    code.labelBinding(start);
+                    expression(arg);
+                    code.labelBinding(end);
+                    code.invokevirtual(CD_STRING_BUILDER, "append", MethodTypeDesc.of(CD_STRING_BUILDER, CD_double));
+                    code.goto_(next);
+                    code.labelBinding(handler);
+                    code.pop().aload(builder).loadConstant(raw);
+                    code.invokevirtual(CD_STRING_BUILDER, "append", MTD_APPEND_STRING);
+                    code.labelBinding(next);
+                    code.exceptionCatch(start, end, handler, CD_RUNTIME_EXCEPTION);
+                }
+                code.loadConstant(" ").invokevirtual(CD_STRING_BUILDER, "append", MTD_APPEND_STRING).pop();
+            }
+            code.aload(builder);
+            code.invokestatic(CD_RUNTIME, "print", MethodTypeDesc.of(CD_void, CD_STRING_BUILDER));
+        }
+
+        // Contador int e limite double em locais próprios; a variável do for guarda o contador (Integer)
+        private void forStatement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            int counter = code.allocateLocal(TypeKind.INT);
+            int end = code.allocateLocal(TypeKind.DOUBLE);
+            expression(children.get(0));
+            code.d2i().istore(counter);
+            expression(children.get(1));
+            code.dstore(end);
+
+            Label top = code.newLabel();
+            Label exit = code.newLabel();
+            code.labelBinding(top);
+            code.iload(counter).i2d().dload(end).dcmpg().ifgt(exit);
+            int slot = Resolver.slotOf(stmt);
+            if (Resolver.isLocal(slot)) {
+                code.iload(counter).i2d();
+                storeNumber(stmt);
+            } else {
+                rt();
+                code.loadConstant(slot).iload(counter);
+                code.invokevirtual(CD_RUNTIME, "setInteger", MethodTypeDesc.of(CD_void, CD_int, CD_int));
+            }
+            if (symbols) declare(stmt.getValue());
+            if (!statements(children.get(2))) {
+                code.iinc(counter, 1);
+                code.goto_(top);
+            }
+            code.labelBinding(exit);
+        }
+
+        // Índice e valor são avaliados antes de buscar a lista, como no AssignmentExecutor
+        private void indexAssignment(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            int slot = Resolver.slotOf(stmt);
+            if (!Resolver.isLocal(slot)) {
+                rt();
+                expression(children.get(0));
+                expression(children.get(1));
+                code.loadConstant(slot);
+                code.invokevirtual(CD_RUNTIME, "setIndex", MethodTypeDesc.of(CD_void, CD_double, CD_double, CD_int));
+                return;
+            }
+            expression(children.get(0));
+            expression(children.get(1));
+            object(Resolver.localIndex(slot));
+            code.loadConstant(stmt.getValue());
+            code.invokestatic(CD_RUNTIME, "setIndex", MethodTypeDesc.of(CD_void, CD_double, CD_double, CD_Object, CD_String));
+        }
+
+        // lista[i]: índice avaliado antes de buscar a lista, como na atribuição por índice
+        private void indexRead(Node node) {
+            int slot = Resolver.slotOf(node);
+            if (!Resolver.isLocal(slot)) {
+                rt();
+                expression(node.getChildren().get(0));
+                code.loadConstant(slot);
+                code.invokevirtual(CD_RUNTIME, "getIndex", MethodTypeDesc.of(CD_double, CD_double, CD_int));
+                return;
+            }
+            expression(node.getChildren().get(0));
+            object(Resolver.localIndex(slot));
+            code.loadConstant(node.getValue());
+            code.invokestatic(CD_RUNTIME, "getIndex", MethodTypeDesc.of(CD_double, CD_double, CD_Object, CD_String));
+        }
+
+        // Empilha o local como o interpretador o guarda: a lista, o número encaixotado ou, ainda sem
+        // valor, o global de mesmo nome
+        private void object(int local) {
+            Label done = code.newLabel();
+            if (!fixed[local]) {
+                Label assigned = code.newLabel();
+                code.iload(states[local]).ifne(assigned);
+                rt();
+                code.loadConstant(function.globalOf()[local]);
+                code.invokevirtual(CD_RUNTIME, "value", MethodTypeDesc.of(CD_Object, CD_int));
+                code.goto_(done);
+                code.labelBinding(assigned);
+                if (lists[local] >= 0) {
+                    Label number = code.newLabel();
+                    code.iload(states[local]).iconst_1().if_icmpeq(number);
+                    code.aload(lists[local]).goto_(done);
+                    code.labelBinding(number);
+                }
+            }
+            code.dload(values[local]);
+            code.invokestatic(CD_Double, "valueOf", MethodTypeDesc.of(CD_Double, CD_double));
+            code.labelBinding(done);
+        }
+
+        // Salta para target quando a comparação é falsa; NaN torna qualquer comparação falsa, exceto !=
+        private void branchIfFalse(Node condition, Label target) {
+            if (condition.getKind() != NodeKind.BIN_OP) {
+                invalid("Condição inválida");
+                code.pop2();
+                return;
+            }
+            expression(condition.getChildren().get(0));
+            expression(condition.getChildren().get(1));
+            Operator op = condition.getOperator();
+            if (op == null || !op.isComparison()) {
+                code.pop2().pop2();
+                invalid("Operador inválido em condição: " + condition.getValue());
+                code.pop2();
+                return;
+            }
+            switch (op) {
+                case LT -> code.dcmpg().ifge(target);
+                case LE -> code.dcmpg().ifgt(target);
+                case GT -> code.dcmpl().ifle(target);
+                case GE -> code.dcmpl().iflt(target);
+                case EQ -> code.dcmpl().ifne(target);
+                default -> code.dcmpl().ifeq(target);
+            }
+        }
+
+        // Deixa o valor da expressão (double) no topo da pilha
+        private void expression(Node node) {
+            switch (node.getKind()) {
+                case VALOR -> {
+                    String value = node.getValue();
+                    if (node.isNumber()) {
+                        code.loadConstant(node.getNumber());
+                    } else if (node.isString()) {
+                        code.loadConstant(value.substring(1, value.length() - 1));
+                        code.invokestatic(CD_RUNTIME, "say", MTD_INVALID);
+                    } else {
+                        load(node);
+                    }
+                }
+                case LISTA -> {
+                    for (Node item : node.getChildren()) {
+                        expression(item);
+                        code.pop2();
+                    }
+                    code.dconst_0();
+                }
+                case INPUT -> {
+                    rt();
+                    code.invokevirtual(CD_RUNTIME, "input", MethodTypeDesc.of(CD_double));
+                }
+                case BIN_OP -> binary(node);
+                case INDEXACAO -> indexRead(node);
+                case CHAMADA_FUNCAO -> call(node);
+                default -> invalid("Expressão inválida: " + node.getType());
+            }
+        }
+
+        private void binary(Node node) {
+            expression(node.getChildren().get(0));
+            expression(node.getChildren().get(1));
+            Operator op = node.getOperator();
+            if (op == null) {
+                code.pop2().pop2();
+                invalid("Operador inválido: " + node.getValue());
+                return;
+            }
+            switch (op) {
+                case ADD -> code.dadd();
+                case SUB -> code.dsub();
+                case MUL -> code.dmul();
+                case POW -> code.invokestatic(CD_MATH, "pow", MTD_POW);
+                case DIV, MOD -> {
+                    // divisão e resto por zero resultam 0, como no interpretador
+                    Label divide = code.newLabel();
+                    Label done = code.newLabel();
+                    code.dup2().dconst_0().dcmpl().ifne(divide);
+                    code.pop2().pop2().dconst_0().goto_(done);
+                    code.labelBinding(divide);
+                    if (op == Operator.DIV) code.ddiv();
+                    else code.drem();
+                    code.labelBinding(done);
+                }
+                default -> comparison(op);
+            }
+        }
+
+        // Comparação usada como valor: 1 quando verdadeira, 0 quando falsa
+        private void comparison(Operator op) {
+            Label yes = code.newLabel();
+            Label done = code.newLabel();
+            switch (op) {
+                case LT -> code.dcmpg().iflt(yes);
+                case LE -> code.dcmpg().ifle(yes);
+                case GT -> code.dcmpl().ifgt(yes);
+                case GE -> code.dcmpl().ifge(yes);
+                case EQ -> code.dcmpl().ifeq(yes);
+                default -> code.dcmpl().ifne(yes);
+            }
+            code.dconst_0().goto_(done);
+            code.labelBinding(yes);
+            code.dconst_1();
+            code.labelBinding(done);
+        }
+
+        // O def registrado para o nome é consultado antes de avaliar os argumentos, como no
+        // FunctionExecutor; entre os defs com esse nome e essa aridade, o runtime diz qual chamar
+        private void call(Node node) {
+            List<? extends Node> args = node.getChildren();
+            String name = node.getValue();
+            int def = code.allocateLocal(TypeKind.INT);
+            rt();
+            code.loadConstant(functionId(name)).loadConstant(args.size());
+            code.invokevirtual(CD_RUNTIME, "resolve", MethodTypeDesc.of(CD_int, CD_int, CD_int));
+            code.istore(def);
+
+            List<Integer> candidates = new ArrayList<>();
+            for (int i = 0; i < defs.size(); i++) {
+                Function f = defs.get(i);
+                if (f.name().equals(name) && f.params().size() == args.size()) candidates.add(i);
+            }
+            if (candidates.isEmpty()) {
+                code.dconst_0(); // resolve sempre falha: não há def com esse nome e essa aridade
+                return;
+            }
+            for (Node arg : args) expression(arg);
+            Label done = code.newLabel();
+            for (int i = 0; i < candidates.size() - 1; i++) {
+                Label next = code.newLabel();
+                code.iload(def).loadConstant(candidates.get(i)).if_icmpne(next);
+                code.invokestatic(CD_PROGRAM, functionName(candidates.get(i)), functionType(defs.get(candidates.get(i))));
+                code.goto_(done);
+                code.labelBinding(next);
+            }
+            int last = candidates.get(candidates.size() - 1);
+            code.invokestatic(CD_PROGRAM, functionName(last), functionType(defs.get(last)));
+            code.labelBinding(done);
+        }
+
+        // Array double[] com o valor de cada item, na ordem
+        private void numbers(List<? extends Node> items) {
+            code.loadConstant(items.size()).newarray(TypeKind.DOUBLE);
+            for (int i = 0; i < items.size(); i++) {
+                code.dup().loadConstant(i);
+                expression(items.get(i));
+                code.dastore();
+            }
+        }
+
+        private void load(Node node) {
+            int slot = Resolver.slotOf(node);
+            if (!Resolver.isLocal(slot)) {
+                loadGlobal(slot);
+                return;
+            }
+            int local = Resolver.localIndex(slot);
+            if (fixed[local]) {
+                code.dload(values[local]);
+                return;
+            }
+            Label assigned = code.newLabel();
+            Label done = code.newLabel();
+            code.iload(states[local]).ifne(assigned);
+            loadGlobal(function.globalOf()[local]);
+            code.goto_(done);
+            code.labelBinding(assigned);
+            if (lists[local] >= 0) {
+                Label number = code.newLabel();
+                code.iload(states[local]).iconst_1().if_icmpeq(number);
+                invalid("Valor da variável '" + node.getValue() + "' não é inteiro");
+                code.goto_(done);
+                code.labelBinding(number);
+            }
+            code.dload(values[local]);
+            code.labelBinding(done);
+        }
+
+        private void loadGlobal(int slot) {
+            rt();
+            code.loadConstant(slot).invokevirtual(CD_RUNTIME, "get", MTD_SLOT);
+        }
+
+        // Grava o double do topo da pilha na variável do nó
+        private void storeNumber(Node target) {
+            int slot = Resolver.slotOf(target);
+            if (Resolver.isLocal(slot)) {
+                int local = Resolver.localIndex(slot);
+                code.dstore(values[local]);
+                if (!fixed[local]) code.iconst_1().istore(states[local]);
+                return;
+            }
+            if (scratchNumber < 0) scratchNumber = code.allocateLocal(TypeKind.DOUBLE);
+            code.dstore(scratchNumber);
+            rt();
+            code.loadConstant(slot).dload(scratchNumber);
+            code.invokevirtual(CD_RUNTIME, "set", MethodTypeDesc.of(CD_void, CD_int, CD_double));
+        }
+
+        private void storeList(Node target) {
+            int slot = Resolver.slotOf(target);
+            if (Resolver.isLocal(slot)) {
+                int local = Resolver.localIndex(slot);
+                code.astore(lists[local]);
+                code.loadConstant(2).istore(states[local]);
+                return;
+            }
+            if (scratchObject < 0) scratchObject = code.allocateLocal(TypeKind.REFERENCE);
+            code.astore(scratchObject);
+            rt();
+            code.loadConstant(slot).aload(scratchObject);
+            code.invokevirtual(CD_RUNTIME, "setList", MethodTypeDesc.of(CD_void, CD_int, CD_Object));
+        }
+
+        private void declare(String name) {
+            rt();
+            code.loadConstant(resolver.slotOf(name));
+            code.invokevirtual(CD_RUNTIME, "declare", MethodTypeDesc.of(CD_void, CD_int));
+        }
+
+        private void invalid(String message) {
+            code.loadConstant(message).invokestatic(CD_RUNTIME, "invalid", MTD_INVALID);
+        }
+
+        private void rt() {
+            code.getstatic(CD_PROGRAM, RT, CD_RUNTIME);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package minipar.aot;
+
+import minipar.interpreter.Canal;
+import minipar.interpreter.DoubleList;
+import minipar.interpreter.NumberList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Suporte de execução dos programas compilados pelo AotCompiler: junto com CompiledProgram e Canal, é o
+// que vai para o JAR além da classe gerada. O bytecode gerado chama estes métodos para o que não
+// resolve sozinho — globais, print com fallback, canais, PAR, input, imports e a tabela de funções —
+// com as mesmas mensagens e a mesma saída do Interpreter.
+// Os globais ficam num double[] com uma etiqueta ao lado, como na VirtualMachine (null = não atribuído,
+// NUMBER, INTEGER para a variável de for, ou a própria lista).
+public final class AotRuntime {
+    private static final Object NUMBER = new Object();
+    private static final Object INTEGER = new Object();
+
+    private final CompiledProgram program;
+    private final String[] names;
+    private final String[] functions;
+    private final String[] modules;
+    private final double[] numbers;
+    private final Object[] tags;
+    private final boolean[] declared; // tabela de símbolos, por slot do nome; só é usada com canais
+    private final int[] defined; // def registrado para cada nome de função (-1 = nenhum)
+    private final int[] arities;
+    private final Map<String, Canal> canais = new HashMap<>();
+    private final Scanner scanner = new Scanner(System.in);
+    private final Set<Integer> executedModules = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Deque<Integer>> importStack = ThreadLocal.withInitial(ArrayDeque::new);
+    private int portaAtual = 5000;
+
+    // Nomes de variáveis (por slot), funções e arquivos de módulo chegam separados por '\n'
+    public AotRuntime(CompiledProgram program, String names, String functions, String modules) {
+        this.program = program;
+        this.names = split(names);
+        this.functions = split(functions);
+        this.modules = split(modules);
+        numbers = new double[this.names.length];
+        tags = new Object[this.names.length];
+        declared = new boolean[this.names.length];
+        defined = new int[this.functions.length];
+        arities = new int[this.functions.length];
+        Arrays.fill(defined, -1);
+    }
+
+    private static String[] split(String joined) {
+        return joined.isEmpty() ? new String[0] : joined.split("\n", -1);
+    }
+
+    // Ponto de entrada do JAR: mesma mensagem de erro do minipar.Main
+    public static void main(CompiledProgram program) {
+        try {
+            program.start();
+        } catch (Exception e) {
+            System.err.println("Erro: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public void execute() {
+        program.run(0);
+    }
+
+    // Memória final por nome, no mesmo formato da Memory do interpretador (sem as temporárias '$'
+    // do otimizador)
+    public Map<String, Object> getMemory() {
+        Map<String, Object> memory = new HashMap<>();
+        for (int slot = 0; slot < tags.length; slot++) {
+            if (names[slot].startsWith("$")) continue;
+            Object tag = tags[slot];
+            if (tag == NUMBER) memory.put(names[slot], numbers[slot]);
+            else if (tag == INTEGER) memory.put(names[slot], (int) numbers[slot]);
+            else if (tag != null) memory.put(names[slot], tag);
+        }
+        return memory;
+    }
+
+    public double get(int slot) {
+        Object tag = tags[slot];
+        if (tag == NUMBER || tag == INTEGER) return numbers[slot];
+        if (tag == null) throw new RuntimeException("Variável não declarada: " + names[slot]);
+        throw new RuntimeException("Valor da variável '" + names[slot] + "' não é inteiro");
+    }
+
+    // Valor como o interpretador o guarda, para a atribuição por índice
+    public Object value(int slot) {
+        Object tag = tags[slot];
+        if (tag == NUMBER) return numbers[slot];
+        if (tag == INTEGER) return (int) numbers[slot];
+        return tag;
+    }
+
+    public void set(int slot, double value) {
+        numbers[slot] = value;
+        tags[slot] = NUMBER;
+    }
+
+    public void setInteger(int slot, int value) {
+        numbers[slot] = value;
+        tags[slot] = INTEGER;
+    }
+
+    public void setList(int slot, Object list) {
+        tags[slot] = list;
+    }
+
+    // O código AOT só trabalha com double: suas listas são sempre DoubleList, que guarda qualquer
+    // número no lugar
+    public static Object list(double[] items) {
+        DoubleList lista = new DoubleList(items.length);
+        for (double item : items) lista.add(item);
+        return lista;
+    }
+
+    public double getIndex(double index, int slot) {
+        return getIndex(index, value(slot), names[slot]);
+    }
+
+    public static double getIndex(double index, Object objeto, String nome) {
+        NumberList lista = NumberList.of(objeto, nome);
+        return lista.getDouble(lista.index(index));
+    }
+
+    public void setIndex(double index, double value, int slot) {
+        setIndex(index, value, value(slot), names[slot]);
+    }
+
+    public static void setIndex(double index, double value, Object objeto, String nome) {
+        NumberList lista = NumberList.of(objeto, nome);
+        lista.store(lista.index(index), value);
+    }
+
+    // Erro em tempo de execução; o tipo double deixa o código gerado usá-lo como qualquer expressão
+    public static double invalid(String message) {
+        throw new RuntimeException(message);
+    }
+
+    // Declaração de atribuições, for e parâmetros: só registra o nome
+    public void declare(int slot) {
+        declared[slot] = true;
+    }
+
+    // Declaração de canais e receive: falha se o nome já existir, como SymbolTable.declare
+    public void declareOnce(int slot) {
+        if (declared[slot]) throw new RuntimeException("Simbolo '" + names[slot] + "' ja declarado.");
+        declared[slot] = true;
+    }
+
+    public void define(int function, int def, int arity) {
+        defined[function] = def;
+        arities[function] = arity;
+    }
+
+    // Def registrado para o nome no momento da chamada
+    public int resolve(int function, int argc) {
+        int def = defined[function];
+        if (def < 0) throw new RuntimeException("Função não declarada: " + functions[function]);
+        if (arities[function] != argc) {
+            throw new RuntimeException("Número de argumentos inválido para função " + functions[function]);
+        }
+        return def;
+    }
+
+    public void trace(String blockType, boolean sequential) {
+        String thread = Thread.currentThread().getName();
+        System.out.println("[DEBUG] Executando bloco tipo: " + blockType + " na thread " + thread);
+        if (sequential) System.out.println("[THREAD] Iniciando bloco em thread: " + thread);
+    }
+
+    public static void print(StringBuilder output) {
+        System.out.println(output.toString().trim());
+    }
+
+    // String literal usada como expressão: imprime o texto e vale 0
+    public static double say(String text) {
+        System.out.println(text);
+        return 0;
+    }
+
+    public double input() {
+        System.out.print("Entrada: ");
+        String line = scanner.nextLine();
+        try {
+            return Double.parseDouble(line);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor de entrada inválido: " + line);
+        }
+    }
+
+    public void channel(int canal, int comp1, int comp2) {
+        declareOnce(canal);
+        declareOnce(comp1);
+        declareOnce(comp2);
+
+        Canal c = new Canal(names[canal], portaAtual++);
+        canais.put(names[canal], c);
+
+        System.out.println("Canal criado: " + names[canal] + " entre " + names[comp1] + " e " + names[comp2]
+                + " na porta " + c.getPorta());
+    }
+
+    public Canal canal(String nome) {
+        Canal c = canais.get(nome);
+        if (c == null) throw new RuntimeException("Canal '" + nome + "' não existe");
+        return c;
+    }
+
+    // O interpretador manda o long como literal inteiro; aqui os números são double, e o valor inteiro
+    // vai no mesmo formato
+    public void send(Canal c, double valor, String nome) {
+        String mensagem = valor == Math.rint(valor) && Math.abs(valor) < 0x1p63
+                && (valor != 0 || 1 / valor > 0) ? String.valueOf((long) valor) : String.valueOf(valor);
+        System.out.println("[DEBUG] Enviando para canal " + nome + " valor: " + mensagem);
+        c.send(mensagem);
+    }
+
+    public double receive(String nome) {
+        Canal c = canal(nome);
+        System.out.println("[DEBUG] Recebendo de canal " + nome);
+        String recebido = c.receive();
+        try {
+            return Double.parseDouble(recebido);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor inválido recebido no canal '" + nome + "': " + recebido);
+        }
+    }
+
+    // Um ramo de PAR por thread; um return dentro de um ramo só encerra aquele ramo
+    public void parallel(int[] entries) {
+        List<Thread> threads = new ArrayList<>();
+        for (int entry : entries) {
+            Thread t = new Thread(() -> program.run(entry));
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException("Erro em thread paralela", e);
+            }
+        }
+    }
+
+    // O nível superior de cada módulo roda uma única vez; módulos foram ligados na compilação
+    public void importModule(int module, int entry, String path) {
+        try {
+            Deque<Integer> pilha = importStack.get();
+            if (pilha.contains(module)) {
+                throw new RuntimeException("Importação cíclica: " + cicloDeImportacao(pilha, module));
+            }
+            if (!executedModules.add(module)) return;
+            pilha.push(module);
+            try {
+                program.run(entry);
+            } finally {
+                pilha.pop();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao importar arquivo '" + path + "': " + e.getMessage(), e);
+        }
+    }
+
+    private String cicloDeImportacao(Deque<Integer> pilha, int module) {
+        StringBuilder ciclo = new StringBuilder();
+        Iterator<Integer> abertos = pilha.descendingIterator();
+        boolean noCiclo = false;
+        while (abertos.hasNext()) {
+            int aberto = abertos.next();
+            noCiclo |= aberto == module;
+            if (noCiclo) ciclo.append(modules[aberto]).append(" -> ");
+        }
+        return ciclo.append(modules[module]).toString();
+    }
+}
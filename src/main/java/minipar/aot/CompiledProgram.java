@@ -0,0 +1,11 @@
+package minipar.aot;
+
+// Implementada pela classe que o AotCompiler gera. O runtime chama run() para executar um ramo de PAR
+// numa thread própria ou o nível superior de um módulo importado; start() roda o programa inteiro.
+public interface CompiledProgram {
+
+    AotRuntime start();
+
+    // Executa a entrada de número entry (programa, módulo ou bloco); true se ela terminou num return
+    boolean run(int entry);
+}
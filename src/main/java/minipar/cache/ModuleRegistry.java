@@ -0,0 +1,69 @@
+package minipar.cache;
+
+import minipar.parser.Node;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Módulos importados já analisados, em memória, chaveados pelo caminho canônico.
+// Uma entrada vale enquanto a data de modificação do arquivo não muda; acima da capacidade
+// sai o módulo usado há mais tempo (LRU). Misses passam pelo cache em disco .mprc.
+public class ModuleRegistry {
+    public static final int DEFAULT_CAPACITY = Integer.getInteger("minipar.modules.max", 64);
+
+    private static final ModuleRegistry SHARED = new ModuleRegistry(DEFAULT_CAPACITY, ProgramCache.defaultCache());
+
+    private record Module(long modified, Node program) {}
+
+    private final int capacity;
+    private final ProgramCache programCache;
+    private final Map<Path, Module> modules;
+    private int loads = 0;
+
+    public ModuleRegistry(int capacity, ProgramCache programCache) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        this.capacity = capacity;
+        this.programCache = programCache;
+        this.modules = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Module> eldest) {
+                return size() > ModuleRegistry.this.capacity;
+            }
+        };
+    }
+
+    public static ModuleRegistry shared() {
+        return SHARED;
+    }
+
+    public static Path canonical(String path) throws IOException {
+        return Path.of(path).toRealPath();
+    }
+
+    public synchronized Node load(Path canonicalPath) throws IOException {
+        long modified = Files.getLastModifiedTime(canonicalPath).toMillis();
+        Module module = modules.get(canonicalPath);
+        if (module != null && module.modified() == modified) return module.program();
+
+        Node program = programCache.load(canonicalPath);
+        loads++;
+        modules.put(canonicalPath, new Module(modified, program));
+        return program;
+    }
+
+    public synchronized boolean contains(Path canonicalPath) {
+        return modules.containsKey(canonicalPath);
+    }
+
+    public synchronized int size() {
+        return modules.size();
+    }
+
+    // Quantas vezes um módulo precisou ser carregado (do disco ou do cache .mprc)
+    public synchronized int getLoads() {
+        return loads;
+    }
+}
@@ -0,0 +1,127 @@
+package minipar.cache;
+
+import minipar.lexer.Lexer;
+import minipar.opt.Optimizer;
+import minipar.parser.ASTNode;
+import minipar.parser.FlatAST;
+import minipar.parser.Node;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cache em disco de programas já analisados (léxico, sintático e semântico), no formato binário .mprc.
+// A chave é o SHA-256 do conteúdo do fonte: se o texto não mudou, o programa é só desserializado.
+// Arquivos de outra versão de formato ou corrompidos contam como ausentes e são regravados.
+// Com -Dminipar.opt=true a AST passa pelo Optimizer antes de ir para o cache, numa entrada à parte.
+public class ProgramCache {
+    public static final String EXTENSION = ".mprc";
+
+    private final Path directory;
+    private final boolean optimize = Optimizer.enabled();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public ProgramCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // Diretório padrão: -Dminipar.cache.dir ou <tmp>/minipar-cache
+    public static ProgramCache defaultCache() {
+        String dir = System.getProperty("minipar.cache.dir");
+        return new ProgramCache(dir != null ? Path.of(dir) : Path.of(System.getProperty("java.io.tmpdir"), "minipar-cache"));
+    }
+
+    public Node load(Path source) throws IOException {
+        byte[] bytes = Files.readAllBytes(source);
+        String hash = optimize ? hash(bytes) + "-opt" : hash(bytes);
+        Path compiled = directory.resolve(hash + EXTENSION);
+
+        FlatAST cached = read(compiled, hash);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return dump(represent(cached));
+        }
+
+        misses.incrementAndGet();
+        ASTNode ast = new Parser(new Lexer(new String(bytes, StandardCharsets.UTF_8)).scanParallel()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        if (optimize) new Optimizer().optimize(ast);
+
+        FlatAST flat = FlatAST.from(ast);
+        write(compiled, hash, flat);
+        return dump(flat.size() >= FlatAST.COMPACT_THRESHOLD ? flat.root() : ast);
+    }
+
+    // Mesma escolha da compilação: só programas grandes ficam na FlatAST; os outros voltam ao grafo
+    private static Node represent(FlatAST cached) {
+        return cached.size() >= FlatAST.COMPACT_THRESHOLD ? cached.root() : cached.toAST();
+    }
+
+    private Node dump(Node program) {
+        if (optimize && Optimizer.dumpEnabled()) Optimizer.dump(program);
+        return program;
+    }
+
+    private FlatAST read(Path compiled, String hash) {
+        if (!Files.isRegularFile(compiled)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(compiled)))) {
+            if (!in.readUTF().equals(hash)) return null;
+            return FlatAST.read(in);
+        } catch (IOException | RuntimeException e) {
+            return null; // versão antiga ou arquivo truncado: recompila
+        }
+    }
+
+    // Grava num temporário e move, para que leitores concorrentes nunca vejam um arquivo pela metade
+    private void write(Path compiled, String hash, FlatAST flat) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, hash, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeUTF(hash);
+                flat.write(out);
+            }
+            Files.move(temp, compiled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Sem cache o programa continua rodando; só perde a aceleração na próxima vez
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+}
@@ -1,16 +1,17 @@
 package minipar.gui;
 
 import minipar.lexer.*;
-import minipar.lexer.Token;
 import minipar.parser.*;
 import minipar.semantic.*;
 import minipar.interpreter.*;
+import minipar.opt.Optimizer;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.io.*;
 import java.nio.file.Files;
-import java.util.List;
 
 import org.fife.ui.rsyntaxtextarea.*;
 import org.fife.ui.rtextarea.*;
@@ -20,12 +21,14 @@ import com.formdev.flatlaf.FlatDarkLaf;
 import javax.swing.border.EmptyBorder;
 
 public class MiniParGUI extends JFrame {
+    private static final long serialVersionUID = 1L;
 
     private RSyntaxTextArea codeArea;
     private JTextArea astArea;
     private JTextArea outputArea;
     private File currentFile = null;
     private JLabel statusLabel;
+    private transient TokenEditor tokenEditor = new TokenEditor(new Lexer("").scan()); // mantido em dia a cada edição
 
     public MiniParGUI() {
         try {
@@ -49,6 +52,20 @@ public class MiniParGUI extends JFrame {
         codeArea.setSyntaxEditingStyle(SyntaxConstants.SYNTAX_STYLE_JAVA);
         codeArea.setCodeFoldingEnabled(true);
         codeArea.setFont(new Font("Consolas", Font.PLAIN, 14));
+        codeArea.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                tokenEditor.edit(e.getOffset(), 0, e.getLength(), codeArea.getText());
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                tokenEditor.edit(e.getOffset(), e.getLength(), 0, codeArea.getText());
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
         RTextScrollPane codeScrollPane = new RTextScrollPane(codeArea);
 
         astArea = criarTextArea(false);
@@ -178,22 +195,26 @@ public class MiniParGUI extends JFrame {
             InputStream originalIn = System.in;
             System.setIn(simulatedIn);
 
-            Lexer lexer = new Lexer(codigoFonte);
-            List<Token> tokens = lexer.tokenize();
+            // Com token inválido no texto, a análise completa mostra o erro
+            TokenBuffer buffer = tokenEditor.tokens();
+            if (buffer == null) {
+                buffer = new Lexer(codigoFonte).scanParallel();
+            }
 
-            Parser parser = new Parser(tokens);
+            Parser parser = new Parser(buffer);
             ASTNode ast = parser.parseProgram();
             astArea.setText(astToString(ast, ""));
 
             SemanticAnalyzer sem = new SemanticAnalyzer();
             sem.analyze(ast);
+            if (Optimizer.enabled()) new Optimizer().optimize(ast);
 
             PrintStream originalOut = System.out;
             ByteArrayOutputStream outputCapture = new ByteArrayOutputStream();
             System.setOut(new PrintStream(outputCapture));
 
-            Interpreter interpreter = new Interpreter();
-            interpreter.execute(ast);
+            Engine engine = Engine.create();
+            engine.execute(ast);
 
             System.setOut(originalOut);
             System.setIn(originalIn); // restaurar entrada
@@ -208,14 +229,14 @@ public class MiniParGUI extends JFrame {
         JOptionPane.showMessageDialog(this, msg, "Erro", JOptionPane.ERROR_MESSAGE);
     }
 
-    private String astToString(ASTNode node, String indent) {
+    private String astToString(Node node, String indent) {
         StringBuilder sb = new StringBuilder();
         sb.append(indent).append(node.getType());
         if (!node.getValue().isEmpty()) {
             sb.append(" (").append(node.getValue()).append(")");
         }
         sb.append("\n");
-        for (ASTNode child : node.getChildren()) {
+        for (Node child : node.getChildren()) {
             sb.append(astToString(child, indent + "  "));
         }
         return sb.toString();
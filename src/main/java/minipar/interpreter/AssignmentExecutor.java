@@ -1,68 +1,79 @@
 package minipar.interpreter;
 
-import minipar.parser.ASTNode;
+import minipar.interpreter.SpecializingNodes.NotInteger;
+import minipar.parser.Node;
+import minipar.semantic.Resolver;
 import minipar.semantic.SymbolTable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 public class AssignmentExecutor {
 
-    private final Map<String, Object> memory;
     private final SymbolTable symbolTable;
     private final ExpressionEvaluator evaluator;
 
-    public AssignmentExecutor(Map<String, Object> memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
-        this.memory = memory;
+    public AssignmentExecutor(SymbolTable symbolTable, ExpressionEvaluator evaluator) {
         this.symbolTable = symbolTable;
         this.evaluator = evaluator;
     }
 
-    public void executeAssignment(ASTNode stmt) {
-        String var = stmt.getChildren().get(0).getValue();
-        ASTNode expr = stmt.getChildren().get(1);
+    public void executeAssignment(Node stmt, Frame frame) {
+        Node target = stmt.getChildren().get(0);
+        String var = target.getValue();
+        Node expr = stmt.getChildren().get(1);
 
-        Object value;
+        Object previous;
+        String tipo;
 
-        if (expr.getType().equals("Lista")) {
-            List<Double> lista = new ArrayList<>();
-            for (ASTNode item : expr.getChildren()) {
-                lista.add(evaluator.evaluate(item));
-            }
-            value = lista;
+        NumberList lista = switch (expr.getKind()) {
+            case LISTA -> evaluator.evaluateList(expr, frame);
+            case CHAMADA_FUNCAO -> evaluator.evaluateListCall(expr, frame);
+            default -> null;
+        };
+        if (lista != null) {
+            previous = frame.set(Resolver.slotOf(target), lista);
+            tipo = "lista";
         } else {
-            value = evaluator.evaluate(expr); // int ou retorno de função
+            int slot = Resolver.slotOf(target);
+            if (!evaluator.yieldsLong(expr, frame)) {
+                previous = frame.setNumber(slot, evaluator.evaluate(expr, frame));
+                tipo = "float";
+            } else {
+                try {
+                    previous = frame.setLong(slot, evaluator.evaluateLong(expr, frame));
+                    tipo = "int";
+                } catch (NotInteger e) {
+                    previous = frame.setNumber(slot, e.value);
+                    tipo = "float";
+                }
+            }
         }
 
-        memory.put(var, value);
-
-        if (!symbolTable.isDeclared(var)) {
-            String tipo = (value instanceof List) ? "lista" : "int";
+        // Slot já ocupado implica variável já declarada; só a primeira atribuição consulta a tabela.
+        // Temporárias do otimizador não entram nela
+        if (previous == null && !Memory.isInternal(var) && !symbolTable.isDeclared(var)) {
             symbolTable.declare(var, tipo);
         }
     }
 
-    public void executeIndexAssignment(ASTNode stmt) {
+    public void executeIndexAssignment(Node stmt, Frame frame) {
         String nome = stmt.getValue();
-        double index = evaluator.evaluate(stmt.getChildren().get(0));
-        double valor = evaluator.evaluate(stmt.getChildren().get(1));
-
-        if (!memory.containsKey(nome)) throw new RuntimeException("Lista não declarada: " + nome);
-
-        Object objeto = memory.get(nome);
-        if (!(objeto instanceof List<?>)) {
-            throw new RuntimeException("Variável '" + nome + "' não é uma lista");
-        }
-        @SuppressWarnings("unchecked")
-        List<Double> lista = (List<Double>) objeto;
-
-        int i = (int) index;
-        if (i < 0 || i >= lista.size()) {
-            throw new RuntimeException("Índice fora dos limites da lista");
+        int slot = Resolver.slotOf(stmt);
+        double index = evaluator.evaluate(stmt.getChildren().get(0), frame);
+        Node valor = stmt.getChildren().get(1);
+        double numero;
+        if (evaluator.yieldsLong(valor, frame)) {
+            try {
+                long inteiro = evaluator.evaluateLong(valor, frame);
+                NumberList lista = NumberList.of(frame.get(slot), nome);
+                lista.storeLong(lista.index(index), inteiro);
+                return;
+            } catch (NotInteger e) {
+                numero = e.value;
+            }
+        } else {
+            numero = evaluator.evaluate(valor, frame);
         }
-
-        lista.set(i, valor);
+        NumberList lista = NumberList.of(frame.get(slot), nome);
+        NumberList atual = lista.store(lista.index(index), numero);
+        if (atual != lista) frame.set(slot, atual); // LongList que recebeu um double
     }
 }
@@ -1,6 +1,8 @@
 package minipar.interpreter;
 
-import minipar.parser.ASTNode;
+import minipar.interpreter.SpecializingNodes.NotInteger;
+import minipar.parser.Node;
+import minipar.semantic.Resolver;
 import minipar.semantic.SymbolTable;
 
 import java.util.Map;
@@ -9,18 +11,16 @@ public class ChannelExecutor {
 
     private final Map<String, Canal> canais;
     private final SymbolTable symbolTable;
-    private final Map<String, Object> memory;
     private final ExpressionEvaluator evaluator;
     private static int portaAtual = 5000;
 
-    public ChannelExecutor(Map<String, Canal> canais, Map<String, Object> memory, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
+    public ChannelExecutor(Map<String, Canal> canais, SymbolTable symbolTable, ExpressionEvaluator evaluator) {
         this.canais = canais;
-        this.memory = memory;
         this.symbolTable = symbolTable;
         this.evaluator = evaluator;
     }
 
-    public void declareChannel(ASTNode stmt) {
+    public void declareChannel(Node stmt) {
         String canal = stmt.getValue();
         String comp1 = stmt.getChildren().get(0).getValue();
         String comp2 = stmt.getChildren().get(1).getValue();
@@ -35,21 +35,47 @@ public class ChannelExecutor {
         System.out.println("Canal criado: " + canal + " entre " + comp1 + " e " + comp2 + " na porta " + c.getPorta());
     }
 
-    public void send(ASTNode stmt) {
+    public void send(Node stmt, Frame frame) {
         String canal = stmt.getValue();
+        Canal c = lookup(canal);
+
+        Node mensagemNode = stmt.getChildren().get(0);
+        if (evaluator.yieldsLong(mensagemNode, frame)) {
+            try {
+                send(c, canal, evaluator.evaluateLong(mensagemNode, frame));
+                return;
+            } catch (NotInteger e) {
+                send(c, canal, e.value);
+                return;
+            }
+        }
+        send(c, canal, evaluator.evaluate(mensagemNode, frame));
+    }
+
+    Canal lookup(String canal) {
         Canal c = canais.get(canal);
         if (c == null) throw new RuntimeException("Canal '" + canal + "' não existe");
+        return c;
+    }
+
+    // Inteiro vai como literal inteiro ("99"), para o receive guardar em long
+    void send(Canal c, String canal, long valor) {
+        transmit(c, canal, String.valueOf(valor));
+    }
 
-        ASTNode mensagemNode = stmt.getChildren().get(0);
-        double valor = evaluator.evaluate(mensagemNode); // correto agora
+    void send(Canal c, String canal, double valor) {
+        transmit(c, canal, String.valueOf(valor));
+    }
 
+    private static void transmit(Canal c, String canal, String valor) {
         System.out.println("[DEBUG] Enviando para canal " + canal + " valor: " + valor);
-        c.send(String.valueOf(valor));
+        c.send(valor);
     }
 
-    public void receive(ASTNode stmt) {
+    public void receive(Node stmt, Frame frame) {
         String canal = stmt.getValue();
-        String variavel = stmt.getChildren().get(0).getValue();
+        Node destino = stmt.getChildren().get(0);
+        String variavel = destino.getValue();
 
         Canal c = canais.get(canal);
         if (c == null) throw new RuntimeException("Canal '" + canal + "' não existe");
@@ -57,16 +83,27 @@ public class ChannelExecutor {
         System.out.println("[DEBUG] Recebendo de canal " + canal);
         String recebido = c.receive();
 
+        // O tipo declarado segue o que foi guardado: literal inteiro em long, o resto em double
+        int slot = Resolver.slotOf(destino);
+        if (isIntegerLiteral(recebido)) {
+            frame.setLong(slot, Long.parseLong(recebido));
+            symbolTable.declare(variavel, "int");
+            return;
+        }
         try {
-            double valor = Double.parseDouble(recebido);
-            memory.put(variavel, valor);
-            if (valor == (int) valor) {
-                symbolTable.declare(variavel, "int");
-            } else {
-                symbolTable.declare(variavel, "float");
-            }
+            frame.setNumber(slot, Double.parseDouble(recebido));
         } catch (NumberFormatException e) {
             throw new RuntimeException("Valor inválido recebido no canal '" + canal + "': " + recebido);
         }
+        symbolTable.declare(variavel, "float");
+    }
+
+    // Como no literal do código: "-0" é o -0.0 de um double
+    private static boolean isIntegerLiteral(String text) {
+        try {
+            return Long.parseLong(text) != 0 || !text.startsWith("-");
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 }
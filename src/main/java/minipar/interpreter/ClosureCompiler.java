@@ -0,0 +1,744 @@
+package minipar.interpreter;
+
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
+import minipar.semantic.SymbolTable;
+import minipar.stdlib.Intrinsic;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+// Motor de closures: cada bloco é traduzido uma única vez numa árvore de objetos funcionais, com
+// operador, literal e slot de variável já fixados na tradução. Na execução não sobra nenhum switch
+// sobre o tipo do nó ou o operador; cada closure só chama as filhas que capturou.
+// Mesma saída, mesmas mensagens de erro e mesma tabela de símbolos do Interpreter; erros de nós
+// inválidos continuam sendo lançados só quando a instrução é executada.
+// Um for que lê lista[i] com a própria variável i ganha duas versões do corpo: a normal e uma em
+// que essas leituras não checam a lista nem o índice, escolhida quando a entrada do laço prova que
+// de (int) início até fim todos os índices caem dentro das listas.
+final class ClosureCompiler {
+
+    interface Expression {
+        double evaluate(Frame frame);
+
+        // Valor no tipo inteiro (SpecializingNodes); o que não é inteiro lança NotInteger com o double
+        default long evaluateLong(Frame frame) throws SpecializingNodes.NotInteger {
+            throw new SpecializingNodes.NotInteger(evaluate(frame));
+        }
+
+        // Se vale tentar evaluateLong: false quando o valor com certeza sai double, para quem guarda
+        // o valor ir direto a evaluate sem uma NotInteger a cada execução
+        default boolean yieldsLong(Frame frame) {
+            return false;
+        }
+    }
+
+    // Expressão que também dá uma lista: literal de lista e chamada (null se o alvo devolve número)
+    interface ListExpression {
+        NumberList list(Frame frame);
+    }
+
+    interface Statement {
+        Completion execute(Frame frame);
+    }
+
+    interface Condition {
+        boolean test(Frame frame);
+    }
+
+    private final Interpreter interpreter;
+    private final SymbolTable symbolTable;
+    private final ExpressionEvaluator evaluator;
+    private final ChannelExecutor channelExecutor;
+    private final FunctionExecutor functionExecutor;
+
+    // Laços cuja versão sem checagem está sendo traduzida, do mais externo ao mais interno
+    private final List<Proof> proofs = new ArrayList<>();
+    private int parallel;
+
+    private record Proof(int loopSlot, int[] lists) {}
+
+    ClosureCompiler(Interpreter interpreter,
+                    SymbolTable symbolTable,
+                    ExpressionEvaluator evaluator,
+                    ChannelExecutor channelExecutor,
+                    FunctionExecutor functionExecutor) {
+        this.interpreter = interpreter;
+        this.symbolTable = symbolTable;
+        this.evaluator = evaluator;
+        this.channelExecutor = channelExecutor;
+        this.functionExecutor = functionExecutor;
+    }
+
+    // Equivalente a Interpreter.executeBlock, com o rastro de depuração na entrada
+    Statement block(Node block) {
+        String type = block.getType();
+        return switch (block.getKind()) {
+            case SEQ, BLOCO -> {
+                Statement[] body = statements(block);
+                yield frame -> {
+                    String thread = Thread.currentThread().getName();
+                    System.out.println("[DEBUG] Executando bloco tipo: " + type + " na thread " + thread);
+                    System.out.println("[THREAD] Iniciando bloco em thread: " + thread);
+                    return run(body, frame);
+                };
+            }
+            case PAR -> {
+                List<Statement> ramos = new ArrayList<>();
+                parallel++; // outra thread pode reatribuir a lista: nada de versão sem checagem
+                try {
+                    for (Node child : block.getChildren()) ramos.add(block(child));
+                } finally {
+                    parallel--;
+                }
+                yield frame -> {
+                    trace(type);
+                    parallel(ramos, frame);
+                    return Completion.NORMAL;
+                };
+            }
+            default -> frame -> {
+                trace(type);
+                throw new RuntimeException("Tipo de bloco desconhecido: " + type);
+            };
+        };
+    }
+
+    private static void trace(String type) {
+        System.out.println("[DEBUG] Executando bloco tipo: " + type + " na thread " + Thread.currentThread().getName());
+    }
+
+    // Um return dentro de uma thread paralela só encerra aquela thread
+    private static void parallel(List<Statement> ramos, Frame frame) {
+        List<Thread> threads = new ArrayList<>();
+        for (Statement ramo : ramos) {
+            Thread t = new Thread(() -> ramo.execute(frame));
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException("Erro em thread paralela", e);
+            }
+        }
+    }
+
+    private Statement[] statements(Node block) {
+        List<? extends Node> children = block.getChildren();
+        Statement[] body = new Statement[children.size()];
+        for (int i = 0; i < body.length; i++) body[i] = statement(children.get(i));
+        return body;
+    }
+
+    // Executa as instruções em ordem, parando no primeiro return
+    private static Completion run(Statement[] body, Frame frame) {
+        for (Statement stmt : body) {
+            if (stmt.execute(frame) == Completion.RETURN) return Completion.RETURN;
+        }
+        return Completion.NORMAL;
+    }
+
+    private Statement statement(Node stmt) {
+        return switch (stmt.getKind()) {
+            case ATRIBUICAO -> assignment(stmt);
+            case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+            case COMENTARIO -> frame -> Completion.NORMAL;
+            case C_CHANNEL -> frame -> {
+                channelExecutor.declareChannel(stmt);
+                return Completion.NORMAL;
+            };
+            case SEND -> send(stmt);
+            case RECEIVE -> frame -> {
+                channelExecutor.receive(stmt, frame);
+                return Completion.NORMAL;
+            };
+            case PRINT -> print(stmt);
+            case IF -> conditional(stmt);
+            case WHILE -> loop(stmt);
+            case FOR -> forLoop(stmt);
+            case DEF -> frame -> {
+                functionExecutor.register(stmt);
+                return Completion.NORMAL;
+            };
+            case RETURN -> {
+                Expression value = expression(stmt.getChildren().get(0));
+                yield frame -> frame.returnWith(value.evaluate(frame));
+            }
+            case CHAMADA_FUNCAO -> {
+                Expression call = call(stmt);
+                yield frame -> {
+                    call.evaluate(frame);
+                    return Completion.NORMAL;
+                };
+            }
+            case IMPORT -> frame -> {
+                interpreter.executeImport(stmt);
+                return Completion.NORMAL;
+            };
+            default -> {
+                String type = stmt.getType();
+                yield frame -> {
+                    throw new RuntimeException("Instrução não suportada: " + type);
+                };
+            }
+        };
+    }
+
+    private Statement assignment(Node stmt) {
+        Node target = stmt.getChildren().get(0);
+        String var = target.getValue();
+        int slot = Resolver.slotOf(target);
+        Node expr = stmt.getChildren().get(1);
+
+        if (expr.getKind() == NodeKind.LISTA) {
+            Expression[] items = expressions(expr.getChildren());
+            return frame -> {
+                declare(frame.set(slot, list(items, frame)), var, "lista");
+                return Completion.NORMAL;
+            };
+        }
+        Expression value = expression(expr);
+        if (expr.getKind() == NodeKind.CHAMADA_FUNCAO) {
+            ListExpression call = (ListExpression) value;
+            return frame -> {
+                NumberList lista = call.list(frame);
+                if (lista != null) {
+                    declare(frame.set(slot, lista), var, "lista");
+                    return Completion.NORMAL;
+                }
+                store(frame, slot, value, var);
+                return Completion.NORMAL;
+            };
+        }
+        return frame -> {
+            store(frame, slot, value, var);
+            return Completion.NORMAL;
+        };
+    }
+
+    // Número guardado como long enquanto o valor for inteiro; o que já se sabe double vai direto
+    private void store(Frame frame, int slot, Expression value, String var) {
+        if (!value.yieldsLong(frame)) {
+            declare(frame.setNumber(slot, value.evaluate(frame)), var, "float");
+            return;
+        }
+        try {
+            declare(frame.setLong(slot, value.evaluateLong(frame)), var, "int");
+        } catch (SpecializingNodes.NotInteger e) {
+            declare(frame.setNumber(slot, e.value), var, "float");
+        }
+    }
+
+    // Mesma escolha de ExpressionEvaluator.evaluateList: LongList até o primeiro item que não é inteiro
+    private static NumberList list(Expression[] items, Frame frame) {
+        LongList inteiros = new LongList(items.length);
+        for (int k = 0; k < items.length; k++) {
+            double valor;
+            if (items[k].yieldsLong(frame)) {
+                try {
+                    inteiros.add(items[k].evaluateLong(frame));
+                    continue;
+                } catch (SpecializingNodes.NotInteger e) {
+                    valor = e.value;
+                }
+            } else {
+                valor = items[k].evaluate(frame);
+            }
+            DoubleList reais = inteiros.toDoubleList(items.length);
+            reais.add(valor);
+            for (k++; k < items.length; k++) reais.add(items[k].evaluate(frame));
+            return reais;
+        }
+        return inteiros;
+    }
+
+    // Slot já ocupado implica variável já declarada; só a primeira atribuição consulta a tabela.
+    // Temporárias do otimizador não entram nela
+    private void declare(Object previous, String var, String tipo) {
+        if (previous == null && !Memory.isInternal(var) && !symbolTable.isDeclared(var)) {
+            symbolTable.declare(var, tipo);
+        }
+    }
+
+    private Statement indexAssignment(Node stmt) {
+        String nome = stmt.getValue();
+        int slot = Resolver.slotOf(stmt);
+        Expression index = expression(stmt.getChildren().get(0));
+        Expression value = expression(stmt.getChildren().get(1));
+        return frame -> {
+            double i = index.evaluate(frame);
+            double numero;
+            if (value.yieldsLong(frame)) {
+                try {
+                    long inteiro = value.evaluateLong(frame);
+                    NumberList lista = NumberList.of(frame.get(slot), nome);
+                    lista.storeLong(lista.index(i), inteiro);
+                    return Completion.NORMAL;
+                } catch (SpecializingNodes.NotInteger e) {
+                    numero = e.value;
+                }
+            } else {
+                numero = value.evaluate(frame);
+            }
+            NumberList lista = NumberList.of(frame.get(slot), nome);
+            NumberList atual = lista.store(lista.index(i), numero);
+            if (atual != lista) frame.set(slot, atual); // LongList que recebeu um double
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement send(Node stmt) {
+        String canal = stmt.getValue();
+        Expression mensagem = expression(stmt.getChildren().get(0));
+        return frame -> {
+            Canal c = channelExecutor.lookup(canal);
+            if (mensagem.yieldsLong(frame)) {
+                try {
+                    channelExecutor.send(c, canal, mensagem.evaluateLong(frame));
+                } catch (SpecializingNodes.NotInteger e) {
+                    channelExecutor.send(c, canal, e.value);
+                }
+            } else {
+                channelExecutor.send(c, canal, mensagem.evaluate(frame));
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    // Strings literais ficam prontas; os demais argumentos guardam o texto cru para o fallback
+    private Statement print(Node stmt) {
+        List<? extends Node> args = stmt.getChildren();
+        String[] texts = new String[args.size()];
+        Expression[] values = new Expression[args.size()];
+        for (int i = 0; i < texts.length; i++) {
+            Node arg = args.get(i);
+            String raw = arg.getValue();
+            if (arg.isString()) {
+                texts[i] = raw.substring(1, raw.length() - 1);
+            } else {
+                texts[i] = raw;
+                values[i] = expression(arg);
+            }
+        }
+        return frame -> {
+            StringBuilder output = new StringBuilder();
+            for (int i = 0; i < texts.length; i++) {
+                if (values[i] == null) {
+                    output.append(texts[i]);
+                } else {
+                    try {
+                        double valor = values[i].evaluate(frame);
+                        output.append(valor);
+                    } catch (RuntimeException e) {
+                        output.append(texts[i]);
+                    }
+                }
+                output.append(" ");
+            }
+            System.out.println(output.toString().trim());
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement conditional(Node stmt) {
+        Condition condition = condition(stmt.getChildren().get(0));
+        Statement[] then = statements(stmt.getChildren().get(1));
+        if (stmt.getChildren().size() <= 2) {
+            return frame -> condition.test(frame) ? run(then, frame) : Completion.NORMAL;
+        }
+        Statement[] otherwise = statements(stmt.getChildren().get(2));
+        return frame -> run(condition.test(frame) ? then : otherwise, frame);
+    }
+
+    private Statement loop(Node stmt) {
+        Condition condition = condition(stmt.getChildren().get(0));
+        Statement[] body = statements(stmt.getChildren().get(1));
+        return frame -> {
+            while (condition.test(frame)) {
+                if (run(body, frame) == Completion.RETURN) return Completion.RETURN;
+                frame.backEdge();
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement forLoop(Node stmt) {
+        String varName = stmt.getValue();
+        int slot = Resolver.slotOf(stmt);
+        Expression start = expression(stmt.getChildren().get(0));
+        Expression end = expression(stmt.getChildren().get(1));
+        Node corpo = stmt.getChildren().get(2);
+        Statement[] checked = statements(corpo);
+        int[] lists = parallel == 0 ? provable(stmt) : new int[0];
+        Statement[] unchecked = lists.length > 0 ? unchecked(slot, lists, corpo) : null;
+        return frame -> {
+            double inicio = start.evaluate(frame);
+            double fim = end.evaluate(frame);
+            Statement[] body = unchecked != null && inBounds(frame, lists, inicio, fim) ? unchecked : checked;
+            for (int i = (int) inicio; i <= fim; i++) {
+                declare(frame.setInteger(slot, i), varName, "int");
+                if (run(body, frame) == Completion.RETURN) return Completion.RETURN;
+                frame.backEdge();
+            }
+            return Completion.NORMAL;
+        };
+    }
+
+    private Statement[] unchecked(int loopSlot, int[] lists, Node corpo) {
+        proofs.add(new Proof(loopSlot, lists));
+        try {
+            return statements(corpo);
+        } finally {
+            proofs.removeLast();
+        }
+    }
+
+    // Listas lidas como lista[i] no corpo, com i a variável do laço, que nem a lista nem i são
+    // reatribuídas no corpo. Uma chamada pode reatribuir globais (a função pode fazer import), então
+    // com chamadas só valem variável do laço e listas locais; com import no corpo, nenhuma.
+    static int[] provable(Node loop) {
+        int var = Resolver.slotOf(loop);
+        Set<Integer> lidas = new LinkedHashSet<>();
+        Set<Integer> atribuidas = new HashSet<>();
+        EnumSet<NodeKind> efeitos = EnumSet.noneOf(NodeKind.class);
+        scan(loop.getChildren().get(2), var, lidas, atribuidas, efeitos);
+        if (efeitos.contains(NodeKind.IMPORT) || atribuidas.contains(var)) return new int[0];
+        lidas.removeAll(atribuidas);
+        if (efeitos.contains(NodeKind.CHAMADA_FUNCAO)) {
+            if (!Resolver.isLocal(var)) return new int[0];
+            lidas.removeIf(lista -> !Resolver.isLocal(lista));
+        }
+        return lidas.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void scan(Node node, int var, Set<Integer> lidas, Set<Integer> atribuidas,
+                             EnumSet<NodeKind> efeitos) {
+        for (Node child : node.getChildren()) {
+            switch (child.getKind()) {
+                case DEF -> { continue; }
+                case ATRIBUICAO, RECEIVE -> atribuidas.add(Resolver.slotOf(child.getChildren().get(0)));
+                case FOR -> atribuidas.add(Resolver.slotOf(child));
+                case INDEXACAO -> {
+                    if (isLoopIndex(child.getChildren().get(0), var)) lidas.add(Resolver.slotOf(child));
+                }
+                case CHAMADA_FUNCAO, IMPORT -> efeitos.add(child.getKind());
+                default -> {}
+            }
+            scan(child, var, lidas, atribuidas, efeitos);
+        }
+    }
+
+    private static boolean isLoopIndex(Node index, int var) {
+        return index.isVariable() && Resolver.slotOf(index) == var;
+    }
+
+    // i vai de (int) início até fim: as listas já precisam estar nas variáveis e cobrir o intervalo
+    private static boolean inBounds(Frame frame, int[] lists, double inicio, double fim) {
+        if ((int) inicio < 0) return false;
+        for (int slot : lists) {
+            if (!(frame.tag(slot) instanceof NumberList lista) || !(fim < lista.size())) return false;
+        }
+        return true;
+    }
+
+    private Condition condition(Node node) {
+        if (node.getKind() != NodeKind.BIN_OP) {
+            return frame -> {
+                throw new RuntimeException("Condição inválida");
+            };
+        }
+        Expression l = expression(node.getChildren().get(0));
+        Expression r = expression(node.getChildren().get(1));
+        Operator op = node.getOperator();
+        if (op == null || !op.isComparison()) {
+            String value = node.getValue();
+            return frame -> {
+                l.evaluate(frame);
+                r.evaluate(frame);
+                throw new RuntimeException("Operador inválido em condição: " + value);
+            };
+        }
+        return switch (op) {
+            case EQ -> frame -> l.evaluate(frame) == r.evaluate(frame);
+            case NE -> frame -> l.evaluate(frame) != r.evaluate(frame);
+            case LT -> frame -> l.evaluate(frame) < r.evaluate(frame);
+            case GT -> frame -> l.evaluate(frame) > r.evaluate(frame);
+            case LE -> frame -> l.evaluate(frame) <= r.evaluate(frame);
+            default -> frame -> l.evaluate(frame) >= r.evaluate(frame);
+        };
+    }
+
+    private Expression[] expressions(List<? extends Node> nodes) {
+        Expression[] compiled = new Expression[nodes.size()];
+        for (int i = 0; i < compiled.length; i++) compiled[i] = expression(nodes.get(i));
+        return compiled;
+    }
+
+    private Expression expression(Node node) {
+        return switch (node.getKind()) {
+            case VALOR -> value(node);
+            case LISTA -> listLiteral(node);
+            case INPUT -> frame -> evaluator.evaluateInput();
+            case BIN_OP -> binary(node);
+            case INDEXACAO -> index(node);
+            case CHAMADA_FUNCAO -> call(node);
+            default -> {
+                String type = node.getType();
+                yield frame -> {
+                    throw new RuntimeException("Expressão inválida: " + type);
+                };
+            }
+        };
+    }
+
+    // Como número o valor da lista não é usado diretamente (os itens só são avaliados); como
+    // argumento de nativa a lista é montada
+    private Expression listLiteral(Node node) {
+        Expression[] items = expressions(node.getChildren());
+        final class Literal implements Expression, ListExpression {
+            public double evaluate(Frame frame) {
+                for (Expression item : items) item.evaluate(frame);
+                return 0;
+            }
+
+            public NumberList list(Frame frame) {
+                return ClosureCompiler.list(items, frame);
+            }
+        }
+        return new Literal();
+    }
+
+    private Expression value(Node node) {
+        if (node.isInteger()) return SpecializingNodes.constant(node.getInteger());
+        if (node.isNumber()) return SpecializingNodes.constant(node.getNumber());
+        String val = node.getValue();
+        if (node.isString()) {
+            String text = val.substring(1, val.length() - 1);
+            return frame -> {
+                System.out.println(text);
+                return 0;
+            };
+        }
+        return new SpecializingNodes.Read(Resolver.slotOf(node), val);
+    }
+
+    // Dentro da versão provada de um for, lista[i] lê direto; fora dela, mesmas checagens do ExpressionEvaluator
+    private Expression index(Node node) {
+        String nome = node.getValue();
+        int slot = Resolver.slotOf(node);
+        Node indexNode = node.getChildren().get(0);
+        if (isProven(slot, indexNode)) return provenIndex(slot, Resolver.slotOf(indexNode));
+        Expression index = expression(indexNode);
+        return new Expression() {
+            public double evaluate(Frame frame) {
+                double i = index.evaluate(frame);
+                NumberList lista = NumberList.of(frame.tag(slot), nome);
+                return lista.getDouble(lista.index(i));
+            }
+
+            public long evaluateLong(Frame frame) throws SpecializingNodes.NotInteger {
+                double i = index.evaluate(frame);
+                NumberList lista = NumberList.of(frame.tag(slot), nome);
+                return element(lista, lista.index(i));
+            }
+
+            public boolean yieldsLong(Frame frame) {
+                return frame.tag(slot) instanceof LongList;
+            }
+        };
+    }
+
+    private boolean isProven(int list, Node index) {
+        for (Proof proof : proofs) {
+            if (!isLoopIndex(index, proof.loopSlot())) continue;
+            for (int slot : proof.lists()) if (slot == list) return true;
+        }
+        return false;
+    }
+
+    // A variável do laço guarda o Integer do for e a variável guarda uma lista que cobre todos os i
+    private static Expression provenIndex(int slot, int loop) {
+        return new Expression() {
+            public double evaluate(Frame frame) {
+                return ((NumberList) frame.tag(slot)).getDouble((int) frame.number(loop));
+            }
+
+            public long evaluateLong(Frame frame) throws SpecializingNodes.NotInteger {
+                return element((NumberList) frame.tag(slot), (int) frame.number(loop));
+            }
+
+            public boolean yieldsLong(Frame frame) {
+                return frame.tag(slot) instanceof LongList;
+            }
+        };
+    }
+
+    private static long element(NumberList lista, int i) throws SpecializingNodes.NotInteger {
+        if (lista instanceof LongList inteiros) return inteiros.getLong(i);
+        throw new SpecializingNodes.NotInteger(lista.getDouble(i));
+    }
+
+    private Expression binary(Node node) {
+        Expression l = expression(node.getChildren().get(0));
+        Expression r = expression(node.getChildren().get(1));
+        Operator op = node.getOperator();
+        if (op == null) {
+            String value = node.getValue();
+            return frame -> {
+                l.evaluate(frame);
+                r.evaluate(frame);
+                throw new RuntimeException("Operador inválido: " + value);
+            };
+        }
+        return new SpecializingNodes.Arithmetic(op, l, r);
+    }
+
+    // A função vem do cache do call site antes de avaliar os argumentos, como em FunctionExecutor.call;
+    // a chamada ligada a uma nativa vai direto ao corpo dela
+    private Expression call(Node node) {
+        int site = Resolver.callSiteOf(node);
+        Expression[] args = expressions(node.getChildren());
+        Call call = new Call(node.getValue(), site, args, listArguments(node.getChildren(), args));
+        Intrinsic nativa = functionExecutor.bound(site);
+        return nativa == null ? call : new Bound(call, nativa);
+    }
+
+    private final class Call implements Expression, ListExpression {
+        private final String nome;
+        private final int site;
+        private final Expression[] args;
+        private final ListExpression[] listas;
+
+        Call(String nome, int site, Expression[] args, ListExpression[] listas) {
+            this.nome = nome;
+            this.site = site;
+            this.args = args;
+            this.listas = listas;
+        }
+
+        public double evaluate(Frame frame) {
+            FunctionExecutor.CallSite alvo = functionExecutor.target(site, nome, args.length);
+            if (alvo.intrinsic() != null) return intrinsic(alvo.intrinsic(), frame);
+            Function func = alvo.function();
+            MethodHandle compilado = functionExecutor.compiled(func);
+            if (compilado != null) {
+                double[] valores = new double[args.length];
+                for (int i = 0; i < valores.length; i++) valores[i] = args[i].evaluate(frame);
+                return functionExecutor.invokeCompiled(compilado, valores);
+            }
+            Frame chamada = functionExecutor.newFrame(func);
+            int[] parametros = func.paramSlots();
+            for (int i = 0; i < parametros.length; i++) chamada.setNumber(parametros[i], args[i].evaluate(frame));
+            return functionExecutor.run(func, chamada);
+        }
+
+        public NumberList list(Frame frame) {
+            Intrinsic nativa = functionExecutor.target(site, nome, args.length).intrinsic();
+            if (!(nativa instanceof Intrinsic.ListToList f)) return null;
+            return f.body().apply(lists(f, frame), numbers(f, frame));
+        }
+
+        double intrinsic(Intrinsic nativa, Frame frame) {
+            return switch (nativa) {
+                case Intrinsic.Nullary n -> n.body().getAsDouble();
+                case Intrinsic.Unary u -> u.body().applyAsDouble(args[0].evaluate(frame));
+                case Intrinsic.Binary b -> b.body().applyAsDouble(args[0].evaluate(frame), args[1].evaluate(frame));
+                case Intrinsic.ListToNumber f -> f.body().apply(lists(f, frame), numbers(f, frame));
+                case Intrinsic.ListToList f -> {
+                    f.body().apply(lists(f, frame), numbers(f, frame));
+                    yield 0;
+                }
+            };
+        }
+
+        // Mesma ordem de ExpressionEvaluator: as listas da esquerda para a direita, depois os números
+        NumberList[] lists(Intrinsic.OnLists nativa, Frame frame) {
+            NumberList[] valores = new NumberList[nativa.lists()];
+            for (int i = 0; i < valores.length; i++) {
+                NumberList lista = listas[i] == null ? null : listas[i].list(frame);
+                if (lista == null) throw nativa.notAList();
+                valores[i] = lista;
+            }
+            return valores;
+        }
+
+        double[] numbers(Intrinsic.OnLists nativa, Frame frame) {
+            double[] valores = new double[nativa.numbers()];
+            for (int i = 0; i < valores.length; i++) valores[i] = args[nativa.lists() + i].evaluate(frame);
+            return valores;
+        }
+    }
+
+    // Chamada ligada a uma nativa (IntrinsicResolver): sqrt(x) vira uma closure que chama Math.sqrt
+    // com o double do argumento, sem passar pelo call site. Se um def de outro módulo esconder a
+    // nativa, volta a ser uma chamada comum.
+    private final class Bound implements Expression, ListExpression {
+        private final Call call;
+        private final Expression direct;
+        private final ListExpression directList; // só nas nativas que devolvem lista
+
+        Bound(Call call, Intrinsic nativa) {
+            this.call = call;
+            Expression[] args = call.args;
+            direct = switch (nativa) {
+                case Intrinsic.Nullary n -> {
+                    DoubleSupplier body = n.body();
+                    yield frame -> body.getAsDouble();
+                }
+                case Intrinsic.Unary u -> {
+                    DoubleUnaryOperator body = u.body();
+                    Expression a = args[0];
+                    yield frame -> body.applyAsDouble(a.evaluate(frame));
+                }
+                case Intrinsic.Binary b -> {
+                    DoubleBinaryOperator body = b.body();
+                    Expression a = args[0];
+                    Expression c = args[1];
+                    yield frame -> body.applyAsDouble(a.evaluate(frame), c.evaluate(frame));
+                }
+                default -> frame -> call.intrinsic(nativa, frame);
+            };
+            directList = nativa instanceof Intrinsic.ListToList f
+                    ? frame -> f.body().apply(call.lists(f, frame), call.numbers(f, frame))
+                    : null;
+        }
+
+        public double evaluate(Frame frame) {
+            return functionExecutor.isShadowed() ? call.evaluate(frame) : direct.evaluate(frame);
+        }
+
+        public NumberList list(Frame frame) {
+            if (functionExecutor.isShadowed()) return call.list(frame);
+            return directList == null ? null : directList.list(frame);
+        }
+    }
+
+    // Cada argumento como lista, para o caso de o nome cair numa nativa: variável, literal de lista
+    // ou chamada; null nos que nunca são lista
+    private static ListExpression[] listArguments(List<? extends Node> nodes, Expression[] args) {
+        ListExpression[] listas = new ListExpression[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Node node = nodes.get(i);
+            if (args[i] instanceof ListExpression lista) {
+                listas[i] = lista;
+            } else if (node.isVariable()) {
+                int slot = Resolver.slotOf(node);
+                String nome = node.getValue();
+                listas[i] = frame -> NumberList.of(frame.tag(slot), nome);
+            }
+        }
+        return listas;
+    }
+}
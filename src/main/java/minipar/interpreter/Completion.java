@@ -0,0 +1,8 @@
+package minipar.interpreter;
+
+// Como uma instrução terminou: NORMAL segue para a próxima; RETURN interrompe os blocos até a
+// chamada da função, que lê o valor guardado no frame (sem lançar exceção a cada return)
+public enum Completion {
+    NORMAL,
+    RETURN
+}
@@ -1,6 +1,9 @@
 package minipar.interpreter;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
 
 import java.util.List;
 
@@ -14,67 +17,69 @@ public class ControlFlowExecutor {
         this.evaluator = evaluator;
     }
 
-    public void executeIf(ASTNode stmt) {
-        ASTNode condition = stmt.getChildren().get(0);
-        ASTNode block = stmt.getChildren().get(1);
+    public Completion executeIf(Node stmt, Frame frame) {
+        Node condition = stmt.getChildren().get(0);
+        Node block = stmt.getChildren().get(1);
 
-        if (evaluateCondition(condition)) {
-            executeBlock(block);
+        if (evaluateCondition(condition, frame)) {
+            return interpreter.executeStatements(block, frame);
         } else if (stmt.getChildren().size() > 2) {
-                ASTNode elseBlock = stmt.getChildren().get(2);
-                executeBlock(elseBlock);
+                Node elseBlock = stmt.getChildren().get(2);
+                return interpreter.executeStatements(elseBlock, frame);
         }
+        return Completion.NORMAL;
     }
 
-    public void executeWhile(ASTNode stmt) {
-        ASTNode condition = stmt.getChildren().get(0);
-        ASTNode block = stmt.getChildren().get(1);
+    public Completion executeWhile(Node stmt, Frame frame) {
+        Node condition = stmt.getChildren().get(0);
+        Node block = stmt.getChildren().get(1);
 
-        while (evaluateCondition(condition)) {
-            executeBlock(block);
+        while (evaluateCondition(condition, frame)) {
+            if (interpreter.executeStatements(block, frame) == Completion.RETURN) return Completion.RETURN;
+            frame.backEdge();
         }
+        return Completion.NORMAL;
     }
 
-    private boolean evaluateCondition(ASTNode node) {
-        if (!node.getType().equals("BinOp")) {
+    private boolean evaluateCondition(Node node, Frame frame) {
+        if (node.getKind() != NodeKind.BIN_OP) {
             throw new RuntimeException("Condição inválida");
         }
 
-        double left = evaluator.evaluate(node.getChildren().get(0));
-        double right = evaluator.evaluate(node.getChildren().get(1));
+        double left = evaluator.evaluate(node.getChildren().get(0), frame);
+        double right = evaluator.evaluate(node.getChildren().get(1), frame);
 
-        return switch (node.getValue()) {
-            case "==" -> left == right;
-            case "!=" -> left != right;
-            case "<"  -> left < right;
-            case ">"  -> left > right;
-            case "<=" -> left <= right;
-            case ">=" -> left >= right;
-            default -> throw new RuntimeException("Operador inválido em condição: " + node.getValue());
-        };
-    }
-    private void executeBlock(ASTNode block) {
-        for (ASTNode child : block.getChildren()) {
-            interpreter.executeStatement(child);
+        Operator op = node.getOperator();
+        if (op == null || !op.isComparison()) {
+            throw new RuntimeException("Operador inválido em condição: " + node.getValue());
         }
+        return switch (op) {
+            case EQ -> left == right;
+            case NE -> left != right;
+            case LT -> left < right;
+            case GT -> left > right;
+            case LE -> left <= right;
+            default -> left >= right;
+        };
     }
-    public void executeFor(ASTNode forNode) {
+    public Completion executeFor(Node forNode, Frame frame) {
         String varName = forNode.getValue(); // Ex: "i"
-        ASTNode inicioNode = forNode.getChildren().get(0);
-        ASTNode fimNode = forNode.getChildren().get(1);
-        ASTNode corpo = forNode.getChildren().get(2);
+        Node inicioNode = forNode.getChildren().get(0);
+        Node fimNode = forNode.getChildren().get(1);
+        Node corpo = forNode.getChildren().get(2);
 
-        double inicio = evaluator.evaluate(inicioNode);
-        double fim = evaluator.evaluate(fimNode);
+        double inicio = evaluator.evaluate(inicioNode, frame);
+        double fim = evaluator.evaluate(fimNode, frame);
 
+        int slot = Resolver.slotOf(forNode);
         for (int i = (int) inicio; i <= fim; i++) {
-            interpreter.getMemory().put(varName, i);
-            if (!interpreter.getSymbolTable().isDeclared(varName)) {
+            Object previous = frame.setInteger(slot, i);
+            if (previous == null && !interpreter.getSymbolTable().isDeclared(varName)) {
                 interpreter.getSymbolTable().declare(varName, "int");
             }
-            for (ASTNode stmt : corpo.getChildren()) {
-                interpreter.executeStatement(stmt);
-            }
+            if (interpreter.executeStatements(corpo, frame) == Completion.RETURN) return Completion.RETURN;
+            frame.backEdge();
         }
+        return Completion.NORMAL;
     }
 }
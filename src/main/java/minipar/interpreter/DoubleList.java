@@ -0,0 +1,68 @@
+package minipar.interpreter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Lista de números em double[], crescendo por dobra como a ArrayList
+public final class DoubleList extends NumberList {
+    private double[] items;
+    private int size;
+
+    public DoubleList() {
+        this(10);
+    }
+
+    public DoubleList(int capacity) {
+        items = new double[capacity];
+    }
+
+    // Lista que assume o array calculado por uma nativa, sem copiar
+    public DoubleList(double[] items, int size) {
+        this.items = items;
+        this.size = size;
+    }
+
+    public void add(double value) {
+        if (size == items.length) items = Arrays.copyOf(items, Math.max(10, size * 2));
+        items[size++] = value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return items[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public double[] doubles() {
+        return items;
+    }
+
+    @Override
+    public NumberList slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return new DoubleList(Arrays.copyOfRange(items, from, to), to - from);
+    }
+
+    @Override
+    public NumberList append(double value) {
+        DoubleList copia = new DoubleList(Arrays.copyOf(items, size + 1), size);
+        copia.add(value);
+        return copia;
+    }
+
+    @Override
+    public NumberList store(int index, double value) {
+        items[Objects.checkIndex(index, size)] = value;
+        return this;
+    }
+
+    @Override
+    public void storeLong(int index, long value) {
+        store(index, value);
+    }
+}
@@ -0,0 +1,30 @@
+package minipar.interpreter;
+
+import minipar.cache.ModuleRegistry;
+import minipar.parser.Node;
+import minipar.vm.VirtualMachine;
+
+// Motor de execução de um programa já analisado. O motor padrão percorre a árvore (Interpreter);
+// -Dminipar.engine=closure traduz a árvore em closures antes de executar e -Dminipar.engine=vm
+// compila para bytecode de registradores e executa na VirtualMachine (avisando em System.err quando o
+// programa não compila e cai no interpretador de árvore)
+public interface Engine {
+    String PROPERTY = "minipar.engine";
+
+    void execute(Node root);
+
+    Memory getMemory();
+
+    static Engine create() {
+        return create(System.getProperty(PROPERTY, "tree"));
+    }
+
+    static Engine create(String name) {
+        return switch (name) {
+            case "tree" -> new Interpreter();
+            case "closure" -> new Interpreter(ModuleRegistry.shared(), true);
+            case "vm" -> new VirtualMachine(true);
+            default -> throw new RuntimeException("Motor de execução desconhecido: " + name);
+        };
+    }
+}
@@ -1,44 +1,132 @@
 package minipar.interpreter;
 
-import minipar.parser.ASTNode;
+import minipar.interpreter.SpecializingNodes.NotInteger;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
+import minipar.stdlib.Intrinsic;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 public class ExpressionEvaluator {
 
-    private final Map<String, Object> memory;
-    private List<Double> lastEvaluatedList;
     private FunctionExecutor functionExecutor;
     private final Scanner scanner;
 
-    public ExpressionEvaluator(Map<String, Object> memory, FunctionExecutor functionExecutor, Scanner scanner) {
-        this.memory = memory;
+    public ExpressionEvaluator(FunctionExecutor functionExecutor, Scanner scanner) {
         this.functionExecutor = functionExecutor;
         this.scanner = scanner;
     }
 
-    public double evaluate(ASTNode node) {
-        return switch (node.getType()) {
-            case "Valor" -> evaluateLiteral(node.getValue());
-            case "Lista" -> { yield evaluateList(node); }
-            case "input" -> { yield evaluateInput(); }
-            case "BinOp" -> evaluateBinary(node);
-            case "ChamadaFuncao" -> functionExecutor.call(node);
+    public double evaluate(Node node, Frame frame) {
+        return switch (node.getKind()) {
+            case VALOR -> node.isNumber() ? node.getNumber() : evaluateLiteral(node, frame);
+            case LISTA -> {
+                for (Node item : node.getChildren()) evaluate(item, frame);
+                yield 0; // valor da lista não é usado diretamente
+            }
+            case INPUT -> { yield evaluateInput(); }
+            case BIN_OP -> evaluateBinary(node, frame);
+            case INDEXACAO -> {
+                double index = evaluate(node.getChildren().get(0), frame);
+                NumberList lista = indexed(node, frame);
+                yield lista.getDouble(lista.index(index));
+            }
+            case CHAMADA_FUNCAO -> functionExecutor.call(node, frame);
             default -> throw new RuntimeException("Expressão inválida: " + node.getType());
         };
     }
 
-    private double evaluateList(ASTNode node) {
-        lastEvaluatedList = new ArrayList<>();
-        for (ASTNode item : node.getChildren()) {
-            lastEvaluatedList.add(evaluate(item));
+    // Valor com o tipo inteiro preservado, para quem guarda o resultado: literais inteiros, variáveis
+    // inteiras e contas só entre eles dão long; o resto (ou um operando double) lança NotInteger com
+    // o valor já calculado em double
+    long evaluateLong(Node node, Frame frame) throws NotInteger {
+        return switch (node.getKind()) {
+            case VALOR -> {
+                if (node.isInteger()) yield node.getInteger();
+                if (node.isVariable()) yield readLong(node, frame);
+                throw new NotInteger(evaluate(node, frame));
+            }
+            case BIN_OP -> evaluateBinaryLong(node, frame);
+            case INDEXACAO -> {
+                double index = evaluate(node.getChildren().get(0), frame);
+                NumberList lista = indexed(node, frame);
+                int i = lista.index(index);
+                if (lista instanceof LongList inteiros) yield inteiros.getLong(i);
+                throw new NotInteger(lista.getDouble(i));
+            }
+            default -> throw new NotInteger(evaluate(node, frame));
+        };
+    }
+
+    // Se vale tentar evaluateLong: false quando o valor com certeza sai double (literal ou variável
+    // double, chamada, item de DoubleList), sem avaliar nada. Quem guarda o valor consulta antes, e a
+    // NotInteger fica só para a guarda que falha de fato (7 / 2, estouro do long)
+    boolean yieldsLong(Node node, Frame frame) {
+        return switch (node.getKind()) {
+            case VALOR -> node.isInteger() || node.isVariable() && isInteger(frame.tag(Resolver.slotOf(node)));
+            case BIN_OP -> node.getOperator() != null && yieldsLong(node.getChildren().get(0), frame)
+                    && yieldsLong(node.getChildren().get(1), frame);
+            case INDEXACAO -> frame.tag(Resolver.slotOf(node)) instanceof LongList;
+            default -> false;
+        };
+    }
+
+    private static boolean isInteger(Object tag) {
+        return tag == Memory.LONG || tag == Memory.INTEGER;
+    }
+
+    // Lista de lista[i], buscada depois de avaliar o índice, na mesma ordem da atribuição por índice
+    private static NumberList indexed(Node node, Frame frame) {
+        return NumberList.of(frame.tag(Resolver.slotOf(node)), node.getValue());
+    }
+
+    // Lista de um literal: LongList enquanto os itens forem inteiros, DoubleList a partir do primeiro
+    // que não for
+    NumberList evaluateList(Node node, Frame frame) {
+        List<? extends Node> items = node.getChildren();
+        LongList inteiros = new LongList(items.size());
+        for (int k = 0; k < items.size(); k++) {
+            Node item = items.get(k);
+            double valor;
+            if (yieldsLong(item, frame)) {
+                try {
+                    inteiros.add(evaluateLong(item, frame));
+                    continue;
+                } catch (NotInteger e) {
+                    valor = e.value;
+                }
+            } else {
+                valor = evaluate(item, frame);
+            }
+            DoubleList reais = inteiros.toDoubleList(items.size());
+            reais.add(valor);
+            for (k++; k < items.size(); k++) reais.add(evaluate(items.get(k), frame));
+            return reais;
+        }
+        return inteiros;
+    }
+
+    // Argumento de lista de uma nativa: variável com lista, literal de lista ou chamada de outra
+    // nativa que devolve lista
+    NumberList evaluateListArgument(Node node, Frame frame, Intrinsic.OnLists nativa) {
+        if (node.isVariable()) return NumberList.of(frame.tag(Resolver.slotOf(node)), node.getValue());
+        if (node.getKind() == NodeKind.LISTA) return evaluateList(node, frame);
+        if (node.getKind() == NodeKind.CHAMADA_FUNCAO) {
+            NumberList lista = evaluateListCall(node, frame);
+            if (lista != null) return lista;
         }
-        return 0; // valor da lista não é usado diretamente
+        throw nativa.notAList();
+    }
+
+    // Lista de uma chamada que cai em nativa de lista (add, scale); null quando o alvo devolve número
+    NumberList evaluateListCall(Node node, Frame frame) {
+        return functionExecutor.callList(node, frame);
     }
-    private double evaluateInput() {
+
+    double evaluateInput() {
         System.out.print("Entrada: ");
         String line = scanner.nextLine();
         try {
@@ -48,39 +136,84 @@ public class ExpressionEvaluator {
         }
     }
 
-    private double evaluateLiteral(String val) {
-        if (val.matches("-?\\d+(\\.\\d+)?")) {
-            return Double.parseDouble(val);
-        }
-        if (val.startsWith("\"") && val.endsWith("\"")) {
+    // Literais numéricos já chegam decodificados no nó; aqui sobram strings e variáveis (lidas pelo slot)
+    private double evaluateLiteral(Node node, Frame frame) {
+        String val = node.getValue();
+        if (node.isString()) {
             System.out.println(val.substring(1, val.length() - 1));
             return 0;
         }
-        if (memory.containsKey(val)) {
-            Object value = memory.get(val);
-            if (value instanceof Double d) return d;
-            if (value instanceof Integer i) return i.doubleValue();
-            throw new RuntimeException("Valor da variável '" + val + "' não é inteiro");
+        int slot = Resolver.slotOf(node);
+        Object tag = frame.tag(slot);
+        if (tag == Memory.NUMBER || tag == Memory.LONG || tag == Memory.INTEGER) return frame.number(slot);
+        throw invalidRead(tag, val);
+    }
+
+    private long readLong(Node node, Frame frame) throws NotInteger {
+        int slot = Resolver.slotOf(node);
+        Object tag = frame.tag(slot);
+        if (tag == Memory.LONG) return frame.integer(slot);
+        if (tag == Memory.INTEGER) return (long) frame.number(slot);
+        if (tag == Memory.NUMBER) throw new NotInteger(frame.number(slot));
+        throw invalidRead(tag, node.getValue());
+    }
+
+    private static RuntimeException invalidRead(Object tag, String val) {
+        if (tag != null) return new RuntimeException("Valor da variável '" + val + "' não é inteiro");
+        return new RuntimeException("Variável não declarada: " + val);
+    }
+
+    // Conta só entre inteiros sai de evaluateLong, exata além de 2^53, também no retorno, nos
+    // argumentos e nas condições; as partes double não lançam nada
+    private double evaluateBinary(Node node, Frame frame) {
+        if (node.getOperator() != null && yieldsLong(node, frame)) {
+            try {
+                return evaluateLong(node, frame);
+            } catch (NotInteger e) {
+                return e.value;
+            }
         }
-        throw new RuntimeException("Variável não declarada: " + val);
-    }
-
-    private double evaluateBinary(ASTNode node) {
-        double left = evaluate(node.getChildren().get(0));
-        double right = evaluate(node.getChildren().get(1));
-        return switch (node.getValue()) {
-            case "+" -> left + right;
-            case "-" -> left - right;
-            case "*" -> left * right;
-            case "^" -> Math.pow(left, right);
-            case "/" -> right == 0 ? 0 : left / right;
-            case "==" -> left == right ? 1 : 0;
-            case "!=" -> left != right ? 1 : 0;
-            case ">"  -> left > right ? 1 : 0;
-            case "<"  -> left < right ? 1 : 0;
-            case ">=" -> left >= right ? 1 : 0;
-            case "<=" -> left <= right ? 1 : 0;
-            default -> throw new RuntimeException("Operador inválido: " + node.getValue());
+        double left = evaluate(node.getChildren().get(0), frame);
+        double right = evaluate(node.getChildren().get(1), frame);
+        Operator op = node.getOperator();
+        if (op == null) throw new RuntimeException("Operador inválido: " + node.getValue());
+        return apply(op, left, right);
+    }
+
+    // Um lado double promove a conta inteira; o outro lado é avaliado uma vez só, já em double
+    private long evaluateBinaryLong(Node node, Frame frame) throws NotInteger {
+        Operator op = node.getOperator();
+        if (op == null) throw new NotInteger(evaluateBinary(node, frame));
+        Node right = node.getChildren().get(1);
+        long a;
+        try {
+            a = evaluateLong(node.getChildren().get(0), frame);
+        } catch (NotInteger e) {
+            throw new NotInteger(apply(op, e.value, evaluate(right, frame)));
+        }
+        long b;
+        try {
+            b = evaluateLong(right, frame);
+        } catch (NotInteger e) {
+            throw new NotInteger(apply(op, a, e.value));
+        }
+        return SpecializingNodes.apply(op, a, b);
+    }
+
+    static double apply(Operator op, double left, double right) {
+        return switch (op) {
+            case ADD -> left + right;
+            case SUB -> left - right;
+            case MUL -> left * right;
+            case POW -> Math.pow(left, right);
+            case DIV -> right == 0 ? 0 : left / right;
+            case MOD -> right == 0 ? 0 : left % right;
+            case EQ -> left == right ? 1 : 0;
+            case NE -> left != right ? 1 : 0;
+            case GT -> left > right ? 1 : 0;
+            case LT -> left < right ? 1 : 0;
+            case GE -> left >= right ? 1 : 0;
+            case LE -> left <= right ? 1 : 0;
         };
     }
 
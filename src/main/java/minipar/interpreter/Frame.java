@@ -0,0 +1,147 @@
+package minipar.interpreter;
+
+import minipar.jit.Profile;
+import minipar.semantic.Resolver;
+
+// Registro de ativação de uma chamada: parâmetros e locais do tamanho da função, indexados pelo slot
+// local do Resolver e guardados como na Memory (etiqueta + double ou long sem caixa; o long[] só é
+// criado no primeiro local inteiro). Slots globais vão direto para a memória global; um local ainda
+// sem valor é lido do global de mesmo nome, como acontecia com o escopo copiado.
+// O frame global não tem locais: execute() roda o programa com ele.
+public final class Frame {
+    private static final Object[] NO_LOCALS = new Object[0];
+    private static final double[] NO_NUMBERS = new double[0];
+    private static final int[] NO_GLOBALS = new int[0];
+
+    private final Memory globals;
+    private final Object[] locals; // etiqueta de cada local (null, NUMBER, LONG, INTEGER ou a lista)
+    private final double[] numbers;
+    private long[] integers;
+    private final int[] globalOf; // slot global de cada local, para a leitura antes da primeira atribuição
+    private final Profile profile; // da função em execução; null no frame global
+    private double returnValue;
+
+    public Frame(Memory globals) {
+        this(globals, NO_LOCALS, NO_NUMBERS, NO_GLOBALS, null);
+    }
+
+    public Frame(Memory globals, Function function) {
+        this(globals, new Object[function.localCount()], new double[function.localCount()],
+                function.globalOf(), function.profile());
+    }
+
+    private Frame(Memory globals, Object[] locals, double[] numbers, int[] globalOf, Profile profile) {
+        this.globals = globals;
+        this.locals = locals;
+        this.numbers = numbers;
+        this.globalOf = globalOf;
+        this.profile = profile;
+    }
+
+    public Object get(int slot) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object tag = locals[index];
+            return tag != null ? Memory.box(tag, local(index)) : globals.get(globalOf[index]);
+        }
+        return globals.get(slot);
+    }
+
+    public Object set(int slot, Object value) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object previous = Memory.box(locals[index], local(index));
+            if (value instanceof Double d) setNumber(slot, d);
+            else if (value instanceof Long l) setLong(slot, l);
+            else if (value instanceof Integer i) setInteger(slot, i);
+            else locals[index] = value;
+            return previous;
+        }
+        return globals.set(slot, value);
+    }
+
+    // Etiqueta do slot, com a mesma regra de leitura de get
+    Object tag(int slot) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object tag = locals[index];
+            return tag != null ? tag : globals.tag(globalOf[index]);
+        }
+        return globals.tag(slot);
+    }
+
+    // Número guardado no slot, em double; só vale depois de tag devolver NUMBER, LONG ou INTEGER
+    double number(int slot) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            return locals[index] != null ? local(index) : globals.number(globalOf[index]);
+        }
+        return globals.number(slot);
+    }
+
+    // Só vale depois de tag devolver LONG
+    long integer(int slot) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            return locals[index] != null ? integers[index] : globals.integer(globalOf[index]);
+        }
+        return globals.integer(slot);
+    }
+
+    private double local(int index) {
+        return locals[index] == Memory.LONG ? integers[index] : numbers[index];
+    }
+
+    // Devolvem a etiqueta anterior deste frame; null indica a primeira atribuição
+    Object setNumber(int slot, double value) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object previous = locals[index];
+            numbers[index] = value;
+            locals[index] = Memory.NUMBER;
+            return previous;
+        }
+        return globals.setNumber(slot, value);
+    }
+
+    Object setLong(int slot, long value) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object previous = locals[index];
+            if (integers == null) integers = new long[locals.length];
+            integers[index] = value;
+            locals[index] = Memory.LONG;
+            return previous;
+        }
+        return globals.setLong(slot, value);
+    }
+
+    Object setInteger(int slot, int value) {
+        if (Resolver.isLocal(slot)) {
+            int index = Resolver.localIndex(slot);
+            Object previous = locals[index];
+            numbers[index] = value;
+            locals[index] = Memory.INTEGER;
+            return previous;
+        }
+        return globals.setInteger(slot, value);
+    }
+
+    // Chamado a cada volta de while/for, para o JIT saber quais funções passam tempo em laços
+    public void backEdge() {
+        if (profile != null) profile.countBackEdge();
+    }
+
+    public Completion returnWith(double value) {
+        returnValue = value;
+        return Completion.RETURN;
+    }
+
+    public double getReturnValue() {
+        return returnValue;
+    }
+
+    public Memory getGlobals() {
+        return globals;
+    }
+}
@@ -0,0 +1,46 @@
+package minipar.interpreter;
+
+import minipar.jit.Profile;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.semantic.Resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Função registrada por um def: parâmetros (e o slot de cada um), corpo e o layout do frame (quantos
+// locais e o slot global de mesmo nome de cada um), calculado uma vez a partir dos slots do Resolver
+// que resolveu o def.
+// O profile conta chamadas e voltas de laço para o JIT e guarda a versão compilada.
+public record Function(String name, List<Node> params, int[] paramSlots, Node body,
+                       int localCount, int[] globalOf, Profile profile) {
+
+    public static Function of(Node def, Resolver resolver) {
+        List<Node> params = new ArrayList<>();
+        Node body = null;
+        for (Node child : def.getChildren()) {
+            if (child.getKind() == NodeKind.PARAM) params.add(child);
+            else body = child;
+        }
+        int[] paramSlots = new int[params.size()];
+        for (int i = 0; i < paramSlots.length; i++) paramSlots[i] = Resolver.slotOf(params.get(i));
+        int[] globalOf = layout(def, resolver, new int[0]);
+        return new Function(def.getValue(), params, paramSlots, body, globalOf.length, globalOf, new Profile());
+    }
+
+    // Percorre parâmetros e corpo, sem entrar em funções aninhadas, registrando cada local encontrado
+    private static int[] layout(Node node, Resolver resolver, int[] globalOf) {
+        for (Node child : node.getChildren()) {
+            if (child.getKind() == NodeKind.DEF) continue;
+            int slot = child.getSlot();
+            if (Resolver.isLocal(slot)) {
+                int index = Resolver.localIndex(slot);
+                if (index >= globalOf.length) globalOf = Arrays.copyOf(globalOf, index + 1);
+                globalOf[index] = resolver.slotOf(child.getValue());
+            }
+            globalOf = layout(child, resolver, globalOf);
+        }
+        return globalOf;
+    }
+}
@@ -1,24 +1,48 @@
 package minipar.interpreter;
 
-import minipar.exceptions.ReturnException;
-import minipar.parser.ASTNode;
+import minipar.jit.JitCompiler;
+import minipar.jit.JitContext;
+import minipar.jit.Profile;
+import minipar.parser.Node;
+import minipar.semantic.IntrinsicResolver;
+import minipar.semantic.Resolver;
 import minipar.semantic.SymbolTable;
+import minipar.stdlib.Intrinsic;
+import minipar.stdlib.Stdlib;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class FunctionExecutor {
+public class FunctionExecutor implements JitContext {
 
-    private final Map<String, ASTNode> functions;
-    private final Map<String, Object> memory;
+    private final Map<String, Function> functions;
+    private final Memory memory;
     private final SymbolTable symbolTable;
     private final Interpreter interpreter;
     private final ExpressionEvaluator evaluator;
+    private final boolean jit = JitCompiler.enabled();
+    private final int threshold = JitCompiler.threshold();
 
-    public FunctionExecutor(Map<String, ASTNode> functions,
-                            Map<String, Object> memory,
+    // Inline cache das chamadas, indexado pelo número de call site do Resolver: a função que o nome
+    // resolveu (um def ou uma nativa do Stdlib) e a época em que isso aconteceu. Todo register avança
+    // a época, o que invalida de uma vez os caches preenchidos antes dele; fora isso, uma chamada
+    // repetida não procura nada pelo nome.
+    record CallSite(Function function, Intrinsic intrinsic, int epoch) {}
+    private volatile CallSite[] sites = new CallSite[0];
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    // Chamadas de nativas ligadas no programa e nos módulos que ele importa (bind)
+    private final IntrinsicResolver intrinsics = new IntrinsicResolver();
+
+    // Um def de outro módulo com o nome de uma nativa ligada: as ligações do IntrinsicResolver
+    // deixam de valer e toda chamada passa pelo cache acima
+    private volatile boolean shadowed;
+
+    public FunctionExecutor(Map<String, Function> functions,
+                            Memory memory,
                             SymbolTable symbolTable,
                             Interpreter interpreter,
                             ExpressionEvaluator evaluator) {
@@ -29,51 +53,211 @@ public class FunctionExecutor {
         this.evaluator = evaluator;
     }
 
-    public void register(ASTNode stmt) {
+    public void register(Node stmt) {
         String name = stmt.getValue();
-        functions.put(name, stmt);
+        functions.put(name, Function.of(stmt, interpreter.getResolver()));
+        epoch.incrementAndGet();
+        if (intrinsics.isBound(name)) shadowed = true;
     }
 
-    public double call(ASTNode node) {
-        String nome = node.getValue();
-        ASTNode func = functions.get(nome);
-        if (func == null) throw new RuntimeException("Função não declarada: " + nome);
+    // Liga as chamadas de nativas do programa ou módulo que vai rodar; um def já registrado com o
+    // nome de uma nativa ligada agora também a esconde
+    void bind(Node root) {
+        intrinsics.resolve(root);
+        for (String name : functions.keySet()) {
+            if (intrinsics.isBound(name)) shadowed = true;
+        }
+    }
+
+    public double call(Node node, Frame caller) {
+        List<? extends Node> argumentos = node.getChildren();
+        int site = Resolver.callSiteOf(node);
+        Intrinsic nativa = bound(site);
+        if (nativa != null) return intrinsic(nativa, argumentos, caller);
+        CallSite alvo = target(site, node.getValue(), argumentos.size());
+        if (alvo.intrinsic() != null) return intrinsic(alvo.intrinsic(), argumentos, caller);
+        Function func = alvo.function();
 
-        List<String> parametros = new ArrayList<>();
-        for (ASTNode paramNode : func.getChildren()) {
-            if (paramNode.getType().equals("param")) {
-                parametros.add(paramNode.getValue());
+        // Argumentos avaliados no frame de quem chama; sem versão compilada vão direto para os
+        // parâmetros do frame novo, sem array intermediário
+        MethodHandle compilado = compiled(func);
+        if (compilado != null) {
+            double[] valores = new double[argumentos.size()];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = evaluator.evaluate(argumentos.get(i), caller);
             }
+            return invokeCompiled(compilado, valores);
         }
+        Frame frame = newFrame(func);
+        int[] parametros = func.paramSlots();
+        for (int i = 0; i < parametros.length; i++) {
+            frame.setNumber(parametros[i], evaluator.evaluate(argumentos.get(i), caller));
+        }
+        return run(func, frame);
+    }
 
-        List<ASTNode> argumentos = node.getChildren();
-        if (parametros.size() != argumentos.size()) {
-            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+    // Chamada feita por código compilado: a função alvo pode estar interpretada ou compilada
+    // O código compilado só chega aqui com nativas numéricas: o JIT não traduz chamadas de nativas de lista
+    @Override
+    public double call(String nome, double[] valores) {
+        if (!functions.containsKey(nome) && Stdlib.find(nome) instanceof Intrinsic.Numeric nativa) {
+            nativa.checkArity(valores.length);
+            return nativa.apply(valores, 0);
         }
+        return invoke(lookup(nome, valores.length), valores);
+    }
 
-        // Salvar escopo atual
-        Map<String, Object> backup = new HashMap<>(memory);
+    // Nativa ligada ao call site, enquanto nenhum def a esconder
+    Intrinsic bound(int site) {
+        return shadowed ? null : intrinsics.boundAt(site);
+    }
 
-        // Novo escopo local
-        for (int i = 0; i < parametros.size(); i++) {
-            double val = evaluator.evaluate(argumentos.get(i));
-            memory.put(parametros.get(i), val);
-            if (!symbolTable.isDeclared(parametros.get(i))) {
-                symbolTable.declare(parametros.get(i), "int");
+    boolean isShadowed() {
+        return shadowed;
+    }
+
+    // Argumentos avaliados no frame de quem chama e passados à nativa sem frame novo; os números
+    // vão como double primitivo
+    private double intrinsic(Intrinsic nativa, List<? extends Node> argumentos, Frame caller) {
+        return switch (nativa) {
+            case Intrinsic.Nullary n -> n.body().getAsDouble();
+            case Intrinsic.Unary u -> u.body().applyAsDouble(evaluator.evaluate(argumentos.get(0), caller));
+            case Intrinsic.Binary b -> b.body().applyAsDouble(evaluator.evaluate(argumentos.get(0), caller),
+                    evaluator.evaluate(argumentos.get(1), caller));
+            case Intrinsic.ListToNumber f -> f.body().apply(lists(f, argumentos, caller), numbers(f, argumentos, caller));
+            case Intrinsic.ListToList f -> {
+                f.body().apply(lists(f, argumentos, caller), numbers(f, argumentos, caller));
+                yield 0; // valor da lista não é usado diretamente
             }
+        };
+    }
+
+    // Lista devolvida pela chamada quando ela cai numa nativa que devolve lista; null se o alvo
+    // devolve número, sem avaliar nenhum argumento
+    NumberList callList(Node node, Frame caller) {
+        List<? extends Node> argumentos = node.getChildren();
+        int site = Resolver.callSiteOf(node);
+        Intrinsic nativa = bound(site);
+        if (nativa == null) nativa = target(site, node.getValue(), argumentos.size()).intrinsic();
+        if (!(nativa instanceof Intrinsic.ListToList f)) return null;
+        return f.body().apply(lists(f, argumentos, caller), numbers(f, argumentos, caller));
+    }
+
+    // Argumentos de lista de uma nativa, da esquerda para a direita; os números vêm depois deles
+    private NumberList[] lists(Intrinsic.OnLists nativa, List<? extends Node> argumentos, Frame caller) {
+        NumberList[] listas = new NumberList[nativa.lists()];
+        for (int i = 0; i < listas.length; i++) {
+            listas[i] = evaluator.evaluateListArgument(argumentos.get(i), caller, nativa);
+        }
+        return listas;
+    }
+
+    private double[] numbers(Intrinsic.OnLists nativa, List<? extends Node> argumentos, Frame caller) {
+        double[] numeros = new double[nativa.numbers()];
+        for (int i = 0; i < numeros.length; i++) {
+            numeros[i] = evaluator.evaluate(argumentos.get(nativa.lists() + i), caller);
         }
+        return numeros;
+    }
 
-        try {
-            ASTNode corpo = func.getChildren().get(parametros.size());
-            interpreter.executeBlock(corpo);
-        } catch (ReturnException ret) {
-            memory.clear();
-            memory.putAll(backup);
-            return ret.valor;
+    @Override
+    public double global(int slot) {
+        Object tag = memory.tag(slot);
+        if (tag == Memory.NUMBER || tag == Memory.LONG || tag == Memory.INTEGER) return memory.number(slot);
+        String nome = interpreter.getResolver().nameOf(slot);
+        if (tag != null) throw new RuntimeException("Valor da variável '" + nome + "' não é inteiro");
+        throw new RuntimeException("Variável não declarada: " + nome);
+    }
+
+    // Mesmas mensagens que Interpreter.executeBlock imprime ao entrar no corpo de uma função
+    @Override
+    public void trace(String blockType) {
+        String thread = Thread.currentThread().getName();
+        System.out.println("[DEBUG] Executando bloco tipo: " + blockType + " na thread " + thread);
+        System.out.println("[THREAD] Iniciando bloco em thread: " + thread);
+    }
+
+    // Alvo da chamada: o do cache, se nenhum def foi registrado desde que ele foi preenchido;
+    // senão procura pelo nome (def primeiro, depois nativa) e guarda o resultado
+    CallSite target(int site, String nome, int argumentos) {
+        int atual = epoch.get();
+        CallSite[] cache = sites;
+        if (site < cache.length) {
+            CallSite entrada = cache[site];
+            if (entrada != null && entrada.epoch() == atual) return entrada;
         }
+        Intrinsic nativa = functions.containsKey(nome) ? null : Stdlib.find(nome);
+        CallSite entrada;
+        if (nativa != null) {
+            nativa.checkArity(argumentos);
+            entrada = new CallSite(null, nativa, atual);
+        } else {
+            entrada = new CallSite(lookup(nome, argumentos), null, atual);
+        }
+        remember(site, entrada);
+        return entrada;
+    }
+
+    private synchronized void remember(int site, CallSite entrada) {
+        CallSite[] cache = sites;
+        if (site >= cache.length) cache = Arrays.copyOf(cache, Math.max(site + 1, cache.length * 2));
+        cache[site] = entrada;
+        sites = cache;
+    }
+
+    // Procura pelo nome, confere a aridade e declara os parâmetros na tabela de símbolos
+    Function lookup(String nome, int argumentos) {
+        Function func = functions.get(nome);
+        if (func == null) throw new RuntimeException("Função não declarada: " + nome);
+        if (func.params().size() != argumentos) {
+            throw new RuntimeException("Número de argumentos inválido para função " + nome);
+        }
+        for (Node param : func.params()) {
+            if (!symbolTable.isDeclared(param.getValue())) {
+                symbolTable.declare(param.getValue(), "int");
+            }
+        }
+        return func;
+    }
 
-        memory.clear();
-        memory.putAll(backup);
+    double invoke(Function func, double[] valores) {
+        MethodHandle compilado = compiled(func);
+        if (compilado != null) return invokeCompiled(compilado, valores);
+
+        Frame frame = newFrame(func);
+        int[] parametros = func.paramSlots();
+        for (int i = 0; i < valores.length; i++) frame.setNumber(parametros[i], valores[i]);
+        return run(func, frame);
+    }
+
+    // Novo escopo local: só o frame da chamada, do tamanho dos locais da função; os globais
+    // continuam intocados e as escritas locais somem quando o frame é descartado
+    Frame newFrame(Function func) {
+        return new Frame(memory, func);
+    }
+
+    double run(Function func, Frame frame) {
+        if (interpreter.executeBlock(func.body(), frame) == Completion.RETURN) {
+            return frame.getReturnValue();
+        }
         return 0;
     }
+
+    // Versão compilada da função, se já existir ou se esta chamada a fizer cruzar o limiar do JIT
+    MethodHandle compiled(Function func) {
+        Profile profile = func.profile();
+        MethodHandle compilado = profile.getCompiled();
+        if (compilado != null || !jit || !profile.countInvocation(threshold)) return compilado;
+        return JitCompiler.tierUp(func);
+    }
+
+    double invokeCompiled(MethodHandle compilado, double[] valores) {
+        try {
+            return (double) compilado.invokeExact((JitContext) this, valores);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
 }
@@ -1,29 +1,52 @@
 package minipar.interpreter;
 
-import minipar.exceptions.ReturnException;
+import minipar.cache.ModuleRegistry;
 import minipar.lexer.*;
 import minipar.parser.*;
 import minipar.semantic.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class Interpreter {
+public class Interpreter implements Engine {
+    // -Dminipar.closures=true troca o percurso da árvore pelo motor de closures (ClosureCompiler)
+    public static final String CLOSURES_PROPERTY = "minipar.closures";
 
     private final SymbolTable symbolTable = new SymbolTable();
-    private final Map<String, Object> memory = new HashMap<>();
+    private final Resolver resolver = new Resolver(); // slots do programa e dos módulos que ele importa
+    private final Memory memory = new Memory(resolver);
+    private final Frame globalFrame = new Frame(memory);
     private final Map<String, Canal> canais = new HashMap<>();
-    private final Map<String, ASTNode> functions = new HashMap<>();
+    private final Map<String, Function> functions = new HashMap<>();
     private final Scanner scanner = new Scanner(System.in);
+    private final ModuleRegistry modules;
+    private final Set<Path> executedModules = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Deque<Path>> importStack = ThreadLocal.withInitial(ArrayDeque::new);
 
     // Módulos especializados
-    private final ExpressionEvaluator evaluator = new ExpressionEvaluator(memory, null, scanner);
-    private final AssignmentExecutor assignmentExecutor = new AssignmentExecutor(memory, symbolTable, evaluator);
-    private final ChannelExecutor channelExecutor = new ChannelExecutor(canais, memory, symbolTable, evaluator);
+    private final ExpressionEvaluator evaluator = new ExpressionEvaluator(null, scanner);
+    private final AssignmentExecutor assignmentExecutor = new AssignmentExecutor(symbolTable, evaluator);
+    private final ChannelExecutor channelExecutor = new ChannelExecutor(canais, symbolTable, evaluator);
     private final ControlFlowExecutor controlFlowExecutor = new ControlFlowExecutor(this, evaluator);
     private final FunctionExecutor functionExecutor = new FunctionExecutor(functions, memory, symbolTable, this, evaluator);
 
+    // Motor de closures: cada bloco é traduzido uma vez, na primeira execução
+    private final boolean closures;
+    private final ClosureCompiler closureCompiler =
+            new ClosureCompiler(this, symbolTable, evaluator, channelExecutor, functionExecutor);
+    private final Map<Node, ClosureCompiler.Statement> compiledBlocks = new ConcurrentHashMap<>();
+
     public Interpreter() {
+        this(ModuleRegistry.shared());
+    }
+
+    public Interpreter(ModuleRegistry modules) {
+        this(modules, Boolean.getBoolean(CLOSURES_PROPERTY));
+    }
+
+    public Interpreter(ModuleRegistry modules, boolean closures) {
+        this.modules = modules;
+        this.closures = closures;
         setupFunctionEvaluation();
     }
 
@@ -31,35 +54,47 @@ public class Interpreter {
         evaluator.setFunctionExecutor(functionExecutor);
     }
 
-    public void execute(ASTNode root) {
-        if (!root.getType().equals("Programa")) {
+    @Override
+    public void execute(Node root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
             throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
         }
-        for (ASTNode bloco : root.getChildren()) {
-            executeBlock(bloco);
+        resolver.resolve(root);
+        memory.ensureCapacity(resolver.slotCount());
+        functionExecutor.bind(root);
+        for (Node bloco : root.getChildren()) {
+            if (executeBlock(bloco, globalFrame) == Completion.RETURN) return; // return no topo encerra o programa
         }
     }
 
-    public void executeBlock(ASTNode block) {
+    public Completion executeBlock(Node block, Frame frame) {
+        if (closures) return compiledBlocks.computeIfAbsent(block, closureCompiler::block).execute(frame);
         System.out.println("[DEBUG] Executando bloco tipo: " + block.getType() + " na thread " + Thread.currentThread().getName());
-        switch (block.getType()) {
-            case "SEQ", "Bloco" -> executeSequential(block);
-            case "PAR" -> executeParallel(block);
+        return switch (block.getKind()) {
+            case SEQ, BLOCO -> executeSequential(block, frame);
+            case PAR -> executeParallel(block, frame);
             default -> throw new RuntimeException("Tipo de bloco desconhecido: " + block.getType());
-        }
+        };
     }
 
-    private void executeSequential(ASTNode block) {
+    private Completion executeSequential(Node block, Frame frame) {
         System.out.println("[THREAD] Iniciando bloco em thread: " + Thread.currentThread().getName());
-        for (ASTNode stmt : block.getChildren()) {
-            executeStatement(stmt);
+        return executeStatements(block, frame);
+    }
+
+    // Executa as instruções de um bloco em ordem, parando no primeiro return
+    public Completion executeStatements(Node block, Frame frame) {
+        for (Node stmt : block.getChildren()) {
+            if (executeStatement(stmt, frame) == Completion.RETURN) return Completion.RETURN;
         }
+        return Completion.NORMAL;
     }
 
-    private void executeParallel(ASTNode block) {
+    // Um return dentro de uma thread paralela só encerra aquela thread
+    private Completion executeParallel(Node block, Frame frame) {
         List<Thread> threads = new ArrayList<>();
-        for (ASTNode child : block.getChildren()) {
-            Thread t = new Thread(() -> executeBlock(child));
+        for (Node child : block.getChildren()) {
+            Thread t = new Thread(() -> executeBlock(child, frame));
             t.start();
             threads.add(t);
         }
@@ -70,40 +105,41 @@ public class Interpreter {
                 throw new RuntimeException("Erro em thread paralela", e);
             }
         }
+        return Completion.NORMAL;
     }
-    public void executeStatement(ASTNode stmt) {
-        switch (stmt.getType()) {
-            case "Atribuicao"       -> assignmentExecutor.executeAssignment(stmt);
-            case "AtribuicaoIndice" -> assignmentExecutor.executeIndexAssignment(stmt);
-            case "Comentario"       -> {} // Ignora
-            case "c_channel"        -> channelExecutor.declareChannel(stmt);
-            case "send"             -> channelExecutor.send(stmt);
-            case "receive"          -> channelExecutor.receive(stmt);
-            case "print"            -> executePrint(stmt);
-            case "if"               -> controlFlowExecutor.executeIf(stmt);
-            case "while"            -> controlFlowExecutor.executeWhile(stmt);
-            case "for"              -> controlFlowExecutor.executeFor(stmt);
-            case "def"              -> functionExecutor.register(stmt);
-            case "return"           -> throw new ReturnException(evaluator.evaluate(stmt.getChildren().get(0)));
-            case "ChamadaFuncao"    -> functionExecutor.call(stmt);
-            case "import"           -> executeImport(stmt);
+    public Completion executeStatement(Node stmt, Frame frame) {
+        switch (stmt.getKind()) {
+            case ATRIBUICAO         -> assignmentExecutor.executeAssignment(stmt, frame);
+            case ATRIBUICAO_INDICE  -> assignmentExecutor.executeIndexAssignment(stmt, frame);
+            case COMENTARIO         -> {} // Ignora
+            case C_CHANNEL          -> channelExecutor.declareChannel(stmt);
+            case SEND               -> channelExecutor.send(stmt, frame);
+            case RECEIVE            -> channelExecutor.receive(stmt, frame);
+            case PRINT              -> executePrint(stmt, frame);
+            case IF                 -> { return controlFlowExecutor.executeIf(stmt, frame); }
+            case WHILE              -> { return controlFlowExecutor.executeWhile(stmt, frame); }
+            case FOR                -> { return controlFlowExecutor.executeFor(stmt, frame); }
+            case DEF                -> functionExecutor.register(stmt);
+            case RETURN             -> { return frame.returnWith(evaluator.evaluate(stmt.getChildren().get(0), frame)); }
+            case CHAMADA_FUNCAO     -> functionExecutor.call(stmt, frame);
+            case IMPORT             -> executeImport(stmt);
             default                 -> throw new RuntimeException("Instrução não suportada: " + stmt.getType());
         }
+        return Completion.NORMAL;
     }
 
-    private void executePrint(ASTNode stmt) {
+    private void executePrint(Node stmt, Frame frame) {
         StringBuilder output = new StringBuilder();
 
-        for (ASTNode arg : stmt.getChildren()) {
-            String tipo = arg.getType();
+        for (Node arg : stmt.getChildren()) {
             String raw = arg.getValue();
 
-            if (tipo.equals("Valor") && raw.startsWith("\"") && raw.endsWith("\"")) {
+            if (arg.isString()) {
                 // String literal
                 output.append(raw, 1, raw.length() - 1);
             } else {
                 try {
-                    double valor = evaluator.evaluate(arg);
+                    double valor = evaluator.evaluate(arg, frame);
                     output.append(valor);
                 } catch (RuntimeException e) {
                     // Fallback: tenta exibir literal
@@ -115,32 +151,61 @@ public class Interpreter {
 
         System.out.println(output.toString().trim());
     }
-    private void executeImport(ASTNode stmt) {
+    void executeImport(Node stmt) {
         String path = stmt.getValue(); // já sem aspas, vindo do parser
         try {
-            String importedSource = Files.readString(Path.of(path));
+            Path modulo = ModuleRegistry.canonical(path);
+            Deque<Path> pilha = importStack.get();
+            if (pilha.contains(modulo)) {
+                throw new RuntimeException("Importação cíclica: " + cicloDeImportacao(pilha, modulo));
+            }
+            // O nível superior de cada módulo roda uma única vez por interpretador
+            if (executedModules.contains(modulo)) return;
+            Node importedAst = modules.load(modulo).copy(); // a árvore do registro é de todos os interpretadores
+            if (!executedModules.add(modulo)) return;
+            pilha.push(modulo);
+            try {
+                this.execute(importedAst);
+            } finally {
+                pilha.pop();
+            }
 
-            Lexer lexer = new Lexer(importedSource);
-            List<minipar.lexer.Token> importedTokens = lexer.tokenize();
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao importar arquivo '" + path + "': " + e.getMessage(), e);
+        }
+    }
 
-            Parser parser = new Parser(importedTokens);
-            ASTNode importedAst = parser.parseProgram();
+    private static String cicloDeImportacao(Deque<Path> pilha, Path modulo) {
+        StringBuilder ciclo = new StringBuilder();
+        Iterator<Path> abertos = pilha.descendingIterator();
+        boolean noCiclo = false;
+        while (abertos.hasNext()) {
+            Path aberto = abertos.next();
+            noCiclo |= aberto.equals(modulo);
+            if (noCiclo) ciclo.append(aberto.getFileName()).append(" -> ");
+        }
+        return ciclo.append(modulo.getFileName()).toString();
+    }
 
-            SemanticAnalyzer semanticAnalyzer = new SemanticAnalyzer();
-            semanticAnalyzer.analyze(importedAst);
+    public boolean usesClosures() {
+        return closures;
+    }
 
-            this.execute(importedAst);
+    // Função registrada pelo último def com esse nome, ou null
+    public Function getFunction(String name) {
+        return functions.get(name);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao importar arquivo '" + path + "': " + e.getMessage(), e);
-        }
+    public Resolver getResolver() {
+        return resolver;
     }
 
     public SymbolTable getSymbolTable() {
         return symbolTable;
     }
 
-    public Map<String, Object> getMemory() {
+    @Override
+    public Memory getMemory() {
         return memory;
     }
 
@@ -0,0 +1,91 @@
+package minipar.interpreter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+// Lista só de inteiros em long[], criada quando todos os itens do literal são inteiros. Os itens
+// saem como double pela interface de lista e como long, exatos, por getLong. Um número que não é
+// inteiro não cabe aqui: store devolve uma DoubleList com os itens, que toma o lugar desta.
+public final class LongList extends NumberList {
+    private long[] items;
+    private int size;
+
+    public LongList() {
+        this(10);
+    }
+
+    public LongList(int capacity) {
+        items = new long[capacity];
+    }
+
+    private LongList(long[] items, int size) {
+        this.items = items;
+        this.size = size;
+    }
+
+    public void add(long value) {
+        if (size == items.length) items = Arrays.copyOf(items, Math.max(10, size * 2));
+        items[size++] = value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long getLong(int index) {
+        return items[Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getLong(index);
+    }
+
+    // Cópia em double: as nativas calculam sempre sobre double[]
+    @Override
+    public double[] doubles() {
+        double[] reais = new double[size];
+        for (int i = 0; i < size; i++) reais[i] = items[i];
+        return reais;
+    }
+
+    @Override
+    public NumberList slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return new LongList(Arrays.copyOfRange(items, from, to), to - from);
+    }
+
+    // store decide entre guardar como long e promover a cópia para DoubleList
+    @Override
+    public NumberList append(double value) {
+        LongList copia = new LongList(Arrays.copyOf(items, size + 1), size + 1);
+        return copia.store(size, value);
+    }
+
+    @Override
+    public NumberList store(int index, double value) {
+        Objects.checkIndex(index, size);
+        long integer = (long) value;
+        // Inteiro dentro da faixa do long (o cast satura em 2^63) e não -0.0
+        if (integer == value && value < 0x1p63 && (integer != 0 || Double.doubleToRawLongBits(value) == 0L)) {
+            items[index] = integer;
+            return this;
+        }
+        DoubleList reais = toDoubleList(size);
+        reais.store(index, value);
+        return reais;
+    }
+
+    @Override
+    public void storeLong(int index, long value) {
+        items[Objects.checkIndex(index, size)] = value;
+    }
+
+    // Cópia em double, com espaço para capacity itens
+    DoubleList toDoubleList(int capacity) {
+        DoubleList reais = new DoubleList(Math.max(capacity, size));
+        for (int i = 0; i < size; i++) reais.add(items[i]);
+        return reais;
+    }
+}
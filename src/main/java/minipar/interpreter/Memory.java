@@ -0,0 +1,178 @@
+package minipar.interpreter;
+
+import minipar.semantic.Resolver;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Variáveis do interpretador, indexadas pelo slot do Resolver. Números ficam sem caixa num double[]
+// ou num long[] com uma etiqueta ao lado, como na VirtualMachine: null = não atribuída, NUMBER (double),
+// LONG (inteiro), INTEGER (Integer, a variável de for) ou a própria lista. get/set por Object só
+// encaixotam na fronteira, e o inteiro sai como Double, igual ao número das outras engines;
+// o caminho quente usa tag/number/integer e os setters tipados, sem alocar.
+// A visão Map por nome existe para getMemory() e os testes, com os nomes do Resolver do programa,
+// e deixa de fora as temporárias internas.
+public class Memory extends AbstractMap<String, Object> {
+    static final Object NUMBER = new Object();
+    static final Object LONG = new Object();
+    static final Object INTEGER = new Object();
+
+    private final Resolver resolver;
+
+    private Object[] values = new Object[16];
+    private double[] numbers = new double[16];
+    private long[] integers = new long[16];
+
+    public Memory(Resolver resolver) {
+        this.resolver = resolver;
+    }
+
+    public Object get(int slot) {
+        Object[] current = values;
+        if (slot >= current.length) return null;
+        return box(current[slot], number(slot));
+    }
+
+    public Object set(int slot, Object value) {
+        if (slot >= values.length) ensureCapacity(slot + 1);
+        Object previous = get(slot);
+        if (value instanceof Double d) setNumber(slot, d);
+        else if (value instanceof Long l) setLong(slot, l);
+        else if (value instanceof Integer i) setInteger(slot, i);
+        else values[slot] = value;
+        return previous;
+    }
+
+    // Etiqueta do slot (null, NUMBER, LONG, INTEGER ou a lista)
+    Object tag(int slot) {
+        Object[] current = values;
+        return slot < current.length ? current[slot] : null;
+    }
+
+    // Valor numérico do slot em double, qualquer que seja o tipo
+    double number(int slot) {
+        return values[slot] == LONG ? integers[slot] : numbers[slot];
+    }
+
+    // Só vale depois de tag devolver LONG
+    long integer(int slot) {
+        return integers[slot];
+    }
+
+    // Devolvem a etiqueta anterior; null indica a primeira atribuição do slot
+    Object setNumber(int slot, double value) {
+        if (slot >= values.length) ensureCapacity(slot + 1);
+        Object previous = values[slot];
+        numbers[slot] = value;
+        values[slot] = NUMBER;
+        return previous;
+    }
+
+    Object setLong(int slot, long value) {
+        if (slot >= values.length) ensureCapacity(slot + 1);
+        Object previous = values[slot];
+        integers[slot] = value;
+        values[slot] = LONG;
+        return previous;
+    }
+
+    Object setInteger(int slot, int value) {
+        if (slot >= values.length) ensureCapacity(slot + 1);
+        Object previous = values[slot];
+        numbers[slot] = value;
+        values[slot] = INTEGER;
+        return previous;
+    }
+
+    // '$' não sai do lexer: o nome é de uma temporária que o otimizador criou (LoopInvariantHoister)
+    static boolean isInternal(String name) {
+        return name.startsWith("$");
+    }
+
+    static Object box(Object tag, double number) {
+        if (tag == NUMBER || tag == LONG) return number;
+        if (tag == INTEGER) return (int) number;
+        return tag;
+    }
+
+    // Chamado antes de executar um programa resolvido, para que o laço principal nunca precise crescer o array
+    public synchronized void ensureCapacity(int slots) {
+        if (slots > values.length) {
+            int size = Math.max(slots, values.length * 2);
+            numbers = Arrays.copyOf(numbers, size);
+            integers = Arrays.copyOf(integers, size);
+            values = Arrays.copyOf(values, size);
+        }
+    }
+
+    @Override
+    public Object get(Object name) {
+        int slot = name instanceof String s && !isInternal(s) ? resolver.findSlot(s) : -1;
+        return slot < 0 ? null : get(slot);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return get(name) != null;
+    }
+
+    @Override
+    public Object put(String name, Object value) {
+        return set(resolver.slotOf(name), value);
+    }
+
+    @Override
+    public Object remove(Object name) {
+        int slot = name instanceof String s ? resolver.findSlot(s) : -1;
+        return slot < 0 ? null : set(slot, null);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private int next = advance(0);
+
+                    private int advance(int from) {
+                        Object[] current = values;
+                        while (from < current.length && !visible(current, from)) from++;
+                        return from;
+                    }
+
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    public Map.Entry<String, Object> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        int slot = next;
+                        next = advance(slot + 1);
+                        return new SimpleImmutableEntry<>(resolver.nameOf(slot), get(slot));
+                    }
+                };
+            }
+
+            public int size() {
+                Object[] current = values;
+                int size = 0;
+                for (int slot = 0; slot < current.length; slot++) if (visible(current, slot)) size++;
+                return size;
+            }
+        };
+    }
+
+    private boolean visible(Object[] current, int slot) {
+        return current[slot] != null && !isInternal(resolver.nameOf(slot));
+    }
+}
@@ -0,0 +1,54 @@
+package minipar.interpreter;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+// Valor de lista da linguagem: os itens ficam num array primitivo (DoubleList ou LongList), sem um
+// Double por elemento. Pela interface List<Double> compara igual a qualquer lista com os mesmos
+// números e imprime igual, então getMemory() e os testes não veem diferença entre os motores.
+public abstract class NumberList extends AbstractList<Double> implements RandomAccess {
+
+    NumberList() {}
+
+    // Lista guardada na variável, com as mesmas mensagens de erro em todos os motores
+    public static NumberList of(Object objeto, String nome) {
+        if (objeto == null) throw new RuntimeException("Lista não declarada: " + nome);
+        if (!(objeto instanceof NumberList lista)) {
+            throw new RuntimeException("Variável '" + nome + "' não é uma lista");
+        }
+        return lista;
+    }
+
+    // Posição já convertida e verificada para leitura ou atribuição por índice
+    public int index(double index) {
+        int i = (int) index;
+        if (i < 0 || i >= size()) {
+            throw new RuntimeException("Índice fora dos limites da lista");
+        }
+        return i;
+    }
+
+    public abstract double getDouble(int index);
+
+    // Itens em double[] com pelo menos size() posições, para os laços das nativas de lista
+    // (minipar.stdlib); na DoubleList é o próprio array, que quem recebe só lê
+    public abstract double[] doubles();
+
+    // Cópia dos itens de from (inclusive) a to (exclusive), no mesmo tipo de lista
+    public abstract NumberList slice(int from, int to);
+
+    // Cópia com value no fim: continua LongList se value couber como inteiro
+    public abstract NumberList append(double value);
+
+    // Guarda o valor na posição e devolve a lista que passa a ter os itens: a própria, ou uma
+    // DoubleList nova quando uma LongList recebe um número que não é inteiro
+    public abstract NumberList store(int index, double value);
+
+    // Inteiro cabe nos dois tipos de lista; a DoubleList guarda em double
+    public abstract void storeLong(int index, long value);
+
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+}
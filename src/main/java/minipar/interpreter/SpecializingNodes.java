@@ -0,0 +1,216 @@
+package minipar.interpreter;
+
+import minipar.interpreter.ClosureCompiler.Expression;
+import minipar.parser.Operator;
+
+// Nós do motor de closures que se especializam pelos tipos observados na execução, e a aritmética
+// do tipo inteiro, comum aos dois motores do interpretador.
+// Número é inteiro (long) ou double: literal sem parte fracionária e contas só entre inteiros dão
+// inteiro; um operando double promove a conta. O nó aritmético começa genérico, passa a só-inteiros
+// se os operandos chegarem inteiros e passa de vez a só-double quando uma guarda falha (operando
+// double ou resultado que o long não dá igual ao double); daí em diante trata inteiros como double.
+final class SpecializingNodes {
+    private SpecializingNodes() {}
+
+    // Lançada por evaluateLong quando o valor não é inteiro; leva o resultado já calculado em double,
+    // para que quem chamou não avalie nada duas vezes
+    static final class NotInteger extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final double value;
+
+        NotInteger(double value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+    }
+
+    // Conta entre inteiros. Promove (NotInteger com o resultado em double) quando o resultado não é
+    // inteiro, não cabe no long ou seria o -0.0 que a mesma conta dá em double. Divisão e resto por
+    // zero valem 0, como em double.
+    static long apply(Operator op, long a, long b) throws NotInteger {
+        return switch (op) {
+            case ADD -> {
+                long r = a + b;
+                if (((a ^ r) & (b ^ r)) < 0) throw new NotInteger((double) a + b);
+                yield r;
+            }
+            case SUB -> {
+                long r = a - b;
+                if (((a ^ b) & (a ^ r)) < 0) throw new NotInteger((double) a - b);
+                yield r;
+            }
+            case MUL -> {
+                long low = a * b;
+                if (Math.multiplyHigh(a, b) != low >> 63) throw new NotInteger((double) a * b);
+                if (low == 0 && (a | b) < 0) throw new NotInteger((double) a * b); // 0 * negativo = -0.0
+                yield low;
+            }
+            case DIV -> {
+                if (b == 0) yield 0;
+                if (a % b != 0 || (a == 0 && b < 0) || (a == Long.MIN_VALUE && b == -1)) {
+                    throw new NotInteger((double) a / b);
+                }
+                yield a / b;
+            }
+            case MOD -> {
+                if (b == 0) yield 0;
+                long r = a % b;
+                if (r == 0 && a < 0) throw new NotInteger(-0.0);
+                yield r;
+            }
+            case POW -> {
+                long r = power(a, b);
+                if (r == 0 && (b < 0 || a != 0)) throw new NotInteger(Math.pow(a, b)); // fração ou estouro
+                yield r;
+            }
+            case EQ -> a == b ? 1 : 0;
+            case NE -> a != b ? 1 : 0;
+            case GT -> a > b ? 1 : 0;
+            case LT -> a < b ? 1 : 0;
+            case GE -> a >= b ? 1 : 0;
+            case LE -> a <= b ? 1 : 0;
+        };
+    }
+
+    // a ^ b por quadrados; 0 quando o expoente é negativo ou o resultado não cabe no long
+    static long power(long a, long b) {
+        if (b < 0) return 0;
+        long result = 1;
+        try {
+            while (b > 0) {
+                if ((b & 1) != 0) result = Math.multiplyExact(result, a);
+                b >>= 1;
+                if (b > 0) a = Math.multiplyExact(a, a);
+            }
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+        return result;
+    }
+
+    static Expression constant(double number) {
+        return frame -> number;
+    }
+
+    static Expression constant(long value) {
+        double number = value;
+        return new Expression() {
+            public double evaluate(Frame frame) {
+                return number;
+            }
+
+            public long evaluateLong(Frame frame) {
+                return value;
+            }
+
+            public boolean yieldsLong(Frame frame) {
+                return true;
+            }
+        };
+    }
+
+    // Leitura de variável pelo slot: a etiqueta guardada ao lado do número é a guarda de tipo
+    static final class Read implements Expression {
+        private final int slot;
+        private final String name;
+
+        Read(int slot, String name) {
+            this.slot = slot;
+            this.name = name;
+        }
+
+        public double evaluate(Frame frame) {
+            Object tag = frame.tag(slot);
+            if (tag == Memory.NUMBER || tag == Memory.LONG || tag == Memory.INTEGER) return frame.number(slot);
+            throw invalid(tag);
+        }
+
+        public long evaluateLong(Frame frame) throws NotInteger {
+            Object tag = frame.tag(slot);
+            if (tag == Memory.LONG) return frame.integer(slot);
+            if (tag == Memory.INTEGER) return (long) frame.number(slot); // variável de for
+            if (tag == Memory.NUMBER) throw new NotInteger(frame.number(slot));
+            throw invalid(tag);
+        }
+
+        public boolean yieldsLong(Frame frame) {
+            Object tag = frame.tag(slot);
+            return tag == Memory.LONG || tag == Memory.INTEGER;
+        }
+
+        private RuntimeException invalid(Object tag) {
+            if (tag != null) return new RuntimeException("Valor da variável '" + name + "' não é inteiro");
+            return new RuntimeException("Variável não declarada: " + name);
+        }
+    }
+
+    enum State { UNINITIALIZED, LONG, DOUBLE }
+
+    // Operação binária; com operador de comparação o valor é 1 ou 0
+    static final class Arithmetic implements Expression {
+        private final Operator op;
+        private final Expression left;
+        private final Expression right;
+        // Só avança (UNINITIALIZED -> LONG -> DOUBLE); as duas variantes dão o mesmo valor na faixa
+        // exata do double, então uma thread de PAR que ainda veja o estado anterior continua correta
+        private State state = State.UNINITIALIZED;
+
+        Arithmetic(Operator op, Expression left, Expression right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        State state() {
+            return state;
+        }
+
+        public double evaluate(Frame frame) {
+            if (state == State.DOUBLE) return apply(left.evaluate(frame), right.evaluate(frame));
+            try {
+                return evaluateLong(frame);
+            } catch (NotInteger e) {
+                return e.value;
+            }
+        }
+
+        public long evaluateLong(Frame frame) throws NotInteger {
+            if (state == State.DOUBLE) throw new NotInteger(apply(left.evaluate(frame), right.evaluate(frame)));
+            long a;
+            try {
+                a = left.evaluateLong(frame);
+            } catch (NotInteger e) {
+                throw deoptimize(apply(e.value, right.evaluate(frame)));
+            }
+            long b;
+            try {
+                b = right.evaluateLong(frame);
+            } catch (NotInteger e) {
+                throw deoptimize(apply(a, e.value));
+            }
+            long result;
+            try {
+                result = SpecializingNodes.apply(op, a, b);
+            } catch (NotInteger e) {
+                throw deoptimize(e.value);
+            }
+            state = State.LONG;
+            return result;
+        }
+
+        // Em DOUBLE o resultado não volta a ser inteiro; evaluateLong ainda lançaria a cada chamada
+        public boolean yieldsLong(Frame frame) {
+            return state != State.DOUBLE;
+        }
+
+        private NotInteger deoptimize(double value) {
+            state = State.DOUBLE;
+            return new NotInteger(value);
+        }
+
+        private double apply(double a, double b) {
+            return ExpressionEvaluator.apply(op, a, b);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package minipar.jit;
+
+import minipar.interpreter.Function;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.semantic.Resolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Procura no corpo de uma função uma operação cujos dois lados podem ser inteiros no interpretador.
+// Lá só é inteiro (long) o literal sem parte fracionária, a variável de for, o global (o JIT não sabe
+// o que ele guarda), a conta entre dois inteiros e o local que recebe algum deles; parâmetros, retornos
+// de chamada e contas com um lado double são double. Um local que não é parâmetro pode ser lido antes
+// da primeira atribuição, e aí a leitura vai para o global de mesmo nome: só conta como double o que é
+// atribuído logo no nível de cima do corpo, antes de qualquer outra menção.
+final class IntegerOperations {
+    private final boolean[] integer; // por índice de local
+
+    private IntegerOperations(Function function) {
+        integer = new boolean[function.localCount()];
+        Arrays.fill(integer, true);
+        for (Node param : function.params()) integer[local(param)] = false;
+        List<? extends Node> stmts = function.body().getChildren();
+        boolean[] seen = new boolean[integer.length];
+        for (Node param : function.params()) seen[local(param)] = true;
+        for (Node stmt : stmts) {
+            if (stmt.getKind() == NodeKind.ATRIBUICAO) {
+                Node target = stmt.getChildren().get(0);
+                int slot = Resolver.slotOf(target);
+                if (Resolver.isLocal(slot) && !seen[Resolver.localIndex(slot)]
+                        && !mentions(stmt.getChildren().get(1), slot)) {
+                    integer[Resolver.localIndex(slot)] = false;
+                }
+            }
+            markMentioned(stmt, seen);
+        }
+        // Um local double que recebe um inteiro em alguma atribuição passa a inteiro, até estabilizar
+        boolean changed = true;
+        while (changed) changed = propagate(function.body());
+    }
+
+    static boolean present(Function function) {
+        if (function.body() == null) return false;
+        IntegerOperations analysis = new IntegerOperations(function);
+        return analysis.mixes(function.body());
+    }
+
+    private boolean propagate(Node node) {
+        boolean changed = false;
+        for (Node child : node.getChildren()) {
+            if (child.getKind() == NodeKind.DEF) continue;
+            if (child.getKind() == NodeKind.ATRIBUICAO) {
+                int slot = Resolver.slotOf(child.getChildren().get(0));
+                if (Resolver.isLocal(slot) && !integer[Resolver.localIndex(slot)]
+                        && isInteger(child.getChildren().get(1))) {
+                    integer[Resolver.localIndex(slot)] = true;
+                    changed = true;
+                }
+            }
+            changed |= propagate(child);
+        }
+        return changed;
+    }
+
+    private boolean mixes(Node node) {
+        for (Node child : node.getChildren()) {
+            if (child.getKind() == NodeKind.DEF) continue;
+            if (child.getKind() == NodeKind.BIN_OP && child.getOperator() != null
+                    && isInteger(child.getChildren().get(0)) && isInteger(child.getChildren().get(1))) {
+                return true;
+            }
+            if (mixes(child)) return true;
+        }
+        return false;
+    }
+
+    private boolean isInteger(Node node) {
+        return switch (node.getKind()) {
+            case VALOR -> {
+                if (node.isNumber()) yield node.isInteger();
+                if (node.isString()) yield false;
+                int slot = Resolver.slotOf(node);
+                yield !Resolver.isLocal(slot) || integer[Resolver.localIndex(slot)];
+            }
+            case BIN_OP -> node.getOperator() != null
+                    && isInteger(node.getChildren().get(0)) && isInteger(node.getChildren().get(1));
+            case CHAMADA_FUNCAO -> false;
+            default -> true;
+        };
+    }
+
+    private static void markMentioned(Node node, boolean[] seen) {
+        if (node.getKind() == NodeKind.DEF) return;
+        int slot = node.getSlot();
+        if (node.getKind() != NodeKind.CHAMADA_FUNCAO && Resolver.isLocal(slot)) {
+            seen[Resolver.localIndex(slot)] = true;
+        }
+        for (Node child : node.getChildren()) markMentioned(child, seen);
+    }
+
+    private static boolean mentions(Node node, int slot) {
+        if (node.getKind() != NodeKind.CHAMADA_FUNCAO && node.getSlot() == slot) return true;
+        for (Node child : node.getChildren()) {
+            if (mentions(child, slot)) return true;
+        }
+        return false;
+    }
+
+    private static int local(Node node) {
+        return Resolver.localIndex(Resolver.slotOf(node));
+    }
+}
@@ -0,0 +1,378 @@
+package minipar.jit;
+
+import minipar.interpreter.Function;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
+import minipar.stdlib.Intrinsic;
+import minipar.stdlib.Stdlib;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.constant.ConstantDescs.*;
+
+// Segundo nível de execução das funções: quando uma função registrada esquenta, o corpo dela vira o
+// método estático de uma classe oculta, double invoke(JitContext, double...), sobre doubles primitivos,
+// que o HotSpot otimiza como código Java comum. Cada local do MiniPar ocupa um local double da JVM;
+// os que não são parâmetros carregam uma marca int de "já atribuído", porque antes da primeira
+// atribuição a leitura vai para o global de mesmo nome, como no interpretador.
+// Funções com nós sem tradução (print, listas, nativas de lista, canais, def aninhado...) continuam
+// interpretadas. O código gerado só conhece double; o interpretador faz conta entre dois inteiros em
+// long, exata além de 2^53. Por isso uma função com alguma operação que pode juntar dois inteiros
+// (literal inteiro, variável de for, global ou local que recebe um deles) também fica interpretada
+// (IntegerOperations): nas que sobram, cada conta tem um lado double também no interpretador.
+public final class JitCompiler {
+    public static final String PROPERTY = "minipar.jit";
+    public static final String THRESHOLD_PROPERTY = "minipar.jit.threshold";
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    private static final String METHOD = "invoke";
+    private static final ClassDesc CD_MATH = ClassDesc.of(Math.class.getName());
+    private static final ClassDesc CD_CONTEXT = ClassDesc.of(JitContext.class.getName());
+    private static final ClassDesc CD_COMPILED = ClassDesc.of(JitCompiler.class.getPackageName() + ".FuncaoCompilada");
+    private static final MethodTypeDesc MTD_GLOBAL = MethodTypeDesc.of(CD_double, CD_int);
+    private static final MethodTypeDesc MTD_CALL = MethodTypeDesc.of(CD_double, CD_String, CD_double.arrayType());
+    private static final MethodTypeDesc MTD_TRACE = MethodTypeDesc.of(CD_void, CD_String);
+    private static final MethodTypeDesc MTD_POW = MethodTypeDesc.of(CD_double, CD_double, CD_double);
+
+    private JitCompiler() {
+    }
+
+    // -Dminipar.jit=false mantém todas as funções interpretadas, para comparação
+    public static boolean enabled() {
+        return !"false".equals(System.getProperty(PROPERTY));
+    }
+
+    // Soma de chamadas e voltas de laço a partir da qual uma função é compilada
+    public static int threshold() {
+        return Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+    }
+
+    // Compila a função na primeira vez que é chamada depois de cruzar o limiar; se ela tiver nó sem
+    // tradução, fica marcada como rejeitada e o interpretador não tenta de novo
+    public static MethodHandle tierUp(Function function) {
+        Profile profile = function.profile();
+        synchronized (profile) {
+            if (profile.getCompiled() == null && !profile.isRejected()) {
+                try {
+                    profile.setCompiled(compile(function));
+                } catch (UnsupportedOperationException | IllegalStateException e) {
+                    profile.reject();
+                }
+            }
+            return profile.getCompiled();
+        }
+    }
+
+    // Devolve um handle (JitContext, double[])double para o método gerado
+    public static MethodHandle compile(Function function) {
+        Node body = function.body();
+        if (body == null || (body.getKind() != NodeKind.SEQ && body.getKind() != NodeKind.BLOCO)) {
+            throw new UnsupportedOperationException("Corpo sem tradução para o JIT: " + function.name());
+        }
+        if (IntegerOperations.present(function)) {
+            throw new UnsupportedOperationException("Conta entre inteiros fica no interpretador: " + function.name());
+        }
+        int arity = function.params().size();
+        ClassDesc[] params = new ClassDesc[arity + 1];
+        Arrays.fill(params, CD_double);
+        params[0] = CD_CONTEXT;
+        MethodTypeDesc type = MethodTypeDesc.of(CD_double, params);
+
+        byte[] bytes = ClassFile.of().build(CD_COMPILED, cls -> cls
+                .withFlags(ClassFile.ACC_PUBLIC | ClassFile.ACC_FINAL)
+                .withMethodBody(METHOD, type, ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC,
+                        code -> new Emitter(function, code).function(body)));
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            MethodType methodType = MethodType.methodType(double.class, JitContext.class)
+                    .appendParameterTypes(Collections.nCopies(arity, double.class));
+            return lookup.findStatic(lookup.lookupClass(), METHOD, methodType).asSpreader(double[].class, arity);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Falha ao carregar a função compilada " + function.name(), e);
+        }
+    }
+
+    private static UnsupportedOperationException unsupported(Node node) {
+        return new UnsupportedOperationException("Nó sem tradução para o JIT: " + node.getType());
+    }
+
+    // Gera o corpo de uma função; o slot 0 da JVM é o JitContext e os parâmetros vêm em seguida
+    private static final class Emitter {
+        private final CodeBuilder code;
+        private final int[] globalOf;
+        private final int[] slots; // local JVM de cada local do MiniPar
+        private final int[] flags; // marca "já atribuído" de cada local; -1 nos parâmetros
+
+        Emitter(Function function, CodeBuilder code) {
+            this.code = code;
+            this.globalOf = function.globalOf();
+            int locals = function.localCount();
+            slots = new int[locals];
+            flags = new int[locals];
+            Arrays.fill(slots, -1);
+            Arrays.fill(flags, -1);
+            List<Node> params = function.params();
+            for (int i = 0; i < params.size(); i++) {
+                slots[Resolver.localIndex(Resolver.slotOf(params.get(i)))] = 1 + 2 * i;
+            }
+            for (int local = 0; local < locals; local++) {
+                if (slots[local] >= 0) continue;
+                slots[local] = code.allocateLocal(TypeKind.DOUBLE);
+                flags[local] = code.allocateLocal(TypeKind.INT);
+                code.dconst_0();
+                code.dstore(slots[local]);
+                code.iconst_0();
+                code.istore(flags[local]);
+            }
+        }
+
+        void function(Node body) {
+            code.aload(0);
+            code.loadConstant(body.getType());
+            code.invokeinterface(CD_CONTEXT, "trace", MTD_TRACE);
+            if (!statements(body)) {
+                code.dconst_0();
+                code.dreturn();
+            }
+        }
+
+        // Devolve true se o bloco termina num return, para não emitir código inalcançável depois dele
+        private boolean statements(Node block) {
+            for (Node stmt : block.getChildren()) {
+                if (statement(stmt)) return true;
+            }
+            return false;
+        }
+
+        private boolean statement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            switch (stmt.getKind()) {
+                case COMENTARIO -> {}
+                case ATRIBUICAO -> {
+                    if (children.get(1).getKind() == NodeKind.LISTA) throw unsupported(children.get(1));
+                    expression(children.get(1));
+                    store(children.get(0));
+                }
+                case IF -> {
+                    Label otherwise = code.newLabel();
+                    branchIfFalse(children.get(0), otherwise);
+                    boolean returns = statements(children.get(1));
+                    if (children.size() > 2) {
+                        Label end = code.newLabel();
+                        if (!returns) code.goto_(end);
+                        code.labelBinding(otherwise);
+                        if (statements(children.get(2)) && returns) return true;
+                        code.labelBinding(end);
+                        return false;
+                    }
+                    code.labelBinding(otherwise);
+                }
+                case WHILE -> {
+                    Label top = code.newLabel();
+                    Label exit = code.newLabel();
+                    code.labelBinding(top);
+                    branchIfFalse(children.get(0), exit);
+                    if (!statements(children.get(1))) code.goto_(top);
+                    code.labelBinding(exit);
+                }
+                case FOR -> forStatement(stmt);
+                case RETURN -> {
+                    expression(children.get(0));
+                    code.dreturn();
+                    return true;
+                }
+                case CHAMADA_FUNCAO -> {
+                    expression(stmt);
+                    code.pop2();
+                }
+                default -> throw unsupported(stmt);
+            }
+            return false;
+        }
+
+        // Contador int e limite double em locais próprios; a variável do for recebe o contador a cada volta
+        private void forStatement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            int counter = code.allocateLocal(TypeKind.INT);
+            int end = code.allocateLocal(TypeKind.DOUBLE);
+            expression(children.get(0));
+            code.d2i();
+            code.istore(counter);
+            expression(children.get(1));
+            code.dstore(end);
+
+            Label top = code.newLabel();
+            Label exit = code.newLabel();
+            code.labelBinding(top);
+            code.iload(counter);
+            code.i2d();
+            code.dload(end);
+            code.dcmpg();
+            code.ifgt(exit);
+            code.iload(counter);
+            code.i2d();
+            store(stmt);
+            if (!statements(children.get(2))) {
+                code.iinc(counter, 1);
+                code.goto_(top);
+            }
+            code.labelBinding(exit);
+        }
+
+        // Salta para target quando a comparação é falsa; NaN torna qualquer comparação falsa, exceto !=
+        private void branchIfFalse(Node condition, Label target) {
+            Operator op = condition.getOperator();
+            if (condition.getKind() != NodeKind.BIN_OP || op == null || !op.isComparison()) {
+                throw unsupported(condition);
+            }
+            expression(condition.getChildren().get(0));
+            expression(condition.getChildren().get(1));
+            switch (op) {
+                case LT -> { code.dcmpg(); code.ifge(target); }
+                case LE -> { code.dcmpg(); code.ifgt(target); }
+                case GT -> { code.dcmpl(); code.ifle(target); }
+                case GE -> { code.dcmpl(); code.iflt(target); }
+                case EQ -> { code.dcmpl(); code.ifne(target); }
+                default -> { code.dcmpl(); code.ifeq(target); }
+            }
+        }
+
+        // Deixa o valor da expressão (double) no topo da pilha
+        private void expression(Node node) {
+            switch (node.getKind()) {
+                case VALOR -> {
+                    if (node.isNumber()) code.loadConstant(node.getNumber());
+                    else if (node.isString()) throw unsupported(node);
+                    else load(node);
+                }
+                case BIN_OP -> binary(node);
+                case CHAMADA_FUNCAO -> call(node);
+                default -> throw unsupported(node);
+            }
+        }
+
+        private void binary(Node node) {
+            Operator op = node.getOperator();
+            if (op == null) throw unsupported(node);
+            expression(node.getChildren().get(0));
+            expression(node.getChildren().get(1));
+            switch (op) {
+                case ADD -> code.dadd();
+                case SUB -> code.dsub();
+                case MUL -> code.dmul();
+                case POW -> code.invokestatic(CD_MATH, "pow", MTD_POW);
+                case DIV, MOD -> {
+                    // divisão e resto por zero resultam 0, como no interpretador
+                    Label divide = code.newLabel();
+                    Label done = code.newLabel();
+                    code.dup2();
+                    code.dconst_0();
+                    code.dcmpl();
+                    code.ifne(divide);
+                    code.pop2();
+                    code.pop2();
+                    code.dconst_0();
+                    code.goto_(done);
+                    code.labelBinding(divide);
+                    if (op == Operator.DIV) code.ddiv();
+                    else code.drem();
+                    code.labelBinding(done);
+                }
+                default -> comparison(op);
+            }
+        }
+
+        // Comparação usada como valor: 1 quando verdadeira, 0 quando falsa
+        private void comparison(Operator op) {
+            Label yes = code.newLabel();
+            Label done = code.newLabel();
+            switch (op) {
+                case LT -> { code.dcmpg(); code.iflt(yes); }
+                case LE -> { code.dcmpg(); code.ifle(yes); }
+                case GT -> { code.dcmpl(); code.ifgt(yes); }
+                case GE -> { code.dcmpl(); code.ifge(yes); }
+                case EQ -> { code.dcmpl(); code.ifeq(yes); }
+                default -> { code.dcmpl(); code.ifne(yes); }
+            }
+            code.dconst_0();
+            code.goto_(done);
+            code.labelBinding(yes);
+            code.dconst_1();
+            code.labelBinding(done);
+        }
+
+        // Toda chamada passa pelo JitContext, que resolve o nome na hora: a função pode ter sido
+        // redefinida, ainda estar interpretada ou já ter sua própria versão compilada.
+        // Nativas de lista recebem listas, que o código gerado não carrega; as numéricas (sqrt, abs...)
+        // também passam pelo JitContext
+        private void call(Node node) {
+            if (Stdlib.find(node.getValue()) instanceof Intrinsic.OnLists) throw unsupported(node);
+            List<? extends Node> args = node.getChildren();
+            code.aload(0);
+            code.loadConstant(node.getValue());
+            code.loadConstant(args.size());
+            code.newarray(TypeKind.DOUBLE);
+            for (int i = 0; i < args.size(); i++) {
+                code.dup();
+                code.loadConstant(i);
+                expression(args.get(i));
+                code.dastore();
+            }
+            code.invokeinterface(CD_CONTEXT, "call", MTD_CALL);
+        }
+
+        private void load(Node node) {
+            int slot = Resolver.slotOf(node);
+            if (!Resolver.isLocal(slot)) {
+                loadGlobal(slot);
+                return;
+            }
+            int local = Resolver.localIndex(slot);
+            if (flags[local] < 0) {
+                code.dload(slots[local]);
+                return;
+            }
+            Label assigned = code.newLabel();
+            Label done = code.newLabel();
+            code.iload(flags[local]);
+            code.ifne(assigned);
+            loadGlobal(globalOf[local]);
+            code.goto_(done);
+            code.labelBinding(assigned);
+            code.dload(slots[local]);
+            code.labelBinding(done);
+        }
+
+        private void loadGlobal(int slot) {
+            code.aload(0);
+            code.loadConstant(slot);
+            code.invokeinterface(CD_CONTEXT, "global", MTD_GLOBAL);
+        }
+
+        // Grava o double do topo da pilha na variável do nó (atribuição ou for)
+        private void store(Node target) {
+            int slot = Resolver.slotOf(target);
+            if (!Resolver.isLocal(slot)) throw unsupported(target);
+            int local = Resolver.localIndex(slot);
+            code.dstore(slots[local]);
+            if (flags[local] >= 0) {
+                code.iconst_1();
+                code.istore(flags[local]);
+            }
+        }
+    }
+}
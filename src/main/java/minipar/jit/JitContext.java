@@ -0,0 +1,11 @@
+package minipar.jit;
+
+// Serviços do interpretador que o código gerado pelo JitCompiler chama de volta: leitura de globais,
+// chamada de outra função (interpretada ou compilada) e as mensagens de depuração do bloco
+public interface JitContext {
+    double global(int slot);
+
+    double call(String name, double[] args);
+
+    void trace(String blockType);
+}
@@ -0,0 +1,50 @@
+package minipar.jit;
+
+import java.lang.invoke.MethodHandle;
+
+// Contadores de uma função registrada (chamadas e voltas de laço) e, depois que ela esquenta,
+// o código JVM gerado para ela. Os contadores não são sincronizados: perder uma contagem entre
+// threads de um bloco PAR só atrasa a compilação.
+public final class Profile {
+    private int invocations;
+    private int backEdges;
+    private volatile MethodHandle compiled;
+    private volatile boolean rejected;
+
+    public void countBackEdge() {
+        backEdges++;
+    }
+
+    // Conta uma chamada e diz se a função passou do limiar e ainda pode ser compilada
+    public boolean countInvocation(int threshold) {
+        return ++invocations + backEdges >= threshold && !rejected;
+    }
+
+    public int getInvocations() {
+        return invocations;
+    }
+
+    public int getBackEdges() {
+        return backEdges;
+    }
+
+    public MethodHandle getCompiled() {
+        return compiled;
+    }
+
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    void setCompiled(MethodHandle compiled) {
+        this.compiled = compiled;
+    }
+
+    void reject() {
+        rejected = true;
+    }
+}
@@ -1,67 +1,202 @@
 package minipar.lexer;
 
 import java.util.*;
-import java.util.regex.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class Lexer {
-    private final String source;
+    // Abaixo deste tamanho (em caracteres) a divisão em blocos custa mais do que economiza
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final CharSequence source;
     private final Stack<Integer> indentStack = new Stack<>();
-    private final List<Token> tokens = new ArrayList<>();
-    private final Map<Pattern, TokenType> patterns = new LinkedHashMap<>();
-    private final Set<String> keywords = Set.of(
-            "programa_minipar", "SEQ", "PAR", "if", "else", "input", "while", "c_channel", "print", "def", "return", "for", "to", "import"
-    );
-    public Lexer(String source) {
+
+    public Lexer(CharSequence source) {
         this.source = source;
-        initPatterns();
     }
 
-    private void initPatterns() {
-        patterns.put(Pattern.compile("^#[^\n]*"), TokenType.COMMENT);
-        patterns.put(Pattern.compile("^-?\\d+(\\.\\d+)?"), TokenType.NUMBER);
-        patterns.put(Pattern.compile("^\"[^\"]*\""), TokenType.STRING);
-        patterns.put(Pattern.compile("^[a-zA-Z_][a-zA-Z0-9_]*"), TokenType.IDENTIFIER);
-        patterns.put(Pattern.compile("^(==|!=|<=|>=|[+\\-*/=<>^])|^\\."), TokenType.OPERATOR); // ponto agora é operador
-        patterns.put(Pattern.compile("^[\\[\\](){},]"), TokenType.DELIMITER);
-        patterns.put(Pattern.compile("^\\s+"), TokenType.WHITESPACE);
+    public List<Token> tokenize() {
+        return scan().toTokens();
     }
 
-    public List<Token> tokenize() {
-        String[] lines = source.split("\n");
-        int lineNumber = 1;
-
-        for (String line : lines) {
-            String input = line;
-            while (!input.isEmpty()) {
-                boolean matched = false;
-                for (Map.Entry<Pattern, TokenType> entry : patterns.entrySet()) {
-                    Matcher matcher = entry.getKey().matcher(input);
-                    if (matcher.find()) {
-                        String value = matcher.group();
-                        TokenType type = entry.getValue();
-
-                        if (type == TokenType.IDENTIFIER && keywords.contains(value)) {
-                            type = TokenType.KEYWORD;
-
-                        }
-
-                        if (type != TokenType.WHITESPACE) {
-                            tokens.add(new Token(type, value, lineNumber));
-                        }
-
-                        input = input.substring(value.length());
-                        matched = true;
-                        break;
-                    }
-                }
-                if (!matched) {
-                    throw new RuntimeException("Token inválido na linha " + lineNumber + ": " + input);
+    // Varredura única sobre o texto: cada caractere é visitado uma vez, sem regex nem substring por token.
+    public TokenBuffer scan() {
+        TokenBuffer tokens = new TokenBuffer(source);
+        int length = source.length();
+        int lastNonEmptyLine = scanLines(source, 0, length, 1, tokens);
+        tokens.add(TokenType.EOF, Symbol.EOF, length, length, eofLine(length, lastNonEmptyLine));
+        return tokens;
+    }
+
+    // Escaneia as linhas de [from, to) a partir da linha firstLine; devolve a última linha não vazia (0 se nenhuma)
+    private static int scanLines(CharSequence source, int from, int to, int firstLine, TokenBuffer tokens) {
+        int pos = from;
+        int lineNumber = firstLine;
+        int lastNonEmptyLine = 0;
+
+        while (pos < to) {
+            int lineEnd = pos;
+            while (lineEnd < to && source.charAt(lineEnd) != '\n') lineEnd++;
+            if (lineEnd > pos) lastNonEmptyLine = lineNumber;
+
+            LineScanner.scanLine(source, pos, lineEnd, lineNumber, tokens);
+
+            pos = lineEnd + 1;
+            lineNumber++;
+        }
+        return lastNonEmptyLine;
+    }
+
+    // Usado ao carregar arquivos (ProgramCache) e na análise completa da GUI; abaixo de
+    // PARALLEL_THRESHOLD é o próprio scan()
+    public TokenBuffer scanParallel() {
+        return scanParallel(ForkJoinPool.commonPool(), PARALLEL_THRESHOLD, CHUNK_SIZE);
+    }
+
+    // Tokens nunca atravessam linhas: o texto é cortado em blocos alinhados a '\n' e cada bloco é escaneado
+    // em paralelo. Uma primeira passada (também paralela) conta as quebras de linha para numerar cada bloco.
+    TokenBuffer scanParallel(ForkJoinPool pool, int threshold, int chunkSize) {
+        int length = source.length();
+        if (length < threshold) return scan();
+
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        for (int pos = chunkSize; pos < length; ) {
+            while (pos < length && source.charAt(pos - 1) != '\n') pos++;
+            bounds.add(pos);
+            pos += chunkSize;
+        }
+        if (bounds.get(bounds.size() - 1) < length) bounds.add(length);
+        int chunks = bounds.size() - 1;
+
+        List<Callable<Integer>> counts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            int from = bounds.get(i), to = bounds.get(i + 1);
+            counts.add(() -> countNewlines(source, from, to));
+        }
+        List<Integer> newlines = collect(pool.invokeAll(counts));
+
+        List<Callable<Integer>> scans = new ArrayList<>(chunks);
+        List<TokenBuffer> parts = new ArrayList<>(chunks);
+        RuntimeException[] errors = new RuntimeException[chunks];
+        int firstLine = 1;
+        for (int i = 0; i < chunks; i++) {
+            int from = bounds.get(i), to = bounds.get(i + 1), line = firstLine;
+            TokenBuffer part = new TokenBuffer(source, 16 + (to - from) / 4);
+            parts.add(part);
+            int chunk = i;
+            scans.add(() -> {
+                try {
+                    return scanLines(source, from, to, line, part);
+                } catch (RuntimeException e) {
+                    errors[chunk] = e;
+                    return 0;
                 }
-            }
+            });
+            firstLine += newlines.get(i);
+        }
+        List<Integer> lastLines = collect(pool.invokeAll(scans));
+        // O primeiro bloco com erro é o mesmo erro que a análise sequencial relataria
+        for (RuntimeException error : errors) {
+            if (error != null) throw error;
+        }
+
+        int total = 1;
+        for (TokenBuffer part : parts) total += part.size();
+        TokenBuffer tokens = new TokenBuffer(source, total);
+        int lastNonEmptyLine = 0;
+        for (int i = 0; i < chunks; i++) {
+            TokenBuffer part = parts.get(i);
+            tokens.appendShifted(part, 0, part.size(), 0, 0);
+            lastNonEmptyLine = Math.max(lastNonEmptyLine, lastLines.get(i));
+        }
+        tokens.add(TokenType.EOF, Symbol.EOF, length, length, eofLine(length, lastNonEmptyLine));
+        return tokens;
+    }
+
+    private static <T> List<T> collect(List<Future<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Análise léxica interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
+    // Re-análise incremental: aplica a edição ao texto, re-escaneia só as linhas atingidas e reaproveita o resto
+    public static TokenBuffer relex(TokenBuffer previous, int offset, int removedLength, String insertedText) {
+        CharSequence old = previous.getSource();
+        int oldLength = old.length();
+        if (offset < 0 || removedLength < 0 || offset + removedLength > oldLength) {
+            throw new IllegalArgumentException("Edição fora do texto: " + offset + "+" + removedLength);
+        }
+
+        String source = new StringBuilder(oldLength - removedLength + insertedText.length())
+                .append(old, 0, offset)
+                .append(insertedText)
+                .append(old, offset + removedLength, oldLength)
+                .toString();
+        int offsetDelta = insertedText.length() - removedLength;
+        int lineDelta = countNewlines(insertedText, 0, insertedText.length()) - countNewlines(old, offset, offset + removedLength);
+
+        // Região danificada: das linhas que contêm o início e o fim do trecho removido
+        int damagedStart = offset;
+        while (damagedStart > 0 && old.charAt(damagedStart - 1) != '\n') damagedStart--;
+        int damagedEnd = offset + removedLength;
+        while (damagedEnd < oldLength && old.charAt(damagedEnd) != '\n') damagedEnd++;
+
+        int oldTokens = previous.size() - 1; // sem o EOF
+        int before = previous.firstTokenAtOrAfter(damagedStart);
+        int after = Math.min(previous.firstTokenAtOrAfter(damagedEnd), oldTokens);
+
+        TokenBuffer tokens = new TokenBuffer(source, previous.size() + 16);
+        tokens.appendShifted(previous, 0, before, 0, 0);
+
+        int lineNumber = lineOf(previous, before, old, damagedStart);
+        int pos = damagedStart;
+        int end = damagedEnd + offsetDelta;
+        while (pos <= end) {
+            int lineEnd = pos;
+            while (lineEnd < end && source.charAt(lineEnd) != '\n') lineEnd++;
+            LineScanner.scanLine(source, pos, lineEnd, lineNumber, tokens);
+            pos = lineEnd + 1;
             lineNumber++;
         }
 
-        tokens.add(new Token(TokenType.EOF, "EOF", lineNumber));
+        tokens.appendShifted(previous, after, oldTokens, offsetDelta, lineDelta);
+
+        int lastChar = source.length() - 1;
+        while (lastChar >= 0 && source.charAt(lastChar) == '\n') lastChar--;
+        int lastNonEmptyLine = lastChar < 0 ? 0 : lineOf(tokens, tokens.firstTokenAtOrAfter(lastChar + 1), source, lastChar);
+        tokens.add(TokenType.EOF, Symbol.EOF, source.length(), source.length(), eofLine(source.length(), lastNonEmptyLine));
         return tokens;
     }
+
+    // Linha de uma posição, contando quebras a partir do último token que termina antes dela
+    private static int lineOf(TokenBuffer tokens, int tokensBefore, CharSequence text, int position) {
+        if (tokensBefore == 0) return 1 + countNewlines(text, 0, position);
+        int last = tokensBefore - 1;
+        return tokens.line(last) + countNewlines(text, tokens.end(last), position);
+    }
+
+    private static int countNewlines(CharSequence text, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    // Mesma numeração de split("\n"): linhas vazias no final não contam, texto vazio conta como uma linha
+    static int eofLine(long length, int lastNonEmptyLine) {
+        return length == 0 ? 2 : lastNonEmptyLine + 1;
+    }
 }
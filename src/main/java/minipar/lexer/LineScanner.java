@@ -0,0 +1,155 @@
+package minipar.lexer;
+
+// Reconhecimento de tokens caractere a caractere dentro de uma linha, compartilhado pelos lexers
+final class LineScanner {
+    private static final Symbol[] KEYWORDS = {
+            Symbol.PROGRAMA_MINIPAR, Symbol.SEQ, Symbol.PAR, Symbol.IF, Symbol.ELSE, Symbol.INPUT, Symbol.WHILE,
+            Symbol.C_CHANNEL, Symbol.PRINT, Symbol.DEF, Symbol.RETURN, Symbol.FOR, Symbol.TO, Symbol.IMPORT
+    };
+
+    private LineScanner() {}
+
+    static void scanLine(CharSequence text, int pos, int end, int lineNumber, TokenSink sink) {
+        while (pos < end) {
+            pos = scanToken(text, pos, end, lineNumber, sink);
+        }
+    }
+
+    // Reconhece um token (ou um trecho de espaços) a partir de pos e devolve a posição seguinte
+    private static int scanToken(CharSequence text, int pos, int end, int lineNumber, TokenSink sink) {
+        char c = text.charAt(pos);
+        int start = pos;
+
+        if (c == '#') {
+            sink.add(TokenType.COMMENT, null, start, end, lineNumber);
+            return end;
+        }
+
+        if (isDigit(c) || (c == '-' && pos + 1 < end && isDigit(text.charAt(pos + 1)))) {
+            pos = scanNumber(text, pos, end);
+            sink.add(TokenType.NUMBER, null, start, pos, lineNumber);
+            return pos;
+        }
+
+        if (c == '"') {
+            int close = pos + 1;
+            while (close < end && text.charAt(close) != '"') close++;
+            if (close < end) {
+                sink.add(TokenType.STRING, null, start, close + 1, lineNumber);
+                return close + 1;
+            }
+            throw invalidToken(text, start, end, lineNumber);
+        }
+
+        if (isIdentifierStart(c)) {
+            pos++;
+            while (pos < end && isIdentifierPart(text.charAt(pos))) pos++;
+            Symbol keyword = keyword(text, start, pos);
+            sink.add(keyword != null ? TokenType.KEYWORD : TokenType.IDENTIFIER, keyword, start, pos, lineNumber);
+            return pos;
+        }
+
+        Symbol operator = operator(c, pos + 1 < end ? text.charAt(pos + 1) : '\0');
+        if (operator != null) {
+            pos += operator.getText().length();
+            sink.add(TokenType.OPERATOR, operator, start, pos, lineNumber);
+            return pos;
+        }
+
+        Symbol delimiter = delimiter(c);
+        if (delimiter != null) {
+            sink.add(TokenType.DELIMITER, delimiter, start, pos + 1, lineNumber);
+            return pos + 1;
+        }
+
+        if (isWhitespace(c)) {
+            pos++;
+            while (pos < end && isWhitespace(text.charAt(pos))) pos++;
+            return pos;
+        }
+
+        throw invalidToken(text, start, end, lineNumber);
+    }
+
+    // -?\d+(\.\d+)?
+    private static int scanNumber(CharSequence text, int pos, int end) {
+        if (text.charAt(pos) == '-') pos++;
+        while (pos < end && isDigit(text.charAt(pos))) pos++;
+        if (pos + 1 < end && text.charAt(pos) == '.' && isDigit(text.charAt(pos + 1))) {
+            pos++;
+            while (pos < end && isDigit(text.charAt(pos))) pos++;
+        }
+        return pos;
+    }
+
+    private static Symbol keyword(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (Symbol keyword : KEYWORDS) {
+            String word = keyword.getText();
+            if (word.length() != length) continue;
+            int i = 0;
+            while (i < length && word.charAt(i) == text.charAt(start + i)) i++;
+            if (i == length) return keyword;
+        }
+        return null;
+    }
+
+    // Operadores e delimitadores viram símbolos internados, sem alocar uma String por token
+    private static Symbol operator(char c, char next) {
+        if (next == '=') {
+            switch (c) {
+                case '=': return Symbol.EQ;
+                case '!': return Symbol.NE;
+                case '<': return Symbol.LE;
+                case '>': return Symbol.GE;
+            }
+        }
+        return switch (c) {
+            case '+' -> Symbol.PLUS;
+            case '-' -> Symbol.MINUS;
+            case '*' -> Symbol.STAR;
+            case '/' -> Symbol.SLASH;
+            case '%' -> Symbol.PERCENT;
+            case '=' -> Symbol.ASSIGN;
+            case '<' -> Symbol.LT;
+            case '>' -> Symbol.GT;
+            case '^' -> Symbol.CARET;
+            case '.' -> Symbol.DOT;
+            default -> null;
+        };
+    }
+
+    private static Symbol delimiter(char c) {
+        return switch (c) {
+            case '[' -> Symbol.LBRACKET;
+            case ']' -> Symbol.RBRACKET;
+            case '(' -> Symbol.LPAREN;
+            case ')' -> Symbol.RPAREN;
+            case '{' -> Symbol.LBRACE;
+            case '}' -> Symbol.RBRACE;
+            case ',' -> Symbol.COMMA;
+            default -> null;
+        };
+    }
+
+    private static RuntimeException invalidToken(CharSequence text, int start, int end, int lineNumber) {
+        return new RuntimeException("Token inválido na linha " + lineNumber + ": " + text.subSequence(start, end));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c);
+    }
+
+    // Mesmo conjunto de \s do java.util.regex
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,80 @@
+package minipar.lexer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Palavras-chave, operadores e delimitadores internados: o parser compara ordinais em vez de Strings
+public enum Symbol {
+    PROGRAMA_MINIPAR(TokenType.KEYWORD, "programa_minipar"),
+    SEQ(TokenType.KEYWORD, "SEQ"),
+    PAR(TokenType.KEYWORD, "PAR"),
+    IF(TokenType.KEYWORD, "if"),
+    ELSE(TokenType.KEYWORD, "else"),
+    INPUT(TokenType.KEYWORD, "input"),
+    WHILE(TokenType.KEYWORD, "while"),
+    C_CHANNEL(TokenType.KEYWORD, "c_channel"),
+    PRINT(TokenType.KEYWORD, "print"),
+    DEF(TokenType.KEYWORD, "def"),
+    RETURN(TokenType.KEYWORD, "return"),
+    FOR(TokenType.KEYWORD, "for"),
+    TO(TokenType.KEYWORD, "to"),
+    IMPORT(TokenType.KEYWORD, "import"),
+
+    EQ(TokenType.OPERATOR, "=="),
+    NE(TokenType.OPERATOR, "!="),
+    LE(TokenType.OPERATOR, "<="),
+    GE(TokenType.OPERATOR, ">="),
+    PLUS(TokenType.OPERATOR, "+"),
+    MINUS(TokenType.OPERATOR, "-"),
+    STAR(TokenType.OPERATOR, "*"),
+    SLASH(TokenType.OPERATOR, "/"),
+    PERCENT(TokenType.OPERATOR, "%"),
+    ASSIGN(TokenType.OPERATOR, "="),
+    LT(TokenType.OPERATOR, "<"),
+    GT(TokenType.OPERATOR, ">"),
+    CARET(TokenType.OPERATOR, "^"),
+    DOT(TokenType.OPERATOR, "."),
+
+    LBRACKET(TokenType.DELIMITER, "["),
+    RBRACKET(TokenType.DELIMITER, "]"),
+    LPAREN(TokenType.DELIMITER, "("),
+    RPAREN(TokenType.DELIMITER, ")"),
+    LBRACE(TokenType.DELIMITER, "{"),
+    RBRACE(TokenType.DELIMITER, "}"),
+    COMMA(TokenType.DELIMITER, ","),
+
+    EOF(TokenType.EOF, "EOF");
+
+    private static final Symbol[] VALUES = values();
+    private static final Map<String, Symbol> BY_TEXT = new HashMap<>();
+
+    static {
+        for (Symbol symbol : VALUES) BY_TEXT.put(symbol.text, symbol);
+    }
+
+    private final TokenType type;
+    private final String text;
+
+    Symbol(TokenType type, String text) {
+        this.type = type;
+        this.text = text;
+    }
+
+    public TokenType getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public static Symbol byId(int id) {
+        return id < 0 ? null : VALUES[id];
+    }
+
+    // Usado apenas ao converter tokens já materializados; o scanner classifica direto pelos caracteres
+    public static Symbol lookup(TokenType type, String text) {
+        Symbol symbol = BY_TEXT.get(text);
+        return symbol != null && symbol.type == type ? symbol : null;
+    }
+}
@@ -0,0 +1,157 @@
+package minipar.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Tokens em arrays paralelos de int sobre o texto original; o texto só vira String quando pedido
+public class TokenBuffer implements TokenSink {
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final CharSequence source;
+    private int size;
+    private int[] types;
+    private int[] symbols;
+    private int[] starts;
+    private int[] ends;
+    private int[] lines;
+
+    public TokenBuffer(CharSequence source) {
+        this(source, 16 + source.length() / 4);
+    }
+
+    public TokenBuffer(CharSequence source, int capacity) {
+        this.source = source;
+        this.types = new int[capacity];
+        this.symbols = new int[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.lines = new int[capacity];
+    }
+
+    public void add(TokenType type, Symbol symbol, int start, int end, int line) {
+        if (size == types.length) grow();
+        types[size] = type.ordinal();
+        symbols[size] = symbol == null ? -1 : symbol.ordinal();
+        starts[size] = start;
+        ends[size] = end;
+        lines[size] = line;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        symbols = Arrays.copyOf(symbols, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public TokenType type(int i) {
+        return TYPES[types[i]];
+    }
+
+    public Symbol symbol(int i) {
+        return Symbol.byId(symbols[i]);
+    }
+
+    public boolean is(int i, Symbol symbol) {
+        return symbols[i] == symbol.ordinal();
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    public int line(int i) {
+        return lines[i];
+    }
+
+    public String text(int i) {
+        int id = symbols[i];
+        if (id >= 0) return Symbol.byId(id).getText();
+        return source.subSequence(starts[i], ends[i]).toString();
+    }
+
+    public Token token(int i) {
+        return new Token(type(i), text(i), lines[i]);
+    }
+
+    // Percorre o buffer como TokenSource, com acesso aleatório ao redor da posição atual
+    public TokenSource cursor() {
+        return new TokenSource() {
+            private int pos = 0;
+
+            public TokenType type(int k) { return TokenBuffer.this.type(pos + k); }
+            public Symbol symbol(int k) { return TokenBuffer.this.symbol(pos + k); }
+            public String text(int k) { return TokenBuffer.this.text(pos + k); }
+            public int line(int k) { return TokenBuffer.this.line(pos + k); }
+            public boolean exists(int k) { return pos + k >= 0 && pos + k < size; }
+            public void consume() { pos++; }
+            public boolean is(int k, Symbol symbol) { return TokenBuffer.this.is(pos + k, symbol); }
+        };
+    }
+
+    // Copia os tokens [from, to) de outro buffer deslocando offsets e linhas (usado na re-análise incremental)
+    void appendShifted(TokenBuffer other, int from, int to, int offsetDelta, int lineDelta) {
+        int count = to - from;
+        if (count <= 0) return;
+        while (size + count > types.length) grow();
+        System.arraycopy(other.types, from, types, size, count);
+        System.arraycopy(other.symbols, from, symbols, size, count);
+        System.arraycopy(other.starts, from, starts, size, count);
+        System.arraycopy(other.ends, from, ends, size, count);
+        System.arraycopy(other.lines, from, lines, size, count);
+        if (offsetDelta != 0 || lineDelta != 0) {
+            for (int i = size; i < size + count; i++) {
+                starts[i] += offsetDelta;
+                ends[i] += offsetDelta;
+                lines[i] += lineDelta;
+            }
+        }
+        size += count;
+    }
+
+    // Primeiro token cujo início é >= offset (os tokens estão em ordem de posição)
+    int firstTokenAtOrAfter(int offset) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < offset) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    public List<Token> toTokens() {
+        List<Token> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) tokens.add(token(i));
+        return tokens;
+    }
+
+    // Adapta uma lista de tokens já materializada, reconstruindo um texto com os valores separados por espaço
+    public static TokenBuffer of(List<Token> tokens) {
+        StringBuilder text = new StringBuilder();
+        TokenBuffer buffer = new TokenBuffer(text, Math.max(1, tokens.size()));
+        for (Token token : tokens) {
+            int start = text.length();
+            text.append(token.getValue());
+            buffer.add(token.getType(), Symbol.lookup(token.getType(), token.getValue()), start, text.length(), token.getLine());
+            text.append(' ');
+        }
+        return buffer;
+    }
+}
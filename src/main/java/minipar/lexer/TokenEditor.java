@@ -0,0 +1,43 @@
+package minipar.lexer;
+
+// Tokens de um texto em edição, mantidos com Lexer.relex. Uma edição pode deixar o texto com token
+// inválido por alguns instantes (aspas abertas, '!' sozinho); aí o editor guarda o último buffer
+// válido e o trecho alterado desde ele, e a cada nova edição re-analisa esse trecho a partir do
+// buffer válido, até o texto voltar a ter só tokens válidos.
+public class TokenEditor {
+    private TokenBuffer valid;
+    // Trecho alterado desde valid: [dirtyStart, dirtyOldEnd) no texto de valid, [dirtyStart, dirtyEnd)
+    // no texto atual; dirtyStart < 0 quando valid está em dia
+    private int dirtyStart = -1;
+    private int dirtyOldEnd;
+    private int dirtyEnd;
+
+    public TokenEditor(TokenBuffer tokens) {
+        valid = tokens;
+    }
+
+    // Edição já aplicada a text: removedLength caracteres a partir de offset deram lugar a insertedLength
+    public void edit(int offset, int removedLength, int insertedLength, CharSequence text) {
+        if (dirtyStart < 0) {
+            dirtyStart = offset;
+            dirtyOldEnd = offset;
+            dirtyEnd = offset;
+        }
+        int end = Math.max(dirtyEnd, offset + removedLength);
+        dirtyOldEnd = end + (dirtyOldEnd - dirtyEnd);
+        dirtyEnd = end + insertedLength - removedLength;
+        dirtyStart = Math.min(dirtyStart, offset);
+        try {
+            valid = Lexer.relex(valid, dirtyStart, dirtyOldEnd - dirtyStart,
+                    text.subSequence(dirtyStart, dirtyEnd).toString());
+            dirtyStart = -1;
+        } catch (RuntimeException e) {
+            // Token inválido no trecho: fica para a próxima edição
+        }
+    }
+
+    // Tokens do texto atual; null enquanto ele tiver token inválido
+    public TokenBuffer tokens() {
+        return dirtyStart < 0 ? valid : null;
+    }
+}
@@ -0,0 +1,6 @@
+package minipar.lexer;
+
+// Destino dos tokens reconhecidos pelo LineScanner
+interface TokenSink {
+    void add(TokenType type, Symbol symbol, int start, int end, int line);
+}
@@ -0,0 +1,20 @@
+package minipar.lexer;
+
+// Fonte de tokens consumida pelo parser; k é relativo ao token atual (-1 anterior, 0 atual, 1 próximo)
+public interface TokenSource {
+    TokenType type(int k);
+
+    Symbol symbol(int k);
+
+    String text(int k);
+
+    int line(int k);
+
+    boolean exists(int k);
+
+    void consume();
+
+    default boolean is(int k, Symbol symbol) {
+        return symbol(k) == symbol;
+    }
+}
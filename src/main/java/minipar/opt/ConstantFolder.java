@@ -0,0 +1,123 @@
+package minipar.opt;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Dobra BinOp com os dois lados literais num único Valor, com a mesma aritmética do
+// ExpressionEvaluator (divisão por zero vale 0, comparações valem 1 ou 0). Entre dois literais
+// inteiros a conta é a de inteiros e o resultado continua literal inteiro, a não ser que promova.
+// A condição de if/while continua BinOp: só os operandos dela são dobrados.
+public class ConstantFolder {
+    private int folded;
+
+    public void fold(ASTNode node) {
+        List<ASTNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            fold(child);
+            if (isCondition(node, i)) continue;
+            ASTNode literal = evaluate(child);
+            if (literal != null) {
+                children.set(i, literal);
+                folded++;
+            }
+        }
+    }
+
+    private static boolean isCondition(ASTNode parent, int index) {
+        return index == 0 && (parent.getKind() == NodeKind.IF || parent.getKind() == NodeKind.WHILE);
+    }
+
+    // Valor literal equivalente ao nó, ou null se ele não for uma operação entre constantes
+    private static ASTNode evaluate(ASTNode node) {
+        if (node.getKind() != NodeKind.BIN_OP || node.getOperator() == null) return null;
+        ASTNode left = node.getChildren().get(0);
+        ASTNode right = node.getChildren().get(1);
+        if (!left.isNumber() || !right.isNumber()) return null;
+        Long integer = left.isInteger() && right.isInteger()
+                ? applyInteger(node.getOperator(), left.getInteger(), right.getInteger())
+                : null;
+        ASTNode literal = integer != null
+                ? new ASTNode(NodeKind.VALOR, Long.toString(integer))
+                : number(apply(node.getOperator(), left.getNumber(), right.getNumber()));
+        if (literal != null) literal.setLine(node.getLine());
+        return literal;
+    }
+
+    static double apply(Operator op, double left, double right) {
+        return switch (op) {
+            case ADD -> left + right;
+            case SUB -> left - right;
+            case MUL -> left * right;
+            case POW -> Math.pow(left, right);
+            case DIV -> right == 0 ? 0 : left / right;
+            case MOD -> right == 0 ? 0 : left % right;
+            case EQ -> left == right ? 1 : 0;
+            case NE -> left != right ? 1 : 0;
+            case GT -> left > right ? 1 : 0;
+            case LT -> left < right ? 1 : 0;
+            case GE -> left >= right ? 1 : 0;
+            case LE -> left <= right ? 1 : 0;
+        };
+    }
+
+    // As mesmas regras de SpecializingNodes.apply no interpretador; null quando a conta promove para
+    // double (resultado fracionário, fora do long ou -0.0)
+    static Long applyInteger(Operator op, long a, long b) {
+        try {
+            return switch (op) {
+                case ADD -> Math.addExact(a, b);
+                case SUB -> Math.subtractExact(a, b);
+                case MUL -> {
+                    long r = Math.multiplyExact(a, b);
+                    yield r == 0 && (a | b) < 0 ? null : r;
+                }
+                case DIV -> {
+                    if (b == 0) yield 0L;
+                    if (a % b != 0 || (a == 0 && b < 0) || (a == Long.MIN_VALUE && b == -1)) yield null;
+                    yield a / b;
+                }
+                case MOD -> {
+                    if (b == 0) yield 0L;
+                    yield a % b == 0 && a < 0 ? null : a % b;
+                }
+                case POW -> {
+                    if (b < 0) yield null;
+                    long r = 1;
+                    for (long base = a, e = b; e > 0; e >>= 1) {
+                        if ((e & 1) != 0) r = Math.multiplyExact(r, base);
+                        if (e > 1) base = Math.multiplyExact(base, base);
+                    }
+                    yield r;
+                }
+                case EQ -> a == b ? 1L : 0L;
+                case NE -> a != b ? 1L : 0L;
+                case GT -> a > b ? 1L : 0L;
+                case LT -> a < b ? 1L : 0L;
+                case GE -> a >= b ? 1L : 0L;
+                case LE -> a <= b ? 1L : 0L;
+            };
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    // Literal no formato dos tokens NUMBER (-?\d+(\.\d+)?), que volta ao mesmo double;
+    // infinito e NaN não têm forma literal e ficam sem dobrar
+    static ASTNode number(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return null;
+        String text = Double.doubleToRawLongBits(value) == Double.doubleToRawLongBits(-0.0)
+                ? "-0.0"
+                : BigDecimal.valueOf(value).toPlainString();
+        if (text.indexOf('.') < 0) text += ".0";
+        return new ASTNode(NodeKind.VALOR, text);
+    }
+
+    public int getFolded() {
+        return folded;
+    }
+}
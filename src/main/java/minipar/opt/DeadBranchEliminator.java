@@ -0,0 +1,52 @@
+package minipar.opt;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// if com condição entre constantes vira as instruções do ramo escolhido, no lugar do próprio if;
+// while com condição constante falsa some. O corpo de um if roda sem rastro de bloco e para no
+// primeiro return, exatamente como as instruções coladas no bloco de fora.
+public class DeadBranchEliminator {
+    private int eliminated;
+
+    public void eliminate(ASTNode node) {
+        for (ASTNode child : node.getChildren()) eliminate(child);
+        if (node.getKind() != NodeKind.SEQ && node.getKind() != NodeKind.BLOCO) return;
+
+        List<ASTNode> statements = new ArrayList<>();
+        int before = eliminated;
+        for (ASTNode stmt : node.getChildren()) {
+            Boolean condition = constantCondition(stmt);
+            if (condition == null || (condition && stmt.getKind() == NodeKind.WHILE)) {
+                statements.add(stmt); // while sempre verdadeiro fica como está
+                continue;
+            }
+            eliminated++;
+            if (stmt.getKind() == NodeKind.IF) {
+                List<ASTNode> branches = stmt.getChildren();
+                if (condition) statements.addAll(branches.get(1).getChildren());
+                else if (branches.size() > 2) statements.addAll(branches.get(2).getChildren());
+            }
+        }
+        if (eliminated != before) node.setChildren(statements);
+    }
+
+    // Resultado de uma condição de if/while entre literais; null quando depende da execução
+    private static Boolean constantCondition(ASTNode stmt) {
+        if (stmt.getKind() != NodeKind.IF && stmt.getKind() != NodeKind.WHILE) return null;
+        ASTNode condition = stmt.getChildren().get(0);
+        if (condition.getKind() != NodeKind.BIN_OP) return null;
+        if (condition.getOperator() == null || !condition.getOperator().isComparison()) return null;
+        ASTNode left = condition.getChildren().get(0);
+        ASTNode right = condition.getChildren().get(1);
+        if (!left.isNumber() || !right.isNumber()) return null;
+        return ConstantFolder.apply(condition.getOperator(), left.getNumber(), right.getNumber()) != 0;
+    }
+
+    public int getEliminated() {
+        return eliminated;
+    }
+}
@@ -0,0 +1,219 @@
+package minipar.opt;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Tira de while/for as subexpressões que não mudam entre as voltas: a conta vai para uma variável
+// temporária atribuída logo antes do laço e o corpo passa a ler a temporária.
+// A conta passa a rodar mesmo quando o laço dá zero voltas, então só sobem expressões que não
+// podem falhar nem ter efeito: literais e variáveis que com certeza guardam número naquele ponto
+// (atribuídas antes no mesmo bloco com expressão numérica que não seja chamada, ou parâmetros) e
+// que o laço não atribui.
+// Funções não alteram variáveis de quem chama, mas um import pode: laços com import ficam intactos,
+// e num programa que importa algo os laços com chamada também (a função pode vir do módulo e importar).
+// Programas com PAR ficam de fora: outra thread pode mudar a variável que o laço está esperando.
+public class LoopInvariantHoister {
+    static final String TEMP_PREFIX = "$inv";
+
+    private int hoisted;
+    private boolean imports;
+
+    public void hoist(ASTNode root) {
+        if (contains(root, NodeKind.PAR)) return;
+        imports = containsAnywhere(root, NodeKind.IMPORT);
+        Set<String> numeric = new HashSet<>();
+        for (ASTNode bloco : root.getChildren()) block(bloco, numeric);
+    }
+
+    // Percorre as instruções em ordem, sabendo quais nomes certamente guardam número
+    private void block(ASTNode block, Set<String> numeric) {
+        List<ASTNode> statements = block.getChildren();
+        for (int i = 0; i < statements.size(); i++) {
+            ASTNode stmt = statements.get(i);
+            switch (stmt.getKind()) {
+                case ATRIBUICAO -> {
+                    String var = stmt.getChildren().get(0).getValue();
+                    if (mayBeList(stmt.getChildren().get(1))) numeric.remove(var);
+                    else numeric.add(var);
+                }
+                case RECEIVE -> numeric.add(stmt.getChildren().get(0).getValue());
+                case IMPORT -> numeric.clear();
+                case IF -> {
+                    for (int b = 1; b < stmt.getChildren().size(); b++) {
+                        block(stmt.getChildren().get(b), without(numeric, stmt));
+                    }
+                    numeric.removeAll(listTargets(stmt, new HashSet<>()));
+                }
+                case WHILE, FOR -> {
+                    ASTNode body = stmt.getChildren().get(stmt.getKind() == NodeKind.WHILE ? 1 : 2);
+                    Set<String> inside = without(numeric, stmt);
+                    block(body, new HashSet<>(inside));
+                    i += hoistFrom(stmt, statements, i, inside);
+                    numeric.removeAll(listTargets(stmt, new HashSet<>()));
+                }
+                case DEF -> {
+                    Set<String> params = new HashSet<>();
+                    ASTNode body = null;
+                    for (ASTNode child : stmt.getChildren()) {
+                        if (child.getKind() == NodeKind.PARAM) params.add(child.getValue());
+                        else body = child;
+                    }
+                    if (body != null) block(body, without(params, body));
+                }
+                default -> {}
+            }
+        }
+    }
+
+    private static Set<String> without(Set<String> numeric, ASTNode stmt) {
+        Set<String> result = new HashSet<>(numeric);
+        result.removeAll(listTargets(stmt, new HashSet<>()));
+        return result;
+    }
+
+    // Nomes que podem receber lista em algum ponto do trecho (sem entrar em funções aninhadas)
+    private static Set<String> listTargets(ASTNode node, Set<String> targets) {
+        for (ASTNode child : node.getChildren()) {
+            if (child.getKind() == NodeKind.DEF) continue;
+            if (child.getKind() == NodeKind.ATRIBUICAO && mayBeList(child.getChildren().get(1))) {
+                targets.add(child.getChildren().get(0).getValue());
+            }
+            listTargets(child, targets);
+        }
+        return targets;
+    }
+
+    // Literal de lista, ou chamada: o nome pode ser de uma nativa que devolve lista (add, scale)
+    private static boolean mayBeList(ASTNode expr) {
+        return expr.getKind() == NodeKind.LISTA || expr.getKind() == NodeKind.CHAMADA_FUNCAO;
+    }
+
+    // Todos os nomes atribuídos no laço, inclusive variáveis de for
+    private static Set<String> assigned(ASTNode node, Set<String> names) {
+        switch (node.getKind()) {
+            case ATRIBUICAO, RECEIVE -> names.add(node.getChildren().get(0).getValue());
+            case FOR -> names.add(node.getValue());
+            default -> {}
+        }
+        for (ASTNode child : node.getChildren()) {
+            if (child.getKind() != NodeKind.DEF) assigned(child, names);
+        }
+        return names;
+    }
+
+    private static boolean containsAnywhere(ASTNode node, NodeKind kind) {
+        if (node.getKind() == kind) return true;
+        for (ASTNode child : node.getChildren()) {
+            if (containsAnywhere(child, kind)) return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(ASTNode node, NodeKind kind) {
+        if (node.getKind() == kind) return true;
+        for (ASTNode child : node.getChildren()) {
+            if (child.getKind() != NodeKind.DEF && contains(child, kind)) return true;
+        }
+        return false;
+    }
+
+    // Sobe as invariantes do laço statements[index]; devolve quantas atribuições entraram antes dele
+    private int hoistFrom(ASTNode loop, List<ASTNode> statements, int index, Set<String> numeric) {
+        if (contains(loop, NodeKind.IMPORT) || (imports && contains(loop, NodeKind.CHAMADA_FUNCAO))) return 0;
+        Set<String> invariant = new HashSet<>(numeric);
+        invariant.removeAll(assigned(loop, new HashSet<>()));
+        if (invariant.isEmpty()) return 0;
+
+        Hoisting hoisting = new Hoisting(invariant, statements, index);
+        List<ASTNode> parts = loop.getChildren();
+        if (loop.getKind() == NodeKind.WHILE) {
+            ASTNode condition = parts.get(0);
+            if (condition.getKind() == NodeKind.BIN_OP) hoisting.expressions(condition);
+            hoisting.statements(parts.get(1));
+        } else {
+            hoisting.statements(parts.get(2)); // início e fim do for já são avaliados uma vez só
+        }
+        return hoisting.inserted;
+    }
+
+    private final class Hoisting {
+        private final Set<String> invariant;
+        private final List<ASTNode> statements;
+        private final int loopIndex;
+        private int inserted;
+
+        Hoisting(Set<String> invariant, List<ASTNode> statements, int loopIndex) {
+            this.invariant = invariant;
+            this.statements = statements;
+            this.loopIndex = loopIndex;
+        }
+
+        void statements(ASTNode block) {
+            for (ASTNode stmt : block.getChildren()) {
+                List<ASTNode> children = stmt.getChildren();
+                switch (stmt.getKind()) {
+                    case ATRIBUICAO -> expression(children, 1);
+                    case ATRIBUICAO_INDICE, PRINT, RETURN, CHAMADA_FUNCAO -> expressions(stmt);
+                    case IF, WHILE -> {
+                        if (children.get(0).getKind() == NodeKind.BIN_OP) expressions(children.get(0));
+                        for (int b = 1; b < children.size(); b++) statements(children.get(b));
+                    }
+                    case FOR -> {
+                        expression(children, 0);
+                        expression(children, 1);
+                        statements(children.get(2));
+                    }
+                    default -> {}
+                }
+            }
+        }
+
+        void expressions(ASTNode node) {
+            for (int i = 0; i < node.getChildren().size(); i++) expression(node.getChildren(), i);
+        }
+
+        private void expression(List<ASTNode> siblings, int index) {
+            ASTNode node = siblings.get(index);
+            if (node.getKind() == NodeKind.BIN_OP && isInvariant(node) && hasVariable(node)) {
+                String temp = TEMP_PREFIX + hoisted++;
+                ASTNode target = new ASTNode(NodeKind.VARIAVEL, temp);
+                ASTNode assignment = new ASTNode(NodeKind.ATRIBUICAO, "");
+                assignment.addChild(target);
+                assignment.addChild(node);
+                assignment.setLine(node.getLine());
+                statements.add(loopIndex + inserted++, assignment);
+
+                ASTNode read = new ASTNode(NodeKind.VALOR, temp);
+                read.setLine(node.getLine());
+                siblings.set(index, read);
+                return;
+            }
+            if (node.getKind() == NodeKind.BIN_OP || node.getKind() == NodeKind.LISTA
+                    || node.getKind() == NodeKind.CHAMADA_FUNCAO) {
+                expressions(node);
+            }
+        }
+
+        // Só literais numéricos e variáveis numéricas não atribuídas no laço, ligados por operadores válidos
+        private boolean isInvariant(ASTNode node) {
+            if (node.isNumber()) return true;
+            if (node.isVariable()) return invariant.contains(node.getValue());
+            if (node.getKind() != NodeKind.BIN_OP || node.getOperator() == null) return false;
+            return isInvariant(node.getChildren().get(0)) && isInvariant(node.getChildren().get(1));
+        }
+
+        private boolean hasVariable(ASTNode node) {
+            if (node.isVariable()) return true;
+            for (ASTNode child : node.getChildren()) if (hasVariable(child)) return true;
+            return false;
+        }
+    }
+
+    public int getHoisted() {
+        return hoisted;
+    }
+}
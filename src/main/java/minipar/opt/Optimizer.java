@@ -0,0 +1,58 @@
+package minipar.opt;
+
+import minipar.parser.ASTNode;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+
+// Otimizações sobre a AST já validada pelo SemanticAnalyzer, antes da execução. Cada passo é um
+// módulo próprio e reescreve a árvore no lugar; nenhum muda a saída nem as mensagens de erro.
+// Ligado por -Dminipar.opt=true (ProgramCache e GUI); -Dminipar.opt.dump=true imprime a AST otimizada.
+public class Optimizer {
+    public static final String PROPERTY = "minipar.opt";
+    public static final String DUMP_PROPERTY = "minipar.opt.dump";
+
+    private final ConstantFolder folder = new ConstantFolder();
+    private final DeadBranchEliminator eliminator = new DeadBranchEliminator();
+    private final StrengthReducer reducer = new StrengthReducer();
+    private final LoopInvariantHoister hoister = new LoopInvariantHoister();
+
+    public static boolean enabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    public static boolean dumpEnabled() {
+        return Boolean.getBoolean(DUMP_PROPERTY);
+    }
+
+    public ASTNode optimize(ASTNode root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
+            throw new RuntimeException("AST invalida: nó raiz não é 'Programa'");
+        }
+        folder.fold(root);          // os ramos mortos só aparecem com as condições já dobradas
+        eliminator.eliminate(root);
+        reducer.reduce(root);
+        hoister.hoist(root);
+        return root;
+    }
+
+    public static void dump(Node root) {
+        System.out.println("=== AST otimizada ===");
+        root.print("");
+    }
+
+    public int getFolded() {
+        return folder.getFolded();
+    }
+
+    public int getEliminated() {
+        return eliminator.getEliminated();
+    }
+
+    public int getReduced() {
+        return reducer.getReduced();
+    }
+
+    public int getHoisted() {
+        return hoister.getHoisted();
+    }
+}
@@ -0,0 +1,42 @@
+package minipar.opt;
+
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+
+import java.util.List;
+
+// x ^ 2 vira x * x: Math.pow(x, 2) devolve exatamente x * x, sem a chamada. Só para variável,
+// que pode ser lida duas vezes sem efeito colateral; a primeira leitura falha igual à do ^.
+// Argumento direto de print fica como está: se falhar, o print mostra o texto do nó (o "^").
+public class StrengthReducer {
+    private int reduced;
+
+    public void reduce(ASTNode node) {
+        List<ASTNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            ASTNode child = children.get(i);
+            reduce(child);
+            if (node.getKind() != NodeKind.PRINT && isSquare(child)) {
+                ASTNode base = child.getChildren().get(0);
+                ASTNode product = new ASTNode(Operator.MUL);
+                product.addChild(base);
+                product.addChild(new ASTNode(NodeKind.VALOR, base.getValue()));
+                product.setLine(child.getLine());
+                children.set(i, product);
+                reduced++;
+            }
+        }
+    }
+
+    private static boolean isSquare(ASTNode node) {
+        if (node.getKind() != NodeKind.BIN_OP || node.getOperator() != Operator.POW) return false;
+        ASTNode base = node.getChildren().get(0);
+        ASTNode exponent = node.getChildren().get(1);
+        return exponent.isNumber() && exponent.getNumber() == 2 && base.isVariable();
+    }
+
+    public int getReduced() {
+        return reduced;
+    }
+}
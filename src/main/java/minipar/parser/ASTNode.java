@@ -3,21 +3,83 @@ package minipar.parser;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ASTNode {
+public class ASTNode implements Node {
+    private final NodeKind kind;
     private final String type;
     private final String value;
     private final List<ASTNode> children;
 
+    // Campos pré-decodificados na construção, para que os visitantes não reinterpretem strings
+    private final Operator operator;   // BinOp
+    private final boolean numeric;     // Valor com literal numérico
+    private final double number;
+    private final boolean integral;    // literal numérico sem parte fracionária que cabe em long
+    private final long integer;
+    private final boolean string;      // Valor com literal string entre aspas
+    private int line;                  // linha do primeiro token; 0 quando não registrada
+    private int slot = -1;             // anotado pelo Resolver
+
+    public ASTNode(NodeKind kind, String value) {
+        this(kind, kind.getLabel(), value, null);
+    }
+
+    public ASTNode(Operator operator) {
+        this(NodeKind.BIN_OP, NodeKind.BIN_OP.getLabel(), operator.getText(), operator);
+    }
+
     public ASTNode(String type, String value) {
+        this(NodeKind.fromLabel(type), type, value, null);
+    }
+
+    private ASTNode(NodeKind kind, String type, String value, Operator operator) {
+        this.kind = kind;
         this.type = type;
         this.value = value;
         this.children = new ArrayList<>();
+        this.operator = operator == null && kind == NodeKind.BIN_OP ? Operator.fromText(value) : operator;
+        this.numeric = kind == NodeKind.VALOR && isNumberLiteral(value);
+        this.number = numeric ? Double.parseDouble(value) : 0;
+        this.integral = numeric && isIntegerLiteral(value);
+        this.integer = integral ? Long.parseLong(value) : 0;
+        this.string = kind == NodeKind.VALOR && value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"");
+    }
+
+    // -?\d+(\.\d+)?, o mesmo formato dos tokens NUMBER
+    private static boolean isNumberLiteral(String text) {
+        int i = text.startsWith("-") ? 1 : 0;
+        int digits = i;
+        while (i < text.length() && isDigit(text.charAt(i))) i++;
+        if (i == digits) return false;
+        if (i == text.length()) return true;
+        if (text.charAt(i) != '.') return false;
+        int fraction = ++i;
+        while (i < text.length() && isDigit(text.charAt(i))) i++;
+        return i > fraction && i == text.length();
+    }
+
+    // Sem ponto, dentro da faixa do long e diferente de -0 (que como double é -0.0)
+    private static boolean isIntegerLiteral(String text) {
+        if (text.indexOf('.') >= 0) return false;
+        try {
+            long value = Long.parseLong(text);
+            return value != 0 || !text.startsWith("-");
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     public void addChild(ASTNode child) {
         children.add(child);
     }
 
+    public NodeKind getKind() {
+        return kind;
+    }
+
     public String getType() {
         return type;
     }
@@ -26,21 +88,63 @@ public class ASTNode {
         return value;
     }
 
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public boolean isNumber() {
+        return numeric;
+    }
+
+    public double getNumber() {
+        return number;
+    }
+
+    public boolean isInteger() {
+        return integral;
+    }
+
+    public long getInteger() {
+        return integer;
+    }
+
+    public boolean isString() {
+        return string;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     public List<ASTNode> getChildren() {
         return children;
     }
 
+    @Override
+    public ASTNode copy() {
+        ASTNode copia = new ASTNode(kind, type, value, operator);
+        copia.line = line;
+        for (ASTNode child : children) copia.children.add(child.copy());
+        return copia;
+    }
+
     @Override
     public String toString() {
         return type + "(" + value + ")";
     }
 
-    public void print(String prefix) {
-        System.out.println(prefix + this);
-        for (ASTNode child : children) {
-            child.print(prefix + "  ");
-        }
-    }
     public void setChildren(List<ASTNode> children) {
         this.children.clear();
         this.children.addAll(children);
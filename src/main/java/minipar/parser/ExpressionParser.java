@@ -12,28 +12,32 @@ public class ExpressionParser {
 
     public ASTNode parseExpression() {
         ASTNode left = parseTerm();
-        while (!parser.isAtEnd() && parser.isComparisonOperator(parser.current().getValue())) {
-            String op = parser.consume().getValue();
+        while (!parser.isAtEnd() && parser.isComparisonOperator(parser.currentSymbol())) {
+            Symbol op = parser.currentSymbol();
+            parser.advance();
             ASTNode right = parseTerm();
-            left = parser.createNode("BinOp", op, left, right);
+            left = parser.createBinary(op, left, right);
         }
         return left;
     }
 
     public ASTNode parseTerm() {
         ASTNode node = parseFactor();
-        while (!parser.isAtEnd() && (parser.match("+") || parser.match("-"))) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parseFactor());
+        while (!parser.isAtEnd() && (parser.peekIs(Symbol.PLUS) || parser.peekIs(Symbol.MINUS))) {
+            Symbol op = parser.currentSymbol();
+            parser.advance();
+            node = parser.createBinary(op, node, parseFactor());
         }
         return node;
     }
 
     public ASTNode parseFactor() {
         ASTNode node = parseExponent();
-        while (!parser.isAtEnd() && (parser.match("*") || parser.match("/"))) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parseExponent());
+        while (!parser.isAtEnd() && (parser.peekIs(Symbol.STAR) || parser.peekIs(Symbol.SLASH)
+                || parser.peekIs(Symbol.PERCENT))) {
+            Symbol op = parser.currentSymbol();
+            parser.advance();
+            node = parser.createBinary(op, node, parseExponent());
         }
         return node;
     }
@@ -41,57 +45,55 @@ public class ExpressionParser {
     // ✅ NOVO: tratamento do operador de exponenciação "^"
     private ASTNode parseExponent() {
         ASTNode node = parsePrimary();
-        while (!parser.isAtEnd() && parser.match("^")) {
-            String op = parser.previous().getValue();
-            node = parser.createNode("BinOp", op, node, parsePrimary());
+        while (!parser.isAtEnd() && parser.match(Symbol.CARET)) {
+            node = parser.createBinary(Symbol.CARET, node, parsePrimary());
         }
         return node;
     }
 
     public ASTNode parsePrimary() {
-        Token token = parser.current();
+        TokenType type = parser.currentType();
 
-        if (parser.match("(")) {
+        if (parser.match(Symbol.LPAREN)) {
             ASTNode expr = parseExpression();
-            parser.expect(TokenType.DELIMITER, ")");
+            parser.expect(Symbol.RPAREN);
             return expr;
         }
 
-        if (token.getType() == TokenType.KEYWORD && token.getValue().equals("input")) {
-            parser.consume(); // consome 'input'
-            parser.expect(TokenType.DELIMITER, "(");
-            parser.expect(TokenType.DELIMITER, ")");
-            return new ASTNode("input", "");
+        if (parser.peekIs(Symbol.INPUT)) {
+            parser.advance(); // consome 'input'
+            parser.expect(Symbol.LPAREN);
+            parser.expect(Symbol.RPAREN);
+            return new ASTNode(NodeKind.INPUT, "");
         }
 
-        if (token.getType() == TokenType.IDENTIFIER) {
-            String name = parser.consume().getValue();
-            if (parser.match("[")) {
+        if (type == TokenType.IDENTIFIER) {
+            String name = parser.consume();
+            if (parser.match(Symbol.LBRACKET)) {
                 ASTNode index = parseExpression();
-                parser.expect(TokenType.DELIMITER, "]");
-                return parser.createNode("Indexacao", name, index);
+                parser.expect(Symbol.RBRACKET);
+                return parser.createNode(NodeKind.INDEXACAO, name, index);
             }
-            if (parser.peekIs("(")) {
+            if (parser.peekIs(Symbol.LPAREN)) {
                 return new StatementParser(parser).parseFunctionCall(name);
             }
-            return new ASTNode("Valor", name);
+            return new ASTNode(NodeKind.VALOR, name);
         }
 
-        if (parser.match("[")) {
+        if (parser.match(Symbol.LBRACKET)) {
             List<ASTNode> elements = new ArrayList<>();
-            if (!parser.peekIs("]")) {
+            if (!parser.peekIs(Symbol.RBRACKET)) {
                 do elements.add(parseExpression());
-                while (parser.match(","));
+                while (parser.match(Symbol.COMMA));
             }
-            parser.expect(TokenType.DELIMITER, "]");
-            ASTNode node = new ASTNode("Lista", "");
+            parser.expect(Symbol.RBRACKET);
+            ASTNode node = new ASTNode(NodeKind.LISTA, "");
             node.setChildren(elements);
             return node;
         }
 
-        if (token.getType() == TokenType.NUMBER || token.getType() == TokenType.STRING) {
-            parser.consume();
-            return new ASTNode("Valor", token.getValue());
+        if (type == TokenType.NUMBER || type == TokenType.STRING) {
+            return new ASTNode(NodeKind.VALOR, parser.consume());
         }
 
         throw parser.error("Expressão inválida");
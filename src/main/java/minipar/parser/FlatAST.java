@@ -0,0 +1,386 @@
+package minipar.parser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// AST achatada em arrays primitivos: cada nó é um índice, os filhos formam uma lista encadeada
+// (primeiro filho / próximo irmão) e os textos ficam numa tabela à parte, sem repetição.
+// Para programas grandes custa poucos bytes por nó, contra um objeto e um ArrayList por nó no grafo.
+public final class FlatAST {
+    // A partir deste número de nós vale a pena trocar o grafo pela versão achatada
+    public static final int COMPACT_THRESHOLD = 1 << 16;
+
+    // Formato binário .mprc; incremente ao mudar o layout ou a ordem de NodeKind/Operator
+    public static final int FORMAT_VERSION = 3;
+    private static final int MAGIC = 0x4D505243; // "MPRC"
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+    private static final Operator[] OPERATORS = Operator.values();
+    private static final int NONE = -1;
+
+    private int size;
+    private int[] kinds;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] payload;     // índice na tabela de valores
+    private int[] lines;
+    private int[] slots;       // anotação do Resolver; não é serializada (a numeração é do programa)
+
+    // Tabela de valores, com os campos pré-decodificados de cada texto
+    private int valueCount;
+    private String[] values = new String[16];
+    private double[] numbers = new double[16];
+    private boolean[] numeric = new boolean[16];
+    private boolean[] integral = new boolean[16];
+    private long[] integers = new long[16];
+    private boolean[] string = new boolean[16];
+    private Operator[] operators = new Operator[16];
+    private Map<String, Integer> valueIndex = new HashMap<>(); // só durante a construção
+
+    // Rótulo original dos nós DESCONHECIDO (ex.: operação de canal com nome não previsto)
+    private final Map<Integer, String> labels = new HashMap<>();
+
+    private FlatAST(int capacity) {
+        kinds = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        payload = new int[capacity];
+        lines = new int[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, -1);
+    }
+
+    // Cópia que divide a estrutura e a tabela de valores com esta (nenhuma das duas muda depois de
+    // construída), com slots próprios
+    public FlatAST copy() {
+        FlatAST copia = new FlatAST(0);
+        copia.size = size;
+        copia.kinds = kinds;
+        copia.firstChild = firstChild;
+        copia.nextSibling = nextSibling;
+        copia.payload = payload;
+        copia.lines = lines;
+        copia.slots = new int[slots.length];
+        Arrays.fill(copia.slots, -1);
+        copia.valueCount = valueCount;
+        copia.values = values;
+        copia.numbers = numbers;
+        copia.numeric = numeric;
+        copia.integral = integral;
+        copia.integers = integers;
+        copia.string = string;
+        copia.operators = operators;
+        copia.valueIndex = null;
+        copia.labels.putAll(labels);
+        return copia;
+    }
+
+    public static FlatAST from(ASTNode root) {
+        FlatAST tree = new FlatAST(Math.max(16, countNodes(root)));
+        tree.append(root);
+        tree.valueIndex = null;
+        return tree;
+    }
+
+    // Achata só árvores grandes; as pequenas continuam como grafo de ASTNode
+    public static Node compact(ASTNode root) {
+        return countNodes(root) >= COMPACT_THRESHOLD ? from(root).root() : root;
+    }
+
+    public static int countNodes(ASTNode root) {
+        int count = 1;
+        for (ASTNode child : root.getChildren()) count += countNodes(child);
+        return count;
+    }
+
+    // Pré-ordem: o nó recebe seu índice antes dos filhos
+    private int append(ASTNode node) {
+        int id = size++;
+        if (id == kinds.length) grow();
+        kinds[id] = node.getKind().ordinal();
+        payload[id] = intern(node);
+        lines[id] = node.getLine();
+        slots[id] = node.getSlot();
+        firstChild[id] = NONE;
+        nextSibling[id] = NONE;
+        if (node.getKind() == NodeKind.DESCONHECIDO) labels.put(id, node.getType());
+
+        int previous = NONE;
+        for (ASTNode child : node.getChildren()) {
+            int childId = append(child);
+            if (previous == NONE) firstChild[id] = childId;
+            else nextSibling[previous] = childId;
+            previous = childId;
+        }
+        return id;
+    }
+
+    private int intern(ASTNode node) {
+        Integer index = valueIndex.get(node.getValue());
+        if (index != null && numeric[index] == node.isNumber() && integral[index] == node.isInteger()
+                && string[index] == node.isString()
+                && operators[index] == node.getOperator()) {
+            return index;
+        }
+        if (valueCount == values.length) {
+            int capacity = valueCount * 2;
+            values = Arrays.copyOf(values, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            numeric = Arrays.copyOf(numeric, capacity);
+            integral = Arrays.copyOf(integral, capacity);
+            integers = Arrays.copyOf(integers, capacity);
+            string = Arrays.copyOf(string, capacity);
+            operators = Arrays.copyOf(operators, capacity);
+        }
+        int id = valueCount++;
+        values[id] = node.getValue();
+        numbers[id] = node.getNumber();
+        numeric[id] = node.isNumber();
+        integral[id] = node.isInteger();
+        integers[id] = node.getInteger();
+        string[id] = node.isString();
+        operators[id] = node.getOperator();
+        if (index == null) valueIndex.put(node.getValue(), id);
+        return id;
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        payload = Arrays.copyOf(payload, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        int previous = slots.length;
+        slots = Arrays.copyOf(slots, capacity);
+        Arrays.fill(slots, previous, capacity, -1);
+    }
+
+    // ===================== Serialização =========================
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeByte(kinds[i]);
+            out.writeInt(firstChild[i]);
+            out.writeInt(nextSibling[i]);
+            out.writeInt(payload[i]);
+            out.writeInt(lines[i]);
+        }
+        out.writeInt(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            writeString(out, values[i]);
+            out.writeBoolean(numeric[i]);
+            if (numeric[i]) out.writeDouble(numbers[i]);
+            out.writeBoolean(integral[i]);
+            if (integral[i]) out.writeLong(integers[i]);
+            out.writeBoolean(string[i]);
+            out.writeByte(operators[i] == null ? -1 : operators[i].ordinal());
+        }
+        out.writeInt(labels.size());
+        for (Map.Entry<Integer, String> label : labels.entrySet()) {
+            out.writeInt(label.getKey());
+            writeString(out, label.getValue());
+        }
+    }
+
+    public static FlatAST read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Arquivo .mprc inválido");
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) throw new IOException("Versão de formato .mprc incompatível: " + version);
+
+        int size = in.readInt();
+        FlatAST tree = new FlatAST(Math.max(16, size));
+        tree.size = size;
+        for (int i = 0; i < size; i++) {
+            tree.kinds[i] = in.readByte();
+            tree.firstChild[i] = in.readInt();
+            tree.nextSibling[i] = in.readInt();
+            tree.payload[i] = in.readInt();
+            tree.lines[i] = in.readInt();
+        }
+        int valueCount = in.readInt();
+        tree.valueCount = valueCount;
+        tree.values = new String[valueCount];
+        tree.numbers = new double[valueCount];
+        tree.numeric = new boolean[valueCount];
+        tree.integral = new boolean[valueCount];
+        tree.integers = new long[valueCount];
+        tree.string = new boolean[valueCount];
+        tree.operators = new Operator[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            tree.values[i] = readString(in);
+            tree.numeric[i] = in.readBoolean();
+            if (tree.numeric[i]) tree.numbers[i] = in.readDouble();
+            tree.integral[i] = in.readBoolean();
+            if (tree.integral[i]) tree.integers[i] = in.readLong();
+            tree.string[i] = in.readBoolean();
+            int op = in.readByte();
+            tree.operators[i] = op < 0 ? null : OPERATORS[op];
+        }
+        int labelCount = in.readInt();
+        for (int i = 0; i < labelCount; i++) {
+            tree.labels.put(in.readInt(), readString(in));
+        }
+        tree.valueIndex = null;
+        return tree;
+    }
+
+    // writeUTF limita a 64 KB; comentários e strings longos não cabem nele
+    private static void writeString(DataOutput out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ===================== Cursor por índice =========================
+    public int size() { return size; }
+    public int rootId() { return 0; }
+    public NodeKind kind(int id) { return KINDS[kinds[id]]; }
+    public int firstChild(int id) { return firstChild[id]; }
+    public int nextSibling(int id) { return nextSibling[id]; }
+    public String value(int id) { return values[payload[id]]; }
+    public boolean isNumber(int id) { return numeric[payload[id]]; }
+    public double number(int id) { return numbers[payload[id]]; }
+    public boolean isInteger(int id) { return integral[payload[id]]; }
+    public long integer(int id) { return integers[payload[id]]; }
+    public boolean isString(int id) { return string[payload[id]]; }
+    public Operator operator(int id) { return operators[payload[id]]; }
+    public int line(int id) { return lines[id]; }
+    public int slot(int id) { return slots[id]; }
+    public void setSlot(int id, int slot) { slots[id] = slot; }
+
+    public String type(int id) {
+        NodeKind kind = kind(id);
+        return kind == NodeKind.DESCONHECIDO ? labels.get(id) : kind.getLabel();
+    }
+
+    public int childCount(int id) {
+        int count = 0;
+        for (int c = firstChild[id]; c != NONE; c = nextSibling[c]) count++;
+        return count;
+    }
+
+    // Volta ao grafo de ASTNode, com as mesmas linhas; o cache usa isto para programas pequenos, que
+    // executam mais rápido no grafo (filhos num ArrayList, sem criar uma visão a cada acesso)
+    public ASTNode toAST() {
+        return toAST(rootId());
+    }
+
+    private ASTNode toAST(int id) {
+        ASTNode node = new ASTNode(type(id), value(id));
+        node.setLine(line(id));
+        for (int c = firstChild[id]; c != NONE; c = nextSibling[c]) node.addChild(toAST(c));
+        return node;
+    }
+
+    public Node root() {
+        return node(0);
+    }
+
+    // Visão Node de um índice; é só um par (árvore, índice), criado sob demanda
+    public Node node(int id) {
+        return new FlatNode(id);
+    }
+
+    private final class FlatNode implements Node {
+        private final int id;
+
+        FlatNode(int id) {
+            this.id = id;
+        }
+
+        public NodeKind getKind() { return kind(id); }
+        public String getType() { return type(id); }
+        public String getValue() { return value(id); }
+        public Operator getOperator() { return operator(id); }
+        public boolean isNumber() { return FlatAST.this.isNumber(id); }
+        public double getNumber() { return number(id); }
+        public boolean isInteger() { return FlatAST.this.isInteger(id); }
+        public long getInteger() { return integer(id); }
+        public boolean isString() { return FlatAST.this.isString(id); }
+        public int getLine() { return line(id); }
+        public int getSlot() { return slot(id); }
+        public void setSlot(int slot) { FlatAST.this.setSlot(id, slot); }
+        public Node copy() { return FlatAST.this.copy().node(id); }
+
+        public List<Node> getChildren() {
+            return new Children(id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FlatNode node && node.id == id && node.tree() == FlatAST.this;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        private FlatAST tree() {
+            return FlatAST.this;
+        }
+
+        @Override
+        public String toString() {
+            return getType() + "(" + getValue() + ")";
+        }
+    }
+
+    // Lista de filhos percorrida pelos irmãos; a iteração é linear mesmo em blocos com muitos filhos
+    private final class Children extends AbstractList<Node> {
+        private final int parent;
+        private int size = NONE;
+
+        Children(int parent) {
+            this.parent = parent;
+        }
+
+        public Node get(int index) {
+            int c = firstChild[parent];
+            for (int i = 0; i < index && c != NONE; i++) c = nextSibling[c];
+            if (index < 0 || c == NONE) throw new IndexOutOfBoundsException("Filho inexistente: " + index);
+            return node(c);
+        }
+
+        public int size() {
+            if (size == NONE) size = childCount(parent);
+            return size;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return new Iterator<>() {
+                private int next = firstChild[parent];
+
+                public boolean hasNext() {
+                    return next != NONE;
+                }
+
+                public Node next() {
+                    if (next == NONE) throw new NoSuchElementException();
+                    Node node = node(next);
+                    next = nextSibling[next];
+                    return node;
+                }
+            };
+        }
+    }
+}
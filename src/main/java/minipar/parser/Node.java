@@ -0,0 +1,53 @@
+package minipar.parser;
+
+import java.util.List;
+
+// Visão de um nó da AST, comum ao grafo de ASTNode e à FlatAST.
+// O analisador semântico e o interpretador percorrem a árvore só por esta interface; a única
+// escrita é o slot de variável anotado pelo Resolver. Uma árvore compartilhada entre programas
+// (módulo do ModuleRegistry) é copiada com copy() antes de cada um anotar a sua.
+public interface Node {
+    NodeKind getKind();
+
+    String getType();
+
+    String getValue();
+
+    Operator getOperator();
+
+    // Valor: literal numérico, string entre aspas ou, nos demais casos, nome de variável;
+    // decidido uma vez na construção do nó. Literal numérico sem parte fracionária é inteiro (long).
+    boolean isNumber();
+
+    double getNumber();
+
+    boolean isInteger();
+
+    long getInteger();
+
+    boolean isString();
+
+    default boolean isVariable() {
+        return getKind() == NodeKind.VALOR && !isNumber() && !isString();
+    }
+
+    int getLine();
+
+    // Índice da variável no armazenamento do interpretador (numa chamada, o número do call site);
+    // -1 enquanto não resolvido
+    int getSlot();
+
+    void setSlot(int slot);
+
+    // Mesma árvore, com slots próprios ainda não resolvidos
+    Node copy();
+
+    List<? extends Node> getChildren();
+
+    default void print(String prefix) {
+        System.out.println(prefix + this);
+        for (Node child : getChildren()) {
+            child.print(prefix + "  ");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package minipar.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Tipo de cada nó da AST; o rótulo é o nome usado na impressão da árvore e em getType()
+public enum NodeKind {
+    PROGRAMA("Programa"),
+    SEQ("SEQ"),
+    PAR("PAR"),
+    BLOCO("Bloco"),
+    ATRIBUICAO("Atribuicao"),
+    ATRIBUICAO_INDICE("AtribuicaoIndice"),
+    VARIAVEL("Variavel"),
+    VALOR("Valor"),
+    BIN_OP("BinOp"),
+    LISTA("Lista"),
+    INDEXACAO("Indexacao"),
+    INPUT("input"),
+    CHAMADA_FUNCAO("ChamadaFuncao"),
+    COMENTARIO("Comentario"),
+    C_CHANNEL("c_channel"),
+    COMP1("Comp1"),
+    COMP2("Comp2"),
+    SEND("send"),
+    RECEIVE("receive"),
+    PRINT("print"),
+    IF("if"),
+    WHILE("while"),
+    FOR("for"),
+    DEF("def"),
+    PARAM("param"),
+    RETURN("return"),
+    IMPORT("import"),
+    DESCONHECIDO("?"); // ex.: operação de canal ou bloco com nome não previsto; getType() guarda o nome original
+
+    private static final Map<String, NodeKind> BY_LABEL = new HashMap<>();
+
+    static {
+        for (NodeKind kind : values()) BY_LABEL.put(kind.label, kind);
+    }
+
+    private final String label;
+
+    NodeKind(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static NodeKind fromLabel(String label) {
+        return BY_LABEL.getOrDefault(label, DESCONHECIDO);
+    }
+}
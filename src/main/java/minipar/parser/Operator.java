@@ -0,0 +1,58 @@
+package minipar.parser;
+
+import minipar.lexer.Symbol;
+
+// Operadores binários já decodificados pelo parser
+public enum Operator {
+    ADD("+"),
+    SUB("-"),
+    MUL("*"),
+    DIV("/"),
+    MOD("%"),
+    POW("^"),
+    EQ("=="),
+    NE("!="),
+    LT("<"),
+    GT(">"),
+    LE("<="),
+    GE(">=");
+
+    private final String text;
+
+    Operator(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isComparison() {
+        return ordinal() >= EQ.ordinal();
+    }
+
+    public static Operator fromSymbol(Symbol symbol) {
+        return switch (symbol) {
+            case PLUS -> ADD;
+            case MINUS -> SUB;
+            case STAR -> MUL;
+            case SLASH -> DIV;
+            case PERCENT -> MOD;
+            case CARET -> POW;
+            case EQ -> EQ;
+            case NE -> NE;
+            case LT -> LT;
+            case GT -> GT;
+            case LE -> LE;
+            case GE -> GE;
+            default -> throw new IllegalArgumentException("Operador inválido: " + symbol.getText());
+        };
+    }
+
+    public static Operator fromText(String text) {
+        for (Operator op : values()) {
+            if (op.text.equals(text)) return op;
+        }
+        return null;
+    }
+}
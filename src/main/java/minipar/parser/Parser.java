@@ -4,18 +4,27 @@ import minipar.lexer.*;
 import java.util.*;
 
 public class Parser {
-    private final List<Token> tokens;
-    private int pos = 0;
+    private final TokenSource tokens;
     private final ExpressionParser expressionParser;
 
-    public Parser(List<Token> tokens) {
+    public Parser(TokenSource tokens) {
         this.tokens = tokens;
         this.expressionParser = new ExpressionParser(this);
     }
 
+    public Parser(TokenBuffer tokens) {
+        this(tokens.cursor());
+    }
+
+    public Parser(List<Token> tokens) {
+        this(TokenBuffer.of(tokens));
+    }
+
     public ASTNode parseProgram() {
-        expect(TokenType.KEYWORD, "programa_minipar");
-        ASTNode root = new ASTNode("Programa", "programa_minipar");
+        int line = tokens.line(0);
+        expect(Symbol.PROGRAMA_MINIPAR);
+        ASTNode root = new ASTNode(NodeKind.PROGRAMA, "programa_minipar");
+        root.setLine(line);
         while (!isAtEnd()) {
             root.addChild(parseBlock());
         }
@@ -23,22 +32,24 @@ public class Parser {
     }
 
     public ASTNode parseBlock() {
-        Token token = current();
-        String blockType = token.getValue(); // "SEQ" ou "PAR"
-        expect(TokenType.KEYWORD, blockType);
+        Symbol blockType = currentSymbol(); // SEQ ou PAR
+        String blockName = currentText();
+        if (currentType() != TokenType.KEYWORD) throw error("Esperado: " + blockName + ", encontrado: " + blockName);
+        advance();
 
-        ASTNode blocoPrincipal = new ASTNode(blockType, "");
+        ASTNode blocoPrincipal = new ASTNode(blockName, "");
+        blocoPrincipal.setLine(tokens.line(-1));
 
         // Se for SEQ: adiciona instruções diretamente
-        if (blockType.equals("SEQ")) {
-            while (!isAtEnd() && !(peekIs("SEQ") || peekIs("PAR") || peekIs("EOF"))) {
+        if (blockType == Symbol.SEQ) {
+            while (!isAtEnd() && !(peekIs(Symbol.SEQ) || peekIs(Symbol.PAR) || peekIs(Symbol.EOF))) {
                 blocoPrincipal.addChild(parseStatement());
             }
         }
 
         // Se for PAR: espera blocos SEQ internos
-        else if (blockType.equals("PAR")) {
-            while (!isAtEnd() && (peekIs("SEQ") || peekIs("PAR") || peekIs("EOF"))) {
+        else if (blockType == Symbol.PAR) {
+            while (!isAtEnd() && (peekIs(Symbol.SEQ) || peekIs(Symbol.PAR) || peekIs(Symbol.EOF))) {
                 ASTNode seqBloco = parseBlock(); // Espera SEQ logo após PAR
                 blocoPrincipal.addChild(seqBloco);
             }
@@ -50,17 +61,24 @@ public class Parser {
 
 
     public ASTNode parseStatement() {
-        Token token = current();
-        if (token.getType() == TokenType.IDENTIFIER) {
+        int line = tokens.line(0);
+        ASTNode stmt = parseStatementAt();
+        stmt.setLine(line);
+        return stmt;
+    }
+
+    private ASTNode parseStatementAt() {
+        TokenType type = currentType();
+        if (type == TokenType.IDENTIFIER) {
             return new StatementParser(this).parseIdentifierStatement();
         }
-        if (token.getType() == TokenType.KEYWORD) {
-            return new StatementParser(this).parseKeywordStatement(token.getValue());
+        if (type == TokenType.KEYWORD) {
+            return new StatementParser(this).parseKeywordStatement(currentSymbol());
         }
-        if (token.getType() == TokenType.COMMENT) {
-            return new ASTNode("Comentario", consume().getValue());
+        if (type == TokenType.COMMENT) {
+            return new ASTNode(NodeKind.COMENTARIO, consume());
         }
-        throw error("Instrucao invalida: " + token.getValue());
+        throw error("Instrucao invalida: " + currentText());
     }
 
     // === DELEGAÇÃO PARA EXPRESSÕES ===
@@ -69,57 +87,75 @@ public class Parser {
     }
 
     // ===================== Utilitários =========================
-    public Token current() { return tokens.get(pos); }
-    public Token previous() { return tokens.get(pos - 1); }
-    public Token peek() { return pos + 1 < tokens.size() ? tokens.get(pos + 1) : null; }
-    public Token consume() { return tokens.get(pos++); }
-
-    public boolean match(String value) {
-        if (!isAtEnd() && current().getValue().equals(value)) {
-            consume(); return true;
+    // Comparações usam o tipo e o símbolo internado; o texto só é materializado para identificadores e literais.
+    // O parser olha no máximo um token à frente e um para trás (TokenSource).
+    public Token current() { return new Token(tokens.type(0), tokens.text(0), tokens.line(0)); }
+    public TokenType currentType() { return tokens.type(0); }
+    public Symbol currentSymbol() { return tokens.symbol(0); }
+    public String currentText() { return tokens.text(0); }
+    public String previousText() { return tokens.text(-1); }
+    public Symbol peekSymbol() { return tokens.exists(1) ? tokens.symbol(1) : null; }
+    public boolean hasNext() { return tokens.exists(1); }
+    public void advance() { tokens.consume(); }
+
+    public String consume() {
+        String text = tokens.text(0);
+        tokens.consume();
+        return text;
+    }
+
+    public boolean match(Symbol symbol) {
+        if (!isAtEnd() && tokens.is(0, symbol)) {
+            tokens.consume(); return true;
         }
         return false;
     }
 
-    public boolean peekIs(String value) { return current().getValue().equals(value); }
+    public boolean peekIs(Symbol symbol) { return tokens.is(0, symbol); }
 
-    public boolean peekNextIs(String value) {
-        return pos + 1 < tokens.size() && tokens.get(pos + 1).getValue().equals(value);
+    public boolean peekNextIs(Symbol symbol) {
+        return tokens.exists(1) && tokens.is(1, symbol);
     }
 
-    public boolean isAtEnd() { return current().getType() == TokenType.EOF; }
+    public boolean isAtEnd() { return tokens.type(0) == TokenType.EOF; }
 
-    public Token expect(TokenType... types) {
-        Token token = current();
+    public String expect(TokenType... types) {
+        TokenType current = currentType();
         for (TokenType type : types)
-            if (token.getType() == type) return consume();
-        throw error("Esperado tipo: " + List.of(types) + ", encontrado: " + token.getType());
+            if (current == type) return consume();
+        throw error("Esperado tipo: " + List.of(types) + ", encontrado: " + current);
     }
 
-    public Token expect(TokenType type, String value) {
-        Token token = current();
-        if (token.getType() == type && token.getValue().equals(value)) return consume();
-        throw error("Esperado: " + value + ", encontrado: " + token.getValue());
+    public void expect(Symbol symbol) {
+        if (tokens.is(0, symbol)) { tokens.consume(); return; }
+        throw error("Esperado: " + symbol.getText() + ", encontrado: " + currentText());
     }
 
-    public ASTNode createNode(String type, String value, ASTNode... children) {
-        ASTNode node = new ASTNode(type, value);
+    public ASTNode createNode(NodeKind kind, String value, ASTNode... children) {
+        ASTNode node = new ASTNode(kind, value);
         for (ASTNode child : children) node.addChild(child);
         return node;
     }
 
+    // O operador sai direto do símbolo do token, sem passar pelo texto
+    public ASTNode createBinary(Symbol symbol, ASTNode left, ASTNode right) {
+        ASTNode node = new ASTNode(Operator.fromSymbol(symbol));
+        node.addChild(left);
+        node.addChild(right);
+        return node;
+    }
+
     public RuntimeException error(String message) {
-        return new RuntimeException("Erro sintatico na linha " + current().getLine() + ": " + message);
+        return new RuntimeException("Erro sintatico na linha " + tokens.line(0) + ": " + message);
     }
 
-    public boolean isComparisonOperator(String op) {
+    public boolean isComparisonOperator(Symbol op) {
+        if (op == null) return false;
         return switch (op) {
-            case "==", "!=", "<", ">", "<=", ">=" -> true;
+            case EQ, NE, LT, GT, LE, GE -> true;
             default -> false;
         };
     }
 
-    public int getPosition() { return pos; }
-    public void setPosition(int pos) { this.pos = pos; }
-    public List<Token> getTokens() { return tokens; }
+    public TokenSource getTokens() { return tokens; }
 }
@@ -1,6 +1,6 @@
 package minipar.semantic;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
 
 public class AssignmentValidator {
     private final SymbolTable symbolTable;
@@ -11,7 +11,7 @@ public class AssignmentValidator {
         this.expressionValidator = expressionValidator;
     }
 
-    public void analyzeAssignment(ASTNode stmt) {
+    public void analyzeAssignment(Node stmt) {
         String var = stmt.getChildren().get(0).getValue();
         if (!symbolTable.isDeclared(var)) {
             symbolTable.declare(var, "int");
@@ -19,7 +19,7 @@ public class AssignmentValidator {
         expressionValidator.validateExpression(stmt.getChildren().get(1));
     }
 
-    public void analyzeAssignmentIndex(ASTNode stmt) {
+    public void analyzeAssignmentIndex(Node stmt) {
         String lista = stmt.getValue();
         if (!symbolTable.isDeclared(lista)) {
             throw new RuntimeException("Lista não declarada: " + lista);
@@ -1,6 +1,6 @@
 package minipar.semantic;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
 
 public class ChannelValidator {
     private final SymbolTable symbolTable;
@@ -9,14 +9,14 @@ public class ChannelValidator {
         this.symbolTable = symbolTable;
     }
 
-    public void analyzeChannel(ASTNode stmt) {
+    public void analyzeChannel(Node stmt) {
         String name = stmt.getValue();
         if (symbolTable.isDeclared(name)) {
             throw new RuntimeException("Canal '" + name + "' ja declarado.");
         }
         symbolTable.declare(name, "canal");
 
-        for (ASTNode compNode : stmt.getChildren()) {
+        for (Node compNode : stmt.getChildren()) {
             String comp = compNode.getValue();
             if (!symbolTable.isDeclared(comp)) {
                 symbolTable.declare(comp, "computador");
@@ -24,19 +24,19 @@ public class ChannelValidator {
         }
     }
 
-    public void analyzeSend(ASTNode stmt) {
+    public void analyzeSend(Node stmt) {
         String canal = stmt.getValue();
-        String valor = stmt.getChildren().get(0).getValue();
+        Node valor = stmt.getChildren().get(0);
 
         if (!symbolTable.isDeclared(canal)) {
             throw new RuntimeException("Canal não declarado: " + canal);
         }
-        if (!isLiteral(valor) && !symbolTable.isDeclared(valor)) {
-            throw new RuntimeException("Valor a ser enviado não declarado: " + valor);
+        if (!valor.isNumber() && !valor.isString() && !symbolTable.isDeclared(valor.getValue())) {
+            throw new RuntimeException("Valor a ser enviado não declarado: " + valor.getValue());
         }
     }
 
-    public void analyzeReceive(ASTNode stmt) {
+    public void analyzeReceive(Node stmt) {
         String canal = stmt.getValue();
         String var = stmt.getChildren().get(0).getValue();
 
@@ -47,8 +47,4 @@ public class ChannelValidator {
             symbolTable.declare(var, "int");
         }
     }
-
-    private boolean isLiteral(String val) {
-        return val.matches("\\d+") || (val.startsWith("\"") && val.endsWith("\""));
-    }
 }
@@ -1,6 +1,6 @@
 package minipar.semantic;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
 
 public class ControlFlowValidator {
     private final ExpressionValidator expressionValidator;
@@ -11,15 +11,15 @@ public class ControlFlowValidator {
         this.analyzer = analyzer;
     }
 
-    public void analyzeConditional(ASTNode stmt) {
-        ASTNode condition = stmt.getChildren().get(0);
-        ASTNode body = stmt.getChildren().get(1);
+    public void analyzeConditional(Node stmt) {
+        Node condition = stmt.getChildren().get(0);
+        Node body = stmt.getChildren().get(1);
 
         expressionValidator.validateExpression(condition);
         analyzer.analyzeBlock(body);
 
         if (stmt.getChildren().size() > 2) {
-            ASTNode elseBody = stmt.getChildren().get(2);
+            Node elseBody = stmt.getChildren().get(2);
             analyzer.analyzeBlock(elseBody);
         }
     }
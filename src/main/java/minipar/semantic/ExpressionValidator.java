@@ -1,6 +1,6 @@
 package minipar.semantic;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
 import java.util.List;
 
 public class ExpressionValidator {
@@ -10,32 +10,32 @@ public class ExpressionValidator {
         this.symbolTable = symbolTable;
     }
 
-    public void validateExpression(ASTNode expr) {
-        switch (expr.getType()) {
-            case "Valor" -> validateLiteralOrVariable(expr.getValue());
-            case "BinOp" -> {
+    public void validateExpression(Node expr) {
+        switch (expr.getKind()) {
+            case VALOR -> {
+                if (expr.isVariable()) validateVariable(expr.getValue());
+            }
+            case BIN_OP -> {
                 validateExpression(expr.getChildren().get(0));
                 validateExpression(expr.getChildren().get(1));
             }
-            case "ChamadaFuncao", "Lista" -> expr.getChildren().forEach(this::validateExpression);
-            case "Indexacao" -> validateIndexAccess(expr);
-            case "input" -> {}
+            case CHAMADA_FUNCAO, LISTA -> expr.getChildren().forEach(this::validateExpression);
+            case INDEXACAO -> validateIndexAccess(expr);
+            case INPUT -> {}
             default -> throw new RuntimeException("Expressão inválida: " + expr.getType());
         }
     }
 
-    public void validateExpressionList(List<ASTNode> exprs) {
+    public void validateExpressionList(List<? extends Node> exprs) {
         exprs.forEach(this::validateExpression);
     }
 
-    private void validateLiteralOrVariable(String val) {
-        if (val.matches("-?\\d+(\\.\\d+)?")) return; // número literal
-        if (val.startsWith("\"") && val.endsWith("\"")) return; // string
+    private void validateVariable(String val) {
         if (!symbolTable.isDeclared(val)) {
             throw new RuntimeException("Variável não declarada: " + val);
         }
     }
-    private void validateIndexAccess(ASTNode expr) {
+    private void validateIndexAccess(Node expr) {
         String varName = expr.getValue(); // Ex: nome da lista
         if (!symbolTable.isDeclared(varName)) {
             throw new RuntimeException("Lista não declarada: " + varName);
@@ -43,7 +43,7 @@ public class ExpressionValidator {
         validateExpression(expr.getChildren().get(0)); // índice
     }
 
-    public void validateAll(List<ASTNode> nodes) {
+    public void validateAll(List<? extends Node> nodes) {
         nodes.forEach(this::validateExpression);
     }
 }
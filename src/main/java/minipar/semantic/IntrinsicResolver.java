@@ -0,0 +1,65 @@
+package minipar.semantic;
+
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.stdlib.Intrinsic;
+import minipar.stdlib.Stdlib;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Liga cada chamada de função nativa (minipar.stdlib) à sua Intrinsic, pelo número de call site do
+// Resolver: a execução chama a nativa direto, sem procurar o nome nem abrir frame.
+// Só é ligada a chamada cujo nome não tem def em nenhum ponto do programa e cuja quantidade de
+// argumentos bate com a da nativa; as outras ficam com a resolução pelo nome na hora da chamada.
+// Um def de outro módulo ainda pode esconder a nativa: o interpretador confere isBound ao registrar
+// cada def e a cada módulo ligado e, nesse caso, deixa de usar as ligações.
+// Uma instância por interpretador, que liga o programa e os módulos que ele importa: as ligações de
+// um programa não valem para outro.
+public class IntrinsicResolver {
+
+    private volatile Intrinsic[] bound = new Intrinsic[0];
+    private final Set<String> boundNames = ConcurrentHashMap.newKeySet();
+
+    public void resolve(Node root) {
+        Set<String> defs = new HashSet<>();
+        collectDefs(root, defs);
+        bind(root, defs);
+    }
+
+    private static void collectDefs(Node node, Set<String> defs) {
+        if (node.getKind() == NodeKind.DEF) defs.add(node.getValue());
+        for (Node child : node.getChildren()) collectDefs(child, defs);
+    }
+
+    private void bind(Node node, Set<String> defs) {
+        if (node.getKind() == NodeKind.CHAMADA_FUNCAO && !defs.contains(node.getValue())) {
+            Intrinsic nativa = Stdlib.find(node.getValue());
+            if (nativa != null && nativa.arity() == node.getChildren().size()) {
+                remember(Resolver.callSiteOf(node), nativa);
+            }
+        }
+        for (Node child : node.getChildren()) bind(child, defs);
+    }
+
+    private synchronized void remember(int site, Intrinsic nativa) {
+        Intrinsic[] atual = bound;
+        if (site >= atual.length) atual = Arrays.copyOf(atual, Math.max(site + 1, atual.length * 2));
+        atual[site] = nativa;
+        bound = atual;
+        boundNames.add(nativa.name());
+    }
+
+    // Nativa ligada ao call site, ou null (também para -1, call site ainda não numerado)
+    public Intrinsic boundAt(int site) {
+        Intrinsic[] atual = bound;
+        return site >= 0 && site < atual.length ? atual[site] : null;
+    }
+
+    // Algum call site foi ligado a uma nativa com esse nome
+    public boolean isBound(String nome) {
+        return boundNames.contains(nome);
+    }
+}
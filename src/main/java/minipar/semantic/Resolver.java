@@ -0,0 +1,113 @@
+package minipar.semantic;
+
+import minipar.parser.Node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Endereçamento léxico: roda depois da análise semântica e anota em cada referência a variável o
+// slot onde o interpretador guarda o valor, para que a execução leia e escreva por índice e não por nome.
+// Uma instância por programa (cada Interpreter, VirtualMachine e AotCompiler tem a sua): mesmo nome,
+// mesmo slot dentro dela, e os módulos que o programa importa são resolvidos pela mesma instância.
+// Como a anotação fica no nó, um módulo compartilhado (ModuleRegistry) é resolvido numa cópia.
+// Dentro de uma função, parâmetros e nomes atribuídos no corpo são locais: recebem LOCAL | índice
+// no frame da chamada, numerados a partir de 0 na ordem em que aparecem.
+// Chamadas de função recebem no slot um número de call site, sem relação com os slots de variável:
+// é o índice do cache da chamada no interpretador.
+public class Resolver {
+    public static final int LOCAL = 1 << 30;
+
+    private int callSites;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    // A numeração segue o percurso: a mesma árvore resolvida de novo por uma instância nova recebe os
+    // mesmos números, então reexecutar um programa do ProgramCache não muda as anotações
+    public synchronized void resolve(Node root) {
+        resolve(root, null);
+    }
+
+    private void resolve(Node node, Map<String, Integer> locals) {
+        switch (node.getKind()) {
+            case VALOR -> {
+                if (node.isVariable()) node.setSlot(slot(node.getValue(), locals));
+            }
+            case VARIAVEL, ATRIBUICAO_INDICE, INDEXACAO, FOR, PARAM -> node.setSlot(slot(node.getValue(), locals));
+            case CHAMADA_FUNCAO -> node.setSlot(callSites++);
+            case DEF -> {
+                Map<String, Integer> scope = new HashMap<>();
+                collectLocals(node, scope);
+                for (Node child : node.getChildren()) resolve(child, scope);
+                return;
+            }
+            default -> {}
+        }
+        for (Node child : node.getChildren()) resolve(child, locals);
+    }
+
+    // Nomes ligados no corpo da função (sem entrar em funções aninhadas, que têm escopo próprio)
+    private static void collectLocals(Node node, Map<String, Integer> scope) {
+        for (Node child : node.getChildren()) {
+            switch (child.getKind()) {
+                case DEF -> { continue; }
+                case PARAM, FOR -> scope.putIfAbsent(child.getValue(), scope.size());
+                case ATRIBUICAO, RECEIVE -> scope.putIfAbsent(child.getChildren().get(0).getValue(), scope.size());
+                default -> {}
+            }
+            collectLocals(child, scope);
+        }
+    }
+
+    private int slot(String name, Map<String, Integer> locals) {
+        Integer local = locals == null ? null : locals.get(name);
+        return local != null ? LOCAL | local : slotOf(name);
+    }
+
+    public static boolean isLocal(int slot) {
+        return slot >= 0 && (slot & LOCAL) != 0;
+    }
+
+    public static int localIndex(int slot) {
+        return slot & ~LOCAL;
+    }
+
+    // Slot anotado no nó; a árvore precisa ter passado por resolve
+    public static int slotOf(Node node) {
+        int slot = node.getSlot();
+        if (slot < 0) throw new IllegalStateException("Nó sem slot do Resolver: " + node);
+        return slot;
+    }
+
+    // Número do call site anotado na chamada
+    public static int callSiteOf(Node call) {
+        int site = call.getSlot();
+        if (site < 0) throw new IllegalStateException("Chamada sem call site do Resolver: " + call);
+        return site;
+    }
+
+    public synchronized int slotOf(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+        }
+        return slot;
+    }
+
+    // Slot já atribuído ao nome, ou -1 se o nome nunca apareceu
+    public synchronized int findSlot(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public synchronized String nameOf(int slot) {
+        return names.get(slot);
+    }
+
+    public synchronized int slotCount() {
+        return names.size();
+    }
+}
@@ -1,6 +1,7 @@
 package minipar.semantic;
 
-import minipar.parser.ASTNode;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
 import java.util.List;
 
 public class SemanticAnalyzer {
@@ -10,52 +11,48 @@ public class SemanticAnalyzer {
     private final ChannelValidator channelValidator = new ChannelValidator(symbolTable);
     private final ControlFlowValidator controlFlowValidator = new ControlFlowValidator(expressionValidator, this);
 
-    public void analyze(ASTNode root) {
-        if (!"Programa".equals(root.getType())) {
+    public void analyze(Node root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
             throw new RuntimeException("AST invalida: nó raiz não é 'Programa'");
         }
         root.getChildren().forEach(this::analyzeBlock);
     }
 
-    public void analyzeBlock(ASTNode block) {
+    public void analyzeBlock(Node block) {
         block.getChildren().forEach(this::analyzeStatement);
     }
 
-    private void analyzeStatement(ASTNode stmt) {
-        switch (stmt.getType()) {
-            case "Atribuicao"                   -> assignmentValidator.analyzeAssignment(stmt);
-            case "AtribuicaoIndice"             -> assignmentValidator.analyzeAssignmentIndex(stmt);
-            case "c_channel"                    -> channelValidator.analyzeChannel(stmt);
-            case "send"                         -> channelValidator.analyzeSend(stmt);
-            case "receive"                      -> channelValidator.analyzeReceive(stmt);
-            case "print"                        -> analyzePrint(stmt);
-            case "if", "while"                  -> controlFlowValidator.analyzeConditional(stmt);
-            case "for"                          -> analyzeForLoop(stmt);
-            case "def", "Comentario", "import"  -> {}
-            case "SEQ", "PAR", "Bloco"          -> analyzeBlock(stmt);
-            case "return"                       -> expressionValidator.validateExpression(stmt.getChildren().getFirst());
-            case "ChamadaFuncao"                -> expressionValidator.validateExpressionList(stmt.getChildren());
+    private void analyzeStatement(Node stmt) {
+        switch (stmt.getKind()) {
+            case ATRIBUICAO                     -> assignmentValidator.analyzeAssignment(stmt);
+            case ATRIBUICAO_INDICE              -> assignmentValidator.analyzeAssignmentIndex(stmt);
+            case C_CHANNEL                      -> channelValidator.analyzeChannel(stmt);
+            case SEND                           -> channelValidator.analyzeSend(stmt);
+            case RECEIVE                        -> channelValidator.analyzeReceive(stmt);
+            case PRINT                          -> analyzePrint(stmt);
+            case IF, WHILE                      -> controlFlowValidator.analyzeConditional(stmt);
+            case FOR                            -> analyzeForLoop(stmt);
+            case DEF, COMENTARIO, IMPORT        -> {}
+            case SEQ, PAR, BLOCO                -> analyzeBlock(stmt);
+            case RETURN                         -> expressionValidator.validateExpression(stmt.getChildren().getFirst());
+            case CHAMADA_FUNCAO                 -> expressionValidator.validateExpressionList(stmt.getChildren());
             default -> throw new RuntimeException("Tipo de instrucao desconhecido: " + stmt.getType());
         }
     }
 
-    private void analyzePrint(ASTNode stmt) {
-        String arg = stmt.getChildren().get(0).getValue();
-        if (!isLiteral(arg) && !symbolTable.isDeclared(arg)) {
-            throw new RuntimeException("Variavel não declarada: " + arg);
+    private void analyzePrint(Node stmt) {
+        Node arg = stmt.getChildren().get(0);
+        if (!arg.isNumber() && !arg.isString() && !symbolTable.isDeclared(arg.getValue())) {
+            throw new RuntimeException("Variavel não declarada: " + arg.getValue());
         }
     }
 
-    private boolean isLiteral(String val) {
-        return val.matches("\\d+") || (val.startsWith("\"") && val.endsWith("\""));
-    }
-
     public SymbolTable getSymbolTable() {
         return symbolTable;
     }
 
-    private void analyzeForLoop(ASTNode stmt) {
-        ASTNode iterable = stmt.getChildren().get(0);
+    private void analyzeForLoop(Node stmt) {
+        Node iterable = stmt.getChildren().get(0);
         expressionValidator.validateExpression(iterable);
 
         String var = stmt.getValue();
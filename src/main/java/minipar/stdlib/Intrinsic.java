@@ -0,0 +1,87 @@
+package minipar.stdlib;
+
+import minipar.interpreter.NumberList;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+// Função nativa da linguagem: implementada em Java e chamada pelo nome, como um def. A forma do
+// registro diz como os argumentos chegam. Nullary, Unary e Binary recebem os doubles direto, sem
+// frame nem array; ListToNumber e ListToList recebem primeiro as listas e depois os números.
+public sealed interface Intrinsic {
+
+    String name();
+
+    int arity();
+
+    default void checkArity(int argumentos) {
+        if (argumentos != arity()) throw new RuntimeException("Número de argumentos inválido para função " + name());
+    }
+
+    // Nativa só de números, que também pode ser chamada com os argumentos num double[] (JIT e VM)
+    sealed interface Numeric extends Intrinsic {
+        double apply(double[] args, int from);
+    }
+
+    // Nativa que recebe listas nos primeiros lists() argumentos e números nos numbers() seguintes
+    sealed interface OnLists extends Intrinsic {
+        int lists();
+
+        int numbers();
+
+        @Override
+        default int arity() {
+            return lists() + numbers();
+        }
+
+        default RuntimeException notAList() {
+            return new RuntimeException("Argumento de " + name() + " não é uma lista");
+        }
+    }
+
+    record Nullary(String name, DoubleSupplier body) implements Numeric {
+        public int arity() {
+            return 0;
+        }
+
+        public double apply(double[] args, int from) {
+            return body.getAsDouble();
+        }
+    }
+
+    record Unary(String name, DoubleUnaryOperator body) implements Numeric {
+        public int arity() {
+            return 1;
+        }
+
+        public double apply(double[] args, int from) {
+            return body.applyAsDouble(args[from]);
+        }
+    }
+
+    record Binary(String name, DoubleBinaryOperator body) implements Numeric {
+        public int arity() {
+            return 2;
+        }
+
+        public double apply(double[] args, int from) {
+            return body.applyAsDouble(args[from], args[from + 1]);
+        }
+    }
+
+    record ListToNumber(String name, int lists, int numbers, NumberBody body) implements OnLists {}
+
+    // O resultado é uma lista nova; onde se espera número vale 0, como um literal de lista
+    record ListToList(String name, int lists, int numbers, ListBody body) implements OnLists {}
+
+    @FunctionalInterface
+    interface NumberBody {
+        double apply(NumberList[] listas, double[] numeros);
+    }
+
+    @FunctionalInterface
+    interface ListBody {
+        NumberList apply(NumberList[] listas, double[] numeros);
+    }
+}
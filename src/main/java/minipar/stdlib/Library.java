@@ -0,0 +1,10 @@
+package minipar.stdlib;
+
+import java.util.List;
+
+// Conjunto de nativas instalado no Stdlib. Além das bibliotecas da linguagem, as implementações
+// listadas em META-INF/services/minipar.stdlib.Library no classpath entram na inicialização; também
+// dá para chamar Stdlib.install antes de analisar o programa.
+public interface Library {
+    List<Intrinsic> intrinsics();
+}
@@ -0,0 +1,155 @@
+package minipar.stdlib;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Laços das nativas de lista sobre os n primeiros itens de double[]. Com o módulo
+// jdk.incubator.vector carregado (--add-modules jdk.incubator.vector) cada volta processa uma faixa
+// inteira de registrador SIMD e só a sobra do fim vai item a item; sem o módulo, ou com
+// -Dminipar.vector=false, tudo roda nos laços escalares de Scalar.
+// A soma em faixas reassocia as adições: com números não inteiros o resultado pode diferir do laço
+// MiniPar equivalente no último bit.
+final class ListKernels {
+    static final String PROPERTY = "minipar.vector";
+    static final boolean VECTOR = !"false".equals(System.getProperty(PROPERTY))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ListKernels() {
+    }
+
+    static double sum(double[] a, int n) {
+        return VECTOR ? Simd.sum(a, n) : Scalar.sum(a, n);
+    }
+
+    static double dot(double[] a, double[] b, int n) {
+        return VECTOR ? Simd.dot(a, b, n) : Scalar.dot(a, b, n);
+    }
+
+    static double[] add(double[] a, double[] b, int n) {
+        return VECTOR ? Simd.add(a, b, n) : Scalar.add(a, b, n);
+    }
+
+    static double[] scale(double[] a, double k, int n) {
+        return VECTOR ? Simd.scale(a, k, n) : Scalar.scale(a, k, n);
+    }
+
+    // max e min pedem n > 0
+    static double max(double[] a, int n) {
+        return VECTOR ? Simd.max(a, n) : Scalar.max(a, n);
+    }
+
+    static double min(double[] a, int n) {
+        return VECTOR ? Simd.min(a, n) : Scalar.min(a, n);
+    }
+
+    static final class Scalar {
+        private Scalar() {
+        }
+
+        static double sum(double[] a, int n) {
+            double total = 0;
+            for (int i = 0; i < n; i++) total += a[i];
+            return total;
+        }
+
+        static double dot(double[] a, double[] b, int n) {
+            double total = 0;
+            for (int i = 0; i < n; i++) total += a[i] * b[i];
+            return total;
+        }
+
+        static double[] add(double[] a, double[] b, int n) {
+            double[] r = new double[n];
+            for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+            return r;
+        }
+
+        static double[] scale(double[] a, double k, int n) {
+            double[] r = new double[n];
+            for (int i = 0; i < n; i++) r[i] = a[i] * k;
+            return r;
+        }
+
+        static double max(double[] a, int n) {
+            double m = a[0];
+            for (int i = 1; i < n; i++) m = Math.max(m, a[i]);
+            return m;
+        }
+
+        static double min(double[] a, int n) {
+            double m = a[0];
+            for (int i = 1; i < n; i++) m = Math.min(m, a[i]);
+            return m;
+        }
+    }
+
+    // Só é carregada quando VECTOR é verdadeiro, então a JVM sem o módulo nunca resolve DoubleVector
+    private static final class Simd {
+        private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+        static double sum(double[] a, int n) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                acc = acc.add(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            double total = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < n; i++) total += a[i];
+            return total;
+        }
+
+        static double dot(double[] a, double[] b, int n) {
+            DoubleVector acc = DoubleVector.zero(SPECIES);
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                acc = acc.add(DoubleVector.fromArray(SPECIES, a, i).mul(DoubleVector.fromArray(SPECIES, b, i)));
+            }
+            double total = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < n; i++) total += a[i] * b[i];
+            return total;
+        }
+
+        static double[] add(double[] a, double[] b, int n) {
+            double[] r = new double[n];
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                DoubleVector.fromArray(SPECIES, a, i).add(DoubleVector.fromArray(SPECIES, b, i)).intoArray(r, i);
+            }
+            for (; i < n; i++) r[i] = a[i] + b[i];
+            return r;
+        }
+
+        static double[] scale(double[] a, double k, int n) {
+            double[] r = new double[n];
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                DoubleVector.fromArray(SPECIES, a, i).mul(k).intoArray(r, i);
+            }
+            for (; i < n; i++) r[i] = a[i] * k;
+            return r;
+        }
+
+        static double max(double[] a, int n) {
+            DoubleVector acc = DoubleVector.broadcast(SPECIES, a[0]);
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                acc = acc.max(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            double m = acc.reduceLanes(VectorOperators.MAX);
+            for (; i < n; i++) m = Math.max(m, a[i]);
+            return m;
+        }
+
+        static double min(double[] a, int n) {
+            DoubleVector acc = DoubleVector.broadcast(SPECIES, a[0]);
+            int i = 0;
+            for (int limite = SPECIES.loopBound(n); i < limite; i += SPECIES.length()) {
+                acc = acc.min(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            double m = acc.reduceLanes(VectorOperators.MIN);
+            for (; i < n; i++) m = Math.min(m, a[i]);
+            return m;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package minipar.stdlib;
+
+import minipar.interpreter.DoubleList;
+import minipar.interpreter.NumberList;
+import minipar.stdlib.Intrinsic.ListToList;
+import minipar.stdlib.Intrinsic.ListToNumber;
+
+import java.util.List;
+
+// Funções de lista. soma, dot, add, scale, max e min calculam em ListKernels sobre os arrays
+// primitivos; add e scale devolvem uma DoubleList nova. append e slice também devolvem uma lista
+// nova, do mesmo tipo da original quando possível: para crescer uma lista, l = append(l, x).
+final class ListLibrary implements Library {
+
+    @Override
+    public List<Intrinsic> intrinsics() {
+        return List.of(
+                new ListToNumber("soma", 1, 0, (l, n) -> ListKernels.sum(l[0].doubles(), l[0].size())),
+                new ListToNumber("dot", 2, 0, (l, n) -> ListKernels.dot(l[0].doubles(), l[1].doubles(), sameSize("dot", l))),
+                new ListToNumber("max", 1, 0, (l, n) -> ListKernels.max(l[0].doubles(), notEmpty("max", l[0]))),
+                new ListToNumber("min", 1, 0, (l, n) -> ListKernels.min(l[0].doubles(), notEmpty("min", l[0]))),
+                new ListToNumber("len", 1, 0, (l, n) -> l[0].size()),
+                new ListToList("add", 2, 0, (l, n) -> {
+                    int size = sameSize("add", l);
+                    return new DoubleList(ListKernels.add(l[0].doubles(), l[1].doubles(), size), size);
+                }),
+                new ListToList("scale", 1, 1, (l, n) -> {
+                    int size = l[0].size();
+                    return new DoubleList(ListKernels.scale(l[0].doubles(), n[0], size), size);
+                }),
+                new ListToList("append", 1, 1, (l, n) -> l[0].append(n[0])),
+                new ListToList("slice", 1, 2, (l, n) -> slice(l[0], n[0], n[1])));
+    }
+
+    private static int sameSize(String nome, NumberList[] listas) {
+        int size = listas[0].size();
+        if (listas[1].size() != size) throw new RuntimeException("Listas de tamanhos diferentes em " + nome);
+        return size;
+    }
+
+    private static int notEmpty(String nome, NumberList lista) {
+        if (lista.isEmpty()) throw new RuntimeException("Lista vazia em " + nome);
+        return lista.size();
+    }
+
+    // Itens de inicio (inclusive) a fim (exclusive), com os índices convertidos como em lista[i]
+    private static NumberList slice(NumberList lista, double inicio, double fim) {
+        int from = (int) inicio;
+        int to = (int) fim;
+        if (from < 0 || to > lista.size() || from > to) {
+            throw new RuntimeException("Índice fora dos limites da lista");
+        }
+        return lista.slice(from, to);
+    }
+}
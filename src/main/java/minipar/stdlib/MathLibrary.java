@@ -0,0 +1,32 @@
+package minipar.stdlib;
+
+import minipar.stdlib.Intrinsic.Binary;
+import minipar.stdlib.Intrinsic.Unary;
+
+import java.util.List;
+
+// Funções matemáticas sobre double, quase todas direto de java.lang.Math
+final class MathLibrary implements Library {
+
+    @Override
+    public List<Intrinsic> intrinsics() {
+        return List.of(
+                new Unary("sqrt", Math::sqrt),
+                new Unary("abs", Math::abs),
+                new Unary("floor", Math::floor),
+                new Unary("ceil", Math::ceil),
+                new Unary("round", MathLibrary::round),
+                new Unary("sin", Math::sin),
+                new Unary("cos", Math::cos),
+                new Unary("tan", Math::tan),
+                new Unary("exp", Math::exp),
+                new Unary("log", Math::log),
+                new Binary("pow", Math::pow));
+    }
+
+    // Metade para cima, como Math.round, mas sem passar por long: 2.5 vira 3, -2.5 vira -2
+    static double round(double x) {
+        double piso = Math.floor(x);
+        return x - piso >= 0.5 ? piso + 1 : piso;
+    }
+}
@@ -0,0 +1,38 @@
+package minipar.stdlib;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registro das funções nativas por nome, único no processo. Um def com o mesmo nome tem precedência
+// sobre a nativa: programas que já definem soma ou max continuam usando o seu.
+// O interpretador liga as chamadas às nativas registradas até o início do programa (IntrinsicResolver);
+// as registradas depois ainda são achadas pelo nome na hora da chamada.
+public final class Stdlib {
+    private static final Map<String, Intrinsic> registry = new ConcurrentHashMap<>();
+
+    static {
+        install(new MathLibrary());
+        install(new ListLibrary());
+        install(new TimeLibrary());
+        for (Library library : ServiceLoader.load(Library.class)) install(library);
+    }
+
+    private Stdlib() {
+    }
+
+    public static void install(Library library) {
+        for (Intrinsic nativa : library.intrinsics()) register(nativa);
+    }
+
+    public static void register(Intrinsic nativa) {
+        if (registry.putIfAbsent(nativa.name(), nativa) != null) {
+            throw new RuntimeException("Função nativa já registrada: " + nativa.name());
+        }
+    }
+
+    // Nativa com o nome, ou null
+    public static Intrinsic find(String nome) {
+        return registry.get(nome);
+    }
+}
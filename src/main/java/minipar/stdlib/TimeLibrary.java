@@ -0,0 +1,14 @@
+package minipar.stdlib;
+
+import minipar.stdlib.Intrinsic.Nullary;
+
+import java.util.List;
+
+// tempo(): milissegundos de um relógio monotônico, para medir trechos do programa pela diferença
+final class TimeLibrary implements Library {
+
+    @Override
+    public List<Intrinsic> intrinsics() {
+        return List.of(new Nullary("tempo", () -> System.nanoTime() / 1e6));
+    }
+}
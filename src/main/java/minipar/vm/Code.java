@@ -0,0 +1,34 @@
+package minipar.vm;
+
+// Unidade compilada: corpo de uma função, o programa principal ou um argumento de print.
+// frameSize é quantos registradores o frame usa (locais primeiro, depois temporários);
+// globalOf dá o slot global de cada local, para a leitura antes da primeira atribuição.
+public final class Code {
+    final String name;
+    final int[] instructions;
+    final int frameSize;
+    final int[] globalOf;
+
+    Code(String name, int[] instructions, int frameSize, int[] globalOf) {
+        this.name = name;
+        this.instructions = instructions;
+        this.frameSize = frameSize;
+        this.globalOf = globalOf;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return instructions.length / Opcode.WIDTH;
+    }
+
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    public int opcodeAt(int index) {
+        return instructions[index * Opcode.WIDTH];
+    }
+}
@@ -0,0 +1,434 @@
+package minipar.vm;
+
+import minipar.interpreter.Function;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.semantic.Resolver;
+import minipar.stdlib.Intrinsic;
+import minipar.stdlib.Stdlib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static minipar.vm.Opcode.*;
+
+// Traduz a AST já resolvida (slots anotados pelo Resolver dado) para o bytecode de registradores da VM.
+// Cada def vira um Code próprio; variáveis locais ocupam os primeiros registradores do frame e os
+// temporários de expressão vêm logo depois. Canais, blocos PAR, import e nativas de lista ainda não
+// têm instruções: a compilação falha com UnsupportedOperationException e a VirtualMachine roda o
+// programa na árvore.
+// Um Compiler compila um único programa.
+public final class Compiler {
+    private static final int[] NO_LOCALS = new int[0];
+
+    private final List<Double> constants = new ArrayList<>();
+    private final Map<Double, Integer> constantIndex = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<Program.CompiledFunction> functions = new ArrayList<>();
+    private final Map<String, Integer> functionIds = new HashMap<>();
+    private final List<Program.CallSite> calls = new ArrayList<>();
+    private final List<Program.Print> prints = new ArrayList<>();
+    private final Set<String> defNames = new HashSet<>();
+    private final Resolver resolver;
+
+    public Compiler(Resolver resolver) {
+        this.resolver = resolver;
+    }
+
+    public Program compile(Node root) {
+        collectDefs(root);
+        Emitter main = new Emitter("programa", 0, NO_LOCALS);
+        for (Node bloco : root.getChildren()) {
+            main.block(bloco);
+        }
+        main.emit(RET0, 0, 0, 0);
+        double[] pool = new double[constants.size()];
+        for (int i = 0; i < pool.length; i++) pool[i] = constants.get(i);
+        return new Program(main.finish(), pool, strings.toArray(new String[0]),
+                functions.toArray(new Program.CompiledFunction[0]), calls.toArray(new Program.CallSite[0]),
+                prints.toArray(new Program.Print[0]), functionIds.size());
+    }
+
+    private void collectDefs(Node node) {
+        if (node.getKind() == NodeKind.DEF) defNames.add(node.getValue());
+        for (Node child : node.getChildren()) collectDefs(child);
+    }
+
+    private int constant(double value) {
+        return constantIndex.computeIfAbsent(value, v -> {
+            constants.add(v);
+            return constants.size() - 1;
+        });
+    }
+
+    private int string(String value) {
+        return stringIndex.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private int functionId(String name) {
+        return functionIds.computeIfAbsent(name, n -> functionIds.size());
+    }
+
+    // Argumentos com efeito visível (chamada, input, string impressa) exigem validar a chamada antes,
+    // como o interpretador faz ao procurar a função e conferir a aridade antes de avaliá-los
+    private static boolean hasEffects(Node node) {
+        switch (node.getKind()) {
+            case CHAMADA_FUNCAO, INPUT -> {
+                return true;
+            }
+            case VALOR -> {
+                return node.isString();
+            }
+            default -> {
+                for (Node child : node.getChildren()) {
+                    if (hasEffects(child)) return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    private int compileFunction(Node def) {
+        Function layout = Function.of(def, resolver);
+        int[] params = new int[layout.params().size()];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = Resolver.localIndex(Resolver.slotOf(layout.params().get(i)));
+        }
+        Emitter body = new Emitter(def.getValue(), layout.localCount(), layout.globalOf());
+        if (layout.body() != null) body.block(layout.body());
+        body.emit(RET0, 0, 0, 0);
+        functions.add(new Program.CompiledFunction(def.getValue(), functionId(def.getValue()), params, body.finish()));
+        return functions.size() - 1;
+    }
+
+    // Código de uma unidade (programa, função ou argumento de print) e o alocador de registradores dela
+    private final class Emitter {
+        private final String name;
+        private final int[] globalOf;
+        private int[] code = new int[16 * WIDTH];
+        private int length;
+        private int top; // próximo registrador temporário livre
+        private int max;
+
+        Emitter(String name, int firstFree, int[] globalOf) {
+            this.name = name;
+            this.globalOf = globalOf;
+            this.top = firstFree;
+            this.max = firstFree;
+        }
+
+        Code finish() {
+            return new Code(name, Arrays.copyOf(code, length), max, globalOf);
+        }
+
+        int emit(int op, int a, int b, int c) {
+            if (length + WIDTH > code.length) code = Arrays.copyOf(code, code.length * 2);
+            int at = length;
+            code[at] = op;
+            code[at + 1] = a;
+            code[at + 2] = b;
+            code[at + 3] = c;
+            length += WIDTH;
+            return at;
+        }
+
+        // Faz o salto emitido em 'at' apontar para a próxima instrução a ser emitida
+        void patch(int at) {
+            int offset = length - at;
+            if (code[at] == JMP) code[at + 1] = offset;
+            else code[at + 3] = offset;
+        }
+
+        void jumpTo(int target) {
+            emit(JMP, target - length, 0, 0);
+        }
+
+        int temp() {
+            return allocate(1);
+        }
+
+        int allocate(int count) {
+            int first = top;
+            top += count;
+            if (top > max) max = top;
+            return first;
+        }
+
+        void fail(String message) {
+            emit(FAIL, string(message), 0, 0);
+        }
+
+        // Bloco executado por Interpreter.executeBlock: mensagens de depuração e depois as instruções
+        void block(Node block) {
+            switch (block.getKind()) {
+                case SEQ, BLOCO -> {
+                    emit(TRACE, string(block.getType()), 1, 0);
+                    statements(block);
+                }
+                case PAR -> throw new UnsupportedOperationException("Bloco PAR ainda não é compilado para a VM");
+                default -> {
+                    emit(TRACE, string(block.getType()), 0, 0);
+                    fail("Tipo de bloco desconhecido: " + block.getType());
+                }
+            }
+        }
+
+        void statements(Node block) {
+            for (Node stmt : block.getChildren()) {
+                statement(stmt);
+            }
+        }
+
+        void statement(Node stmt) {
+            int mark = top;
+            switch (stmt.getKind()) {
+                case ATRIBUICAO -> assignment(stmt);
+                case ATRIBUICAO_INDICE -> indexAssignment(stmt);
+                case COMENTARIO -> {}
+                case PRINT -> print(stmt);
+                case IF -> ifStatement(stmt);
+                case WHILE -> whileStatement(stmt);
+                case FOR -> forStatement(stmt);
+                case DEF -> emit(DEF, compileFunction(stmt), 0, 0);
+                case RETURN -> {
+                    int value = temp();
+                    expression(stmt.getChildren().get(0), value);
+                    emit(RET, value, 0, 0);
+                }
+                case CHAMADA_FUNCAO -> call(stmt, temp());
+                case C_CHANNEL, SEND, RECEIVE, IMPORT ->
+                        throw new UnsupportedOperationException("Instrução ainda não compilada para a VM: " + stmt.getType());
+                default -> fail("Instrução não suportada: " + stmt.getType());
+            }
+            top = mark;
+        }
+
+        private void assignment(Node stmt) {
+            Node target = stmt.getChildren().get(0);
+            Node expr = stmt.getChildren().get(1);
+            int slot = Resolver.slotOf(target);
+            boolean local = Resolver.isLocal(slot);
+            int var = local ? Resolver.localIndex(slot) : slot;
+
+            if (expr.getKind() == NodeKind.LISTA) {
+                List<? extends Node> items = expr.getChildren();
+                int first = allocate(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    expression(items.get(i), first + i);
+                }
+                emit(local ? NEWLIST_L : NEWLIST_G, var, first, items.size());
+            } else {
+                int value = temp();
+                expression(expr, value);
+                emit(local ? SETL : SETG, var, value, 0);
+            }
+        }
+
+        private void indexAssignment(Node stmt) {
+            int slot = Resolver.slotOf(stmt);
+            int index = temp();
+            int value = temp();
+            expression(stmt.getChildren().get(0), index);
+            expression(stmt.getChildren().get(1), value);
+            if (Resolver.isLocal(slot)) emit(SETIDX_L, Resolver.localIndex(slot), index, value);
+            else emit(SETIDX_G, slot, index, value);
+        }
+
+        // Cada argumento que não é string literal vira um Code à parte, para que o print possa cair
+        // no texto original quando a avaliação falha, como faz o interpretador
+        private void print(Node stmt) {
+            List<? extends Node> args = stmt.getChildren();
+            String[] texts = new String[args.size()];
+            Code[] chunks = new Code[args.size()];
+            for (int i = 0; i < args.size(); i++) {
+                Node arg = args.get(i);
+                String raw = arg.getValue();
+                if (arg.isString()) {
+                    texts[i] = raw.substring(1, raw.length() - 1);
+                } else {
+                    texts[i] = raw;
+                    Emitter chunk = new Emitter(name + "/print", top, globalOf);
+                    int value = chunk.temp();
+                    chunk.expression(arg, value);
+                    chunk.emit(RET, value, 0, 0);
+                    chunks[i] = chunk.finish();
+                }
+            }
+            prints.add(new Program.Print(texts, chunks));
+            emit(PRINT, prints.size() - 1, 0, 0);
+        }
+
+        private void ifStatement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            int skip = condition(children.get(0));
+            statements(children.get(1));
+            if (children.size() > 2) {
+                int end = emit(JMP, 0, 0, 0);
+                patch(skip);
+                statements(children.get(2));
+                patch(end);
+            } else {
+                patch(skip);
+            }
+        }
+
+        private void whileStatement(Node stmt) {
+            int start = length;
+            int exit = condition(stmt.getChildren().get(0));
+            statements(stmt.getChildren().get(1));
+            jumpTo(start);
+            patch(exit);
+        }
+
+        // Contador e limite ficam em registradores próprios; a variável do for recebe uma cópia a cada volta
+        private void forStatement(Node stmt) {
+            List<? extends Node> children = stmt.getChildren();
+            int slot = Resolver.slotOf(stmt);
+            int counter = temp();
+            int end = temp();
+            expression(children.get(0), counter);
+            expression(children.get(1), end);
+            emit(TOINT, counter, counter, 0);
+
+            int start = length;
+            int exit = emit(TEST_LE, counter, end, 0);
+            if (Resolver.isLocal(slot)) emit(SETL, Resolver.localIndex(slot), counter, 0);
+            else emit(SETG_INT, slot, counter, 0);
+            statements(children.get(2));
+            emit(INC, counter, 0, 0);
+            jumpTo(start);
+            patch(exit);
+        }
+
+        // Emite o teste da condição e devolve a posição do salto, ainda sem destino, tomado quando ela é falsa
+        private int condition(Node node) {
+            if (node.getKind() != NodeKind.BIN_OP) {
+                fail("Condição inválida");
+                return emit(JMP, 0, 0, 0);
+            }
+            int mark = top;
+            int left = temp();
+            int right = temp();
+            expression(node.getChildren().get(0), left);
+            expression(node.getChildren().get(1), right);
+            top = mark;
+
+            Operator op = node.getOperator();
+            if (op == null || !op.isComparison()) {
+                fail("Operador inválido em condição: " + node.getValue());
+                return emit(JMP, 0, 0, 0);
+            }
+            int test = switch (op) {
+                case EQ -> TEST_EQ;
+                case NE -> TEST_NE;
+                case LT -> TEST_LT;
+                case GT -> TEST_GT;
+                case LE -> TEST_LE;
+                default -> TEST_GE;
+            };
+            return emit(test, left, right, 0);
+        }
+
+        // Nativas numéricas entram como chamada comum e a VirtualMachine as acha pelo nome; as de
+        // lista (soma, add...) recebem listas, que os registradores não carregam
+        private void call(Node node, int target) {
+            String function = node.getValue();
+            if (!defNames.contains(function) && Stdlib.find(function) instanceof Intrinsic.OnLists) {
+                throw new UnsupportedOperationException("Função nativa de lista ainda não compilada para a VM: " + function);
+            }
+            List<? extends Node> args = node.getChildren();
+            int first = allocate(args.size());
+            int site = calls.size();
+            calls.add(new Program.CallSite(functionId(function), function, args.size(), first));
+
+            boolean effects = false;
+            for (Node arg : args) effects |= hasEffects(arg);
+            if (effects) emit(CHECK, site, 0, 0);
+
+            for (int i = 0; i < args.size(); i++) {
+                expression(args.get(i), first + i);
+            }
+            emit(CALL, target, site, 0);
+        }
+
+        // Compila a expressão deixando o valor no registrador target; temporários ficam acima de top
+        void expression(Node node, int target) {
+            int mark = top;
+            switch (node.getKind()) {
+                case VALOR -> value(node, target);
+                case LISTA -> {
+                    // Lista fora de atribuição: avalia os itens e vale 0, como no interpretador
+                    for (Node item : node.getChildren()) {
+                        expression(item, target);
+                    }
+                    emit(LOADK, target, constant(0), 0);
+                }
+                case INPUT -> emit(INPUT, target, 0, 0);
+                case BIN_OP -> binary(node, target);
+                case INDEXACAO -> {
+                    // índice no próprio target, avaliado antes de buscar a lista
+                    int slot = Resolver.slotOf(node);
+                    expression(node.getChildren().get(0), target);
+                    if (Resolver.isLocal(slot)) emit(GETIDX_L, target, Resolver.localIndex(slot), target);
+                    else emit(GETIDX_G, target, slot, target);
+                }
+                case CHAMADA_FUNCAO -> call(node, target);
+                default -> fail("Expressão inválida: " + node.getType());
+            }
+            top = mark;
+        }
+
+        private void value(Node node, int target) {
+            if (node.isNumber()) {
+                emit(LOADK, target, constant(node.getNumber()), 0);
+                return;
+            }
+            String val = node.getValue();
+            if (node.isString()) {
+                emit(SAY, string(val.substring(1, val.length() - 1)), 0, 0);
+                emit(LOADK, target, constant(0), 0);
+                return;
+            }
+            int slot = Resolver.slotOf(node);
+            if (Resolver.isLocal(slot)) emit(GETL, target, Resolver.localIndex(slot), 0);
+            else emit(GETG, target, slot, 0);
+        }
+
+        private void binary(Node node, int target) {
+            int right = temp();
+            expression(node.getChildren().get(0), target);
+            expression(node.getChildren().get(1), right);
+
+            Operator op = node.getOperator();
+            if (op == null) {
+                fail("Operador inválido: " + node.getValue());
+                return;
+            }
+            int opcode = switch (op) {
+                case ADD -> ADD;
+                case SUB -> SUB;
+                case MUL -> MUL;
+                case DIV -> DIV;
+                case MOD -> MOD;
+                case POW -> POW;
+                case EQ -> EQ;
+                case NE -> NE;
+                case LT -> LT;
+                case GT -> GT;
+                case LE -> LE;
+                case GE -> GE;
+            };
+            emit(opcode, target, target, right);
+        }
+    }
+}
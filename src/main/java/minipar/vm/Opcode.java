@@ -0,0 +1,67 @@
+package minipar.vm;
+
+// Conjunto de instruções da VM. Toda instrução ocupa WIDTH inteiros: opcode, a, b, c.
+// rX = registrador X do frame; K = pool de constantes numéricas; S = pool de strings.
+// Saltos são relativos à própria instrução, em inteiros do array de código.
+public final class Opcode {
+    public static final int WIDTH = 4;
+
+    public static final int LOADK = 0;      // r[a] = K[b]
+    public static final int GETG = 1;       // r[a] = global b
+    public static final int GETL = 2;       // r[a] = local b (ou o global de mesmo nome, se ainda não atribuído)
+    public static final int SETG = 3;       // global a = r[b]
+    public static final int SETG_INT = 4;   // global a = (int) r[b], variável de for
+    public static final int SETL = 5;       // local a = r[b]
+    public static final int NEWLIST_G = 6;  // global a = lista com r[b] .. r[b + c - 1]
+    public static final int NEWLIST_L = 7;  // local a = lista com r[b] .. r[b + c - 1]
+    public static final int SETIDX_G = 8;   // lista no global a: [r[b]] = r[c]
+    public static final int SETIDX_L = 9;   // lista no local a: [r[b]] = r[c]
+    public static final int ADD = 10;       // r[a] = r[b] + r[c]
+    public static final int SUB = 11;
+    public static final int MUL = 12;
+    public static final int DIV = 13;       // divisão por zero resulta 0, como no interpretador
+    public static final int POW = 14;
+    public static final int EQ = 15;        // r[a] = r[b] == r[c] ? 1 : 0
+    public static final int NE = 16;
+    public static final int LT = 17;
+    public static final int GT = 18;
+    public static final int LE = 19;
+    public static final int GE = 20;
+    public static final int TOINT = 21;     // r[a] = (int) r[b]
+    public static final int INC = 22;       // r[a] = r[a] + 1
+    public static final int TEST_EQ = 23;   // se !(r[a] == r[b]) salta c
+    public static final int TEST_NE = 24;
+    public static final int TEST_LT = 25;
+    public static final int TEST_GT = 26;
+    public static final int TEST_LE = 27;
+    public static final int TEST_GE = 28;
+    public static final int JMP = 29;       // salta a
+    public static final int CHECK = 30;     // valida função e aridade da chamada a antes de avaliar argumentos
+    public static final int CALL = 31;      // r[a] = chamada b
+    public static final int RET = 32;       // retorna r[a]
+    public static final int RET0 = 33;      // retorna 0 (fim do corpo sem return)
+    public static final int DEF = 34;       // registra a função a
+    public static final int PRINT = 35;     // executa o print a
+    public static final int SAY = 36;       // imprime S[a] (string literal avaliada como expressão)
+    public static final int INPUT = 37;     // r[a] = número lido da entrada
+    public static final int TRACE = 38;     // mensagens [DEBUG]/[THREAD] do bloco do tipo S[a]; b = 1 imprime [THREAD]
+    public static final int FAIL = 39;      // lança erro com a mensagem S[a]
+    public static final int MOD = 40;       // r[a] = r[b] % r[c]; resto por zero resulta 0, como a divisão
+    public static final int GETIDX_G = 41;  // r[a] = lista no global b [r[c]]
+    public static final int GETIDX_L = 42;  // r[a] = lista no local b [r[c]]
+
+    static final String[] NAMES = {
+            "LOADK", "GETG", "GETL", "SETG", "SETG_INT", "SETL", "NEWLIST_G", "NEWLIST_L", "SETIDX_G", "SETIDX_L",
+            "ADD", "SUB", "MUL", "DIV", "POW", "EQ", "NE", "LT", "GT", "LE", "GE", "TOINT", "INC",
+            "TEST_EQ", "TEST_NE", "TEST_LT", "TEST_GT", "TEST_LE", "TEST_GE", "JMP", "CHECK", "CALL",
+            "RET", "RET0", "DEF", "PRINT", "SAY", "INPUT", "TRACE", "FAIL", "MOD",
+            "GETIDX_G", "GETIDX_L"
+    };
+
+    private Opcode() {
+    }
+
+    public static String name(int opcode) {
+        return NAMES[opcode];
+    }
+}
@@ -0,0 +1,73 @@
+package minipar.vm;
+
+// Resultado da compilação: o código principal e as tabelas que as instruções indexam
+public final class Program {
+
+    // Função declarada por um def; id é o índice do nome na tabela de funções registradas em tempo de execução
+    public record CompiledFunction(String name, int id, int[] paramLocals, Code code) {
+    }
+
+    // Chamada: função alvo, quantidade de argumentos e o primeiro dos registradores consecutivos que os contêm
+    public record CallSite(int function, String name, int argc, int argBase) {
+    }
+
+    // Argumentos de um print: chunks[i] == null é texto literal em texts[i]; senão texts[i] é o
+    // texto impresso quando a avaliação do chunk falha
+    public record Print(String[] texts, Code[] chunks) {
+    }
+
+    final Code main;
+    final double[] constants;
+    final String[] strings;
+    final CompiledFunction[] functions;
+    final CallSite[] calls;
+    final Print[] prints;
+    final int functionNames;
+
+    Program(Code main, double[] constants, String[] strings, CompiledFunction[] functions,
+            CallSite[] calls, Print[] prints, int functionNames) {
+        this.main = main;
+        this.constants = constants;
+        this.strings = strings;
+        this.functions = functions;
+        this.calls = calls;
+        this.prints = prints;
+        this.functionNames = functionNames;
+    }
+
+    public Code getMain() {
+        return main;
+    }
+
+    public CompiledFunction[] getFunctions() {
+        return functions;
+    }
+
+    // Listagem legível de um Code, uma instrução por linha, usada nos testes e para depuração
+    public String disassemble(Code code) {
+        StringBuilder sb = new StringBuilder();
+        int[] ins = code.instructions;
+        for (int pc = 0; pc < ins.length; pc += Opcode.WIDTH) {
+            int op = ins[pc], a = ins[pc + 1], b = ins[pc + 2], c = ins[pc + 3];
+            sb.append(String.format("%04d %-9s", pc / Opcode.WIDTH, Opcode.name(op)));
+            switch (op) {
+                case Opcode.LOADK -> sb.append(" r").append(a).append(" ").append(constants[b]);
+                case Opcode.GETG, Opcode.GETL -> sb.append(" r").append(a).append(" ").append(b);
+                case Opcode.SETG, Opcode.SETG_INT, Opcode.SETL -> sb.append(" ").append(a).append(" r").append(b);
+                case Opcode.JMP -> sb.append(" ").append(pc / Opcode.WIDTH + a / Opcode.WIDTH);
+                case Opcode.TEST_EQ, Opcode.TEST_NE, Opcode.TEST_LT, Opcode.TEST_GT, Opcode.TEST_LE, Opcode.TEST_GE ->
+                        sb.append(" r").append(a).append(" r").append(b).append(" ").append(pc / Opcode.WIDTH + c / Opcode.WIDTH);
+                case Opcode.CALL -> sb.append(" r").append(a).append(" ").append(calls[b].name());
+                case Opcode.CHECK -> sb.append(" ").append(calls[a].name());
+                case Opcode.DEF -> sb.append(" ").append(functions[a].name());
+                case Opcode.SAY, Opcode.TRACE, Opcode.FAIL -> sb.append(" \"").append(strings[a]).append("\"");
+                case Opcode.RET, Opcode.INPUT, Opcode.INC -> sb.append(" r").append(a);
+                case Opcode.PRINT -> sb.append(" ").append(a);
+                case Opcode.RET0 -> {}
+                default -> sb.append(" ").append(a).append(" ").append(b).append(" ").append(c);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,325 @@
+package minipar.vm;
+
+import minipar.interpreter.DoubleList;
+import minipar.interpreter.Engine;
+import minipar.interpreter.Interpreter;
+import minipar.interpreter.Memory;
+import minipar.interpreter.NumberList;
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import minipar.semantic.Resolver;
+import minipar.stdlib.Intrinsic;
+import minipar.stdlib.Stdlib;
+
+import java.util.Arrays;
+import java.util.Scanner;
+
+import static minipar.vm.Opcode.*;
+
+// Executa o bytecode do Compiler num laço de despacho sobre registradores double.
+// Os frames das chamadas são janelas consecutivas de um único array de registradores; ao lado de cada
+// registrador de variável há uma etiqueta dizendo o que ele guarda (null = ainda não atribuído,
+// NUMBER, INTEGER para a variável de for, ou a própria lista). Os globais ficam em arrays próprios
+// durante a execução e são copiados para a Memory ao final, para getMemory() e os testes.
+// Não há o tipo inteiro do interpretador: inteiros também são double aqui, então contas com valores
+// acima de 2^53 podem dar resultado diferente do Interpreter (que as faz exatas em long).
+public class VirtualMachine implements Engine {
+    private static final Object NUMBER = new Object();
+    private static final Object INTEGER = new Object();
+
+    private final Resolver resolver = new Resolver();
+    private final Memory memory = new Memory(resolver);
+    private final Scanner scanner = new Scanner(System.in);
+    private final boolean reportFallback;
+    private Interpreter fallback;
+
+    private Program program;
+    private double[] constants;
+    private String[] strings;
+    private Program.CompiledFunction[] defined;
+    private Intrinsic.Numeric[] natives;
+    private double[] registers = new double[256];
+    private Object[] tags = new Object[256];
+    private double[] globals;
+    private Object[] globalTags;
+
+    public VirtualMachine() {
+        this(false);
+    }
+
+    // reportFallback: avisa em System.err quando o programa não compila e roda no interpretador de
+    // árvore; ligado quando a VM foi pedida com -Dminipar.engine=vm
+    public VirtualMachine(boolean reportFallback) {
+        this.reportFallback = reportFallback;
+    }
+
+    @Override
+    public void execute(Node root) {
+        if (root.getKind() != NodeKind.PROGRAMA) {
+            throw new RuntimeException("Raiz inválida. Esperado 'Programa'");
+        }
+        resolver.resolve(root);
+        try {
+            program = new Compiler(resolver).compile(root);
+        } catch (UnsupportedOperationException e) {
+            // Programa com canais, PAR, import ou nativa de lista: roda inteiro no interpretador de árvore
+            if (reportFallback) {
+                System.err.println("Aviso: " + e.getMessage() + "; o programa roda no interpretador de árvore");
+            }
+            fallback = new Interpreter();
+            fallback.execute(root);
+            return;
+        }
+        constants = program.constants;
+        strings = program.strings;
+        defined = new Program.CompiledFunction[program.functionNames];
+        natives = new Intrinsic.Numeric[program.calls.length];
+        loadGlobals();
+        try {
+            ensureRegisters(program.main.frameSize);
+            run(program.main, 0);
+        } finally {
+            storeGlobals();
+        }
+    }
+
+    @Override
+    public Memory getMemory() {
+        return fallback != null ? fallback.getMemory() : memory;
+    }
+
+    // Programa compilado na última execução (null se ela caiu no interpretador de árvore)
+    public Program getProgram() {
+        return fallback != null ? null : program;
+    }
+
+    private void loadGlobals() {
+        int slots = resolver.slotCount();
+        globals = new double[slots];
+        globalTags = new Object[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            Object value = memory.get(slot);
+            if (value instanceof Double d) {
+                globals[slot] = d;
+                globalTags[slot] = NUMBER;
+            } else if (value instanceof Integer i) {
+                globals[slot] = i;
+                globalTags[slot] = INTEGER;
+            } else {
+                globalTags[slot] = value;
+            }
+        }
+    }
+
+    private void storeGlobals() {
+        memory.ensureCapacity(globals.length);
+        for (int slot = 0; slot < globals.length; slot++) {
+            Object tag = globalTags[slot];
+            if (tag == NUMBER) memory.set(slot, globals[slot]);
+            else if (tag == INTEGER) memory.set(slot, (int) globals[slot]);
+            else memory.set(slot, tag);
+        }
+    }
+
+    private void ensureRegisters(int size) {
+        if (size > registers.length) {
+            int capacity = Math.max(size, registers.length * 2);
+            registers = Arrays.copyOf(registers, capacity);
+            tags = Arrays.copyOf(tags, capacity);
+        }
+    }
+
+    private double run(Code code, int base) {
+        int[] ins = code.instructions;
+        double[] r = registers;
+        Object[] t = tags;
+        int pc = 0;
+        while (true) {
+            int at = pc;
+            int a = ins[at + 1], b = ins[at + 2], c = ins[at + 3];
+            pc += WIDTH;
+            switch (ins[at]) {
+                case LOADK -> r[base + a] = constants[b];
+                case GETG -> r[base + a] = global(b);
+                case GETL -> {
+                    Object tag = t[base + b];
+                    if (tag == NUMBER) r[base + a] = r[base + b];
+                    else if (tag == null) r[base + a] = global(code.globalOf[b]);
+                    else throw notNumber(code.globalOf[b]);
+                }
+                case SETG -> {
+                    globals[a] = r[base + b];
+                    globalTags[a] = NUMBER;
+                }
+                case SETG_INT -> {
+                    globals[a] = r[base + b];
+                    globalTags[a] = INTEGER;
+                }
+                case SETL -> {
+                    r[base + a] = r[base + b];
+                    t[base + a] = NUMBER;
+                }
+                case NEWLIST_G -> globalTags[a] = newList(r, base + b, c);
+                case NEWLIST_L -> t[base + a] = newList(r, base + b, c);
+                case SETIDX_G -> setIndex(globalTags[a], a, r[base + b], r[base + c]);
+                case SETIDX_L -> {
+                    Object tag = t[base + a];
+                    int global = code.globalOf[a];
+                    setIndex(tag != null ? tag : globalTags[global], global, r[base + b], r[base + c]);
+                }
+                case GETIDX_G -> r[base + a] = getIndex(globalTags[b], b, r[base + c]);
+                case GETIDX_L -> {
+                    Object tag = t[base + b];
+                    int global = code.globalOf[b];
+                    r[base + a] = getIndex(tag != null ? tag : globalTags[global], global, r[base + c]);
+                }
+                case ADD -> r[base + a] = r[base + b] + r[base + c];
+                case SUB -> r[base + a] = r[base + b] - r[base + c];
+                case MUL -> r[base + a] = r[base + b] * r[base + c];
+                case DIV -> r[base + a] = r[base + c] == 0 ? 0 : r[base + b] / r[base + c];
+                case MOD -> r[base + a] = r[base + c] == 0 ? 0 : r[base + b] % r[base + c];
+                case POW -> r[base + a] = Math.pow(r[base + b], r[base + c]);
+                case EQ -> r[base + a] = r[base + b] == r[base + c] ? 1 : 0;
+                case NE -> r[base + a] = r[base + b] != r[base + c] ? 1 : 0;
+                case LT -> r[base + a] = r[base + b] < r[base + c] ? 1 : 0;
+                case GT -> r[base + a] = r[base + b] > r[base + c] ? 1 : 0;
+                case LE -> r[base + a] = r[base + b] <= r[base + c] ? 1 : 0;
+                case GE -> r[base + a] = r[base + b] >= r[base + c] ? 1 : 0;
+                case TOINT -> r[base + a] = (int) r[base + b];
+                case INC -> r[base + a] += 1;
+                case TEST_EQ -> { if (!(r[base + a] == r[base + b])) pc = at + c; }
+                case TEST_NE -> { if (!(r[base + a] != r[base + b])) pc = at + c; }
+                case TEST_LT -> { if (!(r[base + a] < r[base + b])) pc = at + c; }
+                case TEST_GT -> { if (!(r[base + a] > r[base + b])) pc = at + c; }
+                case TEST_LE -> { if (!(r[base + a] <= r[base + b])) pc = at + c; }
+                case TEST_GE -> { if (!(r[base + a] >= r[base + b])) pc = at + c; }
+                case JMP -> pc = at + a;
+                case CHECK -> resolve(a);
+                case CALL -> {
+                    double value = call(b, base, base + code.frameSize);
+                    r = registers; // a chamada pode ter crescido os arrays
+                    t = tags;
+                    r[base + a] = value;
+                }
+                case RET -> {
+                    return r[base + a];
+                }
+                case RET0 -> {
+                    return 0;
+                }
+                case DEF -> {
+                    Program.CompiledFunction function = program.functions[a];
+                    defined[function.id()] = function;
+                }
+                case PRINT -> {
+                    print(program.prints[a], base);
+                    r = registers;
+                    t = tags;
+                }
+                case SAY -> System.out.println(strings[a]);
+                case INPUT -> r[base + a] = input();
+                case TRACE -> {
+                    String thread = Thread.currentThread().getName();
+                    System.out.println("[DEBUG] Executando bloco tipo: " + strings[a] + " na thread " + thread);
+                    if (b != 0) System.out.println("[THREAD] Iniciando bloco em thread: " + thread);
+                }
+                case FAIL -> throw new RuntimeException(strings[a]);
+                default -> throw new IllegalStateException("Opcode inválido: " + ins[at]);
+            }
+        }
+    }
+
+    // Def registrado para o nome; sem def, null se houver nativa numérica com o nome (sqrt, abs...),
+    // guardada em natives na primeira vez
+    private Program.CompiledFunction resolve(int index) {
+        Program.CallSite site = program.calls[index];
+        Program.CompiledFunction function = defined[site.function()];
+        if (function == null) {
+            if (natives[index] != null) return null;
+            if (Stdlib.find(site.name()) instanceof Intrinsic.Numeric nativa) {
+                nativa.checkArity(site.argc());
+                natives[index] = nativa;
+                return null;
+            }
+            throw new RuntimeException("Função não declarada: " + site.name());
+        }
+        if (function.paramLocals().length != site.argc()) {
+            throw new RuntimeException("Número de argumentos inválido para função " + site.name());
+        }
+        return function;
+    }
+
+    // Abre o frame da chamada logo acima do frame de quem chama e copia os argumentos para os parâmetros
+    private double call(int index, int base, int callee) {
+        Program.CallSite site = program.calls[index];
+        Program.CompiledFunction function = resolve(index);
+        if (function == null) return natives[index].apply(registers, base + site.argBase());
+        Code code = function.code();
+        ensureRegisters(callee + code.frameSize);
+        Arrays.fill(tags, callee, callee + code.globalOf.length, null);
+        int[] params = function.paramLocals();
+        for (int i = 0; i < params.length; i++) {
+            registers[callee + params[i]] = registers[base + site.argBase() + i];
+            tags[callee + params[i]] = NUMBER;
+        }
+        return run(code, callee);
+    }
+
+    private void print(Program.Print print, int base) {
+        StringBuilder output = new StringBuilder();
+        String[] texts = print.texts();
+        Code[] chunks = print.chunks();
+        for (int i = 0; i < texts.length; i++) {
+            if (chunks[i] == null) {
+                output.append(texts[i]);
+            } else {
+                try {
+                    ensureRegisters(base + chunks[i].frameSize);
+                    output.append(run(chunks[i], base));
+                } catch (RuntimeException e) {
+                    output.append(texts[i]);
+                }
+            }
+            output.append(" ");
+        }
+        System.out.println(output.toString().trim());
+    }
+
+    private double global(int slot) {
+        Object tag = globalTags[slot];
+        if (tag == NUMBER || tag == INTEGER) return globals[slot];
+        if (tag == null) throw new RuntimeException("Variável não declarada: " + resolver.nameOf(slot));
+        throw notNumber(slot);
+    }
+
+    private RuntimeException notNumber(int slot) {
+        return new RuntimeException("Valor da variável '" + resolver.nameOf(slot) + "' não é inteiro");
+    }
+
+    // A VM só trabalha com double: suas listas são sempre DoubleList, que guarda qualquer número no lugar
+    private static DoubleList newList(double[] r, int first, int count) {
+        DoubleList lista = new DoubleList(count);
+        for (int i = 0; i < count; i++) lista.add(r[first + i]);
+        return lista;
+    }
+
+    private double getIndex(Object objeto, int slot, double index) {
+        NumberList lista = NumberList.of(objeto, resolver.nameOf(slot));
+        return lista.getDouble(lista.index(index));
+    }
+
+    private void setIndex(Object objeto, int slot, double index, double valor) {
+        NumberList lista = NumberList.of(objeto, resolver.nameOf(slot));
+        lista.store(lista.index(index), valor);
+    }
+
+    private double input() {
+        System.out.print("Entrada: ");
+        String line = scanner.nextLine();
+        try {
+            return Double.parseDouble(line);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Valor de entrada inválido: " + line);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package minipar.aot;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AotCompilerTest {
+
+    private ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private Path gerarJar(String code) throws IOException {
+        Path jar = Files.createTempDirectory("minipar-aot").resolve("programa.jar");
+        new AotCompiler().writeJar(parse(code), jar);
+        return jar;
+    }
+
+    private CompiledProgram carregar(Path jar) throws Exception {
+        URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, getClass().getClassLoader());
+        return (CompiledProgram) loader.loadClass(AotCompiler.MAIN_CLASS).getConstructor().newInstance();
+    }
+
+    // Roda o programa compilado; saída em out e memória final em memoria
+    private String executar(CompiledProgram program, Map<String, Object> memoria) {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            memoria.putAll(program.start().getMemory());
+        } finally {
+            System.setOut(originalOut);
+        }
+        return out.toString();
+    }
+
+    private String interpretar(String code, Map<String, Object> memoria) {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            Interpreter interpreter = new Interpreter();
+            interpreter.execute(parse(code));
+            memoria.putAll(interpreter.getMemory());
+        } finally {
+            System.setOut(originalOut);
+        }
+        return out.toString();
+    }
+
+    private void assertMesmoResultado(String code) throws Exception {
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaInterpretada = interpretar(code, esperado);
+        String saidaCompilada = executar(carregar(gerarJar(code)), obtido);
+        assertEquals(saidaInterpretada, saidaCompilada);
+        assertEquals(esperado, obtido);
+    }
+
+    private String erro(String code, boolean compilado) throws Exception {
+        CompiledProgram program = compilado ? carregar(gerarJar(code)) : null;
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            return assertThrows(RuntimeException.class,
+                    () -> {
+                        if (compilado) program.start();
+                        else new Interpreter().execute(parse(code));
+                    }).getMessage();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    private void assertMesmoErro(String code) throws Exception {
+        assertEquals(erro(code, false), erro(code, true));
+    }
+
+    @Test
+    void testFuncoesLacosListasEPrint() throws Exception {
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            base = 10
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma(v) {
+                total = base
+                for i = 1 to v {
+                    total = total + i / (i - 2) + 2 ^ 2 + i % 3 - i % 0
+                }
+                itens = [1, 2, 3]
+                itens[0] = total
+                return total
+            }
+            def primeiroMaior(limite) {
+                k = 0
+                while k < 100 {
+                    if k > limite {
+                        return k
+                    }
+                    k = k + 1
+                }
+                return 0
+            }
+            lista = [0, 0, 0]
+            for j = 0 to 2 {
+                lista[j] = fib(j + 10)
+            }
+            r = soma(5)
+            p = primeiroMaior(7)
+            x = "eco"
+            print("resultado:", r, p, lista, naoExiste, 1 / 0, (p > 3) + (p == 8))
+            def soma(a, b) {
+                return a + b
+            }
+            s = soma(2, 3)
+            """);
+    }
+
+    @Test
+    void testLeituraPorIndice() throws Exception {
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3, 4]
+            entradas = [0.5, 1.5, 2.5, 3.5]
+            def escalar(n) {
+                locais = [2, 4, 6]
+                s = 0
+                for k = 0 to n {
+                    s = s + locais[k] * pesos[k]
+                }
+                return s
+            }
+            soma = 0
+            for i = 0 to 3 {
+                soma = soma + pesos[i] * entradas[3 - i]
+                pesos[i] = pesos[i] + 1
+            }
+            r = escalar(2)
+            print(soma, r, pesos[0], entradas[1 + 1])
+            """);
+    }
+
+    @Test
+    void testMesmosErros() throws Exception {
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            x = f(1)
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            def f(a, b) {
+                return a + b
+            }
+            x = f(1)
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            lista = [1]
+            lista[3] = 2
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            def f(v) {
+                l = [v]
+                return l + 1
+            }
+            x = f(1)
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            x = 1
+            x[0] = 2
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            def f(v) {
+                l = [v]
+                return l[1]
+            }
+            x = f(1)
+            """);
+    }
+
+    @Test
+    void testCanaisETabelaDeSimbolos() throws Exception {
+        // A porta do interpretador vem de um contador estático, então ela fica fora da comparação
+        String code = """
+            programa_minipar
+            SEQ
+            c_channel canal a b
+            v = 42
+            canal.send(v)
+            canal.receive(r)
+            print(r)
+            """;
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaInterpretada = interpretar(code, esperado).replaceAll("na porta \\d+", "na porta N");
+        String saidaCompilada = executar(carregar(gerarJar(code)), obtido);
+        assertTrue(saidaCompilada.contains("na porta 5000"), saidaCompilada);
+        assertEquals(saidaInterpretada, saidaCompilada.replaceAll("na porta \\d+", "na porta N"));
+        assertEquals(esperado, obtido);
+
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            c_channel canal a b
+            canal.send(1)
+            canal.send(2)
+            canal.receive(r)
+            canal.receive(r)
+            """);
+    }
+
+    @Test
+    void testBlocosParalelos() throws Exception {
+        // A ordem entre as threads e os nomes delas variam; compara as linhas normalizadas e ordenadas
+        String code = """
+            programa_minipar
+            SEQ
+            a = 1
+            PAR
+            SEQ
+            b = a + 1
+            print("ramo b", b)
+            SEQ
+            c = a + 2
+            print("ramo c", c)
+            """;
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        List<String> interpretadas = linhas(interpretar(code, esperado));
+        List<String> compiladas = linhas(executar(carregar(gerarJar(code)), obtido));
+        assertEquals(interpretadas, compiladas);
+        assertEquals(esperado, obtido);
+    }
+
+    private static List<String> linhas(String saida) {
+        List<String> linhas = new ArrayList<>(Arrays.asList(saida.replaceAll("Thread-\\d+", "Thread-N").split("\\R")));
+        linhas.sort(null);
+        return linhas;
+    }
+
+    @Test
+    void testImportLigadoNaCompilacao() throws Exception {
+        Path dir = Files.createTempDirectory("minipar-aot-modulos");
+        Path modulo = dir.resolve("util.mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            contador = 0
+            def dobro(v) {
+                return v * 2
+            }
+            print("modulo carregado")
+            """);
+        Path ciclico = dir.resolve("ciclo.mpr");
+        Files.writeString(ciclico, """
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(ciclico.toString().replace("\\", "\\\\")));
+
+        String caminho = modulo.toString().replace("\\", "\\\\");
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            import "%s"
+            import "%s"
+            x = dobro(21)
+            """.formatted(caminho, caminho));
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(ciclico.toString().replace("\\", "\\\\")));
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            import "nao_existe_aot.mpr"
+            """);
+    }
+
+    @Test
+    void testJarExecutavelSozinho() throws Exception {
+        Path jar = gerarJar("""
+            programa_minipar
+            SEQ
+            def quadrado(v) {
+                return v * v
+            }
+            pesos = [1, 2, 3]
+            pesos[1] = 0.5
+            print("quadrado:", quadrado(7))
+            """);
+        try (JarFile arquivo = new JarFile(jar.toFile())) {
+            assertEquals(AotCompiler.MAIN_CLASS, arquivo.getManifest().getMainAttributes().getValue("Main-Class"));
+            List<String> classes = arquivo.stream().map(JarEntry::getName).sorted().toList();
+            assertEquals(List.of("META-INF/MANIFEST.MF", "minipar/aot/AotRuntime.class", "minipar/aot/CompiledProgram.class",
+                    "minipar/aot/Programa.class", "minipar/interpreter/Canal.class", "minipar/interpreter/DoubleList.class",
+                    "minipar/interpreter/NumberList.class"), classes);
+        }
+
+        // Processo separado, só com o JAR no classpath
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process processo = new ProcessBuilder(java, "-jar", jar.toString()).redirectErrorStream(true).start();
+        String saida = new String(processo.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, processo.waitFor());
+        assertTrue(saida.endsWith("quadrado: 49.0" + System.lineSeparator()), saida);
+        assertTrue(saida.contains("[DEBUG] Executando bloco tipo: Bloco na thread main"), saida);
+    }
+}
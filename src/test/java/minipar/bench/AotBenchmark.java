@@ -0,0 +1,65 @@
+package minipar.bench;
+
+import minipar.aot.AotCompiler;
+import minipar.aot.CompiledProgram;
+import minipar.interpreter.Interpreter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Programa interpretado a partir do fonte (léxico, sintático, semântico e execução) contra o mesmo
+// programa compilado antes pelo AotCompiler e carregado do JAR. O custo de subir a JVM fica de fora;
+// para ele, compare java -jar programa.jar com o minipar.Main no mesmo .mpr.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AotBenchmark {
+
+    @Param({"WHILE_LOOP", "CALL_LOOP", "RECURSIVE_FIB"})
+    public String program;
+
+    private String source;
+    private CompiledProgram compiled;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() throws Exception {
+        source = switch (program) {
+            case "WHILE_LOOP" -> InterpreterBenchmark.WHILE_LOOP;
+            case "CALL_LOOP" -> InterpreterBenchmark.CALL_LOOP;
+            default -> InterpreterBenchmark.RECURSIVE_FIB;
+        };
+        Path jar = Files.createTempDirectory("minipar-aot-bench").resolve("programa.jar");
+        new AotCompiler().writeJar(InterpreterBenchmark.parse(source), jar);
+        URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, getClass().getClassLoader());
+        compiled = (CompiledProgram) loader.loadClass(AotCompiler.MAIN_CLASS).getConstructor().newInstance();
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Object interpretSource() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(InterpreterBenchmark.parse(source));
+        return interpreter.getMemory();
+    }
+
+    @Benchmark
+    public Object runCompiled() {
+        return compiled.start().getMemory();
+    }
+}
@@ -0,0 +1,82 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.FlatAST;
+import minipar.parser.Node;
+import minipar.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Grafo de ASTNode x FlatAST. O main mede a memória retida por nó; os @Benchmark medem o custo de
+// percorrer as duas representações pela interface Node (rode com -prof gc para ver a alocação).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AstMemoryBenchmark {
+
+    @Param({"1000", "20000"})
+    public int blocks;
+
+    private ASTNode graph;
+    private Node flat;
+
+    @Setup
+    public void setup() {
+        graph = parse(blocks);
+        flat = FlatAST.from(graph).root();
+    }
+
+    private static ASTNode parse(int blocks) {
+        return new Parser(new Lexer(Programs.generate(blocks)).scan()).parseProgram();
+    }
+
+    @Benchmark
+    public int walkGraph() {
+        return walk(graph);
+    }
+
+    @Benchmark
+    public int walkFlat() {
+        return walk(flat);
+    }
+
+    @Benchmark
+    public FlatAST flatten() {
+        return FlatAST.from(graph);
+    }
+
+    private static int walk(Node node) {
+        int sum = node.getKind().ordinal();
+        for (Node child : node.getChildren()) sum += walk(child);
+        return sum;
+    }
+
+    // Uso: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=minipar.bench.AstMemoryBenchmark
+    public static void main(String[] args) {
+        int blocks = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+
+        long base = usedHeap();
+        ASTNode graph = parse(blocks);
+        long graphBytes = usedHeap() - base;
+        int nodes = FlatAST.countNodes(graph);
+
+        FlatAST flat = FlatAST.from(graph);
+        graph = null;
+        long flatBytes = usedHeap() - base;
+
+        System.out.printf("nós: %d%n", flat.size());
+        System.out.printf("ASTNode: %,d bytes (%.1f por nó)%n", graphBytes, (double) graphBytes / nodes);
+        System.out.printf("FlatAST: %,d bytes (%.1f por nó)%n", flatBytes, (double) flatBytes / nodes);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
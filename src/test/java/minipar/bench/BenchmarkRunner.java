@@ -0,0 +1,13 @@
+package minipar.bench;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Uso: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=minipar.bench.BenchmarkRunner -Dexec.args="Lexer"
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "minipar.bench.*";
+        new Runner(new OptionsBuilder().include(include).build()).run();
+    }
+}
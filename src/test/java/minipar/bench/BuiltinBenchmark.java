@@ -0,0 +1,97 @@
+package minipar.bench;
+
+import minipar.interpreter.Engine;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Nativas de lista (soma, dot, add) x o mesmo cálculo escrito como for em MiniPar, nos dois motores
+// que chamam as nativas de minipar.stdlib direto. O fork recebe o módulo do Vector API; rode com -jvmArgsAppend
+// -Dminipar.vector=false para medir os laços escalares das nativas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BuiltinBenchmark {
+
+    private static final int SIZE = 2000;
+
+    @Param({"tree", "closure"})
+    public String engine;
+
+    private ASTNode loops;
+    private ASTNode builtins;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        loops = InterpreterBenchmark.parse(program("""
+                    s = 0
+                    d = 0
+                    for i = 0 to %d {
+                        s = s + pesos[i]
+                        d = d + pesos[i] * entradas[i]
+                        somados[i] = pesos[i] + entradas[i]
+                    }
+                """.formatted(SIZE - 1)));
+        builtins = InterpreterBenchmark.parse(program("""
+                    s = soma(pesos)
+                    d = dot(pesos, entradas)
+                    somados = add(pesos, entradas)
+                """));
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // Listas montadas uma vez e o cálculo repetido 50 vezes
+    private static String program(String body) {
+        StringBuilder pesos = new StringBuilder();
+        StringBuilder entradas = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            if (i > 0) {
+                pesos.append(", ");
+                entradas.append(", ");
+            }
+            pesos.append(i % 10).append(".25");
+            entradas.append(i % 7).append(".5");
+        }
+        return """
+                programa_minipar
+                SEQ
+                pesos = [%s]
+                entradas = [%s]
+                somados = [%s]
+                r = 0
+                while r < 50 {
+                %s
+                    r = r + 1
+                }
+                """.formatted(pesos, entradas, entradas, body);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Object run(ASTNode program) {
+        Engine instance = Engine.create(engine);
+        instance.execute(program);
+        return instance.getMemory().get("d");
+    }
+
+    @Benchmark
+    public Object miniparLoops() {
+        return run(loops);
+    }
+
+    @Benchmark
+    public Object builtins() {
+        return run(builtins);
+    }
+}
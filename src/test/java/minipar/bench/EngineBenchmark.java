@@ -0,0 +1,62 @@
+package minipar.bench;
+
+import minipar.interpreter.Engine;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Os mesmos programas de InterpreterBenchmark em cada motor: percurso da árvore, closures e VM de registradores
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"tree", "closure", "vm"})
+    public String engine;
+
+    private ASTNode whileLoop;
+    private ASTNode callLoop;
+    private ASTNode recursiveFib;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        whileLoop = InterpreterBenchmark.parse(InterpreterBenchmark.WHILE_LOOP);
+        callLoop = InterpreterBenchmark.parse(InterpreterBenchmark.CALL_LOOP);
+        recursiveFib = InterpreterBenchmark.parse(InterpreterBenchmark.RECURSIVE_FIB);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Object run(ASTNode program, String result) {
+        Engine instance = Engine.create(engine);
+        instance.execute(program);
+        return instance.getMemory().get(result);
+    }
+
+    @Benchmark
+    public Object whileLoop() {
+        return run(whileLoop, "soma");
+    }
+
+    @Benchmark
+    public Object callLoop() {
+        return run(callLoop, "total");
+    }
+
+    @Benchmark
+    public Object recursiveFib() {
+        return run(recursiveFib, "r");
+    }
+}
@@ -0,0 +1,87 @@
+package minipar.bench;
+
+import minipar.interpreter.Engine;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Varredura de lista com lista[i] em cada motor. Em provenScan o índice é a variável do for e o
+// motor de closures roda a versão do corpo sem checagem de limites; em checkedScan o índice i + 0
+// não é a variável do laço e toda leitura confere lista e limites.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int SIZE = 2000;
+
+    @Param({"tree", "closure", "vm"})
+    public String engine;
+
+    private ASTNode provenScan;
+    private ASTNode checkedScan;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        provenScan = InterpreterBenchmark.parse(scan("pesos[i] * entradas[i]"));
+        checkedScan = InterpreterBenchmark.parse(scan("pesos[i + 0] * entradas[i + 0]"));
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    // Monta as listas com literais e percorre as duas 50 vezes somando o produto
+    private static String scan(String term) {
+        StringBuilder pesos = new StringBuilder();
+        StringBuilder entradas = new StringBuilder();
+        for (int i = 0; i < SIZE; i++) {
+            if (i > 0) {
+                pesos.append(", ");
+                entradas.append(", ");
+            }
+            pesos.append(i % 10);
+            entradas.append(i % 7).append(".5");
+        }
+        return """
+                programa_minipar
+                SEQ
+                pesos = [%s]
+                entradas = [%s]
+                soma = 0
+                r = 0
+                while r < 50 {
+                    for i = 0 to %d {
+                        soma = soma + %s
+                    }
+                    r = r + 1
+                }
+                """.formatted(pesos, entradas, SIZE - 1, term);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Object run(ASTNode program) {
+        Engine instance = Engine.create(engine);
+        instance.execute(program);
+        return instance.getMemory().get("soma");
+    }
+
+    @Benchmark
+    public Object provenScan() {
+        return run(provenScan);
+    }
+
+    @Benchmark
+    public Object checkedScan() {
+        return run(checkedScan);
+    }
+}
@@ -0,0 +1,78 @@
+package minipar.bench;
+
+import minipar.interpreter.Engine;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// O mesmo laço com literais inteiros (contas em long, sem double) e com literais reais
+// (tudo em double), nos dois motores do interpretador
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntegerLoopBenchmark {
+
+    static final String INTEGER_LOOP = """
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            while i < 100000 {
+                soma = soma + i % 7 * 3 - i % 5
+                i = i + 1
+            }
+            """;
+
+    static final String DOUBLE_LOOP = """
+            programa_minipar
+            SEQ
+            i = 0.0
+            soma = 0.0
+            while i < 100000.0 {
+                soma = soma + i % 7.0 * 3.0 - i % 5.0
+                i = i + 1.0
+            }
+            """;
+
+    @Param({"tree", "closure"})
+    public String engine;
+
+    private ASTNode integerLoop;
+    private ASTNode doubleLoop;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        integerLoop = InterpreterBenchmark.parse(INTEGER_LOOP);
+        doubleLoop = InterpreterBenchmark.parse(DOUBLE_LOOP);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Object run(ASTNode program) {
+        Engine instance = Engine.create(engine);
+        instance.execute(program);
+        return instance.getMemory().get("soma");
+    }
+
+    @Benchmark
+    public Object integerLoop() {
+        return run(integerLoop);
+    }
+
+    @Benchmark
+    public Object doubleLoop() {
+        return run(doubleLoop);
+    }
+}
@@ -0,0 +1,142 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Execução de laços apertados no estilo de programs/test3.mpr, com e sem chamadas de função,
+// e de chamadas recursivas/encadeadas para medir o custo de empilhar um frame
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+
+    static final String WHILE_LOOP = """
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            peso = 0.5
+            while i < 100000 {
+                soma = soma + (i * peso) - 1
+                if soma > 1000 {
+                    soma = soma / 2
+                }
+                i = i + 1
+            }
+            """;
+
+    static final String CALL_LOOP = """
+            programa_minipar
+            SEQ
+            def ativacao(s) {
+                if s >= 0 {
+                    return 1
+                } else {
+                    return 0
+                }
+            }
+            i = 0
+            total = 0
+            while i < 20000 {
+                total = total + ativacao(i - 10000)
+                i = i + 1
+            }
+            """;
+
+    static final String RECURSIVE_FIB = """
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            r = fib(18)
+            """;
+
+    // Quantos globais vivos a cadeia de chamadas carrega: o custo por chamada não deve depender disso
+    @Param({"0", "2000"})
+    public int globals;
+
+    // Cadeia de chamadas aninhadas repetida num laço, depois de atribuir os globais g0..gN
+    static String deepCalls(int depth, int globals) {
+        StringBuilder code = new StringBuilder("programa_minipar\nSEQ\n");
+        for (int g = 0; g < globals; g++) code.append("g").append(g).append(" = ").append(g).append('\n');
+        code.append("def c0(v) {\n    return v + 1\n}\n");
+        for (int d = 1; d < depth; d++) {
+            code.append("def c").append(d).append("(v) {\n    return c").append(d - 1).append("(v) + 1\n}\n");
+        }
+        code.append("i = 0\ntotal = 0\nwhile i < 2000 {\n")
+                .append("    total = total + c").append(depth - 1).append("(i)\n")
+                .append("    i = i + 1\n}\n");
+        return code.toString();
+    }
+
+    private ASTNode whileLoop;
+    private ASTNode callLoop;
+    private ASTNode recursiveFib;
+    private ASTNode deepCalls;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        whileLoop = parse(WHILE_LOOP);
+        callLoop = parse(CALL_LOOP);
+        recursiveFib = parse(RECURSIVE_FIB);
+        deepCalls = parse(deepCalls(16, globals));
+        // As mensagens [DEBUG] do interpretador não devem pesar na medição
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    static ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    @Benchmark
+    public Object whileLoop() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(whileLoop);
+        return interpreter.getMemory().get("soma");
+    }
+
+    @Benchmark
+    public Object callLoop() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(callLoop);
+        return interpreter.getMemory().get("total");
+    }
+
+    @Benchmark
+    public Object recursiveFib() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(recursiveFib);
+        return interpreter.getMemory().get("r");
+    }
+
+    @Benchmark
+    public Object deepCalls() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(deepCalls);
+        return interpreter.getMemory().get("total");
+    }
+}
@@ -0,0 +1,86 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.jit.JitCompiler;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Programas com funções quentes no interpretador, com o JIT ligado e com todas as funções interpretadas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JitBenchmark {
+
+    // Função com laço interno: as voltas contam para o limiar tanto quanto as chamadas
+    static final String HOT_LOOP = """
+            programa_minipar
+            SEQ
+            def somaQuadrados(n) {
+                s = 0
+                k = 0
+                while k < n {
+                    s = s + k * k
+                    k = k + 1
+                }
+                return s
+            }
+            i = 0
+            total = 0
+            while i < 200 {
+                total = total + somaQuadrados(500)
+                i = i + 1
+            }
+            """;
+
+    @Param({"true", "false"})
+    public String jit;
+
+    private ASTNode callLoop;
+    private ASTNode recursiveFib;
+    private ASTNode hotLoop;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        System.setProperty(JitCompiler.PROPERTY, jit);
+        callLoop = InterpreterBenchmark.parse(InterpreterBenchmark.CALL_LOOP);
+        recursiveFib = InterpreterBenchmark.parse(InterpreterBenchmark.RECURSIVE_FIB);
+        hotLoop = InterpreterBenchmark.parse(HOT_LOOP);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        System.clearProperty(JitCompiler.PROPERTY);
+    }
+
+    private Object run(ASTNode program, String result) {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter.getMemory().get(result);
+    }
+
+    @Benchmark
+    public Object callLoop() {
+        return run(callLoop, "total");
+    }
+
+    @Benchmark
+    public Object recursiveFib() {
+        return run(recursiveFib, "r");
+    }
+
+    @Benchmark
+    public Object hotLoop() {
+        return run(hotLoop, "total");
+    }
+}
@@ -0,0 +1,54 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.Token;
+import minipar.lexer.TokenBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara o scanner de passagem única (lista de Token e TokenBuffer) com o lexer original baseado em regex
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexerBenchmark {
+
+    @Param({"1000", "10000"})
+    public int blocks;
+
+    private String source;
+    private TokenBuffer tokens;
+    private int middle;
+
+    @Setup
+    public void setup() {
+        source = Programs.generate(blocks);
+        tokens = new Lexer(source).scan();
+        middle = source.indexOf('\n', source.length() / 2) + 1;
+    }
+
+    @Benchmark
+    public List<Token> regexLexer() {
+        return new RegexLexer(source).tokenize();
+    }
+
+    @Benchmark
+    public List<Token> scanner() {
+        return new Lexer(source).tokenize();
+    }
+
+    @Benchmark
+    public TokenBuffer scannerBuffer() {
+        return new Lexer(source).scan();
+    }
+
+    // Edição de um caractere no meio do arquivo, como no editor da GUI
+    @Benchmark
+    public TokenBuffer relexSingleEdit() {
+        return Lexer.relex(tokens, middle, 0, "z");
+    }
+}
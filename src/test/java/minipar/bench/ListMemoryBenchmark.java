@@ -0,0 +1,105 @@
+package minipar.bench;
+
+import minipar.interpreter.DoubleList;
+import minipar.interpreter.LongList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lista de pesos como ArrayList<Double> (um Double por elemento) x DoubleList e LongList (arrays
+// primitivos). O main mede a memória retida por elemento; os @Benchmark medem montar a lista e somar
+// os itens (rode com -prof gc para ver a alocação).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListMemoryBenchmark {
+
+    @Param({"1000", "500000"})
+    public int size;
+
+    private List<Double> boxed;
+    private DoubleList primitive;
+
+    @Setup
+    public void setup() {
+        boxed = boxed(size);
+        primitive = doubles(size);
+    }
+
+    private static List<Double> boxed(int size) {
+        List<Double> lista = new ArrayList<>();
+        for (int i = 0; i < size; i++) lista.add(i * 0.001);
+        return lista;
+    }
+
+    private static DoubleList doubles(int size) {
+        DoubleList lista = new DoubleList();
+        for (int i = 0; i < size; i++) lista.add(i * 0.001);
+        return lista;
+    }
+
+    private static LongList longs(int size) {
+        LongList lista = new LongList();
+        for (int i = 0; i < size; i++) lista.add(i);
+        return lista;
+    }
+
+    @Benchmark
+    public List<Double> buildBoxed() {
+        return boxed(size);
+    }
+
+    @Benchmark
+    public DoubleList buildPrimitive() {
+        return doubles(size);
+    }
+
+    @Benchmark
+    public double sumBoxed() {
+        double total = 0;
+        for (int i = 0; i < boxed.size(); i++) total += boxed.get(i);
+        return total;
+    }
+
+    @Benchmark
+    public double sumPrimitive() {
+        double total = 0;
+        for (int i = 0; i < primitive.size(); i++) total += primitive.getDouble(i);
+        return total;
+    }
+
+    // Uso: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=minipar.bench.ListMemoryBenchmark
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+
+        long base = usedHeap();
+        List<Double> boxed = boxed(size);
+        long boxedBytes = usedHeap() - base;
+        boxed = null;
+
+        base = usedHeap();
+        DoubleList doubles = doubles(size);
+        long doubleBytes = usedHeap() - base;
+        doubles = null;
+
+        base = usedHeap();
+        LongList longs = longs(size);
+        long longBytes = usedHeap() - base;
+
+        System.out.printf("elementos: %d (%d)%n", size, longs.size());
+        System.out.printf("ArrayList<Double>: %,d bytes (%.1f por elemento)%n", boxedBytes, (double) boxedBytes / size);
+        System.out.printf("DoubleList: %,d bytes (%.1f por elemento)%n", doubleBytes, (double) doubleBytes / size);
+        System.out.printf("LongList: %,d bytes (%.1f por elemento)%n", longBytes, (double) longBytes / size);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
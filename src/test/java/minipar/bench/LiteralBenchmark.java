@@ -0,0 +1,57 @@
+package minipar.bench;
+
+import minipar.parser.Node;
+import minipar.parser.NodeKind;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo de classificar os nós Valor de um laço apertado a cada avaliação: o caminho antigo
+// (regex sobre o texto + Double.parseDouble + teste de aspas) contra os campos decodificados no parse
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiteralBenchmark {
+
+    private Node[] literals;
+
+    @Setup
+    public void setup() {
+        List<Node> found = new ArrayList<>();
+        collect(InterpreterBenchmark.parse(InterpreterBenchmark.WHILE_LOOP), found);
+        literals = found.toArray(new Node[0]);
+    }
+
+    private static void collect(Node node, List<Node> found) {
+        if (node.getKind() == NodeKind.VALOR) found.add(node);
+        for (Node child : node.getChildren()) collect(child, found);
+    }
+
+    @Benchmark
+    public double regex() {
+        double total = 0;
+        for (Node node : literals) {
+            String val = node.getValue();
+            if (val.matches("-?\\d+(\\.\\d+)?")) total += Double.parseDouble(val);
+            else if (val.startsWith("\"") && val.endsWith("\"")) total -= 1;
+            else total += val.length();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double decoded() {
+        double total = 0;
+        for (Node node : literals) {
+            if (node.isNumber()) total += node.getNumber();
+            else if (node.isString()) total -= 1;
+            else total += node.getValue().length();
+        }
+        return total;
+    }
+}
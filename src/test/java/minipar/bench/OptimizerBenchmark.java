@@ -0,0 +1,73 @@
+package minipar.bench;
+
+import minipar.interpreter.Interpreter;
+import minipar.opt.Optimizer;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Mesmo programa executado como sai do SemanticAnalyzer e depois do Optimizer: constantes
+// dobradas, if de condição constante, x ^ 2 e subexpressões invariantes dentro dos laços
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptimizerBenchmark {
+
+    static final String OPTIMIZABLE_LOOP = """
+            programa_minipar
+            SEQ
+            largura = 640
+            altura = 480
+            escala = 0.25
+            def energia(n, massa) {
+                e = 0
+                for k = 1 to n {
+                    e = e + massa * (299792458 / 1000) ^ 2 * k
+                }
+                return e
+            }
+            i = 0
+            soma = 0
+            while i < 50000 {
+                x = i * escala
+                soma = soma + x ^ 2 + largura * altura / (2 * 8)
+                if 60 * 60 > 1000 {
+                    soma = soma / 2
+                }
+                i = i + 1
+            }
+            total = energia(2000, escala * 2)
+            """;
+
+    @Param({"true", "false"})
+    public String optimize;
+
+    private ASTNode program;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        program = InterpreterBenchmark.parse(OPTIMIZABLE_LOOP);
+        if (Boolean.parseBoolean(optimize)) new Optimizer().optimize(program);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Object optimizableLoop() {
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(program);
+        return interpreter.getMemory().get("soma");
+    }
+}
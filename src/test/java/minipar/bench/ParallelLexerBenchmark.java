@@ -0,0 +1,37 @@
+package minipar.bench;
+
+import minipar.lexer.Lexer;
+import minipar.lexer.TokenBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Análise léxica sequencial x paralela em programas de vários megabytes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelLexerBenchmark {
+
+    @Param({"20000", "100000"})
+    public int blocks;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = Programs.generate(blocks);
+    }
+
+    @Benchmark
+    public TokenBuffer sequential() {
+        return new Lexer(source).scan();
+    }
+
+    @Benchmark
+    public TokenBuffer parallel() {
+        return new Lexer(source).scanParallel();
+    }
+}
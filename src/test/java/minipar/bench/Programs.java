@@ -0,0 +1,25 @@
+package minipar.bench;
+
+// Gera programas MiniPar sintéticos de tamanho arbitrário para os benchmarks
+public final class Programs {
+
+    private Programs() {}
+
+    public static String generate(int blocks) {
+        StringBuilder sb = new StringBuilder("programa_minipar\nSEQ\n");
+        for (int i = 0; i < blocks; i++) {
+            sb.append("# bloco ").append(i).append(" gerado automaticamente\n");
+            sb.append("x_").append(i).append(" = ").append(i).append(" * 2 + (3 - 1) / 4\n");
+            sb.append("y_").append(i).append(" = 0.5\n");
+            sb.append("while y_").append(i).append(" < 10 {\n");
+            sb.append("    y_").append(i).append(" = y_").append(i).append(" + x_").append(i).append(" ^ 2\n");
+            sb.append("}\n");
+            sb.append("if x_").append(i).append(" >= 100 {\n");
+            sb.append("    print(\"grande\", x_").append(i).append(")\n");
+            sb.append("} else {\n");
+            sb.append("    print(\"pequeno\")\n");
+            sb.append("}\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package minipar.bench;
+
+import minipar.cache.ProgramCache;
+import minipar.parser.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Tempo até o programa estar pronto para executar: front end completo (cache vazio) x leitura do .mprc.
+// SingleShotTime com vários forks mede também a primeira execução, com a JVM ainda fria.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"1000", "20000"})
+    public int blocks;
+
+    private Path source;
+    private Path emptyDir;
+    private Path warmDir;
+
+    @Setup
+    public void setup() throws IOException {
+        source = Files.createTempFile("startup", ".mpr");
+        Files.writeString(source, Programs.generate(blocks));
+        emptyDir = Files.createTempDirectory("minipar-cold");
+        warmDir = Files.createTempDirectory("minipar-warm");
+        new ProgramCache(warmDir).load(source);
+    }
+
+    @Benchmark
+    public Node cold() throws IOException {
+        return new ProgramCache(emptyDir.resolve(String.valueOf(System.nanoTime()))).load(source);
+    }
+
+    @Benchmark
+    public Node warm() throws IOException {
+        return new ProgramCache(warmDir).load(source);
+    }
+}
@@ -0,0 +1,78 @@
+package minipar.bench;
+
+import minipar.interpreter.Engine;
+import minipar.parser.ASTNode;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Nativas matemáticas (abs, floor) x as mesmas funções escritas como def em MiniPar, chamadas num
+// laço. A nativa ligada na análise é chamada direto com os doubles, sem frame nem busca pelo nome.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StdlibBenchmark {
+
+    @Param({"tree", "closure", "vm"})
+    public String engine;
+
+    private ASTNode intrinsics;
+    private ASTNode defs;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        intrinsics = InterpreterBenchmark.parse(program("", "abs", "floor"));
+        defs = InterpreterBenchmark.parse(program("""
+                def modulo(x) {
+                    if (x < 0) {
+                        return 0 - x
+                    }
+                    return x
+                }
+                def piso(x) {
+                    return x - x % 1
+                }
+                """, "modulo", "piso"));
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static String program(String defs, String modulo, String piso) {
+        return """
+                programa_minipar
+                SEQ
+                %s
+                s = 0
+                for i = 0 to 100000 {
+                    s = s + %s(50000 - i) + %s(i * 0.5)
+                }
+                """.formatted(defs, modulo, piso);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    private Object run(ASTNode program) {
+        Engine instance = Engine.create(engine);
+        instance.execute(program);
+        return instance.getMemory().get("s");
+    }
+
+    @Benchmark
+    public Object intrinsics() {
+        return run(intrinsics);
+    }
+
+    @Benchmark
+    public Object miniparDefs() {
+        return run(defs);
+    }
+}
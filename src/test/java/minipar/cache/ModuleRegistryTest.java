@@ -0,0 +1,79 @@
+package minipar.cache;
+
+import minipar.parser.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleRegistryTest {
+
+    private ProgramCache cache;
+
+    @BeforeEach
+    void setup() throws IOException {
+        cache = new ProgramCache(Files.createTempDirectory("minipar-modules"));
+    }
+
+    private Path modulo(String atribuicao) throws IOException {
+        Path arquivo = Files.createTempFile("modulo", ".mpr");
+        Files.writeString(arquivo, "programa_minipar\nSEQ\n" + atribuicao + "\n");
+        return arquivo.toRealPath();
+    }
+
+    @Test
+    void testModuloCarregadoUmaVez() throws IOException {
+        ModuleRegistry registry = new ModuleRegistry(4, cache);
+        Path a = modulo("a = 1");
+
+        Node primeiro = registry.load(a);
+        Node segundo = registry.load(a);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, registry.getLoads());
+    }
+
+    @Test
+    void testDataDeModificacaoInvalidaEntrada() throws IOException {
+        ModuleRegistry registry = new ModuleRegistry(4, cache);
+        Path a = modulo("a = 1");
+        registry.load(a);
+
+        Files.writeString(a, "programa_minipar\nSEQ\na = 2\n");
+        Files.setLastModifiedTime(a, FileTime.fromMillis(Files.getLastModifiedTime(a).toMillis() + 1000));
+        Node recarregado = registry.load(a);
+
+        assertEquals(2, registry.getLoads());
+        Node atribuicao = recarregado.getChildren().get(0).getChildren().get(0);
+        assertEquals(2.0, atribuicao.getChildren().get(1).getNumber());
+    }
+
+    @Test
+    void testEvictaModuloMenosUsado() throws IOException {
+        ModuleRegistry registry = new ModuleRegistry(2, cache);
+        Path a = modulo("a = 1");
+        Path b = modulo("b = 1");
+        Path c = modulo("c = 1");
+
+        registry.load(a);
+        registry.load(b);
+        registry.load(a); // a passa a ser o mais recente
+        registry.load(c);
+
+        assertEquals(2, registry.size());
+        assertTrue(registry.contains(a));
+        assertFalse(registry.contains(b));
+        assertTrue(registry.contains(c));
+        assertEquals(3, registry.getLoads());
+    }
+
+    @Test
+    void testCapacidadeInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new ModuleRegistry(0, cache));
+    }
+}
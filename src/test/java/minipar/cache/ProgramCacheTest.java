@@ -0,0 +1,157 @@
+package minipar.cache;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Node;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProgramCacheTest {
+
+    private static final String CODIGO = """
+            programa_minipar
+            SEQ
+            # comentário "com aspas"
+            def soma(a, b) {
+                return a + b
+            }
+            x = soma(2, 3) * 1.5
+            c_channel canal comp1 comp2
+            if x >= 7 {
+                print("grande", x)
+            }
+            """;
+
+    private Path dir;
+    private Path fonte;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("minipar-cache-test");
+        fonte = Files.createTempFile("programa", ".mpr");
+        Files.writeString(fonte, CODIGO);
+    }
+
+    private String render(Node node) {
+        StringBuilder sb = new StringBuilder();
+        render(node, "", sb);
+        return sb.toString();
+    }
+
+    private void render(Node node, String indent, StringBuilder sb) {
+        sb.append(indent).append(node.getKind()).append(' ').append(node.getType())
+                .append('(').append(node.getValue()).append(") ").append(node.getOperator())
+                .append(' ').append(node.getNumber()).append(" @").append(node.getLine()).append('\n');
+        for (Node child : node.getChildren()) render(child, indent + "  ", sb);
+    }
+
+    private List<Path> arquivosMprc() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(ProgramCache.EXTENSION)).toList();
+        }
+    }
+
+    @Test
+    void testSegundaCargaVemDoCache() throws IOException {
+        ProgramCache cache = new ProgramCache(dir);
+        Node primeira = cache.load(fonte);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, arquivosMprc().size());
+
+        ProgramCache outraExecucao = new ProgramCache(dir);
+        Node segunda = outraExecucao.load(fonte);
+        assertEquals(1, outraExecucao.getHits());
+        assertEquals(0, outraExecucao.getMisses());
+
+        String esperado = render(new Parser(new Lexer(CODIGO).scan()).parseProgram());
+        assertEquals(esperado, render(primeira));
+        assertEquals(esperado, render(segunda));
+
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(segunda);
+        assertEquals(7.5, interpreter.getMemory().get("x"));
+    }
+
+    @Test
+    void testCargaDoCacheTemAMesmaRepresentacao() throws IOException {
+        // Programa pequeno: grafo de ASTNode tanto na compilação quanto na leitura do .mprc
+        Node fria = new ProgramCache(dir).load(fonte);
+        Node quente = new ProgramCache(dir).load(fonte);
+        assertInstanceOf(ASTNode.class, fria);
+        assertEquals(fria.getClass(), quente.getClass());
+        assertEquals(render(fria), render(quente));
+        assertEquals(fria.getChildren().get(0).getChildren().get(0).getLine(),
+                quente.getChildren().get(0).getChildren().get(0).getLine());
+    }
+
+    @Test
+    void testFonteAlteradoInvalidaCache() throws IOException {
+        ProgramCache cache = new ProgramCache(dir);
+        cache.load(fonte);
+        Files.writeString(fonte, CODIGO.replace("1.5", "2"));
+        Node alterado = cache.load(fonte);
+
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, arquivosMprc().size());
+        Interpreter interpreter = new Interpreter();
+        interpreter.execute(alterado);
+        assertEquals(10.0, interpreter.getMemory().get("x"));
+    }
+
+    @Test
+    void testArquivoCorrompidoOuDeOutraVersaoEhRecompilado() throws IOException {
+        ProgramCache cache = new ProgramCache(dir);
+        cache.load(fonte);
+        Path mprc = arquivosMprc().get(0);
+
+        Files.write(mprc, new byte[] {0, 1, 2});
+        cache.load(fonte);
+        assertEquals(2, cache.getMisses());
+
+        // Cabeçalho válido com versão de formato diferente
+        byte[] bytes = Files.readAllBytes(mprc);
+        int versao = 2 + 64 + 4; // writeUTF(hash) + MAGIC
+        bytes[versao + 3]++;
+        Files.write(mprc, bytes);
+        cache.load(fonte);
+        assertEquals(3, cache.getMisses());
+
+        cache.load(fonte);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testProgramaComErroNaoEhGravado() throws IOException {
+        Files.writeString(fonte, """
+            programa_minipar
+            SEQ
+            y = z + 1
+            """);
+        ProgramCache cache = new ProgramCache(dir);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> cache.load(fonte));
+        assertTrue(e.getMessage().contains("z"));
+        assertTrue(arquivosMprc().isEmpty());
+    }
+
+    @Test
+    void testFonteGrandePassaPeloLexerParalelo() throws IOException {
+        StringBuilder codigo = new StringBuilder("programa_minipar\nSEQ\nx = 0\n");
+        while (codigo.length() < Lexer.PARALLEL_THRESHOLD) codigo.append("x = x + 1 # conta\n");
+        codigo.append("y = x * 2\n");
+        Files.writeString(fonte, codigo);
+
+        Node programa = new ProgramCache(dir).load(fonte);
+        String esperado = render(new Parser(new Lexer(codigo).scan()).parseProgram());
+        assertEquals(esperado, render(programa));
+    }
+}
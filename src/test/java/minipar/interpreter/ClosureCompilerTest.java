@@ -0,0 +1,287 @@
+package minipar.interpreter;
+
+import minipar.cache.ModuleRegistry;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.Resolver;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClosureCompilerTest {
+
+    private ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    // Percurso da árvore explícito, independente de -Dminipar.closures
+    private Interpreter arvore() {
+        return new Interpreter(ModuleRegistry.shared(), false);
+    }
+
+    private Interpreter closures() {
+        return new Interpreter(ModuleRegistry.shared(), true);
+    }
+
+    private String executar(Interpreter interpreter, String code, Map<String, Object> memoria) {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            interpreter.execute(parse(code));
+        } finally {
+            System.setOut(originalOut);
+        }
+        memoria.putAll(interpreter.getMemory());
+        return out.toString();
+    }
+
+    private void assertMesmoResultado(String code) {
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaArvore = executar(arvore(), code, esperado);
+        String saidaClosures = executar(closures(), code, obtido);
+        assertEquals(saidaArvore, saidaClosures);
+        assertEquals(esperado, obtido);
+    }
+
+    private String erro(Interpreter interpreter, String code) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            return assertThrows(RuntimeException.class, () -> interpreter.execute(parse(code))).getMessage();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    private void assertMesmoErro(String code) {
+        assertEquals(erro(arvore(), code), erro(closures(), code));
+    }
+
+    @Test
+    void testMotorSelecionado() {
+        assertTrue(closures().usesClosures());
+        assertFalse(arvore().usesClosures());
+        assertTrue(((Interpreter) Engine.create("closure")).usesClosures());
+    }
+
+    @Test
+    void testExpressoesLacosEFuncoes() {
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            base = 10
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma(v) {
+                total = base
+                for i = 1 to v {
+                    total = total + i / (i - 2) + 2 ^ 2
+                }
+                return total
+            }
+            def primeiroMaior(limite) {
+                k = 0
+                while k < 100 {
+                    if k > limite {
+                        return k
+                    } else {
+                        k = k + 1
+                    }
+                }
+                return 0
+            }
+            lista = [fib(10), 2, 3]
+            lista[1] = soma(5)
+            p = primeiroMaior(7)
+            x = "eco"
+            print("resultado:", lista, p, naoExiste, 1 / 0, (p >= 3) + (p != 8) - (p <= 1) * (p == 8))
+            """);
+    }
+
+    @Test
+    void testMesmosErros() {
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            x = f(1)
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            def f(a, b) {
+                return a + b
+            }
+            x = f(1)
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            lista = [1]
+            lista[3] = 2
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            x = 1
+            x[0] = 2
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            l = [1]
+            y = l + 1
+            """);
+    }
+
+    @Test
+    void testBlocosParalelos() {
+        // A ordem entre as threads e os nomes delas variam; compara as linhas normalizadas e ordenadas
+        String code = """
+            programa_minipar
+            SEQ
+            a = 1
+            PAR
+            SEQ
+            b = a + 1
+            print("ramo b", b)
+            SEQ
+            c = a + 2
+            print("ramo c", c)
+            """;
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        assertEquals(linhas(executar(arvore(), code, esperado)), linhas(executar(closures(), code, obtido)));
+        assertEquals(esperado, obtido);
+    }
+
+    private static List<String> linhas(String saida) {
+        List<String> linhas = new ArrayList<>(Arrays.asList(saida.replaceAll("Thread-\\d+", "Thread-N").split("\\R")));
+        linhas.sort(null);
+        return linhas;
+    }
+
+    @Test
+    void testBlocoTraduzidoUmaVez() {
+        // O corpo da função roda 20 vezes com a mesma tradução; o resultado não muda entre chamadas
+        Interpreter interpreter = closures();
+        Map<String, Object> memoria = new HashMap<>();
+        executar(interpreter, """
+            programa_minipar
+            SEQ
+            def dobro(v) {
+                return v * 2
+            }
+            total = 0
+            for i = 1 to 20 {
+                total = total + dobro(i)
+            }
+            """, memoria);
+        assertEquals(420.0, memoria.get("total"));
+        assertEquals(20, memoria.get("i"));
+        assertTrue(interpreter.getSymbolTable().isDeclared("total"));
+    }
+
+    @Test
+    void testLeituraPorIndiceComVersaoSemChecagem() {
+        // Laço dentro da lista (versão provada), laço que passa do fim (versão checada, mesmo erro),
+        // lista promovida para DoubleList no meio do laço e índice que não é a variável do for
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3, 4]
+            entradas = [0.5, 1.5, 2.5, 3.5]
+            def produto(a, n) {
+                locais = [1, 2, 3]
+                s = 0
+                for k = 0 to n {
+                    s = s + locais[k] * a + dobro(k)
+                }
+                return s
+            }
+            def dobro(v) {
+                return v * 2
+            }
+            soma = 0
+            for i = 0 to 3 {
+                soma = soma + pesos[i] * entradas[i]
+                pesos[i] = pesos[i] / 2
+                soma = soma + pesos[3 - i]
+            }
+            r = produto(2, 2)
+            print(soma, r, pesos[1])
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            l = [1, 2, 3]
+            s = 0
+            for i = 0 to 3 {
+                s = s + l[i]
+            }
+            """);
+        assertMesmoErro("""
+            programa_minipar
+            SEQ
+            l = [1, 2, 3]
+            s = 0
+            for i = 0 to 2 {
+                s = s + l[i]
+                l = 5
+            }
+            """);
+    }
+
+    @Test
+    void testListasProvadasNoFor() {
+        ASTNode ast = parse("""
+            programa_minipar
+            SEQ
+            a = [1, 2]
+            b = [3, 4]
+            c = [5, 6]
+            for i = 0 to 1 {
+                x = a[i] + b[i + 0] + c[i]
+                c = [7, 8]
+            }
+            for j = 0 to 1 {
+                y = a[j]
+                j = 0
+            }
+            def f(n) {
+                l = [1, 2]
+                for k = 0 to n {
+                    z = l[k] + a[k] + g(k)
+                }
+                return z
+            }
+            """);
+        new Resolver().resolve(ast);
+        List<ASTNode> stmts = ast.getChildren().get(0).getChildren();
+        int a = Resolver.slotOf(stmts.get(0).getChildren().get(0));
+        assertArrayEquals(new int[] {a}, ClosureCompiler.provable(stmts.get(3)));
+        assertArrayEquals(new int[0], ClosureCompiler.provable(stmts.get(4)));
+
+        ASTNode laco = stmts.get(5).getChildren().get(stmts.get(5).getChildren().size() - 1).getChildren().get(1);
+        int[] locais = ClosureCompiler.provable(laco);
+        assertEquals(1, locais.length); // só a lista local: a chamada pode reatribuir o global a
+        assertTrue(locais[0] != a);
+    }
+}
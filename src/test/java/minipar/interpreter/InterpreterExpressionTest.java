@@ -105,4 +105,34 @@ class InterpreterExpressionTest {
         Interpreter interpreter = interpretar(code);
         assertEquals(17.0, interpreter.getMemory().get("c"));
     }
+
+    @Test
+    void testInteirosExatosERestoDaDivisao() {
+        String code = """
+            programa_minipar
+            SEQ
+            grande = 9007199254740993 - 9007199254740992
+            potencia = 2 ^ 60 + 1 - 2 ^ 60
+            resto = 17 % 5
+            restoReal = 7.5 % 2
+            restoPorZero = 5 % 0
+            exata = 12 / 4
+            fracao = 7 / 2
+            pares = 0
+            for i = 1 to 10 {
+                if i % 2 == 0 {
+                    pares = pares + 1
+                }
+            }
+            """;
+        Interpreter interpreter = interpretar(code);
+        assertEquals(1.0, interpreter.getMemory().get("grande"));
+        assertEquals(1.0, interpreter.getMemory().get("potencia"));
+        assertEquals(2.0, interpreter.getMemory().get("resto"));
+        assertEquals(1.5, interpreter.getMemory().get("restoReal"));
+        assertEquals(0.0, interpreter.getMemory().get("restoPorZero"));
+        assertEquals(3.0, interpreter.getMemory().get("exata"));
+        assertEquals(3.5, interpreter.getMemory().get("fracao"));
+        assertEquals(5.0, interpreter.getMemory().get("pares"));
+    }
 }
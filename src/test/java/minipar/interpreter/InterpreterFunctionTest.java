@@ -121,4 +121,108 @@ class InterpreterFunctionTest {
         assertEquals(100.0, interpreter.getMemory().get("x")); // escopo externo preservado
         assertEquals(6.0, interpreter.getMemory().get("y"));
     }
+
+    @Test
+    void testRecursaoComFrames() {
+        String code = """
+            programa_minipar
+            SEQ
+            n = 99
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                a = fib(n - 1)
+                b = fib(n - 2)
+                return a + b
+            }
+
+            r = fib(15)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(610.0, interpreter.getMemory().get("r"));
+        assertEquals(99.0, interpreter.getMemory().get("n")); // parâmetro não vaza para o global
+        assertNull(interpreter.getMemory().get("a"));
+    }
+
+    @Test
+    void testLocalSemValorLeGlobal() {
+        String code = """
+            programa_minipar
+            SEQ
+            base = 10
+            def soma(v) {
+                if v > 100 {
+                    base = 0
+                }
+                return base + v
+            }
+
+            r = soma(5)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(15.0, interpreter.getMemory().get("r"));
+        assertEquals(10.0, interpreter.getMemory().get("base"));
+    }
+
+    @Test
+    void testReturnDentroDeLacoInterrompeFuncao() {
+        String code = """
+            programa_minipar
+            SEQ
+            def primeiroMaior(limite) {
+                i = 0
+                while i < 100 {
+                    if i > limite {
+                        return i
+                    }
+                    i = i + 1
+                }
+                return 0
+            }
+            def somaAte(n) {
+                s = 0
+                for k = 1 to 10 {
+                    if k > n {
+                        return s
+                    }
+                    s = s + k
+                }
+                return 99
+            }
+
+            a = primeiroMaior(7)
+            b = somaAte(3)
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(8.0, interpreter.getMemory().get("a"));
+        assertEquals(6.0, interpreter.getMemory().get("b"));
+    }
+
+    @Test
+    void testRedefinicaoInvalidaCacheDaChamada() {
+        // A mesma chamada roda antes e depois do def que troca a função
+        String code = """
+            programa_minipar
+            SEQ
+            def valor(x) {
+                return x
+            }
+            total = 0
+            for i = 1 to 4 {
+                total = total + valor(i)
+                if i == 2 {
+                    def valor(x) {
+                        return x * 10
+                    }
+                }
+            }
+            """;
+
+        Interpreter interpreter = interpretar(code);
+        assertEquals(73.0, interpreter.getMemory().get("total")); // 1 + 2 + 30 + 40
+    }
 }
@@ -1,14 +1,19 @@
 package minipar.interpreter;
 
+import minipar.cache.ModuleRegistry;
+import minipar.cache.ProgramCache;
 import minipar.lexer.Lexer;
 import minipar.lexer.Token;
 import minipar.parser.ASTNode;
+import minipar.parser.Node;
 import minipar.parser.Parser;
 import minipar.semantic.SemanticAnalyzer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -54,6 +59,45 @@ public class InterpreterImportTest {
         assertEquals(13.0, interpreter.getMemory().get("x"));
     }
 
+    @Test
+    void testModuloCompartilhadoResolvidoPorPrograma() throws IOException {
+        // Programas com variáveis diferentes antes do import: cada um numera o módulo na sua cópia
+        Path modulo = Files.createTempFile("compartilhado", ".mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            def dobro(v) {
+                return v * 2
+            }
+            k = dobro(21)
+            """);
+        String caminho = modulo.toAbsolutePath().toString().replace("\\", "\\\\");
+
+        Interpreter primeiro = interpretar("""
+            programa_minipar
+            SEQ
+            a = 1
+            b = 2
+            import "%s"
+            x = k + a
+            """.formatted(caminho));
+        Interpreter segundo = interpretar("""
+            programa_minipar
+            SEQ
+            import "%s"
+            y = dobro(k)
+            """.formatted(caminho));
+
+        assertEquals(43.0, primeiro.getMemory().get("x"));
+        assertEquals(84.0, segundo.getMemory().get("y"));
+        assertEquals(42.0, segundo.getMemory().get("k"));
+        assertEquals(-1, segundo.getResolver().findSlot("a"));
+
+        // A árvore do registro continua sem anotação
+        Node registrada = ModuleRegistry.shared().load(ModuleRegistry.canonical(modulo.toString()));
+        assertEquals(-1, registrada.getChildren().get(0).getChildren().get(1).getChildren().get(0).getSlot());
+    }
+
     @Test
     void testErroArquivoImportInexistente() {
         String codigo = """
@@ -84,4 +128,66 @@ public class InterpreterImportTest {
         RuntimeException e = assertThrows(RuntimeException.class, () -> interpretar(codigo));
         Assertions.assertTrue(e.getMessage().contains("Erro sintatico"));
     }
+
+    private static String caminho(Path arquivo) {
+        return arquivo.toAbsolutePath().toString().replace("\\", "\\\\");
+    }
+
+    @Test
+    void testImportDentroDeLacoExecutaUmaVez() throws IOException {
+        Path modulo = Files.createTempFile("modulo", ".mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            print("carregado")
+            """);
+
+        String codigo = """
+            programa_minipar
+            SEQ
+            for i = 1 to 5 {
+                import "%s"
+            }
+            """.formatted(caminho(modulo));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(out));
+        ModuleRegistry registry = new ModuleRegistry(4, new ProgramCache(Files.createTempDirectory("mprc")));
+        try {
+            Interpreter interpreter = new Interpreter(registry);
+            interpreter.execute(new Parser(new Lexer(codigo).scan()).parseProgram());
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals(1, out.toString().split("carregado", -1).length - 1);
+        assertEquals(1, registry.getLoads());
+    }
+
+    @Test
+    void testImportCiclicoEhDetectado() throws IOException {
+        Path a = Files.createTempFile("ciclo_a", ".mpr");
+        Path b = Files.createTempFile("ciclo_b", ".mpr");
+        Files.writeString(a, """
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(caminho(b)));
+        Files.writeString(b, """
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(caminho(a)));
+
+        String codigo = """
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(caminho(a));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> interpretar(codigo));
+        Assertions.assertTrue(e.getMessage().contains("Importação cíclica"));
+        Assertions.assertTrue(e.getMessage().contains(a.getFileName() + " -> " + b.getFileName() + " -> " + a.getFileName()));
+    }
 }
@@ -103,7 +103,7 @@ public class InterpreterListTest {
             y = x[5]
             """;
         RuntimeException  e = assertThrows(RuntimeException.class, () -> interpretar(codigo));
-        assertTrue(e.getMessage().contains("Expressão inválida: Indexacao"));
+        assertTrue(e.getMessage().contains("Índice fora dos limites da lista"));
     }
 
     @Test
@@ -117,4 +117,90 @@ public class InterpreterListTest {
         RuntimeException e = assertThrows(RuntimeException.class, () -> interpretar(codigo));
         assertTrue(e.getMessage().toLowerCase().contains("índice fora dos limites"));
     }
+
+    @Test
+    public void testListaDeInteirosViraDoubleAoReceberReal() {
+        String codigo = """
+            programa_minipar
+            SEQ
+            inteiros = [1, 2, 9007199254740993]
+            reais = [1, 2.5, 3]
+            vazia = []
+            misto = [4, 5, 6]
+            misto[0] = 7
+            misto[1] = 0.5
+            """;
+        interpretar(codigo);
+
+        LongList inteiros = assertInstanceOf(LongList.class, interpreter.getMemory().get("inteiros"));
+        assertEquals(9007199254740993L, inteiros.getLong(2));
+        assertEquals(List.of(1.0, 2.0, 9007199254740992.0), inteiros);
+        assertInstanceOf(DoubleList.class, interpreter.getMemory().get("reais"));
+        assertEquals(List.of(1.0, 2.5, 3.0), interpreter.getMemory().get("reais"));
+        assertEquals(List.of(), interpreter.getMemory().get("vazia"));
+
+        Object misto = interpreter.getMemory().get("misto");
+        assertInstanceOf(DoubleList.class, misto);
+        assertEquals(List.of(7.0, 0.5, 6.0), misto);
+        assertEquals("[7.0, 0.5, 6.0]", misto.toString());
+    }
+
+    @Test
+    public void testListaGrandeCresceSemCaixas() {
+        DoubleList reais = new DoubleList(0);
+        LongList inteiros = new LongList(0);
+        for (int i = 0; i < 100_000; i++) {
+            reais.add(i * 0.5);
+            inteiros.add(i);
+        }
+        assertEquals(100_000, reais.size());
+        assertEquals(49_999.5, reais.getDouble(99_999));
+        assertEquals(99_999L, inteiros.getLong(99_999));
+
+        NumberList promovida = inteiros.store(3, -0.0);
+        assertInstanceOf(DoubleList.class, promovida);
+        assertEquals("-0.0", String.valueOf(promovida.getDouble(3)));
+        assertEquals(99_999.0, promovida.getDouble(99_999));
+        assertSame(inteiros, inteiros.store(4, 8.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> reais.getDouble(100_000));
+    }
+
+    @Test
+    public void testLeituraPorIndice() {
+        String codigo = """
+            programa_minipar
+            SEQ
+            pesos = [2, 3, 0.5]
+            inteiros = [1, 2, 9007199254740993]
+            soma = 0
+            for i = 0 to 2 {
+                soma = soma + pesos[i] * 2
+            }
+            exato = inteiros[2] - inteiros[1] * 4503599627370496
+            misto = pesos[1 + 1] + inteiros[0]
+            """;
+        interpretar(codigo);
+        assertEquals(11.0, interpreter.getMemory().get("soma"));
+        assertEquals(1.0, interpreter.getMemory().get("exato"));
+        assertEquals(1.5, interpreter.getMemory().get("misto"));
+    }
+
+    @Test
+    public void testErrosDeLeituraPorIndice() {
+        RuntimeException negativo = assertThrows(RuntimeException.class, () -> interpretar("""
+            programa_minipar
+            SEQ
+            x = [1, 2, 3]
+            y = x[0 - 1]
+            """));
+        assertEquals("Índice fora dos limites da lista", negativo.getMessage());
+
+        RuntimeException numero = assertThrows(RuntimeException.class, () -> interpretar("""
+            programa_minipar
+            SEQ
+            x = 1
+            y = x[0]
+            """));
+        assertEquals("Variável 'x' não é uma lista", numero.getMessage());
+    }
 }
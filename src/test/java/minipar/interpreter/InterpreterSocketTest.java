@@ -1,5 +1,6 @@
 package minipar.interpreter;
 
+import minipar.cache.ModuleRegistry;
 import minipar.lexer.*;
 import minipar.parser.*;
 import minipar.semantic.SemanticAnalyzer;
@@ -48,4 +49,33 @@ class InterpreterSocketTest {
         assertEquals(99.0, mem.get("resultado"));
     }
 
+    @Test
+    void testReceiveGuardaInteiroEmLong() {
+        String codigo = """
+        programa_minipar
+        SEQ
+        c_channel canal1 pc1 pc2
+        PAR
+        SEQ
+        canal1.send(9007199254740993)
+        canal1.send(2.5)
+        SEQ
+        canal1.receive(inteiro)
+        canal1.receive(real)
+        diferenca = inteiro - 9007199254740992
+        """;
+
+        for (boolean closures : new boolean[]{false, true}) {
+            ASTNode ast = gerarAST(codigo);
+            new SemanticAnalyzer().analyze(ast);
+            Interpreter interpreter = new Interpreter(ModuleRegistry.shared(), closures);
+            interpreter.execute(ast);
+            // Em double, o 9007199254740993 recebido viraria 9007199254740992
+            assertEquals(1.0, interpreter.getMemory().get("diferenca"));
+            assertEquals(2.5, interpreter.getMemory().get("real"));
+            assertEquals("int", interpreter.getSymbolTable().getType("inteiro"));
+            assertEquals("float", interpreter.getSymbolTable().getType("real"));
+        }
+    }
+
 }
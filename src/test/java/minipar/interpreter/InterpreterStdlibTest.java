@@ -0,0 +1,298 @@
+package minipar.interpreter;
+
+import minipar.cache.ModuleRegistry;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InterpreterStdlibTest {
+
+    private ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private Map<String, Object> executar(boolean closures, String code) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            Interpreter interpreter = new Interpreter(ModuleRegistry.shared(), closures);
+            interpreter.execute(parse(code));
+            return new HashMap<>(interpreter.getMemory());
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    // Mesma memória no percurso da árvore e no motor de closures; devolve a da árvore
+    private Map<String, Object> assertMesmoResultado(String code) {
+        Map<String, Object> arvore = executar(false, code);
+        assertEquals(arvore, executar(true, code));
+        return arvore;
+    }
+
+    private void assertErro(String esperado, String code) {
+        for (boolean closures : new boolean[]{false, true}) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> executar(closures, code));
+            assertEquals(esperado, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNativasDeLista() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3, 4]
+            entradas = [0.5, 1, 1.5, 2]
+            s = soma(pesos)
+            d = dot(pesos, entradas)
+            maior = max(entradas)
+            menor = min([3, -2, 7])
+            c = add(pesos, entradas)
+            e = scale(pesos, 0.5)
+            t = soma(add(pesos, scale(pesos, 2)))
+            """);
+        assertEquals(10.0, memoria.get("s"));
+        assertEquals(15.0, memoria.get("d"));
+        assertEquals(2.0, memoria.get("maior"));
+        assertEquals(-2.0, memoria.get("menor"));
+        assertEquals(List.of(1.5, 3.0, 4.5, 6.0), memoria.get("c"));
+        assertEquals(List.of(0.5, 1.0, 1.5, 2.0), memoria.get("e"));
+        assertEquals(30.0, memoria.get("t"));
+    }
+
+    @Test
+    public void testNativaIgualAoLacoEquivalente() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            a = [3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9, 3, 2, 3, 8]
+            b = [2, 7, 1, 8, 2, 8, 1, 8, 2, 8, 4, 5, 9, 0, 4, 5, 2, 3, 5]
+            laco = 0
+            for i = 0 to 18 {
+                laco = laco + a[i] * b[i]
+            }
+            nativa = dot(a, b)
+            """);
+        assertEquals(memoria.get("laco"), memoria.get("nativa"));
+    }
+
+    @Test
+    public void testDefComMesmoNomeTemPrecedencia() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            l = [1, 2]
+            antes = soma(l)
+            def soma(a) {
+                return 42
+            }
+            depois = soma(1)
+            """);
+        assertEquals(3.0, memoria.get("antes"));
+        assertEquals(42.0, memoria.get("depois"));
+    }
+
+    @Test
+    public void testNativaDeListaDentroDeFuncao() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [2, 4]
+            def media(k) {
+                escalados = scale(pesos, k)
+                return soma(escalados) / 2
+            }
+            m = media(3)
+            """);
+        assertEquals(9.0, memoria.get("m"));
+    }
+
+    @Test
+    public void testErrosDasNativas() {
+        assertErro("Argumento de soma não é uma lista", """
+            programa_minipar
+            SEQ
+            x = soma(1 + 2)
+            """);
+        assertErro("Variável 'n' não é uma lista", """
+            programa_minipar
+            SEQ
+            n = 3
+            x = max(n)
+            """);
+        assertErro("Listas de tamanhos diferentes em dot", """
+            programa_minipar
+            SEQ
+            x = dot([1, 2], [1, 2, 3])
+            """);
+        assertErro("Lista vazia em max", """
+            programa_minipar
+            SEQ
+            x = max([])
+            """);
+        assertErro("Número de argumentos inválido para função scale", """
+            programa_minipar
+            SEQ
+            x = scale([1, 2])
+            """);
+        assertErro("Argumento de add não é uma lista", """
+            programa_minipar
+            SEQ
+            x = add([1], soma([1]))
+            """);
+    }
+
+    @Test
+    public void testNativasMatematicas() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            r = sqrt(16)
+            a = abs(0 - 2.5)
+            p = floor(2.7)
+            t = ceil(2.1)
+            m = round(2.5)
+            n = round(0 - 2.5)
+            e = pow(2, 10)
+            h = sqrt(pow(3, 2) + pow(4, 2))
+            """);
+        assertEquals(4.0, memoria.get("r"));
+        assertEquals(2.5, memoria.get("a"));
+        assertEquals(2.0, memoria.get("p"));
+        assertEquals(3.0, memoria.get("t"));
+        assertEquals(3.0, memoria.get("m"));
+        assertEquals(-2.0, memoria.get("n"));
+        assertEquals(1024.0, memoria.get("e"));
+        assertEquals(5.0, memoria.get("h"));
+    }
+
+    @Test
+    public void testNativaMatematicaDentroDeFuncao() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def hipotenusa(x, y) {
+                return sqrt(x * x + y * y)
+            }
+            total = 0
+            for i = 1 to 3 {
+                total = total + hipotenusa(3 * i, 4 * i)
+            }
+            """);
+        assertEquals(30.0, memoria.get("total"));
+    }
+
+    @Test
+    public void testLenAppendESlice() {
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            l = [1, 2, 3]
+            l = append(l, 4)
+            n = len(l)
+            meio = slice(l, 1, 3)
+            d = append(l, 0.5)
+            vazia = slice(l, 2, 2)
+            """);
+        LongList l = assertInstanceOf(LongList.class, memoria.get("l"));
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), l);
+        assertEquals(4.0, memoria.get("n"));
+        assertInstanceOf(LongList.class, memoria.get("meio"));
+        assertEquals(List.of(2.0, 3.0), memoria.get("meio"));
+        assertInstanceOf(DoubleList.class, memoria.get("d"));
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0, 0.5), memoria.get("d"));
+        assertEquals(List.of(), memoria.get("vazia"));
+    }
+
+    @Test
+    public void testTempoCresce() {
+        // O relógio muda entre as execuções: confere cada motor separado
+        for (boolean closures : new boolean[]{false, true}) {
+            Map<String, Object> memoria = executar(closures, """
+                programa_minipar
+                SEQ
+                inicio = tempo()
+                x = 0
+                for i = 1 to 1000 {
+                    x = x + i
+                }
+                decorrido = tempo() - inicio
+                """);
+            assertEquals(500500.0, memoria.get("x"));
+            assertTrue((Double) memoria.get("decorrido") >= 0);
+        }
+    }
+
+    @Test
+    public void testErrosDeSlice() {
+        assertErro("Índice fora dos limites da lista", """
+            programa_minipar
+            SEQ
+            l = [1, 2, 3]
+            x = slice(l, 1, 4)
+            """);
+        assertErro("Índice fora dos limites da lista", """
+            programa_minipar
+            SEQ
+            l = [1, 2, 3]
+            x = slice(l, 2, 1)
+            """);
+    }
+
+    @Test
+    public void testDefImportadoEscondeNativa() throws IOException {
+        Path modulo = Files.createTempFile("nativa", ".mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            def sqrt(x) {
+                return 7
+            }
+            """);
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            a = sqrt(4)
+            import "%s"
+            b = sqrt(4)
+            """.formatted(modulo.toAbsolutePath().toString().replace("\\", "\\\\")));
+        assertEquals(2.0, memoria.get("a"));
+        assertEquals(7.0, memoria.get("b"));
+    }
+
+    @Test
+    public void testDefDoProgramaEscondeNativaDoModulo() throws IOException {
+        // O módulo é ligado depois do def já registrado: a chamada dele também vai para o def
+        Path modulo = Files.createTempFile("nativa", ".mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            m = sqrt(4)
+            """);
+        Map<String, Object> memoria = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def sqrt(x) {
+                return 7
+            }
+            import "%s"
+            """.formatted(modulo.toAbsolutePath().toString().replace("\\", "\\\\")));
+        assertEquals(7.0, memoria.get("m"));
+    }
+}
@@ -0,0 +1,165 @@
+package minipar.interpreter;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.ClosureCompiler.Expression;
+import minipar.interpreter.SpecializingNodes.Arithmetic;
+import minipar.interpreter.SpecializingNodes.Read;
+import minipar.interpreter.SpecializingNodes.State;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Operator;
+import minipar.parser.Parser;
+import minipar.semantic.Resolver;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecializingNodesTest {
+
+    private final Resolver resolver = new Resolver();
+    private final Memory memory = new Memory(resolver);
+    private final Frame frame = new Frame(memory);
+
+    private Read variavel(String nome, Object valor) {
+        int slot = resolver.slotOf(nome);
+        memory.set(slot, valor);
+        return new Read(slot, nome);
+    }
+
+    @Test
+    void testSomaDeInteirosFicaEmLong() {
+        Read x = variavel("espX", 40L);
+        Arithmetic soma = new Arithmetic(Operator.ADD, x, SpecializingNodes.constant(2));
+        assertEquals(State.UNINITIALIZED, soma.state());
+        assertEquals(42.0, soma.evaluate(frame));
+        assertEquals(State.LONG, soma.state());
+
+        // Variável de for (Integer) também entra no caminho inteiro
+        Arithmetic dobro = new Arithmetic(Operator.MUL, variavel("espI", 7), SpecializingNodes.constant(2));
+        assertEquals(14.0, dobro.evaluate(frame));
+        assertEquals(State.LONG, dobro.state());
+    }
+
+    @Test
+    void testGuardaFalhaEVoltaParaDouble() throws Exception {
+        Read x = variavel("espY", 3L);
+        Arithmetic soma = new Arithmetic(Operator.ADD, x, SpecializingNodes.constant(1));
+        assertEquals(4, soma.evaluateLong(frame));
+        assertEquals(State.LONG, soma.state());
+
+        memory.set(resolver.slotOf("espY"), 2.5);
+        assertEquals(3.5, soma.evaluate(frame));
+        assertEquals(State.DOUBLE, soma.state());
+
+        // Depois de desotimizado continua em double, mesmo com inteiros
+        memory.set(resolver.slotOf("espY"), 9L);
+        assertEquals(10.0, soma.evaluate(frame));
+        assertEquals(State.DOUBLE, soma.state());
+    }
+
+    @Test
+    void testMesmoResultadoQueDouble() throws Exception {
+        // Fora da faixa exata do double (2^53) o long guarda o valor exato, que vira o mesmo double
+        // da conta em double; o -0.0 de 0 * negativo promove
+        long grande = 94906267;
+        Arithmetic quadrado = new Arithmetic(Operator.MUL, variavel("espG", grande), variavel("espG", grande));
+        assertEquals((double) grande * grande, quadrado.evaluate(frame));
+        assertEquals(9007199515875289L, quadrado.evaluateLong(frame));
+        assertEquals(State.LONG, quadrado.state());
+
+        Arithmetic real = new Arithmetic(Operator.MUL, variavel("espR", 94906267.0), SpecializingNodes.constant(1));
+        assertEquals(94906267.0, real.evaluate(frame));
+        assertEquals(State.DOUBLE, real.state());
+
+        Expression zero = SpecializingNodes.constant(0);
+        Arithmetic negativo = new Arithmetic(Operator.MUL, zero, SpecializingNodes.constant(-5));
+        assertEquals(-0.0, negativo.evaluate(frame));
+        assertEquals("-0.0", String.valueOf(negativo.evaluate(frame)));
+    }
+
+    @Test
+    void testValorDoubleNaoTentaOCaminhoInteiro() throws Exception {
+        Read x = variavel("espK", 5L);
+        Arithmetic soma = new Arithmetic(Operator.ADD, x, SpecializingNodes.constant(1));
+        assertTrue(soma.yieldsLong(frame));
+        assertTrue(SpecializingNodes.constant(1).yieldsLong(frame));
+        assertFalse(SpecializingNodes.constant(1.5).yieldsLong(frame));
+
+        // Depois da promoção o nó diz que sai double, e quem guarda o valor chama evaluate direto
+        memory.set(resolver.slotOf("espK"), 0.5);
+        assertFalse(x.yieldsLong(frame));
+        assertEquals(1.5, soma.evaluate(frame));
+        assertFalse(soma.yieldsLong(frame));
+        memory.set(resolver.slotOf("espK"), 5L);
+        assertFalse(soma.yieldsLong(frame));
+        assertEquals(6.0, soma.evaluate(frame));
+    }
+
+    @Test
+    void testLeituraInvalida() {
+        Read lista = variavel("espLista", List.of(1.0));
+        assertEquals("Valor da variável 'espLista' não é inteiro",
+                assertThrows(RuntimeException.class, () -> lista.evaluate(frame)).getMessage());
+        Read ausente = new Read(resolver.slotOf("espAusente"), "espAusente");
+        assertEquals("Variável não declarada: espAusente",
+                assertThrows(RuntimeException.class, () -> ausente.evaluateLong(frame)).getMessage());
+    }
+
+    @Test
+    void testProgramaComDesotimizacaoIgualAoPercursoDaArvore() {
+        String code = """
+            programa_minipar
+            SEQ
+            def acumula(passo) {
+                total = 0
+                for i = 1 to 10 {
+                    total = total + i * passo
+                }
+                return total
+            }
+            a = acumula(2)
+            b = acumula(0.5)
+            c = acumula(0 - 1) * 0
+            d = 94906267 * 94906267 - 1
+            e = 2 ^ 62 + 1 - 2 ^ 62
+            f = 1.0 * (d + 1 + 1)
+            pares = 0
+            for i = 1 to 20 {
+                pares = pares + (i % 2 == 0) + i % 0.5
+            }
+            print(a, b, c, d, e, pares, 7 / 2)
+            """;
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaArvore = executar(new Interpreter(ModuleRegistry.shared(), false), code, esperado);
+        String saidaClosures = executar(new Interpreter(ModuleRegistry.shared(), true), code, obtido);
+        assertEquals(saidaArvore, saidaClosures);
+        assertEquals(esperado, obtido);
+        assertEquals(-0.0, obtido.get("c"));
+        assertEquals(1.0, obtido.get("e"));
+        // A parte só de inteiros continua exata mesmo guardada num double
+        assertEquals(9007199515875290.0, obtido.get("f"));
+    }
+
+    private String executar(Interpreter interpreter, String code, Map<String, Object> memoria) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            interpreter.execute(ast);
+        } finally {
+            System.setOut(originalOut);
+        }
+        memoria.putAll(interpreter.getMemory());
+        return out.toString();
+    }
+}
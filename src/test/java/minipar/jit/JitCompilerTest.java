@@ -0,0 +1,304 @@
+package minipar.jit;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitCompilerTest {
+
+    @BeforeEach
+    void limiarBaixo() {
+        System.setProperty(JitCompiler.THRESHOLD_PROPERTY, "2");
+    }
+
+    @AfterEach
+    void restaurar() {
+        System.clearProperty(JitCompiler.THRESHOLD_PROPERTY);
+        System.clearProperty(JitCompiler.PROPERTY);
+    }
+
+    private Interpreter executar(String code, ByteArrayOutputStream out) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(out));
+        try {
+            Interpreter interpreter = new Interpreter();
+            interpreter.execute(ast);
+            return interpreter;
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    // Roda com e sem JIT e confere que saída e memória final são as mesmas; devolve a execução com JIT
+    private Interpreter assertMesmoResultado(String code) {
+        ByteArrayOutputStream saidaJit = new ByteArrayOutputStream();
+        Interpreter comJit = executar(code, saidaJit);
+
+        System.setProperty(JitCompiler.PROPERTY, "false");
+        ByteArrayOutputStream saidaInterpretada = new ByteArrayOutputStream();
+        Interpreter interpretado = executar(code, saidaInterpretada);
+        System.clearProperty(JitCompiler.PROPERTY);
+
+        assertEquals(saidaInterpretada.toString(), saidaJit.toString());
+        assertEquals(new HashMap<>(interpretado.getMemory()), new HashMap<String, Object>(comJit.getMemory()));
+        return comJit;
+    }
+
+    @Test
+    void testRecursaoCompilada() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            r = fib(15)
+            """);
+        assertEquals(610.0, interpreter.getMemory().get("r"));
+        assertTrue(interpreter.getFunction("fib").profile().isCompiled());
+    }
+
+    @Test
+    void testOperadoresLacosELocais() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            base = 10
+            def calcula(v, d) {
+                if v > 100 {
+                    base = 0
+                }
+                total = base * d / 2
+                for i = 1 to v {
+                    total = total + i / (i - d) + d ^ 2 + i % (d + 1) - i % (d - d)
+                }
+                j = d - d
+                while j < 3 {
+                    total = total + (j == 1) + (j != 1) * 10 + (j >= 2) - (j <= 0)
+                    j = j + 1
+                }
+                return total
+            }
+            a = calcula(1, 2)
+            b = calcula(5, 2)
+            c = calcula(8, 2)
+            """);
+        assertTrue(interpreter.getFunction("calcula").profile().isCompiled());
+        assertEquals(10.0, interpreter.getMemory().get("base"));
+    }
+
+    @Test
+    void testContaEntreInteirosFicaInterpretada() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def grande(k) {
+                x = 9007199254740993
+                y = x - 9007199254740992
+                return y + k
+            }
+            def escala(k) {
+                t = k * 2
+                return t + 1
+            }
+            a = grande(1)
+            b = grande(2)
+            c = grande(3)
+            d = escala(1) + escala(2) + escala(3)
+            """);
+        // Em double, x - 9007199254740992 daria 0; a função fica no interpretador, que faz a conta em long
+        assertTrue(interpreter.getFunction("grande").profile().isRejected());
+        assertEquals(4.0, interpreter.getMemory().get("c"));
+        // t recebe parâmetro * inteiro, que é double também no interpretador
+        assertTrue(interpreter.getFunction("escala").profile().isCompiled());
+        assertEquals(15.0, interpreter.getMemory().get("d"));
+    }
+
+    @Test
+    void testInteiroExatoDepoisDoLimiarPadrao() {
+        System.clearProperty(JitCompiler.THRESHOLD_PROPERTY);
+        String code = """
+            programa_minipar
+            SEQ
+            def grande(k) {
+                x = 9007199254740993
+                return x - 9007199254740992 + k
+            }
+            erros = 0
+            for i = 1 to 1500 {
+                if grande(i) != i + 1 {
+                    erros = erros + 1
+                }
+            }
+            """;
+        for (boolean closures : new boolean[]{false, true}) {
+            ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+            new SemanticAnalyzer().analyze(ast);
+            Interpreter interpreter = new Interpreter(ModuleRegistry.shared(), closures);
+            interpreter.execute(ast);
+            // 1500 chamadas passam do limiar de 1000; em double, x - 9007199254740992 daria 0
+            assertEquals(0.0, interpreter.getMemory().get("erros"));
+            assertTrue(interpreter.getFunction("grande").profile().isRejected());
+        }
+    }
+
+    @Test
+    void testCompiladaChamaInterpretadaEViceVersa() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def mostra(v) {
+                print("valor", v)
+                return dobro(v) + 1
+            }
+            def dobro(v) {
+                return v * 2
+            }
+            def passo(v) {
+                return mostra(v) + dobro(v)
+            }
+            x = passo(1)
+            y = passo(2)
+            z = passo(3)
+            """);
+        assertTrue(interpreter.getFunction("mostra").profile().isRejected()); // print não é compilado
+        assertTrue(interpreter.getFunction("dobro").profile().isCompiled());
+        assertTrue(interpreter.getFunction("passo").profile().isCompiled());
+        assertEquals(13.0, interpreter.getMemory().get("z"));
+    }
+
+    @Test
+    void testNativaDeListaFicaInterpretada() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3]
+            def total(k) {
+                return soma(pesos) * k
+            }
+            a = total(1)
+            b = total(2)
+            c = total(3)
+            """);
+        assertTrue(interpreter.getFunction("total").profile().isRejected());
+        assertEquals(18.0, interpreter.getMemory().get("c"));
+    }
+
+    @Test
+    void testNativaMatematicaECompilada() {
+        Interpreter interpreter = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def norma(x, y) {
+                return sqrt(pow(x, 2) + y * y) + abs(x - y)
+            }
+            a = norma(3, 4)
+            b = norma(6, 8)
+            c = norma(9, 12)
+            """);
+        assertTrue(interpreter.getFunction("norma").profile().isCompiled());
+        assertEquals(18.0, interpreter.getMemory().get("c"));
+    }
+
+    @Test
+    void testVoltasDeLacoContam() {
+        System.setProperty(JitCompiler.THRESHOLD_PROPERTY, "40");
+        Interpreter interpreter = executar("""
+            programa_minipar
+            SEQ
+            def soma(n) {
+                s = 0
+                k = 0
+                while k < n {
+                    s = s + k
+                    k = k + 1
+                }
+                return s
+            }
+            a = soma(50)
+            """, new ByteArrayOutputStream());
+        Profile profile = interpreter.getFunction("soma").profile();
+        assertEquals(1, profile.getInvocations());
+        assertEquals(50, profile.getBackEdges());
+        assertFalse(profile.isCompiled());
+    }
+
+    @Test
+    void testChaveDesligaOJit() {
+        System.setProperty(JitCompiler.PROPERTY, "false");
+        Interpreter interpreter = executar("""
+            programa_minipar
+            SEQ
+            def um() {
+                return 1
+            }
+            a = um() + um() + um()
+            """, new ByteArrayOutputStream());
+        assertFalse(interpreter.getFunction("um").profile().isCompiled());
+        assertEquals(3.0, interpreter.getMemory().get("a"));
+    }
+
+    @Test
+    void testErroDeGlobalNoCodigoCompilado() {
+        String code = """
+            programa_minipar
+            SEQ
+            def le(v) {
+                if v > 2 {
+                    return naoExiste
+                }
+                return v
+            }
+            a = le(1)
+            b = le(2)
+            c = le(3)
+            """;
+        RuntimeException e = assertThrows(RuntimeException.class, () -> executar(code, new ByteArrayOutputStream()));
+        assertEquals("Variável não declarada: naoExiste", e.getMessage());
+    }
+
+    @Test
+    void testCompilacaoDireta() throws Throwable {
+        Interpreter interpreter = executar("""
+            programa_minipar
+            SEQ
+            def f(a, b) {
+                c = a * b
+                return c - g
+            }
+            """, new ByteArrayOutputStream());
+
+        // Contexto mínimo: o global g vale 1 e não há outras funções
+        JitContext contexto = new JitContext() {
+            public double global(int slot) {
+                return 1;
+            }
+
+            public double call(String name, double[] args) {
+                throw new AssertionError(name);
+            }
+
+            public void trace(String blockType) {
+            }
+        };
+        double r = (double) JitCompiler.compile(interpreter.getFunction("f")).invokeExact(contexto, new double[]{3, 4});
+        assertEquals(11.0, r, 0.0);
+    }
+}
@@ -1,7 +1,17 @@
 package minipar.lexer;
 
+import minipar.bench.Programs;
+import minipar.bench.RegexLexer;
 import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.jupiter.api.Assertions.*;
@@ -67,4 +77,97 @@ class LexerTest {
         Exception exception = assertThrows(RuntimeException.class, lexer::tokenize);
         assertTrue(exception.getMessage().contains("Token inválido"));
     }
+
+    @Test
+    void testScannerEquivalenteAoLexerRegex() throws IOException {
+        List<String> fontes = new ArrayList<>(List.of(
+                "",
+                "\n\n",
+                "x = 1\n\n\n",
+                "\nx=y-1",
+                "a = -2.5.3 + b.send(1.)",
+                "print(\"oi # não é comentário\", x) # comentário",
+                "if a<=b{c=a^2}else{c=a!=b}\r\n",
+                "resto = n%2 + 7 % -3",
+                "\tSEQ  PAR\u000Bprograma_minipar c_channel to toX _x1",
+                Programs.generate(50)
+        ));
+        try (Stream<Path> arquivos = Files.list(Path.of("programs"))) {
+            for (Path arquivo : arquivos.toList()) fontes.add(Files.readString(arquivo));
+        }
+
+        for (String fonte : fontes) {
+            List<Token> esperado = new RegexLexer(fonte).tokenize();
+            List<Token> obtido = new Lexer(fonte).tokenize();
+            assertEquals(esperado.toString(), obtido.toString());
+        }
+    }
+
+    @Test
+    void testTokenInvalidoMesmaMensagemDoLexerRegex() {
+        for (String fonte : List.of("x = 1 ! 2", "y = \"sem fim", "z = 3 @ 4")) {
+            RuntimeException esperado = assertThrows(RuntimeException.class, () -> new RegexLexer(fonte).tokenize());
+            RuntimeException obtido = assertThrows(RuntimeException.class, () -> new Lexer(fonte).tokenize());
+            assertEquals(esperado.getMessage(), obtido.getMessage());
+        }
+    }
+
+    @Test
+    void testRelexIgualAAnaliseCompleta() {
+        String fonte = Programs.generate(40);
+        TokenBuffer tokens = new Lexer(fonte).scan();
+        Random random = new Random(42);
+        String[] trechos = {"", "x", " = 1", "\n", "\n\n# novo\n", "print(\"a b\")", "while y < 2 {\n", "-3.5", "}\n"};
+
+        for (int i = 0; i < 300; i++) {
+            int offset = random.nextInt(fonte.length() + 1);
+            int removidos = Math.min(random.nextInt(12), fonte.length() - offset);
+            String inserido = trechos[random.nextInt(trechos.length)];
+            String novaFonte = fonte.substring(0, offset) + inserido + fonte.substring(offset + removidos);
+
+            List<Token> esperado;
+            try {
+                esperado = new Lexer(novaFonte).tokenize();
+            } catch (RuntimeException e) {
+                continue; // edição gerou token inválido; a análise completa também falharia
+            }
+            tokens = Lexer.relex(tokens, offset, removidos, inserido);
+            fonte = novaFonte;
+            assertEquals(esperado.toString(), tokens.toTokens().toString());
+        }
+    }
+
+    @Test
+    void testRelexNoInicioENoFimDoTexto() {
+        TokenBuffer tokens = new Lexer("x = 1\n").scan();
+        tokens = Lexer.relex(tokens, 0, 0, "programa_minipar\nSEQ\n");
+        tokens = Lexer.relex(tokens, tokens.getSource().length(), 0, "y = x\n\n");
+        tokens = Lexer.relex(tokens, 0, 0, "");
+
+        String fonte = "programa_minipar\nSEQ\nx = 1\ny = x\n\n";
+        assertEquals(fonte, tokens.getSource().toString());
+        assertEquals(new Lexer(fonte).tokenize().toString(), tokens.toTokens().toString());
+
+        tokens = Lexer.relex(tokens, 0, fonte.length(), "");
+        assertEquals(new Lexer("").tokenize().toString(), tokens.toTokens().toString());
+    }
+
+    @Test
+    void testScanParaleloIgualAoSequencial() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (String fonte : List.of(Programs.generate(200), Programs.generate(200) + "\n\n\n", "x = 1\n\n\ny = 2", "")) {
+            String esperado = new Lexer(fonte).tokenize().toString();
+            assertEquals(esperado, new Lexer(fonte).scanParallel(pool, 0, 97).toTokens().toString());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testScanParaleloRelataPrimeiroErroComLinhaGlobal() {
+        String fonte = Programs.generate(100) + "x = @\n" + Programs.generate(100) + "y = $\n";
+        RuntimeException esperado = assertThrows(RuntimeException.class, () -> new Lexer(fonte).scan());
+        RuntimeException obtido = assertThrows(RuntimeException.class,
+                () -> new Lexer(fonte).scanParallel(ForkJoinPool.commonPool(), 0, 128));
+        assertEquals(esperado.getMessage(), obtido.getMessage());
+    }
 }
@@ -0,0 +1,69 @@
+package minipar.lexer;
+
+import minipar.bench.Programs;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBufferTest {
+
+    @Test
+    void testBufferGuardaOffsetsESimbolos() {
+        String code = "x = soma(10, \"oi\")\nif x >= 2 { }";
+        TokenBuffer buffer = new Lexer(code).scan();
+
+        assertEquals(TokenType.IDENTIFIER, buffer.type(0));
+        assertNull(buffer.symbol(0));
+        assertEquals(0, buffer.start(0));
+        assertEquals(1, buffer.end(0));
+
+        assertTrue(buffer.is(1, Symbol.ASSIGN));
+        assertTrue(buffer.is(3, Symbol.LPAREN));
+        assertEquals("10", buffer.text(4));
+        assertEquals("\"oi\"", buffer.text(6));
+
+        assertEquals(Symbol.IF, buffer.symbol(8));
+        assertEquals(2, buffer.line(8));
+        assertEquals(Symbol.GE, buffer.symbol(10));
+
+        int eof = buffer.size() - 1;
+        assertEquals(Symbol.EOF, buffer.symbol(eof));
+        assertEquals(code.length(), buffer.start(eof));
+    }
+
+    @Test
+    void testTextoDeSimboloNaoAlocaString() {
+        TokenBuffer buffer = new Lexer("a = (b)").scan();
+        assertSame(Symbol.ASSIGN.getText(), buffer.text(1));
+        assertSame(Symbol.LPAREN.getText(), buffer.text(2));
+    }
+
+    @Test
+    void testBufferEquivalenteALista() {
+        String code = Programs.generate(20);
+        TokenBuffer buffer = new Lexer(code).scan();
+        List<Token> tokens = new Lexer(code).tokenize();
+
+        assertEquals(tokens.toString(), buffer.toTokens().toString());
+        assertEquals(tokens.toString(), TokenBuffer.of(tokens).toTokens().toString());
+    }
+
+    @Test
+    void testParserAceitaBuffer() {
+        String code = Programs.generate(5);
+        ASTNode viaBuffer = new Parser(new Lexer(code).scan()).parseProgram();
+        ASTNode viaLista = new Parser(new Lexer(code).tokenize()).parseProgram();
+
+        assertEquals(dump(viaLista), dump(viaBuffer));
+    }
+
+    private String dump(ASTNode node) {
+        StringBuilder sb = new StringBuilder(node.toString());
+        for (ASTNode child : node.getChildren()) sb.append(' ').append(dump(child));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package minipar.lexer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenEditorTest {
+
+    private String fonte;
+
+    private void editar(TokenEditor editor, int offset, int removidos, String inserido) {
+        fonte = fonte.substring(0, offset) + inserido + fonte.substring(offset + removidos);
+        editor.edit(offset, removidos, inserido.length(), fonte);
+    }
+
+    @Test
+    void testTokenInvalidoNaoDesligaAEdicao() {
+        fonte = "programa_minipar\nSEQ\nx = 1\n";
+        TokenEditor editor = new TokenEditor(new Lexer(fonte).scan());
+
+        // Digitando print("oi") um caractere por vez: a string fica aberta no meio do caminho
+        int offset = fonte.length();
+        for (char c : "print(\"oi\")\n".toCharArray()) {
+            editar(editor, offset++, 0, String.valueOf(c));
+        }
+        assertEquals(new Lexer(fonte).tokenize().toString(), editor.tokens().toTokens().toString());
+
+        // '!' sozinho e depois '!=' em outra linha, com uma edição antes do trecho pendente
+        editar(editor, fonte.indexOf("x = 1") + 4, 0, "!");
+        assertNull(editor.tokens());
+        editar(editor, 0, 0, "# inicio\n");
+        assertNull(editor.tokens());
+        editar(editor, fonte.indexOf('!') + 1, 0, "=");
+        assertEquals(fonte, editor.tokens().getSource().toString());
+        assertEquals(new Lexer(fonte).tokenize().toString(), editor.tokens().toTokens().toString());
+    }
+
+    @Test
+    void testEdicoesAleatoriasIguaisAAnaliseCompleta() {
+        Random random = new Random(7);
+        fonte = "programa_minipar\nSEQ\nx = 1\n";
+        TokenEditor editor = new TokenEditor(new Lexer(fonte).scan());
+        String[] trechos = {"", "x", " = 1", "\n", "\"", "!", "print(\"a b\")", "while y < 2 {\n", "-3.5", "}\n"};
+
+        for (int i = 0; i < 500; i++) {
+            int offset = random.nextInt(fonte.length() + 1);
+            int removidos = Math.min(random.nextInt(6), fonte.length() - offset);
+            editar(editor, offset, removidos, trechos[random.nextInt(trechos.length)]);
+            String esperado;
+            try {
+                esperado = new Lexer(fonte).tokenize().toString();
+            } catch (RuntimeException e) {
+                assertNull(editor.tokens());
+                continue;
+            }
+            assertNotNull(editor.tokens());
+            assertEquals(esperado, editor.tokens().toTokens().toString());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package minipar.opt;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.NodeKind;
+import minipar.parser.Operator;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizerTest {
+
+    private ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    private String executar(ASTNode ast, Map<String, Object> memoria) {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            Interpreter interpreter = new Interpreter();
+            interpreter.execute(ast);
+            memoria.putAll(interpreter.getMemory());
+        } finally {
+            System.setOut(originalOut);
+        }
+        return out.toString();
+    }
+
+    // Mesma saída e mesma memória com e sem otimização (as temporárias não aparecem); devolve o otimizador
+    private Optimizer assertMesmoResultado(String code) {
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaOriginal = executar(parse(code), esperado);
+        Optimizer optimizer = new Optimizer();
+        String saidaOtimizada = executar(optimizer.optimize(parse(code)), obtido);
+        assertEquals(saidaOriginal, saidaOtimizada);
+        assertEquals(esperado, obtido);
+        return optimizer;
+    }
+
+    private static List<ASTNode> instrucoes(ASTNode ast) {
+        return ast.getChildren().get(0).getChildren();
+    }
+
+    @Test
+    void testDobraConstantes() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 2 + 3 * 4
+            y = 7 / 0
+            z = (1 < 2) + 2 ^ 10 - 0.5
+            w = 0 * (0 - 3)
+            print(x, y, z, w, 1 / 3)
+            """;
+        ASTNode ast = new Optimizer().optimize(parse(code));
+        ASTNode valor = instrucoes(ast).get(0).getChildren().get(1);
+        assertEquals(NodeKind.VALOR, valor.getKind());
+        assertEquals(14.0, valor.getNumber());
+        assertEquals(1024.5, instrucoes(ast).get(2).getChildren().get(1).getNumber());
+
+        Optimizer optimizer = assertMesmoResultado(code);
+        assertEquals(10, optimizer.getFolded());
+    }
+
+    @Test
+    void testDobraInteirosComoInteiros() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 2 ^ 62 + 1
+            y = x - 2 ^ 62
+            z = 7 / 2 + 17 % 5
+            w = 0 % (0 - 3)
+            print(y, z, w)
+            """;
+        ASTNode ast = new Optimizer().optimize(parse(code));
+        ASTNode valor = instrucoes(ast).get(0).getChildren().get(1);
+        assertTrue(valor.isInteger());
+        assertEquals(4611686018427387905L, valor.getInteger());
+        ASTNode fracao = instrucoes(ast).get(2).getChildren().get(1);
+        assertFalse(fracao.isInteger());
+        assertEquals(5.5, fracao.getNumber());
+
+        assertMesmoResultado(code);
+    }
+
+    @Test
+    void testRemoveRamosMortos() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 1
+            if 2 > 1 {
+                x = 10
+                print("então")
+            } else {
+                x = 20
+            }
+            if 1 + 1 != 2 {
+                print("nunca")
+            }
+            while 3 < 1 {
+                x = 30
+            }
+            def f(v) {
+                if 0 == 0 {
+                    return v * 2
+                }
+                return 0
+            }
+            y = f(x)
+            """;
+        ASTNode ast = new Optimizer().optimize(parse(code));
+        List<ASTNode> stmts = instrucoes(ast);
+        assertTrue(stmts.stream().noneMatch(s -> s.getKind() == NodeKind.IF || s.getKind() == NodeKind.WHILE));
+        assertEquals(NodeKind.ATRIBUICAO, stmts.get(1).getKind());
+        assertEquals(NodeKind.PRINT, stmts.get(2).getKind());
+
+        Optimizer optimizer = assertMesmoResultado(code);
+        assertEquals(4, optimizer.getEliminated());
+    }
+
+    @Test
+    void testQuadradoViraMultiplicacao() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 1.1
+            y = x ^ 2
+            z = x ^ 3
+            print(y, z, naoExiste ^ 2, x ^ 2 + 1)
+            """;
+        ASTNode ast = new Optimizer().optimize(parse(code));
+        ASTNode quadrado = instrucoes(ast).get(1).getChildren().get(1);
+        assertEquals(Operator.MUL, quadrado.getOperator());
+        assertEquals(Operator.POW, instrucoes(ast).get(2).getChildren().get(1).getOperator());
+
+        Optimizer optimizer = assertMesmoResultado(code);
+        assertEquals(2, optimizer.getReduced()); // y e o x ^ 2 dentro da soma
+    }
+
+    @Test
+    void testSobeInvariantesDosLacos() {
+        String code = """
+            programa_minipar
+            SEQ
+            a = 3
+            b = 0.5
+            total = 0
+            i = 0
+            while i < a * 4 {
+                total = total + a * b + i
+                i = i + 1
+            }
+            def soma(n, passo) {
+                s = 0
+                for k = 1 to n {
+                    s = s + k * (passo + 1)
+                }
+                return s
+            }
+            r = soma(10, 2)
+            print(total, r)
+            """;
+        ASTNode ast = new Optimizer().optimize(parse(code));
+        List<ASTNode> stmts = instrucoes(ast);
+        assertEquals(LoopInvariantHoister.TEMP_PREFIX + "0", stmts.get(4).getChildren().get(0).getValue());
+        assertEquals(NodeKind.WHILE, stmts.get(6).getKind());
+
+        Optimizer optimizer = assertMesmoResultado(code);
+        assertEquals(3, optimizer.getHoisted());
+
+        for (boolean closures : new boolean[]{false, true}) {
+            Interpreter interpreter = new Interpreter(ModuleRegistry.shared(), closures);
+            PrintStream originalOut = System.out;
+            System.setOut(new PrintStream(new ByteArrayOutputStream()));
+            try {
+                interpreter.execute(new Optimizer().optimize(parse(code)));
+            } finally {
+                System.setOut(originalOut);
+            }
+            String temp = LoopInvariantHoister.TEMP_PREFIX + "0";
+            assertNull(interpreter.getMemory().get(temp));
+            assertFalse(interpreter.getMemory().keySet().stream().anyMatch(nome -> nome.startsWith("$")));
+            assertFalse(interpreter.getSymbolTable().isDeclared(temp));
+            assertEquals(3.0, interpreter.getMemory().get("a"));
+        }
+    }
+
+    @Test
+    void testNaoSobeOQuePodeFalharOuMudar() {
+        // Variável talvez não declarada, lista, variável atribuída no laço e PAR ficam como estão
+        Optimizer optimizer = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            n = 0
+            if n > 9 {
+                talvez = 1
+            }
+            l = [1, 2]
+            while n > 5 {
+                x = talvez * 2
+                y = l * 2
+            }
+            m = 1
+            for i = 1 to 3 {
+                m = m * 2
+                z = m + 1
+            }
+            """);
+        assertEquals(0, optimizer.getHoisted());
+
+        Optimizer paralelo = new Optimizer();
+        paralelo.optimize(parse("""
+            programa_minipar
+            SEQ
+            a = 2
+            PAR
+            SEQ
+            for i = 1 to 3 {
+                x = a * 2
+            }
+            """));
+        assertEquals(0, paralelo.getHoisted());
+    }
+}
@@ -0,0 +1,126 @@
+package minipar.parser;
+
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatASTTest {
+
+    private ASTNode parse(String code) {
+        return new Parser(new Lexer(code).scan()).parseProgram();
+    }
+
+    private void assertSameTree(Node expected, Node actual) {
+        assertEquals(expected.getKind(), actual.getKind());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(expected.getOperator(), actual.getOperator());
+        assertEquals(expected.isNumber(), actual.isNumber());
+        assertEquals(expected.getNumber(), actual.getNumber());
+        assertEquals(expected.isString(), actual.isString());
+        assertEquals(expected.getLine(), actual.getLine());
+
+        List<? extends Node> expectedChildren = expected.getChildren();
+        List<? extends Node> actualChildren = actual.getChildren();
+        assertEquals(expectedChildren.size(), actualChildren.size());
+        for (int i = 0; i < expectedChildren.size(); i++) {
+            assertSameTree(expectedChildren.get(i), actualChildren.get(i));
+        }
+    }
+
+    @Test
+    void testEstruturaIgualAoGrafoNosProgramasDeExemplo() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of("programs"))) {
+            for (Path file : files.filter(p -> p.toString().endsWith(".mpr")).toList()) {
+                ASTNode ast = parse(Files.readString(file));
+                FlatAST flat = FlatAST.from(ast);
+                assertEquals(FlatAST.countNodes(ast), flat.size(), file.toString());
+                assertSameTree(ast, flat.root());
+            }
+        }
+    }
+
+    @Test
+    void testCursorPorIndice() {
+        ASTNode ast = parse("""
+            programa_minipar
+            SEQ
+            x = 1 + 2
+            c.foo(x)
+            """);
+        FlatAST flat = FlatAST.from(ast);
+
+        int seq = flat.firstChild(flat.rootId());
+        assertEquals(NodeKind.SEQ, flat.kind(seq));
+        assertEquals(2, flat.line(seq));
+        assertEquals(2, flat.childCount(seq));
+
+        int atrib = flat.firstChild(seq);
+        assertEquals(NodeKind.ATRIBUICAO, flat.kind(atrib));
+        int soma = flat.nextSibling(flat.firstChild(atrib));
+        assertEquals(Operator.ADD, flat.operator(soma));
+        assertEquals(2.0, flat.number(flat.nextSibling(flat.firstChild(soma))));
+
+        int canal = flat.nextSibling(atrib);
+        assertEquals(NodeKind.DESCONHECIDO, flat.kind(canal));
+        assertEquals("foo", flat.type(canal));
+        assertEquals(-1, flat.nextSibling(canal));
+    }
+
+    @Test
+    void testInterpretacaoSobreAstAchatada() {
+        String code = """
+            programa_minipar
+            SEQ
+            def dobro(n) {
+                return n * 2
+            }
+            lista = [1, 2, 3]
+            total = 0
+            for i = 1 to 4 {
+                total = total + dobro(i)
+            }
+            while total < 100 {
+                total = total * 2
+            }
+            if total >= 100 {
+                maior = 1
+            } else {
+                maior = 0
+            }
+            """;
+        ASTNode ast = parse(code);
+        Node flat = FlatAST.from(ast).root();
+
+        new SemanticAnalyzer().analyze(flat);
+        Interpreter graphInterpreter = new Interpreter();
+        graphInterpreter.execute(ast);
+        Interpreter flatInterpreter = new Interpreter();
+        flatInterpreter.execute(flat);
+
+        assertEquals(graphInterpreter.getMemory(), flatInterpreter.getMemory());
+        assertEquals(160.0, flatInterpreter.getMemory().get("total"));
+    }
+
+    @Test
+    void testCompactSoAchataArvoresGrandes() {
+        ASTNode small = parse("programa_minipar\nSEQ\nx = 1\n");
+        assertSame(small, FlatAST.compact(small));
+
+        StringBuilder code = new StringBuilder("programa_minipar\nSEQ\n");
+        for (int i = 0; i < FlatAST.COMPACT_THRESHOLD / 4; i++) code.append("x = ").append(i).append(" + 1\n");
+        ASTNode large = parse(code.toString());
+        Node compacted = FlatAST.compact(large);
+        assertNotSame(large, compacted);
+        assertSameTree(large, compacted);
+    }
+}
@@ -96,4 +96,46 @@ class ParserTest {
         System.out.println(exception);
         assertTrue(exception.getMessage().contains("Atribuição inválida ou comando desconhecido após"));
     }
+
+    @Test
+    void testNosTipadosComOperadorENumeroDecodificados() {
+        String code = """
+            programa_minipar
+            SEQ
+            x = 2.5 * y - 3
+            if (x >= 1) {
+                c.send(x)
+            }
+            """;
+
+        ASTNode seq = new Parser(tokenize(code)).parseProgram().getChildren().get(0);
+        assertEquals(NodeKind.SEQ, seq.getKind());
+
+        ASTNode atrib = seq.getChildren().get(0);
+        assertEquals(NodeKind.ATRIBUICAO, atrib.getKind());
+        ASTNode sub = atrib.getChildren().get(1);
+        assertEquals(NodeKind.BIN_OP, sub.getKind());
+        assertEquals(Operator.SUB, sub.getOperator());
+        assertEquals("BinOp", sub.getType());
+        assertEquals("-", sub.getValue());
+
+        ASTNode mul = sub.getChildren().get(0);
+        assertEquals(Operator.MUL, mul.getOperator());
+        assertTrue(mul.getChildren().get(0).isNumber());
+        assertEquals(2.5, mul.getChildren().get(0).getNumber());
+        assertFalse(mul.getChildren().get(1).isNumber());
+        assertFalse(mul.getChildren().get(1).isString());
+        assertTrue(mul.getChildren().get(1).isVariable());
+        assertFalse(mul.getChildren().get(0).isVariable());
+        assertEquals(3.0, sub.getChildren().get(1).getNumber());
+
+        ASTNode cond = seq.getChildren().get(1);
+        assertEquals(NodeKind.IF, cond.getKind());
+        assertEquals(Operator.GE, cond.getChildren().get(0).getOperator());
+        assertTrue(cond.getChildren().get(0).getOperator().isComparison());
+
+        ASTNode send = cond.getChildren().get(1).getChildren().get(0);
+        assertEquals(NodeKind.SEND, send.getKind());
+        assertEquals("send", send.getType());
+    }
 }
@@ -0,0 +1,162 @@
+package minipar.semantic;
+
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.FlatAST;
+import minipar.parser.Node;
+import minipar.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolverTest {
+
+    private ASTNode parse(String code) {
+        return new Parser(new Lexer(code).scan()).parseProgram();
+    }
+
+    private static final String CODIGO = """
+            programa_minipar
+            SEQ
+            def f(n) {
+                return n + 1
+            }
+            x = 1
+            lista = [x, 2]
+            lista[0] = x * 3
+            for i = 1 to 3 {
+                x = x + i
+            }
+            print("fim", x)
+            """;
+
+    @Test
+    void testMesmoNomeMesmoSlot() {
+        ASTNode ast = parse(CODIGO);
+        Resolver resolver = new Resolver();
+        resolver.resolve(ast);
+        List<ASTNode> stmts = ast.getChildren().get(0).getChildren();
+
+        Node param = stmts.get(0).getChildren().get(0);
+        assertEquals(Resolver.LOCAL, param.getSlot()); // primeiro local da função
+        assertTrue(Resolver.isLocal(param.getSlot()));
+        Node retorno = stmts.get(0).getChildren().get(1).getChildren().get(0).getChildren().get(0);
+        assertEquals(param.getSlot(), retorno.getChildren().get(0).getSlot());
+
+        int x = resolver.slotOf("x");
+        assertEquals(x, stmts.get(1).getChildren().get(0).getSlot());
+        assertEquals(x, stmts.get(2).getChildren().get(1).getChildren().get(0).getSlot());
+        assertEquals(resolver.slotOf("lista"), stmts.get(3).getSlot());
+        assertEquals(resolver.slotOf("i"), stmts.get(4).getSlot());
+        assertEquals("x", resolver.nameOf(x));
+    }
+
+    @Test
+    void testLiteraisNaoRecebemSlot() {
+        ASTNode ast = parse(CODIGO);
+        Resolver resolver = new Resolver();
+        resolver.resolve(ast);
+        List<ASTNode> stmts = ast.getChildren().get(0).getChildren();
+
+        assertEquals(-1, stmts.get(1).getChildren().get(1).getSlot()); // 1
+        Node print = stmts.get(5);
+        assertEquals(-1, print.getChildren().get(0).getSlot()); // "fim"
+        assertEquals(resolver.slotOf("x"), print.getChildren().get(1).getSlot());
+        assertEquals(-1, print.getSlot());
+    }
+
+    @Test
+    void testResolveAstAchatada() {
+        Node flat = FlatAST.from(parse(CODIGO)).root();
+        Resolver resolver = new Resolver();
+        resolver.resolve(flat);
+        Node atribuicao = flat.getChildren().get(0).getChildren().get(1);
+        assertEquals(resolver.slotOf("x"), atribuicao.getChildren().get(0).getSlot());
+        assertEquals(-1, resolver.findSlot("nome_que_nunca_apareceu"));
+    }
+
+    @Test
+    void testLocaisDeFuncaoNumeradosPorFuncao() {
+        ASTNode ast = parse("""
+            programa_minipar
+            SEQ
+            total = 1
+            def f(a, b) {
+                soma = a + b + total
+                if soma > 10 {
+                    grande = 1
+                }
+                return soma
+            }
+            def g(c) {
+                total = c
+                return total
+            }
+            """);
+        Resolver resolver = new Resolver();
+        resolver.resolve(ast);
+        List<ASTNode> stmts = ast.getChildren().get(0).getChildren();
+
+        ASTNode f = stmts.get(1);
+        Node soma = f.getChildren().get(2).getChildren().get(0);
+        assertEquals(Resolver.LOCAL | 2, soma.getChildren().get(0).getSlot()); // a, b, soma
+        Node leitura = soma.getChildren().get(1);
+        assertEquals(Resolver.LOCAL, leitura.getChildren().get(0).getChildren().get(0).getSlot()); // a
+        assertEquals(resolver.slotOf("total"), leitura.getChildren().get(1).getSlot()); // global: não é atribuído em f
+        Node grande = f.getChildren().get(2).getChildren().get(1).getChildren().get(1).getChildren().get(0);
+        assertEquals(Resolver.LOCAL | 3, grande.getChildren().get(0).getSlot());
+
+        ASTNode g = stmts.get(2);
+        Node atribuicao = g.getChildren().get(1).getChildren().get(0);
+        assertEquals(Resolver.LOCAL | 1, atribuicao.getChildren().get(0).getSlot()); // c, total
+        assertEquals(Resolver.localIndex(Resolver.LOCAL | 1), 1);
+    }
+
+    @Test
+    void testNumeracaoPorPrograma() {
+        ASTNode ast = parse(CODIGO);
+        Resolver primeiro = new Resolver();
+        primeiro.resolve(ast);
+
+        // Outro programa começa a própria numeração e não vê os nomes do primeiro
+        Resolver segundo = new Resolver();
+        ASTNode outro = parse("""
+            programa_minipar
+            SEQ
+            y = f(2)
+            """);
+        segundo.resolve(outro);
+        Node atribuicao = outro.getChildren().get(0).getChildren().get(0);
+        assertEquals(0, atribuicao.getChildren().get(0).getSlot()); // y
+        assertEquals(0, atribuicao.getChildren().get(1).getSlot()); // primeiro call site
+        assertEquals(-1, segundo.findSlot("x"));
+        assertEquals(1, segundo.slotCount());
+
+        // A mesma árvore resolvida de novo por uma instância nova recebe os mesmos números
+        int x = primeiro.slotOf("x");
+        new Resolver().resolve(ast);
+        assertEquals(x, ast.getChildren().get(0).getChildren().get(1).getChildren().get(0).getSlot());
+    }
+
+    @Test
+    void testCopiaTemSlotsProprios() {
+        for (Node original : List.of(parse(CODIGO), FlatAST.from(parse(CODIGO)).root())) {
+            new Resolver().resolve(original);
+            Node x = original.getChildren().get(0).getChildren().get(1).getChildren().get(0);
+            int slot = x.getSlot();
+
+            Node copia = original.copy();
+            Node xCopia = copia.getChildren().get(0).getChildren().get(1).getChildren().get(0);
+            assertEquals("x", xCopia.getValue());
+            assertEquals(-1, xCopia.getSlot());
+            Resolver outro = new Resolver();
+            outro.slotOf("antes");
+            outro.resolve(copia);
+            assertEquals(outro.slotOf("x"), xCopia.getSlot());
+            assertNotEquals(slot, xCopia.getSlot());
+            assertEquals(slot, x.getSlot());
+        }
+    }
+}
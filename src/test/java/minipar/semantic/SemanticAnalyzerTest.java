@@ -50,6 +50,28 @@ class SemanticAnalyzerTest {
         assertTrue(e.getMessage().contains("Variável não declarada"));
     }
 
+    @Test
+    void testLiteraisDecodificadosNoPrintENoSend() {
+        // Decimais e strings são literais pelo nó, sem casar o texto com regex
+        String code = """
+            programa_minipar
+            SEQ
+            c_channel calc c1 c2
+            print(2.5)
+            print("ola")
+            calc.send(0.5)
+            """;
+        new SemanticAnalyzer().analyze(gerarAST(code));
+
+        String naoDeclarada = """
+            programa_minipar
+            SEQ
+            print(talvez)
+            """;
+        Exception e = assertThrows(RuntimeException.class, () -> new SemanticAnalyzer().analyze(gerarAST(naoDeclarada)));
+        assertTrue(e.getMessage().contains("talvez"));
+    }
+
     @Test
     void testCanalValido() {
         String code = """
@@ -80,4 +102,36 @@ class SemanticAnalyzerTest {
         Exception e = assertThrows(RuntimeException.class, () -> analyzer.analyze(gerarAST(code)));
         assertTrue(e.getMessage().contains("ja declarado"));
     }
+
+    @Test
+    void testLigaChamadasDeNativas() {
+        ASTNode ast = gerarAST("""
+            programa_minipar
+            SEQ
+            x = sqrt(16) + soma([1, 2])
+            y = abs(1, 2)
+            z = floor(2.5)
+            def floor(v) {
+                return v
+            }
+            """);
+        new SemanticAnalyzer().analyze(ast);
+        new Resolver().resolve(ast);
+        IntrinsicResolver nativas = new IntrinsicResolver();
+        nativas.resolve(ast);
+
+        List<ASTNode> stmts = ast.getChildren().get(0).getChildren();
+        ASTNode conta = stmts.get(0).getChildren().get(1);
+        assertEquals("sqrt", nativas.boundAt(conta.getChildren().get(0).getSlot()).name());
+        assertEquals("soma", nativas.boundAt(conta.getChildren().get(1).getSlot()).name());
+        // aridade diferente da nativa e nome com def no programa ficam para a resolução pelo nome
+        assertNull(nativas.boundAt(stmts.get(1).getChildren().get(1).getSlot()));
+        assertNull(nativas.boundAt(stmts.get(2).getChildren().get(1).getSlot()));
+        assertTrue(nativas.isBound("sqrt"));
+
+        // As ligações são do programa: outra instância não vê nenhuma
+        IntrinsicResolver outro = new IntrinsicResolver();
+        assertNull(outro.boundAt(conta.getChildren().get(0).getSlot()));
+        assertFalse(outro.isBound("sqrt"));
+    }
 }
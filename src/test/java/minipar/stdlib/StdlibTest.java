@@ -0,0 +1,96 @@
+package minipar.stdlib;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StdlibTest {
+
+    private Object executar(boolean closures, String code, String variavel) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+            new SemanticAnalyzer().analyze(ast);
+            Interpreter interpreter = new Interpreter(ModuleRegistry.shared(), closures);
+            interpreter.execute(ast);
+            return interpreter.getMemory().get(variavel);
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Test
+    public void testNativasPadraoRegistradas() {
+        for (String nome : new String[]{"sqrt", "pow", "soma", "dot", "len", "append", "slice", "tempo"}) {
+            assertNotNull(Stdlib.find(nome));
+        }
+        assertNull(Stdlib.find("naoExiste"));
+        assertEquals(2, Stdlib.find("pow").arity());
+        assertEquals(3, Stdlib.find("slice").arity());
+        assertEquals(0, Stdlib.find("tempo").arity());
+    }
+
+    @Test
+    public void testRegistroDuplicado() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> Stdlib.register(new Intrinsic.Unary("sqrt", x -> x)));
+        assertEquals("Função nativa já registrada: sqrt", e.getMessage());
+    }
+
+    @Test
+    public void testBibliotecaInstaladaFicaVisivelAosProgramas() {
+        Stdlib.install(() -> List.of(
+                new Intrinsic.Unary("dobroNativo", x -> 2 * x),
+                new Intrinsic.ListToNumber("primeiroNativo", 1, 0, (l, n) -> l[0].doubles()[0])));
+        for (boolean closures : new boolean[]{false, true}) {
+            assertEquals(10.0, executar(closures, """
+                programa_minipar
+                SEQ
+                x = dobroNativo(5)
+                """, "x"));
+            assertEquals(3.0, executar(closures, """
+                programa_minipar
+                SEQ
+                l = [3, 4]
+                x = primeiroNativo(l)
+                """, "x"));
+        }
+    }
+
+    @Test
+    public void testRound() {
+        assertEquals(3.0, MathLibrary.round(2.5));
+        assertEquals(-2.0, MathLibrary.round(-2.5));
+        assertEquals(2.0, MathLibrary.round(2.49));
+        assertEquals(1e300, MathLibrary.round(1e300));
+    }
+
+    @Test
+    public void testKernelsVetoriaisIguaisAosEscalares() {
+        for (int n : new int[]{1, 2, 3, 7, 8, 9, 17, 1000}) {
+            double[] a = new double[n];
+            double[] b = new double[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = (i * 37) % 101 - 50;
+                b[i] = (i * 13) % 17;
+            }
+            assertEquals(ListKernels.Scalar.sum(a, n), ListKernels.sum(a, n));
+            assertEquals(ListKernels.Scalar.dot(a, b, n), ListKernels.dot(a, b, n));
+            assertEquals(ListKernels.Scalar.max(a, n), ListKernels.max(a, n));
+            assertEquals(ListKernels.Scalar.min(a, n), ListKernels.min(a, n));
+            assertArrayEquals(ListKernels.Scalar.add(a, b, n), ListKernels.add(a, b, n));
+            assertArrayEquals(ListKernels.Scalar.scale(a, 0.25, n), ListKernels.scale(a, 0.25, n));
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package minipar.vm;
+
+import minipar.cache.ModuleRegistry;
+import minipar.interpreter.Engine;
+import minipar.interpreter.Interpreter;
+import minipar.lexer.Lexer;
+import minipar.parser.ASTNode;
+import minipar.parser.Parser;
+import minipar.semantic.Resolver;
+import minipar.semantic.SemanticAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualMachineTest {
+
+    private ASTNode parse(String code) {
+        ASTNode ast = new Parser(new Lexer(code).scan()).parseProgram();
+        new SemanticAnalyzer().analyze(ast);
+        return ast;
+    }
+
+    // Executa no motor e devolve a saída; a memória final fica em memoria
+    private String executar(Engine engine, String code, Map<String, Object> memoria) {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            engine.execute(parse(code));
+        } finally {
+            System.setOut(originalOut);
+        }
+        memoria.putAll(engine.getMemory());
+        return out.toString();
+    }
+
+    private VirtualMachine assertMesmoResultado(String code) {
+        Map<String, Object> esperado = new HashMap<>();
+        Map<String, Object> obtido = new HashMap<>();
+        String saidaArvore = executar(new Interpreter(), code, esperado);
+        VirtualMachine vm = new VirtualMachine();
+        String saidaVm = executar(vm, code, obtido);
+        assertEquals(saidaArvore, saidaVm);
+        assertEquals(esperado, obtido);
+        return vm;
+    }
+
+    private String erro(Engine engine, String code) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            return assertThrows(RuntimeException.class, () -> engine.execute(parse(code))).getMessage();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Test
+    void testLacoECondicionais() {
+        VirtualMachine vm = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            i = 0
+            soma = 0
+            peso = 0.5
+            while i < 50 {
+                soma = soma + (i * peso) - 1
+                if soma > 100 {
+                    soma = soma / 2
+                } else {
+                    soma = soma + 2 ^ 2
+                }
+                i = i + 1
+            }
+            igual = soma == soma
+            print("soma", soma, igual)
+            """);
+        assertNotNull(vm.getProgram());
+    }
+
+    @Test
+    void testRestoDaDivisao() {
+        VirtualMachine vm = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pares = 0
+            for i = 1 to 30 {
+                if i % 2 == 0 {
+                    pares = pares + 1
+                }
+            }
+            r = 7.5 % 2
+            z = 5 % 0
+            n = (0 - 4) % 2
+            print(pares, r, z, n)
+            """);
+        assertNotNull(vm.getProgram());
+    }
+
+    @Test
+    void testInteirosAlemDe2a53SoSaoExatosNoInterpretador() {
+        // O interpretador (árvore e closures) faz conta de inteiros em long; a VM fica em double, então
+        // acima de 2^53 os resultados diferem. Este teste fixa a diferença
+        String code = """
+            programa_minipar
+            SEQ
+            big = 9007199254740993
+            big2 = big + 1
+            print(big2)
+            """;
+        Map<String, Object> arvore = new HashMap<>();
+        Map<String, Object> closures = new HashMap<>();
+        Map<String, Object> naVm = new HashMap<>();
+        String saidaArvore = executar(new Interpreter(), code, arvore);
+        assertEquals(saidaArvore, executar(new Interpreter(ModuleRegistry.shared(), true), code, closures));
+        assertEquals(arvore, closures);
+        assertEquals(9007199254740994.0, arvore.get("big2"));
+
+        VirtualMachine vm = new VirtualMachine();
+        String saidaVm = executar(vm, code, naVm);
+        assertNotNull(vm.getProgram());
+        assertEquals(9007199254740992.0, naVm.get("big2"));
+        assertNotEquals(saidaArvore, saidaVm);
+    }
+
+    @Test
+    void testLeituraPorIndice() {
+        VirtualMachine vm = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3, 4]
+            entradas = [0.5, 1.5, 2.5, 3.5]
+            def escalar(n) {
+                locais = [2, 4, 6]
+                s = 0
+                for k = 0 to n {
+                    s = s + locais[k] * pesos[k]
+                }
+                return s
+            }
+            soma = 0
+            for i = 0 to 3 {
+                soma = soma + pesos[i] * entradas[3 - i]
+                pesos[i] = pesos[i] + 1
+            }
+            r = escalar(2)
+            print(soma, r, pesos[0], entradas[1 + 1])
+            """);
+        assertNotNull(vm.getProgram());
+        assertEquals("Índice fora dos limites da lista", erro(new VirtualMachine(), """
+            programa_minipar
+            SEQ
+            l = [1]
+            x = l[1]
+            """));
+    }
+
+    @Test
+    void testFuncoesRecursaoERetornoEmLaco() {
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            n = 99
+            base = 10
+            def fib(n) {
+                if n < 2 {
+                    return n
+                }
+                return fib(n - 1) + fib(n - 2)
+            }
+            def soma(v) {
+                if v > 100 {
+                    base = 0
+                }
+                return base + v
+            }
+            def primeiroMaior(limite) {
+                for k = 0 to 100 {
+                    if k > limite {
+                        return k
+                    }
+                }
+                return 0
+            }
+            def nada() {
+                x = 1
+            }
+            r = fib(12)
+            s = soma(5)
+            p = primeiroMaior(7)
+            z = nada()
+            print(r, s, p, z, n)
+            """);
+    }
+
+    @Test
+    void testForListasEPrint() {
+        assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            lista = [1, 2, 3]
+            for i = 0 to 2 {
+                lista[i] = i * 2
+            }
+            valores = [0, 0]
+            valores[1] = 7
+            print("lista:", lista, valores, naoExiste, 1 / 0)
+            x = "eco"
+            """);
+    }
+
+    @Test
+    void testMesmosErros() {
+        String semFuncao = """
+            programa_minipar
+            SEQ
+            x = f(1)
+            """;
+        assertEquals(erro(new Interpreter(), semFuncao), erro(new VirtualMachine(), semFuncao));
+
+        String aridade = """
+            programa_minipar
+            SEQ
+            def f(a, b) {
+                return a + b
+            }
+            x = f(1)
+            """;
+        assertEquals(erro(new Interpreter(), aridade), erro(new VirtualMachine(), aridade));
+
+        String indice = """
+            programa_minipar
+            SEQ
+            lista = [1]
+            lista[3] = 2
+            """;
+        assertEquals("Índice fora dos limites da lista", erro(new VirtualMachine(), indice));
+    }
+
+    @Test
+    void testCanaisCaemNoInterpretador() {
+        // A porta do canal muda a cada declaração, então só a memória é comparada aqui
+        VirtualMachine vm = new VirtualMachine();
+        String saida = executar(vm, """
+            programa_minipar
+            SEQ
+            c_channel canal a b
+            x = 1
+            """, new HashMap<>());
+        assertTrue(saida.contains("Canal criado: canal entre a e b"));
+        assertNull(vm.getProgram());
+        assertEquals(1.0, vm.getMemory().get("x"));
+    }
+
+    @Test
+    void testNativaMatematicaNaVm() {
+        VirtualMachine vm = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            def norma(x, y) {
+                return sqrt(x * x + y * y)
+            }
+            total = 0
+            for i = 1 to 4 {
+                total = total + norma(3 * i, 4 * i) + floor(0.5 * i)
+            }
+            """);
+        assertNotNull(vm.getProgram());
+        assertEquals(54.0, vm.getMemory().get("total"));
+    }
+
+    @Test
+    void testNativaDeListaCaiNoInterpretador() {
+        VirtualMachine vm = assertMesmoResultado("""
+            programa_minipar
+            SEQ
+            pesos = [1, 2, 3]
+            s = soma(pesos) + sqrt(4)
+            """);
+        assertNull(vm.getProgram());
+        assertEquals(8.0, vm.getMemory().get("s"));
+    }
+
+    @Test
+    void testLacoCompiladoParaTesteESalto() {
+        VirtualMachine vm = new VirtualMachine();
+        executar(vm, """
+            programa_minipar
+            SEQ
+            i = 0
+            while i < 10 {
+                i = i + 1
+            }
+            """, new HashMap<>());
+        Program program = vm.getProgram();
+        String listagem = program.disassemble(program.getMain());
+        assertTrue(listagem.contains("TEST_LT"), listagem);
+        assertTrue(listagem.contains("JMP"), listagem);
+        assertEquals(Opcode.TRACE, program.getMain().opcodeAt(0));
+        assertEquals(10, vm.getMemory().get("i") instanceof Double d ? d.intValue() : -1);
+    }
+
+    @Test
+    void testProgramasQueRodamNaVm() throws Exception {
+        // Exemplos do repositório: canais e PAR ainda não têm instruções e ficam no interpretador
+        Map<String, Boolean> exemplos = Map.of("test1.mpr", false, "test2.mpr", false, "test3.mpr", true,
+                "test4.mpr", true, "test5.mpr", true, "test6.mpr", true);
+        for (Map.Entry<String, Boolean> exemplo : exemplos.entrySet()) {
+            String code = Files.readString(Path.of("programs", exemplo.getKey()));
+            assertEquals(exemplo.getValue(), compila(code), exemplo.getKey());
+        }
+        assertTrue(compila("""
+            programa_minipar
+            SEQ
+            def f(v) {
+                return sqrt(v) + floor(v)
+            }
+            l = [1, 2]
+            l[0] = f(4)
+            print(l[0])
+            """));
+        assertFalse(compila("""
+            programa_minipar
+            SEQ
+            l = [1, 2]
+            s = soma(l)
+            """));
+        Path modulo = Files.createTempFile("modulo", ".mpr");
+        Files.writeString(modulo, """
+            programa_minipar
+            SEQ
+            a = 5
+            """);
+        assertFalse(compila("""
+            programa_minipar
+            SEQ
+            import "%s"
+            """.formatted(modulo.toAbsolutePath().toString().replace("\\", "\\\\"))));
+    }
+
+    private boolean compila(String code) {
+        ASTNode ast = parse(code);
+        Resolver resolver = new Resolver();
+        resolver.resolve(ast);
+        try {
+            new Compiler(resolver).compile(ast);
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void testVmEscolhidaAvisaQuandoCaiNoInterpretador() {
+        String canais = """
+            programa_minipar
+            SEQ
+            c_channel canal a b
+            """;
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err));
+        try {
+            executar(new VirtualMachine(), canais, new HashMap<>());
+            assertEquals("", err.toString());
+            executar(Engine.create("vm"), canais, new HashMap<>());
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertTrue(err.toString().contains("Aviso: Instrução ainda não compilada para a VM: c_channel"), err.toString());
+    }
+
+    @Test
+    void testSelecaoDoMotor() {
+        assertInstanceOf(VirtualMachine.class, Engine.create("vm"));
+        assertInstanceOf(Interpreter.class, Engine.create("tree"));
+        assertThrows(RuntimeException.class, () -> Engine.create("outro"));
+    }
+}